@@ -0,0 +1,159 @@
+package com.gklyphon.easy_pixel_tracking.benchmarks;
+
+import com.gklyphon.easy_pixel_tracking.utils.IpAddresses;
+import org.h2.tools.Server;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the statements Hibernate sends to insert tracking pixels under each id strategy, against in-memory H2
+ * reached either in process or over a loopback TCP connection, where each statement costs a round trip:
+ * <ul>
+ *     <li>{@code IDENTITY}, the mapping before: each row is inserted on its own and its generated key read back;</li>
+ *     <li>{@code POOLED_SEQUENCE}, the mapping now: one {@code NEXT VALUE} call per 50 ids, and the rows sent
+ *     as JDBC batches of 50.</li>
+ * </ul>
+ * Each invocation inserts 100 rows in one transaction, as {@code saveAll} does.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InsertStrategyBenchmark {
+
+	private static final int ROWS = 100;
+	private static final int ALLOCATION_SIZE = 50;
+
+	@Param({"IDENTITY", "POOLED_SEQUENCE"})
+	public String strategy;
+
+	@Param({"mem", "tcp"})
+	public String transport;
+
+	private Server server;
+	private Connection connection;
+	private PreparedStatement insertWithIdentity;
+	private PreparedStatement insertWithId;
+	private PreparedStatement nextBlock;
+	private long nextId;
+	private long blockEnd;
+	private int counter;
+
+	@Setup(Level.Trial)
+	public void setUp() throws SQLException {
+		String database = "mem:insert-" + strategy;
+		if ("tcp".equals(transport)) {
+			server = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+			connection = DriverManager.getConnection("jdbc:h2:tcp://localhost:" + server.getPort() + "/" + database);
+		} else {
+			connection = DriverManager.getConnection("jdbc:h2:" + database);
+		}
+		connection.setAutoCommit(false);
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("CREATE SEQUENCE tracking_pixel_seq START WITH 1 INCREMENT BY " + ALLOCATION_SIZE);
+			statement.execute("CREATE TABLE tracking_pixel (id BIGINT "
+					+ ("IDENTITY".equals(strategy) ? "GENERATED BY DEFAULT AS IDENTITY " : "")
+					+ "PRIMARY KEY, ip_address VARBINARY(16), user_agent_id INT, referer_id INT, "
+					+ "created_at TIMESTAMP(6), updated_at TIMESTAMP(6))");
+		}
+		insertWithIdentity = connection.prepareStatement("INSERT INTO tracking_pixel (ip_address, user_agent_id, "
+				+ "referer_id, created_at, updated_at) VALUES (?, ?, ?, ?, ?)", Statement.RETURN_GENERATED_KEYS);
+		insertWithId = connection.prepareStatement("INSERT INTO tracking_pixel (id, ip_address, user_agent_id, "
+				+ "referer_id, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?)");
+		nextBlock = connection.prepareStatement("SELECT NEXT VALUE FOR tracking_pixel_seq");
+	}
+
+	@Setup(Level.Iteration)
+	public void emptyTable() throws SQLException {
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("TRUNCATE TABLE tracking_pixel");
+		}
+		connection.commit();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws SQLException {
+		connection.close();
+		if (server != null) {
+			server.stop();
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(ROWS)
+	public long insert() throws SQLException {
+		long last = "IDENTITY".equals(strategy) ? insertWithIdentity() : insertPooled();
+		connection.commit();
+		return last;
+	}
+
+	private long insertWithIdentity() throws SQLException {
+		long last = 0;
+		for (int row = 0; row < ROWS; row++) {
+			bind(insertWithIdentity, 1);
+			insertWithIdentity.executeUpdate();
+			try (ResultSet keys = insertWithIdentity.getGeneratedKeys()) {
+				keys.next();
+				last = keys.getLong(1);
+			}
+		}
+		return last;
+	}
+
+	private long insertPooled() throws SQLException {
+		long last = 0;
+		for (int row = 0; row < ROWS; row++) {
+			if (nextId == blockEnd) {
+				// pooled-lo: the sequence value is the first id of the next block.
+				try (ResultSet value = nextBlock.executeQuery()) {
+					value.next();
+					nextId = value.getLong(1);
+					blockEnd = nextId + ALLOCATION_SIZE;
+				}
+			}
+			last = nextId++;
+			insertWithId.setLong(1, last);
+			bind(insertWithId, 2);
+			insertWithId.addBatch();
+			if ((row + 1) % ALLOCATION_SIZE == 0) {
+				insertWithId.executeBatch();
+			}
+		}
+		insertWithId.executeBatch();
+		return last;
+	}
+
+	private void bind(PreparedStatement statement, int first) throws SQLException {
+		int n = counter++;
+		Timestamp now = new Timestamp(System.currentTimeMillis());
+		statement.setBytes(first, IpAddresses.parse("10." + ((n >>> 16) & 0xFF) + "." + ((n >>> 8) & 0xFF) + "."
+				+ (n & 0xFF)));
+		statement.setInt(first + 1, n % 50);
+		statement.setInt(first + 2, n % 500);
+		statement.setTimestamp(first + 3, now);
+		statement.setTimestamp(first + 4, now);
+	}
+}
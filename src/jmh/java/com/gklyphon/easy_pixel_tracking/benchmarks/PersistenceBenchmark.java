@@ -0,0 +1,118 @@
+package com.gklyphon.easy_pixel_tracking.benchmarks;
+
+import com.gklyphon.easy_pixel_tracking.EasyPixelTrackingApplication;
+import com.gklyphon.easy_pixel_tracking.controllers.TrackingController;
+import com.gklyphon.easy_pixel_tracking.models.TrackingPixel;
+import com.gklyphon.easy_pixel_tracking.services.ITrackingPixelService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link ITrackingPixelService} writes and paginated reads against the in-memory H2 database,
+ * with the application context configured as in production.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PersistenceBenchmark {
+
+	private static final int BATCH_SIZE = 100;
+
+	@Param({"10000"})
+	public int rows;
+
+	private ConfigurableApplicationContext context;
+	private ITrackingPixelService trackingPixelService;
+	private TrackingController trackingController;
+	private int counter;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		context = new SpringApplicationBuilder(EasyPixelTrackingApplication.class)
+				.properties("server.port=0", "logging.level.root=WARN")
+				.run();
+		trackingPixelService = context.getBean(ITrackingPixelService.class);
+		trackingController = context.getBean(TrackingController.class);
+
+		List<TrackingPixel> batch = new ArrayList<>(BATCH_SIZE);
+		for (int i = 0; i < rows; i++) {
+			batch.add(nextHit());
+			if (batch.size() == BATCH_SIZE) {
+				trackingPixelService.saveAll(batch);
+				batch = new ArrayList<>(BATCH_SIZE);
+			}
+		}
+		if (!batch.isEmpty()) {
+			trackingPixelService.saveAll(batch);
+		}
+
+		// PagedResourcesAssembler builds its links from the current request.
+		RequestContextHolder.setRequestAttributes(
+				new ServletRequestAttributes(new MockHttpServletRequest("GET", "/tracking")), true);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		RequestContextHolder.resetRequestAttributes();
+		context.close();
+	}
+
+	@Benchmark
+	public TrackingPixel saveSingle() {
+		return trackingPixelService.save(nextHit());
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH_SIZE)
+	public List<TrackingPixel> saveBatch() {
+		List<TrackingPixel> batch = new ArrayList<>(BATCH_SIZE);
+		for (int i = 0; i < BATCH_SIZE; i++) {
+			batch.add(nextHit());
+		}
+		return trackingPixelService.saveAll(batch);
+	}
+
+	@Benchmark
+	public ResponseEntity<?> readFirstPage() {
+		return trackingController.getAll(0, 20);
+	}
+
+	@Benchmark
+	public ResponseEntity<?> readDeepPage() {
+		return trackingController.getAll(rows / 20 - 1, 20);
+	}
+
+	private TrackingPixel nextHit() {
+		int n = counter++;
+		return new TrackingPixel.Builder()
+				.ip("10." + ((n >>> 16) & 0xFF) + "." + ((n >>> 8) & 0xFF) + "." + (n & 0xFF))
+				.userAgent("Mozilla/5.0 (benchmark " + (n % 50) + ")")
+				.referer("https://example.com/page/" + (n % 500))
+				.build();
+	}
+}
@@ -0,0 +1,130 @@
+package com.gklyphon.easy_pixel_tracking.benchmarks;
+
+import com.gklyphon.easy_pixel_tracking.config.DedupProperties;
+import com.gklyphon.easy_pixel_tracking.config.PixelProperties;
+import com.gklyphon.easy_pixel_tracking.config.RateLimitProperties;
+import com.gklyphon.easy_pixel_tracking.controllers.PixelController;
+import com.gklyphon.easy_pixel_tracking.models.CampaignCount;
+import com.gklyphon.easy_pixel_tracking.models.PixelImage;
+import com.gklyphon.easy_pixel_tracking.models.TrackingPixel;
+import com.gklyphon.easy_pixel_tracking.services.ICampaignService;
+import com.gklyphon.easy_pixel_tracking.services.IHitIngestionService;
+import com.gklyphon.easy_pixel_tracking.services.impl.HitThrottleServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the work done on the request thread for {@code GET /pixel}, without the servlet container:
+ * reading the hit from the request, building the entity and returning the precomputed response.
+ * The {@code metrics} parameter compares an unregistered timer with the Prometheus registry used in production.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PixelHotPathBenchmark {
+
+	@Param({"PNG", "GIF", "NONE"})
+	public PixelImage format;
+
+	@Param({"noop", "prometheus"})
+	public String metrics;
+
+	private MockHttpServletRequest request;
+	private PixelController pixelController;
+
+	@Setup
+	public void setUp() {
+		request = new MockHttpServletRequest("GET", "/pixel");
+		request.setRemoteAddr("203.0.113.42");
+		request.addHeader("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 "
+				+ "(KHTML, like Gecko) Chrome/124.0.0.0 Safari/537.36");
+		request.addHeader("Referer", "https://example.com/articles/2026/10/benchmarks?utm_source=newsletter");
+
+		PixelProperties properties = new PixelProperties();
+		properties.setFormat(format);
+		MeterRegistry meterRegistry = metrics.equals("prometheus")
+				? new PrometheusMeterRegistry(PrometheusConfig.DEFAULT)
+				: new CompositeMeterRegistry();
+		pixelController = new PixelController(new DiscardingIngestionService(),
+				new HitThrottleServiceImpl(new DedupProperties(), new RateLimitProperties(), meterRegistry),
+				new NoCampaignService(), properties, meterRegistry);
+	}
+
+	@Benchmark
+	public TrackingPixel buildFromRequest() {
+		return new TrackingPixel.Builder()
+				.ip(request.getRemoteAddr())
+				.userAgent(request.getHeader("User-Agent"))
+				.referer(request.getHeader("Referer"))
+				.build();
+	}
+
+	@Benchmark
+	public ResponseEntity<byte[]> servePixel() {
+		return pixelController.getPixel(request);
+	}
+
+	@Benchmark
+	public void servePixelBody(Blackhole blackhole) {
+		ResponseEntity<byte[]> response = pixelController.getPixel(request);
+		blackhole.consume(response.getHeaders().getContentLength());
+		blackhole.consume(response.getBody());
+	}
+
+	/**
+	 * Accepts every hit without doing anything, isolating the controller from ingestion.
+	 */
+	private static final class DiscardingIngestionService implements IHitIngestionService {
+
+		@Override
+		public boolean submit(TrackingPixel trackingPixel) {
+			return true;
+		}
+
+		@Override
+		public int getPendingCount() {
+			return 0;
+		}
+	}
+
+	/**
+	 * Rejects every campaign; only the anonymous pixel is measured.
+	 */
+	private static final class NoCampaignService implements ICampaignService {
+
+		@Override
+		public boolean accepts(String campaign) {
+			return false;
+		}
+
+		@Override
+		public CampaignCount count(String campaign) {
+			return new CampaignCount(campaign, 0);
+		}
+
+		@Override
+		public void flush() {
+		}
+	}
+}
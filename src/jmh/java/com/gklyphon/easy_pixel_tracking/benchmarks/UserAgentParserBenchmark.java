@@ -0,0 +1,68 @@
+package com.gklyphon.easy_pixel_tracking.benchmarks;
+
+import com.gklyphon.easy_pixel_tracking.config.UserAgentProperties;
+import com.gklyphon.easy_pixel_tracking.models.UserAgentInfo;
+import com.gklyphon.easy_pixel_tracking.services.impl.UserAgentServiceImpl;
+import com.gklyphon.easy_pixel_tracking.utils.UserAgentParser;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures user agent classification on one thread, over a mix of desktop, mobile, tablet and bot user agents:
+ * {@code parse} runs the automaton on every call, {@code cached} goes through the service cache as ingestion does.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserAgentParserBenchmark {
+
+	private static final String[] USER_AGENTS = {
+			"Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/124.0.0.0 Safari/537.36",
+			"Mozilla/5.0 (iPhone; CPU iPhone OS 17_4 like Mac OS X) AppleWebKit/605.1.15 (KHTML, like Gecko) Version/17.4 Mobile/15E148 Safari/604.1",
+			"Mozilla/5.0 (Linux; Android 14; Pixel 8) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/124.0.0.0 Mobile Safari/537.36",
+			"Mozilla/5.0 (Windows NT 10.0; Win64; x64; rv:125.0) Gecko/20100101 Firefox/125.0",
+			"Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/124.0.0.0 Safari/537.36 Edg/124.0.0.0",
+			"Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_7) AppleWebKit/605.1.15 (KHTML, like Gecko) Version/17.4 Safari/605.1.15",
+			"Mozilla/5.0 (compatible; Googlebot/2.1; +http://www.google.com/bot.html)",
+			"curl/8.7.1"
+	};
+
+	private UserAgentParser parser;
+	private UserAgentServiceImpl service;
+	private int next;
+
+	@Setup
+	public void setUp() {
+		parser = new UserAgentParser();
+		service = new UserAgentServiceImpl(new UserAgentProperties(), new CompositeMeterRegistry());
+	}
+
+	@Benchmark
+	public UserAgentInfo parse() {
+		return parser.parse(nextUserAgent());
+	}
+
+	@Benchmark
+	public UserAgentInfo cached() {
+		return service.parse(nextUserAgent());
+	}
+
+	private String nextUserAgent() {
+		next = (next + 1) & (USER_AGENTS.length - 1);
+		return USER_AGENTS[next];
+	}
+}
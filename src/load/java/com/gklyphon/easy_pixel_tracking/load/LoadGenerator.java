@@ -0,0 +1,260 @@
+package com.gklyphon.easy_pixel_tracking.load;
+
+import com.gklyphon.easy_pixel_tracking.EasyPixelTrackingApplication;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model HTTP load generator for {@code GET /pixel} mixed with {@code /tracking} queries.
+ *
+ * <p>Requests are scheduled at a fixed rate regardless of how fast responses come back, and each
+ * latency is measured from the time the request was scheduled to be sent, not from when it was
+ * actually sent. A stalled server therefore shows up as latency instead of silently lowering the
+ * request rate (coordinated omission).</p>
+ *
+ * <p>Options, all optional:</p>
+ * <ul>
+ *     <li>{@code --rate=1000,2000,4000}: requests per second, one run per rate, in order</li>
+ *     <li>{@code --duration=PT30S}: measured time per run</li>
+ *     <li>{@code --warmup=PT10S}: unmeasured time before each run</li>
+ *     <li>{@code --tracking-ratio=0.05}: share of requests that are {@code /tracking} queries</li>
+ *     <li>{@code --max-in-flight=10000}: outstanding requests above which new ones are skipped and counted</li>
+ *     <li>{@code --url=http://host:port}: target an already running server instead of starting one</li>
+ *     <li>{@code --report=path}: file receiving the full percentile distributions</li>
+ * </ul>
+ */
+public final class LoadGenerator {
+
+	private static final long DRAIN_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+	/**
+	 * A run is considered sustained when it reaches this share of the target rate without errors or skips.
+	 */
+	private static final double SUSTAINED_RATIO = 0.99;
+
+	private final Options options;
+	private final HttpClient client;
+	private final TrafficMix trafficMix;
+	private final AtomicInteger inFlight = new AtomicInteger();
+
+	private LoadGenerator(Options options, URI baseUri, HttpClient client) {
+		this.options = options;
+		this.client = client;
+		this.trafficMix = new TrafficMix(baseUri, options.trackingRatio());
+	}
+
+	public static void main(String[] args) throws Exception {
+		Options options = Options.parse(args);
+		ConfigurableApplicationContext context = null;
+		String url = options.url();
+		if (url == null) {
+			// Command line arguments, as default properties would be overridden by application.properties.
+			context = new SpringApplicationBuilder(EasyPixelTrackingApplication.class)
+					.run("--server.port=0", "--logging.level.root=WARN");
+			url = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+		}
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			HttpClient client = HttpClient.newBuilder()
+					.executor(executor)
+					.connectTimeout(Duration.ofSeconds(5))
+					.build();
+			LoadGenerator generator = new LoadGenerator(options, URI.create(url), client);
+			List<RunResult> results = new ArrayList<>();
+			for (double rate : options.rates()) {
+				results.add(generator.run(rate));
+			}
+			report(results, url, options);
+		} finally {
+			if (context != null) {
+				context.close();
+			}
+		}
+	}
+
+	/**
+	 * Sends requests at a fixed rate for the warmup and measured durations, then waits for the
+	 * outstanding responses.
+	 *
+	 * @param rate requests per second
+	 * @return the measurements of the run
+	 */
+	private RunResult run(double rate) throws InterruptedException {
+		Endpoint pixel = new Endpoint("GET /pixel");
+		Endpoint tracking = new Endpoint("GET /tracking/*");
+		double intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+		long start = System.nanoTime();
+		long measureStart = start + options.warmup().toNanos();
+		long end = measureStart + options.duration().toNanos();
+
+		for (long i = 0; ; i++) {
+			long intended = start + (long) (i * intervalNanos);
+			if (intended >= end) {
+				break;
+			}
+			long wait = intended - System.nanoTime();
+			if (wait > 0) {
+				LockSupport.parkNanos(wait);
+			}
+			boolean measured = intended >= measureStart;
+			boolean isTracking = trafficMix.nextIsTracking();
+			Endpoint endpoint = isTracking ? tracking : pixel;
+			if (inFlight.get() >= options.maxInFlight()) {
+				if (measured) {
+					endpoint.skipped.increment();
+				}
+				continue;
+			}
+			HttpRequest request = isTracking ? trafficMix.trackingRequest() : trafficMix.pixelRequest();
+			inFlight.incrementAndGet();
+			client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+					.whenComplete((response, failure) -> {
+						long latency = System.nanoTime() - intended;
+						inFlight.decrementAndGet();
+						if (measured) {
+							endpoint.record(latency, failure == null && response.statusCode() < 400);
+						}
+					});
+		}
+
+		long drainDeadline = System.nanoTime() + DRAIN_TIMEOUT_NANOS;
+		while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+			Thread.sleep(10);
+		}
+		return new RunResult(rate, options.duration(), pixel.snapshot(), tracking.snapshot(), inFlight.get());
+	}
+
+	private static void report(List<RunResult> results, String url, Options options) throws IOException {
+		PrintStream out = System.out;
+		out.printf("%nTarget %s, %s measured per run after %s warmup, %.1f%% /tracking queries%n%n",
+				url, options.duration(), options.warmup(), options.trackingRatio() * 100);
+		out.printf("%10s  %-16s %10s %8s %8s %10s %9s %9s %9s %9s %9s%n", "target/s", "endpoint", "completed",
+				"errors", "skipped", "achieved/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+		double maxSustained = 0;
+		for (RunResult result : results) {
+			for (EndpointResult endpoint : List.of(result.pixel(), result.tracking())) {
+				Histogram histogram = endpoint.histogram();
+				out.printf("%10.0f  %-16s %10d %8d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n", result.rate(),
+						endpoint.name(), histogram.getTotalCount(), endpoint.errors(), endpoint.skipped(),
+						histogram.getTotalCount() / (double) result.duration().toSeconds(),
+						millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(90)),
+						millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+						millis(histogram.getMaxValue()));
+			}
+			if (result.isSustained()) {
+				maxSustained = Math.max(maxSustained, result.rate());
+			}
+		}
+		out.printf("%nHighest sustained rate: %s%n",
+				maxSustained > 0 ? String.format("%.0f requests/s", maxSustained) : "none of the tested rates");
+
+		if (options.report() != null) {
+			Files.createDirectories(options.report().toAbsolutePath().getParent());
+			try (PrintStream file = new PrintStream(Files.newOutputStream(options.report()))) {
+				for (RunResult result : results) {
+					for (EndpointResult endpoint : List.of(result.pixel(), result.tracking())) {
+						file.printf("# %s at %.0f requests/s, latency in ms%n", endpoint.name(), result.rate());
+						endpoint.histogram().outputPercentileDistribution(file, 1000.0);
+						file.println();
+					}
+				}
+			}
+			out.printf("Percentile distributions written to %s%n", options.report());
+		}
+	}
+
+	private static double millis(long micros) {
+		return micros / 1000.0;
+	}
+
+	/**
+	 * Latencies and failures of one request type, recorded in microseconds.
+	 */
+	private static final class Endpoint {
+
+		private final String name;
+		private final Recorder recorder = new Recorder(3);
+		private final LongAdder errors = new LongAdder();
+		private final LongAdder skipped = new LongAdder();
+
+		private Endpoint(String name) {
+			this.name = name;
+		}
+
+		private void record(long latencyNanos, boolean success) {
+			recorder.recordValue(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+			if (!success) {
+				errors.increment();
+			}
+		}
+
+		private EndpointResult snapshot() {
+			return new EndpointResult(name, recorder.getIntervalHistogram(), errors.sum(), skipped.sum());
+		}
+	}
+
+	private record EndpointResult(String name, Histogram histogram, long errors, long skipped) {
+	}
+
+	private record RunResult(double rate, Duration duration, EndpointResult pixel, EndpointResult tracking,
+							 int unfinished) {
+
+		private boolean isSustained() {
+			long completed = pixel.histogram().getTotalCount() + tracking.histogram().getTotalCount();
+			long failed = pixel.errors() + tracking.errors() + pixel.skipped() + tracking.skipped() + unfinished;
+			return failed == 0 && completed >= rate * duration.toSeconds() * SUSTAINED_RATIO;
+		}
+	}
+
+	private record Options(double[] rates, Duration duration, Duration warmup, double trackingRatio,
+						   int maxInFlight, String url, Path report) {
+
+		private static Options parse(String[] args) {
+			double[] rates = {1000};
+			Duration duration = Duration.ofSeconds(30);
+			Duration warmup = Duration.ofSeconds(10);
+			double trackingRatio = 0.05;
+			int maxInFlight = 10_000;
+			String url = null;
+			Path report = null;
+			for (String arg : args) {
+				int separator = arg.indexOf('=');
+				if (!arg.startsWith("--") || separator < 0) {
+					throw new IllegalArgumentException("Expected --name=value but got " + arg);
+				}
+				String value = arg.substring(separator + 1);
+				switch (arg.substring(2, separator)) {
+					case "rate" -> rates = Arrays.stream(value.split(",")).mapToDouble(Double::parseDouble).toArray();
+					case "duration" -> duration = Duration.parse(value);
+					case "warmup" -> warmup = Duration.parse(value);
+					case "tracking-ratio" -> trackingRatio = Double.parseDouble(value);
+					case "max-in-flight" -> maxInFlight = Integer.parseInt(value);
+					case "url" -> url = value;
+					case "report" -> report = Path.of(value);
+					default -> throw new IllegalArgumentException("Unknown option " + arg);
+				}
+			}
+			return new Options(rates, duration, warmup, trackingRatio, maxInFlight, url, report);
+		}
+	}
+}
@@ -0,0 +1,111 @@
+package com.gklyphon.easy_pixel_tracking.load;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Generates the requests sent by the load generator: pixel hits with browser-like user agents
+ * and Zipf-distributed referers, and a rotation of {@code /tracking} queries.
+ */
+final class TrafficMix {
+
+	private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+	/**
+	 * User agents with their approximate share of traffic, in percent.
+	 */
+	private static final String[] USER_AGENTS = {
+			"Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/124.0.0.0 Safari/537.36",
+			"Mozilla/5.0 (iPhone; CPU iPhone OS 17_4 like Mac OS X) AppleWebKit/605.1.15 (KHTML, like Gecko) Version/17.4 Mobile/15E148 Safari/604.1",
+			"Mozilla/5.0 (Linux; Android 14; Pixel 8) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/124.0.0.0 Mobile Safari/537.36",
+			"Mozilla/5.0 (Windows NT 10.0; Win64; x64; rv:125.0) Gecko/20100101 Firefox/125.0",
+			"Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/124.0.0.0 Safari/537.36 Edg/124.0.0.0",
+			"Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_7) AppleWebKit/605.1.15 (KHTML, like Gecko) Version/17.4 Safari/605.1.15",
+			"Mozilla/5.0 (compatible; Googlebot/2.1; +http://www.google.com/bot.html)",
+			"curl/8.7.1"
+	};
+	private static final int[] USER_AGENT_SHARES = {45, 20, 15, 6, 5, 5, 2, 2};
+
+	private static final int SITES = 25;
+	private static final int PAGES_PER_SITE = 40;
+	private static final double ZIPF_EXPONENT = 1.1;
+	private static final double NO_REFERER_RATIO = 0.2;
+
+	private final URI baseUri;
+	private final double trackingRatio;
+	private final int[] userAgentCumulative;
+	private final String[] referers;
+	private final double[] refererCumulative;
+	private long trackingCounter;
+
+	TrafficMix(URI baseUri, double trackingRatio) {
+		this.baseUri = baseUri;
+		this.trackingRatio = trackingRatio;
+		this.userAgentCumulative = new int[USER_AGENT_SHARES.length];
+		int sum = 0;
+		for (int i = 0; i < USER_AGENT_SHARES.length; i++) {
+			sum += USER_AGENT_SHARES[i];
+			userAgentCumulative[i] = sum;
+		}
+		this.referers = new String[SITES * PAGES_PER_SITE];
+		this.refererCumulative = new double[referers.length];
+		double total = 0;
+		for (int rank = 0; rank < referers.length; rank++) {
+			referers[rank] = "https://site" + (rank % SITES) + ".example.com/articles/" + (rank / SITES);
+			total += 1 / Math.pow(rank + 1, ZIPF_EXPONENT);
+			refererCumulative[rank] = total;
+		}
+		for (int rank = 0; rank < referers.length; rank++) {
+			refererCumulative[rank] /= total;
+		}
+	}
+
+	/**
+	 * Returns whether the next request should be a {@code /tracking} query rather than a pixel hit.
+	 */
+	boolean nextIsTracking() {
+		return ThreadLocalRandom.current().nextDouble() < trackingRatio;
+	}
+
+	HttpRequest pixelRequest() {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		HttpRequest.Builder builder = HttpRequest.newBuilder(baseUri.resolve("/pixel"))
+				.timeout(REQUEST_TIMEOUT)
+				.header("User-Agent", USER_AGENTS[pick(userAgentCumulative, random.nextInt(100))]);
+		if (random.nextDouble() >= NO_REFERER_RATIO) {
+			builder.header("Referer", randomReferer(random));
+		}
+		return builder.GET().build();
+	}
+
+	HttpRequest trackingRequest() {
+		String path = switch ((int) (trackingCounter++ % 5)) {
+			case 0 -> "/tracking?page=0&size=20";
+			case 1 -> "/tracking/scroll?size=20";
+			case 2 -> "/tracking/scroll/by-referer?size=20&referer="
+					+ URLEncoder.encode(randomReferer(ThreadLocalRandom.current()), StandardCharsets.UTF_8);
+			case 3 -> "/tracking/stats?granularity=MINUTE";
+			default -> "/tracking/top?dimension=REFERER&window=ONE_MINUTE";
+		};
+		return HttpRequest.newBuilder(baseUri.resolve(path)).timeout(REQUEST_TIMEOUT).GET().build();
+	}
+
+	private String randomReferer(ThreadLocalRandom random) {
+		int rank = Arrays.binarySearch(refererCumulative, random.nextDouble());
+		return referers[Math.min(rank < 0 ? -rank - 1 : rank, referers.length - 1)];
+	}
+
+	private static int pick(int[] cumulative, int value) {
+		for (int i = 0; i < cumulative.length; i++) {
+			if (value < cumulative[i]) {
+				return i;
+			}
+		}
+		return cumulative.length - 1;
+	}
+}
@@ -2,8 +2,15 @@ package com.gklyphon.easy_pixel_tracking;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.core.Ordered;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
+@EnableScheduling
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
 public class EasyPixelTrackingApplication {
 
 	public static void main(String[] args) {
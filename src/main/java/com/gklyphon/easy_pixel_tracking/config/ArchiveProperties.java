@@ -0,0 +1,93 @@
+package com.gklyphon.easy_pixel_tracking.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the archive of aged tracking pixels in columnar segment files.
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+@ConfigurationProperties(prefix = "tracking.archive")
+public class ArchiveProperties {
+
+    /**
+     * Whether aged rows are moved out of the tracking_pixel table. Existing segments are queried either way.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Directory holding the segment file of every archived day.
+     */
+    private String directory = "data/archive";
+
+    /**
+     * Age after which a day of tracking pixels is archived. Only whole days are moved.
+     */
+    private Duration maxAge = Duration.ofDays(30);
+
+    /**
+     * Delay between two archiving runs.
+     */
+    private Duration interval = Duration.ofHours(1);
+
+    /**
+     * False positive rate of the per-segment bloom filters on IP, user agent and referer.
+     */
+    private double falsePositiveRate = 0.01;
+
+    /**
+     * Number of segments whose decoded columns are kept in memory, the most recently queried first.
+     */
+    private int cachedSegments = 8;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    public Duration getMaxAge() {
+        return maxAge;
+    }
+
+    public void setMaxAge(Duration maxAge) {
+        this.maxAge = maxAge;
+    }
+
+    public Duration getInterval() {
+        return interval;
+    }
+
+    public void setInterval(Duration interval) {
+        this.interval = interval;
+    }
+
+    public double getFalsePositiveRate() {
+        return falsePositiveRate;
+    }
+
+    public void setFalsePositiveRate(double falsePositiveRate) {
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    public int getCachedSegments() {
+        return cachedSegments;
+    }
+
+    public void setCachedSegments(int cachedSegments) {
+        this.cachedSegments = cachedSegments;
+    }
+}
@@ -0,0 +1,94 @@
+package com.gklyphon.easy_pixel_tracking.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the bulk ingestion endpoint.
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+@ConfigurationProperties(prefix = "tracking.batch")
+public class BatchProperties {
+
+    /**
+     * Records written per transaction.
+     */
+    private int chunkSize = 500;
+
+    /**
+     * Most records read from one request. The rest of a longer batch is not read.
+     */
+    private int maxRecords = 100_000;
+
+    /**
+     * Most records not accepted that are listed, with their index and reason, in the response. Further ones are
+     * only counted.
+     */
+    private int maxFailures = 1_000;
+
+    /**
+     * Largest size in bytes of one record: an NDJSON line or a binary record.
+     */
+    private int maxRecordSize = 16 * 1024;
+
+    /**
+     * How far in the future a record's timestamp may be, to allow for client clocks running ahead.
+     */
+    private Duration maxClockSkew = Duration.ofMinutes(5);
+
+    /**
+     * How old a record's timestamp may be.
+     */
+    private Duration maxAge = Duration.ofDays(7);
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public int getMaxRecords() {
+        return maxRecords;
+    }
+
+    public void setMaxRecords(int maxRecords) {
+        this.maxRecords = maxRecords;
+    }
+
+    public int getMaxFailures() {
+        return maxFailures;
+    }
+
+    public void setMaxFailures(int maxFailures) {
+        this.maxFailures = maxFailures;
+    }
+
+    public int getMaxRecordSize() {
+        return maxRecordSize;
+    }
+
+    public void setMaxRecordSize(int maxRecordSize) {
+        this.maxRecordSize = maxRecordSize;
+    }
+
+    public Duration getMaxClockSkew() {
+        return maxClockSkew;
+    }
+
+    public void setMaxClockSkew(Duration maxClockSkew) {
+        this.maxClockSkew = maxClockSkew;
+    }
+
+    public Duration getMaxAge() {
+        return maxAge;
+    }
+
+    public void setMaxAge(Duration maxAge) {
+        this.maxAge = maxAge;
+    }
+}
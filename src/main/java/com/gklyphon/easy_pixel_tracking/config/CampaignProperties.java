@@ -0,0 +1,70 @@
+package com.gklyphon.easy_pixel_tracking.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Configuration properties for campaign pixels and their hit counters.
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+@ConfigurationProperties(prefix = "tracking.campaign")
+public class CampaignProperties {
+
+    /**
+     * Campaign ids whose hits are recorded. When empty, every valid campaign id is.
+     */
+    private Set<String> allowed = new LinkedHashSet<>();
+
+    /**
+     * Most campaigns counted in memory at once. Hits of further campaigns are stored but not counted until idle
+     * counters have been released.
+     */
+    private int maxCampaigns = 100_000;
+
+    /**
+     * How long a counter without hits is kept in memory after its hits have been written.
+     */
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    /**
+     * How often in-memory counters are written to the campaign_counter table.
+     */
+    private Duration flushInterval = Duration.ofSeconds(5);
+
+    public Set<String> getAllowed() {
+        return allowed;
+    }
+
+    public void setAllowed(Set<String> allowed) {
+        this.allowed = allowed;
+    }
+
+    public int getMaxCampaigns() {
+        return maxCampaigns;
+    }
+
+    public void setMaxCampaigns(int maxCampaigns) {
+        this.maxCampaigns = maxCampaigns;
+    }
+
+    public Duration getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    public void setIdleTimeout(Duration idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    public Duration getFlushInterval() {
+        return flushInterval;
+    }
+
+    public void setFlushInterval(Duration flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+}
@@ -0,0 +1,67 @@
+package com.gklyphon.easy_pixel_tracking.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the suppression of repeated pixel hits.
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+@ConfigurationProperties(prefix = "tracking.dedup")
+public class DedupProperties {
+
+    /**
+     * Whether a hit repeating the IP, user agent and referer of a recent hit is discarded.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Shortest time a hit is remembered. Repeats are suppressed for between one and two windows.
+     */
+    private Duration window = Duration.ofSeconds(10);
+
+    /**
+     * Distinct hits expected per window. Beyond it, hits are remembered for less than a window.
+     */
+    private long expectedHits = 100_000;
+
+    /**
+     * Acceptable probability that a new hit is taken for a repeat and discarded.
+     */
+    private double falsePositiveRate = 0.001;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getWindow() {
+        return window;
+    }
+
+    public void setWindow(Duration window) {
+        this.window = window;
+    }
+
+    public long getExpectedHits() {
+        return expectedHits;
+    }
+
+    public void setExpectedHits(long expectedHits) {
+        this.expectedHits = expectedHits;
+    }
+
+    public double getFalsePositiveRate() {
+        return falsePositiveRate;
+    }
+
+    public void setFalsePositiveRate(double falsePositiveRate) {
+        this.falsePositiveRate = falsePositiveRate;
+    }
+}
@@ -0,0 +1,27 @@
+package com.gklyphon.easy_pixel_tracking.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for the user agent and referer dimension tables.
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+@ConfigurationProperties(prefix = "tracking.dictionary")
+public class DictionaryProperties {
+
+    /**
+     * Maximum number of strings cached in memory per dimension. The least used ones are evicted beyond the limit;
+     * they are still stored correctly but cost a database lookup when seen again.
+     */
+    private int cacheSize = 100_000;
+
+    public int getCacheSize() {
+        return cacheSize;
+    }
+
+    public void setCacheSize(int cacheSize) {
+        this.cacheSize = cacheSize;
+    }
+}
@@ -0,0 +1,54 @@
+package com.gklyphon.easy_pixel_tracking.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the streaming export of tracking data.
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+@ConfigurationProperties(prefix = "tracking.export")
+public class ExportProperties {
+
+    /**
+     * Rows fetched from the database per round-trip while streaming.
+     */
+    private int fetchSize = 1000;
+
+    /**
+     * Size in bytes of the output buffer in front of the response stream.
+     */
+    private int bufferSize = 64 * 1024;
+
+    /**
+     * Longest an export may stream before the response is cut off.
+     */
+    private Duration timeout = Duration.ofHours(1);
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(Duration timeout) {
+        this.timeout = timeout;
+    }
+}
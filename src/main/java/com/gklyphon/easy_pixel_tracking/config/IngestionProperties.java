@@ -0,0 +1,128 @@
+package com.gklyphon.easy_pixel_tracking.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the hit ingestion pipeline that sits between
+ * the pixel endpoint and the database.
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+@ConfigurationProperties(prefix = "tracking.ingestion")
+public class IngestionProperties {
+
+    /**
+     * Whether hits are buffered and written in batches. When disabled every hit is saved synchronously.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Maximum number of hits waiting in memory to be written.
+     */
+    private int capacity = 10_000;
+
+    /**
+     * Maximum number of hits written in a single batch.
+     */
+    private int batchSize = 500;
+
+    /**
+     * Maximum time a hit waits in the buffer before its batch is flushed.
+     */
+    private Duration flushInterval = Duration.ofMillis(200);
+
+    /**
+     * What to do with a hit when the buffer is full.
+     */
+    private Backpressure backpressure = Backpressure.SPILL;
+
+    /**
+     * How long a request may wait for free space when using {@link Backpressure#BLOCK}.
+     */
+    private Duration blockTimeout = Duration.ofMillis(50);
+
+    /**
+     * How long shutdown waits for buffered hits to be written.
+     */
+    private Duration shutdownTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Strategies applied when the ingestion buffer is full.
+     */
+    public enum Backpressure {
+
+        /**
+         * Discard the hit immediately.
+         */
+        DROP,
+
+        /**
+         * Wait up to the block timeout for free space, then discard the hit.
+         */
+        BLOCK,
+
+        /**
+         * Write the hit synchronously on the request thread.
+         */
+        SPILL
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Duration getFlushInterval() {
+        return flushInterval;
+    }
+
+    public void setFlushInterval(Duration flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+
+    public Backpressure getBackpressure() {
+        return backpressure;
+    }
+
+    public void setBackpressure(Backpressure backpressure) {
+        this.backpressure = backpressure;
+    }
+
+    public Duration getBlockTimeout() {
+        return blockTimeout;
+    }
+
+    public void setBlockTimeout(Duration blockTimeout) {
+        this.blockTimeout = blockTimeout;
+    }
+
+    public Duration getShutdownTimeout() {
+        return shutdownTimeout;
+    }
+
+    public void setShutdownTimeout(Duration shutdownTimeout) {
+        this.shutdownTimeout = shutdownTimeout;
+    }
+}
@@ -0,0 +1,40 @@
+package com.gklyphon.easy_pixel_tracking.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for the write path of tracking pixel hits.
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+@ConfigurationProperties(prefix = "tracking.persistence")
+public class PersistenceProperties {
+
+    /**
+     * Writer used for ingested hits: {@code jpa} saves entities through the repository,
+     * {@code jdbc} appends rows with multi-row inserts and bypasses the entity manager.
+     */
+    private String writer = "jdbc";
+
+    /**
+     * Number of rows per multi-row INSERT statement when using the {@code jdbc} writer.
+     */
+    private int rowsPerStatement = 100;
+
+    public String getWriter() {
+        return writer;
+    }
+
+    public void setWriter(String writer) {
+        this.writer = writer;
+    }
+
+    public int getRowsPerStatement() {
+        return rowsPerStatement;
+    }
+
+    public void setRowsPerStatement(int rowsPerStatement) {
+        this.rowsPerStatement = rowsPerStatement;
+    }
+}
@@ -0,0 +1,97 @@
+package com.gklyphon.easy_pixel_tracking.config;
+
+import com.gklyphon.easy_pixel_tracking.models.PixelImage;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for the tracking pixel endpoint.
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+@ConfigurationProperties(prefix = "tracking.pixel")
+public class PixelProperties {
+
+    /**
+     * Response variant served by {@code GET /pixel}.
+     */
+    private PixelImage format = PixelImage.PNG;
+
+    /**
+     * Whether {@code GET /pixel} responds before handing the hit to ingestion. The hit is then
+     * submitted on a dedicated executor, so a blocking backpressure policy, a synchronous
+     * write or a durable log sync never delays the response.
+     */
+    private boolean async = false;
+
+    /**
+     * Threads submitting hits in async mode.
+     */
+    private int asyncThreads = 2;
+
+    /**
+     * Hits waiting for an async submitting thread. When full, hits are submitted from the request thread,
+     * so ingestion backpressure applies again.
+     */
+    private int asyncQueueCapacity = 10_000;
+
+    /**
+     * Leading bits of an IPv4 client address that are stored; the rest are zeroed before ingestion.
+     * 24 drops the last octet. 32 stores the address as is.
+     */
+    private int ipv4PrefixLength = 32;
+
+    /**
+     * Leading bits of an IPv6 client address that are stored; the rest are zeroed before ingestion.
+     * 48 keeps the site prefix. 128 stores the address as is.
+     */
+    private int ipv6PrefixLength = 128;
+
+    public PixelImage getFormat() {
+        return format;
+    }
+
+    public void setFormat(PixelImage format) {
+        this.format = format;
+    }
+
+    public boolean isAsync() {
+        return async;
+    }
+
+    public void setAsync(boolean async) {
+        this.async = async;
+    }
+
+    public int getAsyncThreads() {
+        return asyncThreads;
+    }
+
+    public void setAsyncThreads(int asyncThreads) {
+        this.asyncThreads = asyncThreads;
+    }
+
+    public int getAsyncQueueCapacity() {
+        return asyncQueueCapacity;
+    }
+
+    public void setAsyncQueueCapacity(int asyncQueueCapacity) {
+        this.asyncQueueCapacity = asyncQueueCapacity;
+    }
+
+    public int getIpv4PrefixLength() {
+        return ipv4PrefixLength;
+    }
+
+    public void setIpv4PrefixLength(int ipv4PrefixLength) {
+        this.ipv4PrefixLength = ipv4PrefixLength;
+    }
+
+    public int getIpv6PrefixLength() {
+        return ipv6PrefixLength;
+    }
+
+    public void setIpv6PrefixLength(int ipv6PrefixLength) {
+        this.ipv6PrefixLength = ipv6PrefixLength;
+    }
+}
@@ -0,0 +1,66 @@
+package com.gklyphon.easy_pixel_tracking.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for the per-IP rate limit of pixel hits.
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+@ConfigurationProperties(prefix = "tracking.rate-limit")
+public class RateLimitProperties {
+
+    /**
+     * Whether hits beyond the rate of their IP are discarded.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Sustained hits per second allowed per IP.
+     */
+    private double rate = 10;
+
+    /**
+     * Hits an IP may send at once after being idle.
+     */
+    private double burst = 20;
+
+    /**
+     * Most IPs tracked at once. Beyond it, the IPs idle longest are forgotten once refilled to a full burst; until
+     * then new IPs are rate limited.
+     */
+    private int maxIps = 100_000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public double getRate() {
+        return rate;
+    }
+
+    public void setRate(double rate) {
+        this.rate = rate;
+    }
+
+    public double getBurst() {
+        return burst;
+    }
+
+    public void setBurst(double burst) {
+        this.burst = burst;
+    }
+
+    public int getMaxIps() {
+        return maxIps;
+    }
+
+    public void setMaxIps(int maxIps) {
+        this.maxIps = maxIps;
+    }
+}
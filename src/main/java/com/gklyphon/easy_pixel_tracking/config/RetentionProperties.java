@@ -0,0 +1,67 @@
+package com.gklyphon.easy_pixel_tracking.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for purging expired tracking pixels.
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+@ConfigurationProperties(prefix = "tracking.retention")
+public class RetentionProperties {
+
+    /**
+     * Whether expired tracking pixels are purged.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Age after which a day of tracking pixels expires. Only whole days are purged.
+     */
+    private Duration maxAge = Duration.ofDays(365);
+
+    /**
+     * Delay between two purges.
+     */
+    private Duration interval = Duration.ofHours(1);
+
+    /**
+     * Maximum number of rows removed from the tracking_pixel table per transaction.
+     */
+    private int deleteChunkSize = 10_000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getMaxAge() {
+        return maxAge;
+    }
+
+    public void setMaxAge(Duration maxAge) {
+        this.maxAge = maxAge;
+    }
+
+    public Duration getInterval() {
+        return interval;
+    }
+
+    public void setInterval(Duration interval) {
+        this.interval = interval;
+    }
+
+    public int getDeleteChunkSize() {
+        return deleteChunkSize;
+    }
+
+    public void setDeleteChunkSize(int deleteChunkSize) {
+        this.deleteChunkSize = deleteChunkSize;
+    }
+}
@@ -0,0 +1,71 @@
+package com.gklyphon.easy_pixel_tracking.config;
+
+import com.gklyphon.easy_pixel_tracking.models.HitDimension;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Configuration properties for the pre-aggregated hit counters.
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+@ConfigurationProperties(prefix = "tracking.rollup")
+public class RollupProperties {
+
+    /**
+     * Whether hits are counted into rollups.
+     */
+    private boolean enabled = true;
+
+    /**
+     * How often in-memory counters are written to the rollup table.
+     */
+    private Duration flushInterval = Duration.ofSeconds(10);
+
+    /**
+     * Dimensions counted into rollups. IP and USER_AGENT are left out by default: they take a new value with almost
+     * every visitor, so their rollups would grow with the traffic. The heavy hitters cover their most frequent values.
+     */
+    private Set<HitDimension> dimensions = EnumSet.complementOf(EnumSet.of(HitDimension.IP, HitDimension.USER_AGENT));
+
+    /**
+     * Maximum number of counters held in memory between two flushes. Hits for new counters beyond it are not counted.
+     */
+    private int maxCounters = 100_000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getFlushInterval() {
+        return flushInterval;
+    }
+
+    public void setFlushInterval(Duration flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+
+    public Set<HitDimension> getDimensions() {
+        return dimensions;
+    }
+
+    public void setDimensions(Set<HitDimension> dimensions) {
+        this.dimensions = dimensions;
+    }
+
+    public int getMaxCounters() {
+        return maxCounters;
+    }
+
+    public void setMaxCounters(int maxCounters) {
+        this.maxCounters = maxCounters;
+    }
+}
@@ -0,0 +1,93 @@
+package com.gklyphon.easy_pixel_tracking.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the live hit stream.
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+@ConfigurationProperties(prefix = "tracking.stream")
+public class StreamProperties {
+
+    /**
+     * Most subscribers connected at once. Further subscriptions are refused.
+     */
+    private int maxSubscribers = 10000;
+
+    /**
+     * Hits or frames buffered per subscriber. A subscriber that falls further behind loses its oldest ones.
+     */
+    private int bufferSize = 1000;
+
+    /**
+     * Hits buffered between two dispatches. Beyond it the oldest hits are not streamed.
+     */
+    private int backlog = 10000;
+
+    /**
+     * How often buffered hits are dispatched to the subscribers.
+     */
+    private Duration flushInterval = Duration.ofMillis(250);
+
+    /**
+     * How long a subscription stays open before the client has to reconnect.
+     */
+    private Duration timeout = Duration.ofMinutes(30);
+
+    /**
+     * Longest a write to a subscriber may block before the subscriber is disconnected.
+     */
+    private Duration sendTimeout = Duration.ofSeconds(10);
+
+    public int getMaxSubscribers() {
+        return maxSubscribers;
+    }
+
+    public void setMaxSubscribers(int maxSubscribers) {
+        this.maxSubscribers = maxSubscribers;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public int getBacklog() {
+        return backlog;
+    }
+
+    public void setBacklog(int backlog) {
+        this.backlog = backlog;
+    }
+
+    public Duration getFlushInterval() {
+        return flushInterval;
+    }
+
+    public void setFlushInterval(Duration flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    public Duration getSendTimeout() {
+        return sendTimeout;
+    }
+
+    public void setSendTimeout(Duration sendTimeout) {
+        this.sendTimeout = sendTimeout;
+    }
+}
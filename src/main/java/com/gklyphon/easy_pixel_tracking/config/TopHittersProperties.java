@@ -0,0 +1,93 @@
+package com.gklyphon.easy_pixel_tracking.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the streaming heavy-hitter tracker.
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+@ConfigurationProperties(prefix = "tracking.top")
+public class TopHittersProperties {
+
+    /**
+     * Whether hits are fed to the heavy-hitter tracker.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Number of values monitored per window slot, and the most that can be reported.
+     */
+    private int capacity = 100;
+
+    /**
+     * Counters per Count-Min Sketch row. The error bound is {@code e / width} of the window's hits.
+     */
+    private int width = 2048;
+
+    /**
+     * Count-Min Sketch rows. The error bound holds with probability {@code 1 - e^-depth}.
+     */
+    private int depth = 4;
+
+    /**
+     * Independently locked copies of every window slot. Concurrent hits are spread over them by thread.
+     */
+    private int stripes = 4;
+
+    /**
+     * How often the reported heavy hitters are recomputed.
+     */
+    private Duration refreshInterval = Duration.ofSeconds(1);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public void setWidth(int width) {
+        this.width = width;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public void setDepth(int depth) {
+        this.depth = depth;
+    }
+
+    public int getStripes() {
+        return stripes;
+    }
+
+    public void setStripes(int stripes) {
+        this.stripes = stripes;
+    }
+
+    public Duration getRefreshInterval() {
+        return refreshInterval;
+    }
+
+    public void setRefreshInterval(Duration refreshInterval) {
+        this.refreshInterval = refreshInterval;
+    }
+}
@@ -0,0 +1,27 @@
+package com.gklyphon.easy_pixel_tracking.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for user agent classification.
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+@ConfigurationProperties(prefix = "tracking.user-agent")
+public class UserAgentProperties {
+
+    /**
+     * Maximum number of recently seen user agents whose classification is cached. Traffic is dominated by
+     * a small set of browser builds, so most hits are answered from the cache without parsing.
+     */
+    private int cacheSize = 10_000;
+
+    public int getCacheSize() {
+        return cacheSize;
+    }
+
+    public void setCacheSize(int cacheSize) {
+        this.cacheSize = cacheSize;
+    }
+}
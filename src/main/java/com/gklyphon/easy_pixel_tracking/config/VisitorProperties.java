@@ -0,0 +1,69 @@
+package com.gklyphon.easy_pixel_tracking.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for approximate unique visitor counting.
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+@ConfigurationProperties(prefix = "tracking.visitors")
+public class VisitorProperties {
+
+    /**
+     * Whether distinct visitor IPs are counted.
+     */
+    private boolean enabled = true;
+
+    /**
+     * HyperLogLog precision. Each sketch uses 2^precision bytes; the standard error is about
+     * 1.04 / sqrt(2^precision). Must not change once sketches have been stored.
+     */
+    private int precision = 12;
+
+    /**
+     * Number of sketches held in memory. When reached, all sketches are written out and released in the
+     * background, while hits keep being counted.
+     */
+    private int maxSketches = 10_000;
+
+    /**
+     * How often in-memory sketches are merged into the stored ones.
+     */
+    private Duration flushInterval = Duration.ofMinutes(1);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    public void setPrecision(int precision) {
+        this.precision = precision;
+    }
+
+    public int getMaxSketches() {
+        return maxSketches;
+    }
+
+    public void setMaxSketches(int maxSketches) {
+        this.maxSketches = maxSketches;
+    }
+
+    public Duration getFlushInterval() {
+        return flushInterval;
+    }
+
+    public void setFlushInterval(Duration flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+}
@@ -0,0 +1,96 @@
+package com.gklyphon.easy_pixel_tracking.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the local write-ahead log that makes accepted hits
+ * independent of database availability.
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+@ConfigurationProperties(prefix = "tracking.wal")
+public class WalProperties {
+
+    /**
+     * Whether hits are appended to the write-ahead log instead of the in-memory buffer.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Directory holding the log segments and the local checkpoint.
+     */
+    private String directory = "data/wal";
+
+    /**
+     * Size of each segment file.
+     */
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+    /**
+     * How often appended records are flushed to the storage device.
+     */
+    private Duration syncInterval = Duration.ofMillis(10);
+
+    /**
+     * Whether a hit is only acknowledged once flushed to the storage device. When disabled a hit
+     * is acknowledged once in the page cache, which survives a crash of the process but not of the machine.
+     */
+    private boolean awaitSync = false;
+
+    /**
+     * How long the replayer waits before retrying a failed write to the database.
+     */
+    private Duration retryInterval = Duration.ofSeconds(1);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    public DataSize getSegmentSize() {
+        return segmentSize;
+    }
+
+    public void setSegmentSize(DataSize segmentSize) {
+        this.segmentSize = segmentSize;
+    }
+
+    public Duration getSyncInterval() {
+        return syncInterval;
+    }
+
+    public void setSyncInterval(Duration syncInterval) {
+        this.syncInterval = syncInterval;
+    }
+
+    public boolean isAwaitSync() {
+        return awaitSync;
+    }
+
+    public void setAwaitSync(boolean awaitSync) {
+        this.awaitSync = awaitSync;
+    }
+
+    public Duration getRetryInterval() {
+        return retryInterval;
+    }
+
+    public void setRetryInterval(Duration retryInterval) {
+        this.retryInterval = retryInterval;
+    }
+}
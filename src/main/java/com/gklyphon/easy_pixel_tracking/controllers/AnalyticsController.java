@@ -0,0 +1,146 @@
+package com.gklyphon.easy_pixel_tracking.controllers;
+
+import com.gklyphon.easy_pixel_tracking.models.HitDimension;
+import com.gklyphon.easy_pixel_tracking.models.RollupGranularity;
+import com.gklyphon.easy_pixel_tracking.models.TopWindow;
+import com.gklyphon.easy_pixel_tracking.services.IRollupService;
+import com.gklyphon.easy_pixel_tracking.services.ITopHittersService;
+import com.gklyphon.easy_pixel_tracking.services.IUniqueVisitorService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * REST controller for aggregated tracking statistics.
+ *
+ * <p>Statistics are answered from pre-aggregated data and never scan the tracking_pixel table.</p>
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+@RestController
+@RequestMapping("/tracking")
+public class AnalyticsController {
+
+    /**
+     * Largest number of values returned by {@code /stats/top}; larger limits are reduced to it.
+     */
+    private static final int MAX_TOP_LIMIT = 1_000;
+
+    private final IRollupService rollupService;
+    private final IUniqueVisitorService uniqueVisitorService;
+    private final ITopHittersService topHittersService;
+
+    public AnalyticsController(IRollupService rollupService, IUniqueVisitorService uniqueVisitorService,
+                               ITopHittersService topHittersService) {
+        this.rollupService = rollupService;
+        this.uniqueVisitorService = uniqueVisitorService;
+        this.topHittersService = topHittersService;
+    }
+
+    /**
+     * Retrieves the number of hits per time bucket for a dimension value.
+     *
+     * @param granularity bucket size (default: HOUR)
+     * @param dimension   dimension to read (default: ALL)
+     * @param value       dimension value, not needed for ALL
+     * @param from        inclusive start of the range (default: one day before {@code to})
+     * @param to          exclusive end of the range (default: now)
+     * @return hits per bucket ordered by time
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<?> getTimeSeries(
+            @RequestParam(value = "granularity", defaultValue = "HOUR") RollupGranularity granularity,
+            @RequestParam(value = "dimension", defaultValue = "ALL") HitDimension dimension,
+            @RequestParam(value = "value", required = false) String value,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minusDays(1);
+        try {
+            return ResponseEntity.ok(rollupService.getTimeSeries(granularity, dimension, value, start, end));
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Retrieves the dimension values with the most hits in a time range.
+     *
+     * @param granularity bucket size to read (default: HOUR)
+     * @param dimension   dimension to rank (default: REFERER)
+     * @param from        inclusive start of the range (default: one day before {@code to})
+     * @param to          exclusive end of the range (default: now)
+     * @param limit       number of values, from 1 to 1000 (default: 10)
+     * @return dimension values with their hits, most hits first
+     */
+    @GetMapping("/stats/top")
+    public ResponseEntity<?> getTop(
+            @RequestParam(value = "granularity", defaultValue = "HOUR") RollupGranularity granularity,
+            @RequestParam(value = "dimension", defaultValue = "REFERER") HitDimension dimension,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minusDays(1);
+        try {
+            return ResponseEntity.ok(rollupService.getTop(granularity, dimension, start, end,
+                    Math.min(limit, MAX_TOP_LIMIT)));
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Estimates the number of distinct visitor IPs over a range of days.
+     *
+     * @param referer referer to count, all visitors when omitted
+     * @param from    first day, inclusive (default: {@code to})
+     * @param to      last day, inclusive (default: today)
+     * @return the estimated number of unique visitors
+     */
+    @GetMapping("/stats/unique-visitors")
+    public ResponseEntity<?> getUniqueVisitors(
+            @RequestParam(value = "referer", required = false) String referer,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end;
+        return ResponseEntity.ok(Map.of(
+                "from", start,
+                "to", end,
+                "uniqueVisitors", uniqueVisitorService.estimate(referer, start, end)));
+    }
+
+    /**
+     * Retrieves the values hitting the pixel most often right now, from the in-memory heavy-hitter tracker.
+     *
+     * @param dimension dimension to rank: IP, REFERER or USER_AGENT (default: IP)
+     * @param window    sliding window: ONE_MINUTE, FIVE_MINUTES or ONE_HOUR (default: ONE_MINUTE)
+     * @param limit     number of values (default: 10)
+     * @return the heavy hitters with their estimated hits and error bound
+     */
+    @GetMapping("/top")
+    public ResponseEntity<?> getHeavyHitters(
+            @RequestParam(value = "dimension", defaultValue = "IP") HitDimension dimension,
+            @RequestParam(value = "window", defaultValue = "ONE_MINUTE") TopWindow window,
+            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        if (dimension == HitDimension.ALL) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Dimension ALL has no heavy hitters");
+        }
+        try {
+            return ResponseEntity.ok(topHittersService.getTop(dimension, window).limit(Math.max(0, limit)));
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage(), ex);
+        }
+    }
+}
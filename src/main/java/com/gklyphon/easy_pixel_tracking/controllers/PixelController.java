@@ -1,21 +1,49 @@
 package com.gklyphon.easy_pixel_tracking.controllers;
 
+import com.gklyphon.easy_pixel_tracking.config.PixelProperties;
+import com.gklyphon.easy_pixel_tracking.models.HitVerdict;
+import com.gklyphon.easy_pixel_tracking.models.PixelImage;
 import com.gklyphon.easy_pixel_tracking.models.TrackingPixel;
-import com.gklyphon.easy_pixel_tracking.services.ITrackingPixelService;
+import com.gklyphon.easy_pixel_tracking.services.ICampaignService;
+import com.gklyphon.easy_pixel_tracking.services.IHitIngestionService;
+import com.gklyphon.easy_pixel_tracking.services.IHitThrottleService;
+import com.gklyphon.easy_pixel_tracking.utils.IpAddresses;
+import com.gklyphon.easy_pixel_tracking.utils.Tokens;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import jakarta.servlet.http.HttpServletRequest;
-import org.springframework.core.io.ClassPathResource;
-import org.springframework.http.MediaType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.io.IOException;
-import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Controller for handling tracking pixel requests.
  *
- * <p>The pixel image is served as a PNG file from the classpath resources.</p>
+ * <p>The pixel image is loaded once at startup and every request is answered with the same
+ * precomputed response, so serving it costs neither I/O nor allocations. In async mode the
+ * hit is submitted from a dedicated executor with a bounded queue; when the queue is full the hit is submitted from
+ * the request thread, so ingestion backpressure still applies, and queued hits are submitted before shutdown
+ * completes. Repeated hits and hits beyond the rate of their IP are
+ * discarded on the request thread before ingestion, and still answered with the pixel.</p>
+ *
+ * <p>Campaign pixels are served under {@code /pixel/{campaign}} and record the campaign id, and an optional
+ * recipient token, with the hit. The pixel is always served, so a mail client never shows a broken image; a campaign
+ * id that is not a token or not allowed is recorded as a hit without a campaign.</p>
  *
  * @author JFCiscoHuerta
  * @date 2025-03-26
@@ -24,30 +52,175 @@ import java.nio.file.Files;
 @RequestMapping("/pixel")
 public class PixelController {
 
-    private final ITrackingPixelService pixelTrackingService;
+    private static final Logger log = LoggerFactory.getLogger(PixelController.class);
+
+    private final IHitIngestionService hitIngestionService;
+    private final IHitThrottleService hitThrottleService;
+    private final ICampaignService campaignService;
+    private final ThreadPoolTaskExecutor submitExecutor;
+    private final int ipv4PrefixLength;
+    private final int ipv6PrefixLength;
+    private final ResponseEntity<byte[]> pixelResponse;
+    private final Timer requestTimer;
 
-    public PixelController(ITrackingPixelService pixelTrackingService) {
-        this.pixelTrackingService = pixelTrackingService;
+    public PixelController(IHitIngestionService hitIngestionService, IHitThrottleService hitThrottleService,
+                           ICampaignService campaignService, PixelProperties pixelProperties,
+                           MeterRegistry meterRegistry) {
+        this.hitIngestionService = hitIngestionService;
+        this.hitThrottleService = hitThrottleService;
+        this.campaignService = campaignService;
+        this.submitExecutor = pixelProperties.isAsync() ? submitExecutor(pixelProperties) : null;
+        if (submitExecutor != null) {
+            Gauge.builder("tracking.pixel.async.queued", submitExecutor,
+                            executor -> executor.getThreadPoolExecutor().getQueue().size())
+                    .description("Hits waiting to be submitted to ingestion in async mode")
+                    .register(meterRegistry);
+        }
+        this.ipv4PrefixLength = pixelProperties.getIpv4PrefixLength();
+        this.ipv6PrefixLength = pixelProperties.getIpv6PrefixLength();
+        this.pixelResponse = buildPixelResponse(pixelProperties.getFormat());
+        this.requestTimer = Timer.builder("tracking.pixel.requests")
+                .description("Time spent in the pixel handler, from reading the request to returning the response")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
 
     /**
      * Handles requests to the tracking pixel endpoint.
-     * Logs request details and serves a transparent 1x1 PNG image.
+     * Hands the request details to the ingestion pipeline and serves the configured pixel variant.
      *
      * @param request HttpServletRequest containing client request details
      * @return ResponseEntity containing the tracking pixel image as byte array
      */
-    @GetMapping(produces = MediaType.IMAGE_PNG_VALUE)
-    public byte[] getPixel(HttpServletRequest request) throws IOException {
+    @GetMapping
+    public ResponseEntity<byte[]> getPixel(HttpServletRequest request) {
+        long start = System.nanoTime();
+        TrackingPixel trackingPixel = new TrackingPixel.Builder()
+                .ip(clientIp(request))
+                .userAgent(request.getHeader("User-Agent"))
+                .referer(request.getHeader("Referer"))
+                .build();
+        return record(trackingPixel, start);
+    }
+
+    /**
+     * Handles requests to the pixel of a campaign.
+     * A campaign id that is not accepted, or a recipient that is not a valid token, is not recorded.
+     *
+     * @param campaign  the campaign id
+     * @param recipient token identifying the recipient (optional)
+     * @param request   HttpServletRequest containing client request details
+     * @return ResponseEntity containing the tracking pixel image as byte array
+     */
+    @GetMapping("/{campaign}")
+    public ResponseEntity<byte[]> getCampaignPixel(
+            @PathVariable String campaign,
+            @RequestParam(value = "recipient", required = false) String recipient,
+            HttpServletRequest request) {
+        long start = System.nanoTime();
+        boolean accepted = campaignService.accepts(campaign);
         TrackingPixel trackingPixel = new TrackingPixel.Builder()
-                .ip(request.getRemoteAddr())
+                .ip(clientIp(request))
                 .userAgent(request.getHeader("User-Agent"))
                 .referer(request.getHeader("Referer"))
+                .campaign(accepted ? campaign : null)
+                .recipient(accepted && Tokens.isValid(recipient, TrackingPixel.RECIPIENT_LENGTH) ? recipient : null)
                 .build();
+        return record(trackingPixel, start);
+    }
+
+    /**
+     * Hands a hit to the ingestion pipeline unless it is throttled, and serves the pixel.
+     *
+     * @param trackingPixel the hit read from the request
+     * @param start         when handling of the request started, from {@link System#nanoTime()}
+     * @return the pixel response
+     */
+    private ResponseEntity<byte[]> record(TrackingPixel trackingPixel, long start) {
+        if (hitThrottleService.admit(trackingPixel) == HitVerdict.ACCEPTED) {
+            if (submitExecutor != null) {
+                submitAsync(trackingPixel);
+            } else {
+                hitIngestionService.submit(trackingPixel);
+            }
+        }
+
+        requestTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return pixelResponse;
+    }
+
+    /**
+     * Reads the client address, truncated to the configured prefix lengths.
+     *
+     * @param request the pixel request
+     * @return the address to store
+     */
+    private String clientIp(HttpServletRequest request) {
+        String ip = request.getRemoteAddr();
+        if (ipv4PrefixLength >= 32 && ipv6PrefixLength >= 128) {
+            return ip;
+        }
+        return IpAddresses.anonymize(ip, ipv4PrefixLength, ipv6PrefixLength);
+    }
+
+    /**
+     * Submits a hit from the submit executor. When its queue is full, the hit is submitted
+     * from the request thread instead of being lost.
+     *
+     * @param trackingPixel the hit, fully read from the request
+     */
+    private void submitAsync(TrackingPixel trackingPixel) {
+        try {
+            submitExecutor.execute(() -> hitIngestionService.submit(trackingPixel));
+        } catch (TaskRejectedException ex) {
+            log.debug("Submit queue is full, submitting a hit synchronously.", ex);
+            hitIngestionService.submit(trackingPixel);
+        }
+    }
+
+    /**
+     * Submits the queued hits and stops the submit executor. Runs before the ingestion service is stopped,
+     * as this controller depends on it.
+     */
+    @PreDestroy
+    public void stop() {
+        if (submitExecutor != null) {
+            submitExecutor.shutdown();
+        }
+    }
+
+    private static ThreadPoolTaskExecutor submitExecutor(PixelProperties pixelProperties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(pixelProperties.getAsyncThreads());
+        executor.setMaxPoolSize(pixelProperties.getAsyncThreads());
+        executor.setQueueCapacity(pixelProperties.getAsyncQueueCapacity());
+        executor.setThreadNamePrefix("pixel-submit-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Builds the shared, read-only response for the given pixel variant.
+     * Images carry Content-Type, Content-Length and a content based ETag; the body-less
+     * variant is a plain 204. All variants are marked as not storable by caches.
+     *
+     * @param pixelImage the variant to serve
+     * @return the precomputed response
+     */
+    private static ResponseEntity<byte[]> buildPixelResponse(PixelImage pixelImage) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setCacheControl(CacheControl.noStore());
 
-        pixelTrackingService.save(trackingPixel);
+        if (pixelImage == PixelImage.NONE) {
+            return new ResponseEntity<>(headers, HttpStatus.NO_CONTENT);
+        }
 
-        ClassPathResource resourceFile = new ClassPathResource("static/pixel.png");
-        return Files.readAllBytes(resourceFile.getFile().toPath());
+        byte[] body = pixelImage.load();
+        headers.setContentType(pixelImage.getMediaType());
+        headers.setContentLength(body.length);
+        headers.setETag("\"" + DigestUtils.md5DigestAsHex(body) + "\"");
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
     }
 }
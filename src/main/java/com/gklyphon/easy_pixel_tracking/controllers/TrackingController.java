@@ -1,14 +1,48 @@
 package com.gklyphon.easy_pixel_tracking.controllers;
 
+import com.gklyphon.easy_pixel_tracking.config.ExportProperties;
+import com.gklyphon.easy_pixel_tracking.models.BatchFormat;
+import com.gklyphon.easy_pixel_tracking.models.BatchResult;
+import com.gklyphon.easy_pixel_tracking.models.CampaignCount;
+import com.gklyphon.easy_pixel_tracking.models.ExportFilter;
+import com.gklyphon.easy_pixel_tracking.models.ExportFormat;
+import com.gklyphon.easy_pixel_tracking.models.HitDimension;
+import com.gklyphon.easy_pixel_tracking.models.HitStreamFilter;
+import com.gklyphon.easy_pixel_tracking.models.TrackingCursor;
 import com.gklyphon.easy_pixel_tracking.models.TrackingPixel;
+import com.gklyphon.easy_pixel_tracking.services.IBatchIngestionService;
+import com.gklyphon.easy_pixel_tracking.services.ICampaignService;
+import com.gklyphon.easy_pixel_tracking.services.IHitStreamService;
+import com.gklyphon.easy_pixel_tracking.services.ITrackingExportService;
 import com.gklyphon.easy_pixel_tracking.services.ITrackingPixelService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.data.domain.*;
 import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.LinkRelation;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * REST controller for managing Tracking operations.
@@ -20,12 +54,33 @@ import org.springframework.web.bind.annotation.*;
 @RequestMapping("/tracking")
 public class TrackingController {
 
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Largest page or slice returned; larger sizes are reduced to it.
+     */
+    private static final int MAX_PAGE_SIZE = 1_000;
+
     private final ITrackingPixelService trackingPixelService;
+    private final ITrackingExportService trackingExportService;
+    private final IHitStreamService hitStreamService;
+    private final IBatchIngestionService batchIngestionService;
+    private final ICampaignService campaignService;
     private final PagedResourcesAssembler<TrackingPixel> pagedResourcesAssembler;
+    private final ExportProperties exportProperties;
 
-    public TrackingController(ITrackingPixelService trackingPixelService, PagedResourcesAssembler<TrackingPixel> pagedResourcesAssembler) {
+    public TrackingController(ITrackingPixelService trackingPixelService, ITrackingExportService trackingExportService,
+                              IHitStreamService hitStreamService, IBatchIngestionService batchIngestionService,
+                              ICampaignService campaignService,
+                              PagedResourcesAssembler<TrackingPixel> pagedResourcesAssembler,
+                              ExportProperties exportProperties) {
         this.trackingPixelService = trackingPixelService;
+        this.trackingExportService = trackingExportService;
+        this.hitStreamService = hitStreamService;
+        this.batchIngestionService = batchIngestionService;
+        this.campaignService = campaignService;
         this.pagedResourcesAssembler = pagedResourcesAssembler;
+        this.exportProperties = exportProperties;
     }
 
     /**
@@ -44,14 +99,14 @@ public class TrackingController {
      * Retrieves a paginated list of all tracking pixels.
      *
      * @param page page number (default: 0)
-     * @param size page size (default: 10)
+     * @param size page size, from 1, at most 1000 (default: 10)
      * @return paginated tracking pixels
      */
     @GetMapping
     public ResponseEntity<?> getAll(
             @RequestParam(value = "page", defaultValue = "0") int page,
             @RequestParam(value = "size", defaultValue = "10") int size) {
-        Pageable pageable = PageRequest.of(page, size);
+        Pageable pageable = pageRequest(page, size, Sort.unsorted());
         return ResponseEntity.ok(
                 buildPagedModel(trackingPixelService.findAll(pageable)));
     }
@@ -61,7 +116,7 @@ public class TrackingController {
      *
      * @param ip   the IP address to filter by
      * @param page page number (default: 0)
-     * @param size page size (default: 10)
+     * @param size page size, from 1, at most 1000 (default: 10)
      * @return paginated tracking pixels
      */
     @GetMapping("/by-ip")
@@ -69,17 +124,39 @@ public class TrackingController {
             @RequestParam("ip") String ip,
             @RequestParam(value = "page", defaultValue = "0") int page,
             @RequestParam(value = "size", defaultValue = "10") int size) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
+        Pageable pageable = pageRequest(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
         return ResponseEntity.ok(
                 buildPagedModel(trackingPixelService.findByIpOrderByCreatedAt(ip, pageable)));
     }
 
+    /**
+     * Retrieves a paginated list of tracking pixels whose IP lies in a network.
+     *
+     * @param range network in CIDR notation, e.g. 10.0.0.0/8 or 2001:db8::/32
+     * @param page  page number (default: 0)
+     * @param size  page size, from 1, at most 1000 (default: 10)
+     * @return paginated tracking pixels
+     */
+    @GetMapping("/by-cidr")
+    public ResponseEntity<?> getAllByCidr(
+            @RequestParam("range") String range,
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "10") int size) {
+        Pageable pageable = pageRequest(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
+        try {
+            return ResponseEntity.ok(
+                    buildPagedModel(trackingPixelService.findByCidrOrderByCreatedAt(range, pageable)));
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid CIDR range.", ex);
+        }
+    }
+
     /**
      * Retrieves a paginated list of tracking pixels filtered by user-agent.
      *
      * @param userAgent user agent string to filter by
      * @param page      page number (default: 0)
-     * @param size      page size (default: 10)
+     * @param size      page size, from 1, at most 1000 (default: 10)
      * @return paginated tracking pixels
      */
     @GetMapping("/by-user-agent")
@@ -87,7 +164,7 @@ public class TrackingController {
             @RequestParam("user-agent") String userAgent,
             @RequestParam(value = "page", defaultValue = "0") int page,
             @RequestParam(value = "size", defaultValue = "10") int size) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
+        Pageable pageable = pageRequest(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
         return ResponseEntity.ok(
                 buildPagedModel(trackingPixelService.findByUserAgentOrderByCreatedAt(userAgent, pageable)));
     }
@@ -97,7 +174,7 @@ public class TrackingController {
      *
      * @param referer referrer URL to filter by
      * @param page    page number (default: 0)
-     * @param size    page size (default: 10)
+     * @param size    page size, from 1, at most 1000 (default: 10)
      * @return paginated tracking pixels
      */
     @GetMapping("/by-referer")
@@ -105,21 +182,275 @@ public class TrackingController {
             @RequestParam("referer") String referer,
             @RequestParam(value = "page", defaultValue = "0") int page,
             @RequestParam(value = "size", defaultValue = "10") int size) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
+        Pageable pageable = pageRequest(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
         return ResponseEntity.ok(
                 buildPagedModel(trackingPixelService.findByRefererOrderByCreatedAt(referer, pageable)));
     }
 
+    /**
+     * Retrieves a paginated list of the tracking pixels of a campaign.
+     *
+     * @param campaign campaign id to filter by
+     * @param page     page number (default: 0)
+     * @param size     page size, from 1, at most 1000 (default: 10)
+     * @return paginated tracking pixels
+     */
+    @GetMapping("/campaigns/{campaign}")
+    public ResponseEntity<?> getAllByCampaign(
+            @PathVariable String campaign,
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "10") int size) {
+        Pageable pageable = pageRequest(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
+        return ResponseEntity.ok(
+                buildPagedModel(trackingPixelService.findByCampaignOrderByCreatedAt(campaign, pageable)));
+    }
+
+    /**
+     * Retrieves the number of hits of a campaign from the in-memory counters, without reading its tracking pixels.
+     *
+     * @param campaign campaign id
+     * @return the campaign id and its hits, or 400 if the id is not a valid campaign id
+     */
+    @GetMapping("/campaigns/{campaign}/count")
+    public ResponseEntity<CampaignCount> getCampaignCount(@PathVariable String campaign) {
+        try {
+            return ResponseEntity.ok(campaignService.count(campaign));
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Retrieves a paginated list of tracking pixels filtered by an attribute parsed from the user agent.
+     *
+     * @param dimension BROWSER, OPERATING_SYSTEM, DEVICE_CLASS or BOT
+     * @param value     attribute value, e.g. CHROME, ANDROID, MOBILE, or true/false for BOT
+     * @param page      page number (default: 0)
+     * @param size      page size, from 1, at most 1000 (default: 10)
+     * @return paginated tracking pixels
+     */
+    @GetMapping("/by-client")
+    public ResponseEntity<?> getAllByClient(
+            @RequestParam("dimension") HitDimension dimension,
+            @RequestParam("value") String value,
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "10") int size) {
+        Pageable pageable = pageRequest(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
+        try {
+            return ResponseEntity.ok(
+                    buildPagedModel(trackingPixelService.findByClientOrderByCreatedAt(dimension, value, pageable)));
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Retrieves a slice of all tracking pixels using keyset pagination, newest first.
+     * Every slice costs the same regardless of how deep it is and no total count is computed.
+     *
+     * @param after  cursor token returning entries older than it (optional)
+     * @param before cursor token returning entries newer than it (optional)
+     * @param size   slice size, from 1, at most 1000 (default: 10)
+     * @return tracking pixels with next/prev cursor links
+     */
+    @GetMapping("/scroll")
+    public ResponseEntity<?> scrollAll(
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "before", required = false) String before,
+            @RequestParam(value = "size", defaultValue = "10") int size) {
+        TrackingCursor cursor = parseCursor(after, before);
+        return ResponseEntity.ok(
+                buildCursorModel(trackingPixelService.scrollAll(cursor, sliceSize(size)), cursor));
+    }
+
+    /**
+     * Retrieves a slice of tracking pixels filtered by IP using keyset pagination, newest first.
+     *
+     * @param ip     the IP address to filter by
+     * @param after  cursor token returning entries older than it (optional)
+     * @param before cursor token returning entries newer than it (optional)
+     * @param size   slice size, from 1, at most 1000 (default: 10)
+     * @return tracking pixels with next/prev cursor links
+     */
+    @GetMapping("/scroll/by-ip")
+    public ResponseEntity<?> scrollByIp(
+            @RequestParam("ip") String ip,
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "before", required = false) String before,
+            @RequestParam(value = "size", defaultValue = "10") int size) {
+        TrackingCursor cursor = parseCursor(after, before);
+        return ResponseEntity.ok(
+                buildCursorModel(trackingPixelService.scrollByIp(ip, cursor, sliceSize(size)), cursor));
+    }
+
+    /**
+     * Retrieves a slice of tracking pixels filtered by user-agent using keyset pagination, newest first.
+     *
+     * @param userAgent user agent string to filter by
+     * @param after     cursor token returning entries older than it (optional)
+     * @param before    cursor token returning entries newer than it (optional)
+     * @param size      slice size, from 1, at most 1000 (default: 10)
+     * @return tracking pixels with next/prev cursor links
+     */
+    @GetMapping("/scroll/by-user-agent")
+    public ResponseEntity<?> scrollByUserAgent(
+            @RequestParam("user-agent") String userAgent,
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "before", required = false) String before,
+            @RequestParam(value = "size", defaultValue = "10") int size) {
+        TrackingCursor cursor = parseCursor(after, before);
+        return ResponseEntity.ok(
+                buildCursorModel(trackingPixelService.scrollByUserAgent(userAgent, cursor, sliceSize(size)), cursor));
+    }
+
+    /**
+     * Retrieves a slice of tracking pixels filtered by referrer URL using keyset pagination, newest first.
+     *
+     * @param referer referrer URL to filter by
+     * @param after   cursor token returning entries older than it (optional)
+     * @param before  cursor token returning entries newer than it (optional)
+     * @param size    slice size, from 1, at most 1000 (default: 10)
+     * @return tracking pixels with next/prev cursor links
+     */
+    @GetMapping("/scroll/by-referer")
+    public ResponseEntity<?> scrollByReferer(
+            @RequestParam("referer") String referer,
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "before", required = false) String before,
+            @RequestParam(value = "size", defaultValue = "10") int size) {
+        TrackingCursor cursor = parseCursor(after, before);
+        return ResponseEntity.ok(
+                buildCursorModel(trackingPixelService.scrollByReferer(referer, cursor, sliceSize(size)), cursor));
+    }
+
+    /**
+     * Retrieves a slice of the tracking pixels of a campaign using keyset pagination, newest first.
+     *
+     * @param campaign campaign id to filter by
+     * @param after    cursor token returning entries older than it (optional)
+     * @param before   cursor token returning entries newer than it (optional)
+     * @param size     slice size, from 1, at most 1000 (default: 10)
+     * @return tracking pixels with next/prev cursor links
+     */
+    @GetMapping("/campaigns/{campaign}/scroll")
+    public ResponseEntity<?> scrollByCampaign(
+            @PathVariable String campaign,
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "before", required = false) String before,
+            @RequestParam(value = "size", defaultValue = "10") int size) {
+        TrackingCursor cursor = parseCursor(after, before);
+        return ResponseEntity.ok(
+                buildCursorModel(trackingPixelService.scrollByCampaign(campaign, cursor, sliceSize(size)), cursor));
+    }
+
+    /**
+     * Streams every tracking pixel matching the filters, newest first, as a file download.
+     * Rows are written as they are read from the database, so the response has no size limit; it is cut off after
+     * {@code tracking.export.timeout} instead of the default timeout of asynchronous requests.
+     *
+     * @param format    NDJSON or CSV (default: NDJSON)
+     * @param gzip      compress the response with {@code Content-Encoding: gzip} (default: false)
+     * @param from      inclusive start of the creation date range (optional)
+     * @param to        exclusive end of the creation date range (optional)
+     * @param ip        IP address to filter by (optional)
+     * @param userAgent user agent string to filter by (optional)
+     * @param referer   referrer URL to filter by (optional)
+     * @param request   the current request, whose asynchronous timeout is extended
+     * @return the streamed export
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(value = "format", defaultValue = "NDJSON") ExportFormat format,
+            @RequestParam(value = "gzip", defaultValue = "false") boolean gzip,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(value = "ip", required = false) String ip,
+            @RequestParam(value = "user-agent", required = false) String userAgent,
+            @RequestParam(value = "referer", required = false) String referer,
+            HttpServletRequest request) {
+        WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest()
+                .setTimeout(exportProperties.getTimeout().toMillis());
+        ExportFilter filter = new ExportFilter(from, to, ip, userAgent, referer);
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream gzipOut = new GZIPOutputStream(out, GZIP_BUFFER_SIZE);
+                trackingExportService.export(filter, format, gzipOut);
+                gzipOut.finish();
+            } else {
+                trackingExportService.export(filter, format, out);
+            }
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getMediaType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("tracking-export." + format.getExtension())
+                        .build()
+                        .toString());
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    /**
+     * Pushes hits as server-sent events as they are accepted, without querying the database.
+     * Each hit is a {@code hit} event; with {@code coalesce} each second with matching hits is one {@code frame}
+     * event carrying the counts instead. A client that reads too slowly loses the oldest events.
+     *
+     * @param referer  referrer URL prefix to filter by (optional)
+     * @param ip       IP address to filter by (optional)
+     * @param bot      keep only bot hits ({@code true}) or only hits from people ({@code false}) (optional)
+     * @param coalesce send per-second frames instead of individual hits (default: false)
+     * @return the event stream, or 503 if too many clients are subscribed
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(
+            @RequestParam(value = "referer", required = false) String referer,
+            @RequestParam(value = "ip", required = false) String ip,
+            @RequestParam(value = "bot", required = false) Boolean bot,
+            @RequestParam(value = "coalesce", defaultValue = "false") boolean coalesce) {
+        try {
+            return hitStreamService.subscribe(new HitStreamFilter(referer, ip, bot), coalesce);
+        } catch (IllegalStateException ex) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage(), ex);
+        }
+    }
+
     /**
      * Creates a new tracking pixel.
      *
      * @param trackingPixel the tracking pixel to save
-     * @return the saved tracking pixel
+     * @return the saved tracking pixel, or 400 if its IP address is not an IP literal
      */
     @PostMapping
     public ResponseEntity<?> create(@RequestBody TrackingPixel trackingPixel) {
-        TrackingPixel trackingPixelToSave = trackingPixelService.save(trackingPixel);
-        return ResponseEntity.status(HttpStatus.CREATED).body(trackingPixelToSave);
+        try {
+            TrackingPixel trackingPixelToSave = trackingPixelService.save(trackingPixel);
+            return ResponseEntity.status(HttpStatus.CREATED).body(trackingPixelToSave);
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Ingests a batch of tracking pixels, sent as NDJSON or in the compact binary format.
+     * The body is decoded and written in chunks while it is read, so a batch of any size is held in constant memory.
+     *
+     * @param contentType     {@code application/x-ndjson} or {@code application/octet-stream}
+     * @param contentEncoding {@code gzip} if the body is compressed (optional)
+     * @param body            the records
+     * @return the counts per status and every record not accepted, with 413 if the batch was cut off
+     * @throws IOException if the body cannot be read
+     */
+    @PostMapping(value = "/batch", consumes = {"application/x-ndjson", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<BatchResult> createBatch(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding,
+            InputStream body) throws IOException {
+        InputStream in = "gzip".equalsIgnoreCase(contentEncoding) ? new GZIPInputStream(body, GZIP_BUFFER_SIZE) : body;
+        BatchResult result = batchIngestionService.ingest(BatchFormat.fromContentType(contentType), in);
+        return ResponseEntity.status(result.isTruncated() ? HttpStatus.PAYLOAD_TOO_LARGE : HttpStatus.OK)
+                .body(result);
     }
 
     /**
@@ -127,11 +458,15 @@ public class TrackingController {
      *
      * @param id            the ID of the tracking pixel to update
      * @param trackingPixel the updated tracking pixel data
-     * @return the updated tracking pixel entity
+     * @return the updated tracking pixel entity, or 400 if its IP address is not an IP literal
      */
     @PutMapping("/{id}")
     public ResponseEntity<?> update(@PathVariable Long id, @RequestBody TrackingPixel trackingPixel) {
-        return ResponseEntity.ok(trackingPixelService.update(id, trackingPixel));
+        try {
+            return ResponseEntity.ok(trackingPixelService.update(id, trackingPixel));
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage(), ex);
+        }
     }
 
     /**
@@ -145,6 +480,30 @@ public class TrackingController {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Builds the page request of a paged listing, reducing the size to {@link #MAX_PAGE_SIZE}.
+     *
+     * @throws ResponseStatusException 400 if the page is negative or the size is below 1
+     */
+    private static Pageable pageRequest(int page, int size, Sort sort) {
+        if (page < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "page: must not be negative");
+        }
+        return PageRequest.of(page, sliceSize(size), sort);
+    }
+
+    /**
+     * Reduces a page or slice size to {@link #MAX_PAGE_SIZE}.
+     *
+     * @throws ResponseStatusException 400 if the size is below 1
+     */
+    private static int sliceSize(int size) {
+        if (size < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "size: must be at least 1");
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+
     /**
      * Converts a paginated list of TrackingPixel entities into a HATEOAS-compliant PagedModel.
      *
@@ -155,4 +514,65 @@ public class TrackingController {
         return pagedResourcesAssembler.toModel(page);
     }
 
+    /**
+     * Resolves the cursor from the optional {@code after} and {@code before} tokens.
+     *
+     * @param after  token for entries older than it
+     * @param before token for entries newer than it
+     * @return the requested cursor, or the first page when no token is given
+     */
+    private TrackingCursor parseCursor(String after, String before) {
+        if (after != null && before != null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Use either 'after' or 'before', not both.");
+        }
+        try {
+            if (after != null) {
+                return TrackingCursor.after(after);
+            }
+            if (before != null) {
+                return TrackingCursor.before(before);
+            }
+            return TrackingCursor.first();
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor token.", ex);
+        }
+    }
+
+    /**
+     * Converts a slice of TrackingPixel entities into a HATEOAS collection with cursor links.
+     * The {@code next} link points to older entries and the {@code prev} link to newer ones.
+     *
+     * @param slice  the slice of tracking pixels, newest first
+     * @param cursor the cursor the slice was read from
+     * @return a CollectionModel containing tracking pixels and navigation links
+     */
+    private CollectionModel<EntityModel<TrackingPixel>> buildCursorModel(Slice<TrackingPixel> slice, TrackingCursor cursor) {
+        List<EntityModel<TrackingPixel>> content = slice.getContent().stream()
+                .map(EntityModel::of)
+                .toList();
+        CollectionModel<EntityModel<TrackingPixel>> model = CollectionModel.of(content,
+                Link.of(ServletUriComponentsBuilder.fromCurrentRequest().toUriString()));
+
+        if (slice.hasContent()) {
+            boolean hasOlder = cursor.isBackward() || slice.hasNext();
+            boolean hasNewer = cursor.isBackward() ? slice.hasNext() : !cursor.isFirst();
+            if (hasOlder) {
+                model.add(buildCursorLink("after", content.get(content.size() - 1).getContent(), IanaLinkRelations.NEXT));
+            }
+            if (hasNewer) {
+                model.add(buildCursorLink("before", content.get(0).getContent(), IanaLinkRelations.PREV));
+            }
+        }
+        return model;
+    }
+
+    private Link buildCursorLink(String parameter, TrackingPixel position, LinkRelation relation) {
+        String href = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("after")
+                .replaceQueryParam("before")
+                .replaceQueryParam(parameter, TrackingCursor.encode(position))
+                .toUriString();
+        return Link.of(href, relation);
+    }
+
 }
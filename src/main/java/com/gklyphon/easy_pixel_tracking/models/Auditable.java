@@ -26,11 +26,14 @@ public class Auditable {
 
     /**
      * Initializes the timestamps before the entity is persisted.
+     * A creation timestamp assigned at ingestion time is kept.
      */
     @PrePersist
     protected void onCreate() {
-        this.createdAt = LocalDateTime.now();
-        this.updatedAt = LocalDateTime.now();
+        if (this.createdAt == null) {
+            this.createdAt = LocalDateTime.now();
+        }
+        this.updatedAt = this.createdAt;
     }
 
     /**
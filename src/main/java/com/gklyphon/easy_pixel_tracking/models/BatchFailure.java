@@ -0,0 +1,13 @@
+package com.gklyphon.easy_pixel_tracking.models;
+
+/**
+ * A record of a bulk ingestion batch that was not accepted.
+ *
+ * @param index  position of the record in the batch, from 0
+ * @param status why the record was not accepted
+ * @param error  what is wrong with the record
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+public record BatchFailure(long index, BatchRecordStatus status, String error) {
+}
@@ -0,0 +1,50 @@
+package com.gklyphon.easy_pixel_tracking.models;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Input formats of the bulk ingestion endpoint.
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+public enum BatchFormat {
+
+    /**
+     * One JSON object per line with the optional fields {@code createdAt}, {@code ip}, {@code userAgent}
+     * and {@code referer}.
+     */
+    NDJSON("application/x-ndjson"),
+
+    /**
+     * Length-prefixed binary records, see {@link com.gklyphon.easy_pixel_tracking.utils.BatchReader}.
+     */
+    BINARY(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+
+    private final String mediaType;
+
+    BatchFormat(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Resolves the format of a request body.
+     *
+     * @param contentType the Content-Type header of the request
+     * @return the format
+     * @throws IllegalArgumentException if no format has this media type
+     */
+    public static BatchFormat fromContentType(String contentType) {
+        MediaType mediaType = MediaType.parseMediaType(contentType);
+        for (BatchFormat format : values()) {
+            if (mediaType.isCompatibleWith(MediaType.parseMediaType(format.mediaType))) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported batch format: " + contentType);
+    }
+}
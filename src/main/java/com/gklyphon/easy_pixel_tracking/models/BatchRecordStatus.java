@@ -0,0 +1,25 @@
+package com.gklyphon.easy_pixel_tracking.models;
+
+/**
+ * Outcome of one record of a bulk ingestion batch.
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+public enum BatchRecordStatus {
+
+    /**
+     * The record was written to the database.
+     */
+    ACCEPTED,
+
+    /**
+     * The record is malformed or invalid and was skipped. Sending it again fails the same way.
+     */
+    REJECTED,
+
+    /**
+     * The record is valid but its chunk could not be written. It can be sent again.
+     */
+    FAILED
+}
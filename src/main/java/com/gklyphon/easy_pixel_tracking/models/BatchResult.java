@@ -0,0 +1,99 @@
+package com.gklyphon.easy_pixel_tracking.models;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk ingestion batch. Every record that is not listed in {@link #getFailures()} was accepted,
+ * unless {@link #isFailuresTruncated()}: only the first records not accepted are listed, the rest are counted.
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+public class BatchResult {
+
+    private long records;
+    private long accepted;
+    private long rejected;
+    private long failed;
+    private boolean truncated;
+    private boolean failuresTruncated;
+    private final int maxFailures;
+    private final List<BatchFailure> failures = new ArrayList<>();
+
+    /**
+     * @param maxFailures most records not accepted that are listed
+     */
+    public BatchResult(int maxFailures) {
+        this.maxFailures = maxFailures;
+    }
+
+    /**
+     * Counts records written to the database.
+     *
+     * @param count the number of records
+     */
+    public void accept(int count) {
+        records += count;
+        accepted += count;
+    }
+
+    /**
+     * Records a record that was not accepted.
+     *
+     * @param index  position of the record in the batch
+     * @param status why the record was not accepted
+     * @param error  what is wrong with the record
+     */
+    public void fail(long index, BatchRecordStatus status, String error) {
+        records++;
+        if (status == BatchRecordStatus.REJECTED) {
+            rejected++;
+        } else {
+            failed++;
+        }
+        if (failures.size() < maxFailures) {
+            failures.add(new BatchFailure(index, status, error));
+        } else {
+            failuresTruncated = true;
+        }
+    }
+
+    /**
+     * Marks the batch as cut off after {@link #getRecords()} records. The rest of the batch was not read.
+     */
+    public void truncate() {
+        truncated = true;
+    }
+
+    public long getRecords() {
+        return records;
+    }
+
+    public long getAccepted() {
+        return accepted;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    /**
+     * @return true if more records were not accepted than are listed in {@link #getFailures()}
+     */
+    public boolean isFailuresTruncated() {
+        return failuresTruncated;
+    }
+
+    public List<BatchFailure> getFailures() {
+        return failures;
+    }
+}
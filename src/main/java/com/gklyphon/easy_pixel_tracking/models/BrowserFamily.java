@@ -0,0 +1,30 @@
+package com.gklyphon.easy_pixel_tracking.models;
+
+/**
+ * Browser families recognised in user agent strings, see {@link UserAgentInfo}.
+ * Stored by ordinal, so new constants go at the end.
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+public enum BrowserFamily {
+
+    /**
+     * No known browser token, or no user agent at all.
+     */
+    OTHER,
+
+    CHROME,
+
+    FIREFOX,
+
+    SAFARI,
+
+    EDGE,
+
+    OPERA,
+
+    SAMSUNG_INTERNET,
+
+    INTERNET_EXPLORER
+}
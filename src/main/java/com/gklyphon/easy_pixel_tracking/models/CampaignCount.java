@@ -0,0 +1,12 @@
+package com.gklyphon.easy_pixel_tracking.models;
+
+/**
+ * Number of hits of a campaign.
+ *
+ * @param campaign the campaign id
+ * @param hits     hits recorded so far, including those not yet written to the database
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+public record CampaignCount(String campaign, long hits) {
+}
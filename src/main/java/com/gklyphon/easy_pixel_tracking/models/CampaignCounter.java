@@ -0,0 +1,68 @@
+package com.gklyphon.easy_pixel_tracking.models;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * Total number of hits of one campaign, kept up to date by the periodic flush of the in-memory counters.
+ * The campaign id is assigned, so new counters tell JPA they are new instead of being merged over a row
+ * created concurrently by another node.
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+@Entity
+@Table(name = "campaign_counter")
+public class CampaignCounter implements Persistable<String> {
+
+    @Id
+    @Column(length = TrackingPixel.CAMPAIGN_LENGTH)
+    private String campaign;
+
+    @Column(nullable = false)
+    private long hitCount;
+
+    @Transient
+    private boolean newEntry = true;
+
+    /**
+     * Default constructor.
+     */
+    public CampaignCounter() {
+    }
+
+    /**
+     * Parameterized constructor to initialize a CampaignCounter instance.
+     *
+     * @param campaign the campaign id
+     * @param hitCount number of hits
+     */
+    public CampaignCounter(String campaign, long hitCount) {
+        this.campaign = campaign;
+        this.hitCount = hitCount;
+    }
+
+    @Override
+    public String getId() {
+        return campaign;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newEntry;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        this.newEntry = false;
+    }
+
+    public String getCampaign() {
+        return campaign;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+}
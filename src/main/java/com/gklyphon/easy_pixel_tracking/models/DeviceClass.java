@@ -0,0 +1,27 @@
+package com.gklyphon.easy_pixel_tracking.models;
+
+/**
+ * Kinds of device recognised in user agent strings, see {@link UserAgentInfo}.
+ * Stored by ordinal, so new constants go at the end.
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+public enum DeviceClass {
+
+    /**
+     * Neither a known device nor a bot.
+     */
+    OTHER,
+
+    DESKTOP,
+
+    MOBILE,
+
+    TABLET,
+
+    /**
+     * Crawlers, monitors, link previewers and HTTP libraries.
+     */
+    BOT
+}
@@ -0,0 +1,57 @@
+package com.gklyphon.easy_pixel_tracking.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.MappedSuperclass;
+
+/**
+ * Represents a distinct string interned into a dimension table under a small integer key.
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+@MappedSuperclass
+public class DictionaryEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    /**
+     * Hash of {@link #content}, leading the unique index used for lookups.
+     */
+    @Column(nullable = false)
+    private Long contentHash;
+
+    /**
+     * The interned string.
+     */
+    @Column(nullable = false)
+    private String content;
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public Long getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(Long contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+}
@@ -0,0 +1,53 @@
+package com.gklyphon.easy_pixel_tracking.models;
+
+import java.time.LocalDateTime;
+
+/**
+ * Selects the tracking pixels included in an export. Every criterion is optional.
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+public class ExportFilter {
+
+    private final LocalDateTime from;
+    private final LocalDateTime to;
+    private final String ip;
+    private final String userAgent;
+    private final String referer;
+
+    /**
+     * @param from      inclusive lower bound of the creation date
+     * @param to        exclusive upper bound of the creation date
+     * @param ip        exact IP address
+     * @param userAgent exact user agent string
+     * @param referer   exact referrer URL
+     */
+    public ExportFilter(LocalDateTime from, LocalDateTime to, String ip, String userAgent, String referer) {
+        this.from = from;
+        this.to = to;
+        this.ip = ip;
+        this.userAgent = userAgent;
+        this.referer = referer;
+    }
+
+    public LocalDateTime getFrom() {
+        return from;
+    }
+
+    public LocalDateTime getTo() {
+        return to;
+    }
+
+    public String getIp() {
+        return ip;
+    }
+
+    public String getUserAgent() {
+        return userAgent;
+    }
+
+    public String getReferer() {
+        return referer;
+    }
+}
@@ -0,0 +1,36 @@
+package com.gklyphon.easy_pixel_tracking.models;
+
+/**
+ * Output formats of the tracking data export.
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+public enum ExportFormat {
+
+    /**
+     * One JSON object per line.
+     */
+    NDJSON("application/x-ndjson", "ndjson"),
+
+    /**
+     * RFC 4180 comma-separated values with a header row.
+     */
+    CSV("text/csv", "csv");
+
+    private final String mediaType;
+    private final String extension;
+
+    ExportFormat(String mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
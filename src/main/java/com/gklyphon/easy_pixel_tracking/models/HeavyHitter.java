@@ -0,0 +1,37 @@
+package com.gklyphon.easy_pixel_tracking.models;
+
+/**
+ * A dimension value with its estimated number of hits in a window.
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+public class HeavyHitter {
+
+    private final String value;
+    private final long count;
+    private final long minCount;
+
+    /**
+     * @param value    the dimension value
+     * @param count    the estimated hits, never below the true count
+     * @param minCount the lower bound of the true count
+     */
+    public HeavyHitter(String value, long count, long minCount) {
+        this.value = value;
+        this.count = count;
+        this.minCount = minCount;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getMinCount() {
+        return minCount;
+    }
+}
@@ -0,0 +1,76 @@
+package com.gklyphon.easy_pixel_tracking.models;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Snapshot of the most frequent values of a dimension within a sliding window.
+ *
+ * <p>Each count overestimates the true number of hits by at most {@code errorBound}
+ * with probability {@code confidence}.</p>
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+public class HeavyHitters {
+
+    private final HitDimension dimension;
+    private final TopWindow window;
+    private final Instant asOf;
+    private final long total;
+    private final long errorBound;
+    private final double confidence;
+    private final List<HeavyHitter> hitters;
+
+    public HeavyHitters(HitDimension dimension, TopWindow window, Instant asOf, long total, long errorBound,
+                        double confidence, List<HeavyHitter> hitters) {
+        this.dimension = dimension;
+        this.window = window;
+        this.asOf = asOf;
+        this.total = total;
+        this.errorBound = errorBound;
+        this.confidence = confidence;
+        this.hitters = hitters;
+    }
+
+    /**
+     * Returns a copy of this snapshot with at most {@code limit} hitters.
+     *
+     * @param limit the maximum number of hitters
+     * @return the limited snapshot
+     */
+    public HeavyHitters limit(int limit) {
+        if (hitters.size() <= limit) {
+            return this;
+        }
+        return new HeavyHitters(dimension, window, asOf, total, errorBound, confidence, hitters.subList(0, limit));
+    }
+
+    public HitDimension getDimension() {
+        return dimension;
+    }
+
+    public TopWindow getWindow() {
+        return window;
+    }
+
+    public Instant getAsOf() {
+        return asOf;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public long getErrorBound() {
+        return errorBound;
+    }
+
+    public double getConfidence() {
+        return confidence;
+    }
+
+    public List<HeavyHitter> getHitters() {
+        return hitters;
+    }
+}
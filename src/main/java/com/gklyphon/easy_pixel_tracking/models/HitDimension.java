@@ -0,0 +1,63 @@
+package com.gklyphon.easy_pixel_tracking.models;
+
+import java.util.function.Function;
+
+/**
+ * Attributes of a hit that analytics can be grouped by.
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+public enum HitDimension {
+
+    /**
+     * All hits under a single empty value, used for overall totals.
+     */
+    ALL(trackingPixel -> ""),
+
+    REFERER(TrackingPixel::getReferer),
+
+    USER_AGENT(TrackingPixel::getUserAgent),
+
+    IP(TrackingPixel::getIp),
+
+    /**
+     * Campaign id of the pixel, empty for the anonymous pixel.
+     */
+    CAMPAIGN(TrackingPixel::getCampaign),
+
+    /**
+     * Attributes parsed from the user agent, see {@link UserAgentInfo}; values are constant names, such as {@code CHROME}.
+     */
+    BROWSER(trackingPixel -> name(trackingPixel.getBrowser())),
+
+    OPERATING_SYSTEM(trackingPixel -> name(trackingPixel.getOperatingSystem())),
+
+    DEVICE_CLASS(trackingPixel -> name(trackingPixel.getDeviceClass())),
+
+    /**
+     * Whether the hit comes from a bot, {@code true} or {@code false}.
+     */
+    BOT(trackingPixel -> Boolean.toString(trackingPixel.isBot()));
+
+    private final Function<TrackingPixel, String> extractor;
+
+    HitDimension(Function<TrackingPixel, String> extractor) {
+        this.extractor = extractor;
+    }
+
+    /**
+     * Extracts the value of this dimension from a hit.
+     *
+     * @param trackingPixel the hit
+     * @return the value, or an empty string when the hit has none
+     */
+    public String valueOf(TrackingPixel trackingPixel) {
+        String value = extractor.apply(trackingPixel);
+        return value == null ? "" : value;
+    }
+
+    private static String name(Enum<?> value) {
+        return value == null ? null : value.name();
+    }
+}
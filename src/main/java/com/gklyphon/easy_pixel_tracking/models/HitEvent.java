@@ -0,0 +1,34 @@
+package com.gklyphon.easy_pixel_tracking.models;
+
+import java.time.LocalDateTime;
+
+/**
+ * Immutable snapshot of an accepted hit, as pushed to live stream subscribers.
+ *
+ * @param createdAt       when the hit was received
+ * @param ip              the IP address of the visitor
+ * @param userAgent       the user agent string
+ * @param referer         the referrer URL
+ * @param browser         the browser family parsed from the user agent
+ * @param browserVersion  the major browser version, or null if unknown
+ * @param operatingSystem the operating system parsed from the user agent
+ * @param deviceClass     the kind of device parsed from the user agent
+ * @param bot             whether the user agent belongs to a bot
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+public record HitEvent(LocalDateTime createdAt, String ip, String userAgent, String referer, BrowserFamily browser,
+                       Short browserVersion, OperatingSystem operatingSystem, DeviceClass deviceClass, boolean bot) {
+
+    /**
+     * Copies the fields of a hit, which may still be modified by the write path afterwards.
+     *
+     * @param trackingPixel the accepted hit
+     * @return the snapshot
+     */
+    public static HitEvent of(TrackingPixel trackingPixel) {
+        return new HitEvent(trackingPixel.getCreatedAt(), trackingPixel.getIp(), trackingPixel.getUserAgent(),
+                trackingPixel.getReferer(), trackingPixel.getBrowser(), trackingPixel.getBrowserVersion(),
+                trackingPixel.getOperatingSystem(), trackingPixel.getDeviceClass(), trackingPixel.isBot());
+    }
+}
@@ -0,0 +1,15 @@
+package com.gklyphon.easy_pixel_tracking.models;
+
+import java.time.LocalDateTime;
+
+/**
+ * Hits of one second matching a stream subscriber's filter, sent instead of the individual hits.
+ *
+ * @param second the start of the second
+ * @param hits   the number of matching hits received in that second
+ * @param bots   how many of them came from bots
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+public record HitFrame(LocalDateTime second, long hits, long bots) {
+}
@@ -0,0 +1,103 @@
+package com.gklyphon.easy_pixel_tracking.models;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Pre-aggregated number of hits for one dimension value within one time bucket.
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+@Entity
+@Table(name = "hit_rollup", indexes = {
+        @Index(name = "uk_hit_rollup_bucket", columnList = "granularity, dimension, valueHash, bucketStart", unique = true),
+        @Index(name = "idx_hit_rollup_top", columnList = "granularity, dimension, bucketStart")
+})
+public class HitRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private RollupGranularity granularity;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private HitDimension dimension;
+
+    /**
+     * Hash of {@link #dimensionValue}, used in the unique bucket index instead of the long string.
+     */
+    @Column(nullable = false)
+    private Long valueHash;
+
+    @Column(nullable = false, length = TrackingPixel.REFERER_LENGTH)
+    private String dimensionValue;
+
+    /**
+     * Start of the time bucket.
+     */
+    @Column(nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(nullable = false)
+    private long hitCount;
+
+    /**
+     * Default constructor.
+     */
+    public HitRollup() {
+    }
+
+    /**
+     * Parameterized constructor to initialize a HitRollup instance.
+     *
+     * @param granularity    the bucket size
+     * @param dimension      the dimension counted
+     * @param valueHash      hash of the dimension value
+     * @param dimensionValue the dimension value
+     * @param bucketStart    start of the bucket
+     * @param hitCount       number of hits
+     */
+    public HitRollup(RollupGranularity granularity, HitDimension dimension, Long valueHash, String dimensionValue,
+                     LocalDateTime bucketStart, long hitCount) {
+        this.granularity = granularity;
+        this.dimension = dimension;
+        this.valueHash = valueHash;
+        this.dimensionValue = dimensionValue;
+        this.bucketStart = bucketStart;
+        this.hitCount = hitCount;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public RollupGranularity getGranularity() {
+        return granularity;
+    }
+
+    public HitDimension getDimension() {
+        return dimension;
+    }
+
+    public Long getValueHash() {
+        return valueHash;
+    }
+
+    public String getDimensionValue() {
+        return dimensionValue;
+    }
+
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+}
@@ -0,0 +1,55 @@
+package com.gklyphon.easy_pixel_tracking.models;
+
+import com.gklyphon.easy_pixel_tracking.utils.IpAddresses;
+
+/**
+ * Selects the hits pushed to a live stream subscriber. Every criterion is optional.
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+public class HitStreamFilter {
+
+    private final String refererPrefix;
+    private final String ip;
+    private final Boolean bot;
+
+    /**
+     * @param refererPrefix prefix of the referrer URL
+     * @param ip            exact IP address, in any spelling
+     * @param bot           whether to keep only bot hits, or only hits from people
+     */
+    public HitStreamFilter(String refererPrefix, String ip, Boolean bot) {
+        this.refererPrefix = refererPrefix == null || refererPrefix.isEmpty() ? null : refererPrefix;
+        this.ip = ip == null || ip.isEmpty() ? null : IpAddresses.normalize(ip);
+        this.bot = bot;
+    }
+
+    /**
+     * Tests a hit against every criterion.
+     *
+     * @param event the hit
+     * @return true if the hit is selected
+     */
+    public boolean matches(HitEvent event) {
+        if (bot != null && event.bot() != bot) {
+            return false;
+        }
+        if (ip != null && !ip.equals(event.ip())) {
+            return false;
+        }
+        return refererPrefix == null || (event.referer() != null && event.referer().startsWith(refererPrefix));
+    }
+
+    public String getRefererPrefix() {
+        return refererPrefix;
+    }
+
+    public String getIp() {
+        return ip;
+    }
+
+    public Boolean getBot() {
+        return bot;
+    }
+}
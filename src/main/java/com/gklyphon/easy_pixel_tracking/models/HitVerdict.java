@@ -0,0 +1,25 @@
+package com.gklyphon.easy_pixel_tracking.models;
+
+/**
+ * Whether a pixel hit is passed on to ingestion.
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+public enum HitVerdict {
+
+    /**
+     * The hit is ingested.
+     */
+    ACCEPTED,
+
+    /**
+     * The hit repeats the IP, user agent and referer of a recent hit and is discarded.
+     */
+    DUPLICATE,
+
+    /**
+     * The IP of the hit exceeded its rate limit and the hit is discarded.
+     */
+    RATE_LIMITED
+}
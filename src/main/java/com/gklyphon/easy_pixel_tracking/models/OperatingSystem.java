@@ -0,0 +1,28 @@
+package com.gklyphon.easy_pixel_tracking.models;
+
+/**
+ * Operating systems recognised in user agent strings, see {@link UserAgentInfo}.
+ * Stored by ordinal, so new constants go at the end.
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+public enum OperatingSystem {
+
+    /**
+     * No known operating system token, or no user agent at all.
+     */
+    OTHER,
+
+    WINDOWS,
+
+    MACOS,
+
+    IOS,
+
+    ANDROID,
+
+    LINUX,
+
+    CHROME_OS
+}
@@ -0,0 +1,74 @@
+package com.gklyphon.easy_pixel_tracking.models;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Response variants that can be served by the tracking pixel endpoint.
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+public enum PixelImage {
+
+    /**
+     * Transparent 1x1 PNG loaded from {@code static/pixel.png}.
+     */
+    PNG(MediaType.IMAGE_PNG),
+
+    /**
+     * Transparent 1x1 GIF, the smallest widely supported image (43 bytes).
+     */
+    GIF(MediaType.IMAGE_GIF),
+
+    /**
+     * Body-less {@code 204 No Content} response.
+     */
+    NONE(null);
+
+    private static final String PNG_LOCATION = "static/pixel.png";
+
+    private static final byte[] GIF_BYTES = {
+            0x47, 0x49, 0x46, 0x38, 0x39, 0x61, 0x01, 0x00, 0x01, 0x00, (byte) 0x80, 0x00, 0x00,
+            0x00, 0x00, 0x00, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF,
+            0x21, (byte) 0xF9, 0x04, 0x01, 0x00, 0x00, 0x00, 0x00,
+            0x2C, 0x00, 0x00, 0x00, 0x00, 0x01, 0x00, 0x01, 0x00, 0x00,
+            0x02, 0x02, 0x44, 0x01, 0x00, 0x3B
+    };
+
+    private final MediaType mediaType;
+
+    PixelImage(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Loads the image bytes for this variant.
+     * The PNG is read through the classpath stream so it also works from a packaged jar.
+     *
+     * @return the image bytes, empty for {@link #NONE}
+     */
+    public byte[] load() {
+        return switch (this) {
+            case PNG -> readClasspath(PNG_LOCATION);
+            case GIF -> GIF_BYTES.clone();
+            case NONE -> new byte[0];
+        };
+    }
+
+    private static byte[] readClasspath(String location) {
+        try (InputStream inputStream = new ClassPathResource(location).getInputStream()) {
+            return inputStream.readAllBytes();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to load pixel image " + location, ex);
+        }
+    }
+}
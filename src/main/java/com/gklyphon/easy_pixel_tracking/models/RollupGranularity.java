@@ -0,0 +1,35 @@
+package com.gklyphon.easy_pixel_tracking.models;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Time bucket sizes kept by the rollup counters.
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+public enum RollupGranularity {
+
+    MINUTE(ChronoUnit.MINUTES),
+
+    HOUR(ChronoUnit.HOURS),
+
+    DAY(ChronoUnit.DAYS);
+
+    private final ChronoUnit unit;
+
+    RollupGranularity(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    /**
+     * Returns the start of the bucket containing the given time.
+     *
+     * @param time the time to truncate
+     * @return the bucket start
+     */
+    public LocalDateTime bucketOf(LocalDateTime time) {
+        return time.truncatedTo(unit);
+    }
+}
@@ -0,0 +1,16 @@
+package com.gklyphon.easy_pixel_tracking.models;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of the number of hits in one time bucket.
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+public interface RollupPoint {
+
+    LocalDateTime getBucketStart();
+
+    Long getHits();
+}
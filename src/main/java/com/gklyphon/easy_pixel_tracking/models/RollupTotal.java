@@ -0,0 +1,14 @@
+package com.gklyphon.easy_pixel_tracking.models;
+
+/**
+ * Projection of the number of hits for one dimension value over a time range.
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+public interface RollupTotal {
+
+    String getDimensionValue();
+
+    Long getHits();
+}
@@ -0,0 +1,41 @@
+package com.gklyphon.easy_pixel_tracking.models;
+
+import java.time.Duration;
+
+/**
+ * Sliding windows over which heavy hitters are tracked.
+ *
+ * <p>Each window is divided into slots; the oldest slot is dropped as time advances,
+ * so a window covers between {@code slots - 1} and {@code slots} slot lengths.</p>
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+public enum TopWindow {
+
+    ONE_MINUTE(Duration.ofMinutes(1), 6),
+
+    FIVE_MINUTES(Duration.ofMinutes(5), 5),
+
+    ONE_HOUR(Duration.ofHours(1), 12);
+
+    private final Duration length;
+    private final int slots;
+
+    TopWindow(Duration length, int slots) {
+        this.length = length;
+        this.slots = slots;
+    }
+
+    public Duration getLength() {
+        return length;
+    }
+
+    public int getSlots() {
+        return slots;
+    }
+
+    public long getSlotMillis() {
+        return length.toMillis() / slots;
+    }
+}
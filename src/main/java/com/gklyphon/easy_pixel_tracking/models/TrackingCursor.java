@@ -0,0 +1,110 @@
+package com.gklyphon.easy_pixel_tracking.models;
+
+import java.nio.ByteBuffer;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+/**
+ * Position in the tracking pixel listing ordered by creation date and id, both descending.
+ *
+ * <p>A cursor is exchanged with clients as an opaque URL-safe token. Scrolling forward
+ * returns older entries than the cursor, scrolling backward returns newer ones.</p>
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+public final class TrackingCursor {
+
+    private static final int TOKEN_LENGTH = Long.BYTES + Integer.BYTES + Long.BYTES;
+    private static final LocalDateTime MAX_CREATED_AT = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    private static final TrackingCursor FIRST = new TrackingCursor(MAX_CREATED_AT, Long.MAX_VALUE, false);
+
+    private final LocalDateTime createdAt;
+    private final long id;
+    private final boolean backward;
+
+    private TrackingCursor(LocalDateTime createdAt, long id, boolean backward) {
+        this.createdAt = createdAt;
+        this.id = id;
+        this.backward = backward;
+    }
+
+    /**
+     * Returns the cursor positioned before the newest entry.
+     *
+     * @return the cursor for the first page
+     */
+    public static TrackingCursor first() {
+        return FIRST;
+    }
+
+    /**
+     * Creates a cursor that scrolls to entries older than the given token.
+     *
+     * @param token a token produced by {@link #encode(TrackingPixel)}
+     * @return the decoded cursor
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static TrackingCursor after(String token) {
+        return decode(token, false);
+    }
+
+    /**
+     * Creates a cursor that scrolls to entries newer than the given token.
+     *
+     * @param token a token produced by {@link #encode(TrackingPixel)}
+     * @return the decoded cursor
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static TrackingCursor before(String token) {
+        return decode(token, true);
+    }
+
+    /**
+     * Encodes the position of a tracking pixel as an opaque token.
+     *
+     * @param trackingPixel the tracking pixel marking the position
+     * @return the URL-safe token
+     */
+    public static String encode(TrackingPixel trackingPixel) {
+        LocalDateTime createdAt = trackingPixel.getCreatedAt();
+        ByteBuffer buffer = ByteBuffer.allocate(TOKEN_LENGTH)
+                .putLong(createdAt.toEpochSecond(ZoneOffset.UTC))
+                .putInt(createdAt.getNano())
+                .putLong(trackingPixel.getId());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    private static TrackingCursor decode(String token, boolean backward) {
+        byte[] bytes = Base64.getUrlDecoder().decode(token);
+        if (bytes.length != TOKEN_LENGTH) {
+            throw new IllegalArgumentException("Invalid cursor token.");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        try {
+            LocalDateTime createdAt = LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC);
+            return new TrackingCursor(createdAt, buffer.getLong(), backward);
+        } catch (DateTimeException ex) {
+            throw new IllegalArgumentException("Invalid cursor token.", ex);
+        }
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public boolean isBackward() {
+        return backward;
+    }
+
+    public boolean isFirst() {
+        return this == FIRST;
+    }
+}
@@ -1,5 +1,7 @@
 package com.gklyphon.easy_pixel_tracking.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.gklyphon.easy_pixel_tracking.utils.IpAddresses;
 import jakarta.persistence.*;
 
 /**
@@ -9,28 +11,150 @@ import jakarta.persistence.*;
  * @date 2025-03-26
  */
 @Entity
-@Table(name = "tracking_pixel")
+@Table(name = "tracking_pixel", indexes = {
+        @Index(name = "idx_tracking_pixel_created_at", columnList = "createdAt DESC, id DESC"),
+        @Index(name = "idx_tracking_pixel_ip_address_created_at", columnList = "ipAddress, createdAt DESC, id DESC"),
+        @Index(name = "idx_tracking_pixel_user_agent_id_created_at", columnList = "userAgentId, createdAt DESC, id DESC"),
+        @Index(name = "idx_tracking_pixel_referer_id_created_at", columnList = "refererId, createdAt DESC, id DESC"),
+        @Index(name = "idx_tracking_pixel_browser_created_at", columnList = "browser, createdAt DESC, id DESC"),
+        @Index(name = "idx_tracking_pixel_operating_system_created_at", columnList = "operatingSystem, createdAt DESC, id DESC"),
+        @Index(name = "idx_tracking_pixel_device_class_created_at", columnList = "deviceClass, createdAt DESC, id DESC"),
+        @Index(name = "idx_tracking_pixel_bot_created_at", columnList = "bot, createdAt DESC, id DESC"),
+        @Index(name = "idx_tracking_pixel_campaign_id_created_at", columnList = "campaignId, createdAt DESC, id DESC")
+})
 public class TrackingPixel extends Auditable {
 
+    /**
+     * Maximum length of {@link #ip}, enough for any textual IPv6 address.
+     */
+    public static final int IP_LENGTH = 45;
+
+    /**
+     * Maximum stored length of {@link #userAgent}, see {@link UserAgentEntry}.
+     */
+    public static final int USER_AGENT_LENGTH = 1024;
+
+    /**
+     * Maximum stored length of {@link #referer}, see {@link RefererEntry}.
+     */
+    public static final int REFERER_LENGTH = 2048;
+
+    /**
+     * Maximum length of {@link #campaign}, see {@link CampaignEntry}.
+     */
+    public static final int CAMPAIGN_LENGTH = 64;
+
+    /**
+     * Maximum length of {@link #recipient}.
+     */
+    public static final int RECIPIENT_LENGTH = 64;
+
+    /**
+     * Name of the sequence backing {@link #id}.
+     */
+    public static final String ID_SEQUENCE = "tracking_pixel_seq";
+
+    /**
+     * Number of ids reserved by each call to {@link #ID_SEQUENCE}. Each sequence value is the first id of its block.
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    /**
+     * Identifier drawn from a pooled sequence, so inserts can be batched without
+     * a round-trip per row to fetch generated keys.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     /**
      * IP address of the user triggering the tracking pixel.
+     * Stored as {@link #ipAddress}; a value that is not an IP literal is not stored.
      */
+    @Transient
     private String ip;
 
+    /**
+     * Binary form of {@link #ip}, see {@link IpAddresses}. Networks are ranges of this column.
+     */
+    @JsonIgnore
+    @Column(length = IpAddresses.LENGTH)
+    private byte[] ipAddress;
+
     /**
      * User agent string of the browser or device accessing the tracking pixel.
+     * Stored as {@link #userAgentId} in the {@code user_agent} dimension table.
      */
+    @Transient
     private String userAgent;
 
     /**
      * Referrer URL from which the tracking pixel was accessed.
+     * Stored as {@link #refererId} in the {@code referer} dimension table.
      */
+    @Transient
     private String referer;
 
+    /**
+     * Campaign the pixel belongs to, taken from the pixel URL; null for the anonymous pixel.
+     * Stored as {@link #campaignId} in the {@code campaign} dimension table.
+     */
+    @Transient
+    private String campaign;
+
+    /**
+     * Opaque token identifying the recipient the pixel was sent to, such as a hashed mailing list entry.
+     */
+    @Column(length = RECIPIENT_LENGTH)
+    private String recipient;
+
+    /**
+     * Key of {@link #userAgent} in the {@code user_agent} dimension table.
+     */
+    @JsonIgnore
+    private Integer userAgentId;
+
+    /**
+     * Key of {@link #referer} in the {@code referer} dimension table.
+     */
+    @JsonIgnore
+    private Integer refererId;
+
+    /**
+     * Key of {@link #campaign} in the {@code campaign} dimension table.
+     */
+    @JsonIgnore
+    private Integer campaignId;
+
+    /**
+     * Browser family parsed from {@link #userAgent}, stored by ordinal.
+     */
+    @Enumerated(EnumType.ORDINAL)
+    private BrowserFamily browser;
+
+    /**
+     * Major version of {@link #browser}, null if the user agent does not carry one.
+     */
+    private Short browserVersion;
+
+    /**
+     * Operating system parsed from {@link #userAgent}, stored by ordinal.
+     */
+    @Enumerated(EnumType.ORDINAL)
+    private OperatingSystem operatingSystem;
+
+    /**
+     * Kind of device parsed from {@link #userAgent}, stored by ordinal.
+     */
+    @Enumerated(EnumType.ORDINAL)
+    private DeviceClass deviceClass;
+
+    /**
+     * Whether {@link #userAgent} belongs to a crawler, monitor or HTTP library rather than a person.
+     */
+    private boolean bot;
+
     /**
      * Default constructor.
      */
@@ -68,6 +192,14 @@ public class TrackingPixel extends Auditable {
         this.ip = ip;
     }
 
+    public byte[] getIpAddress() {
+        return ipAddress;
+    }
+
+    public void setIpAddress(byte[] ipAddress) {
+        this.ipAddress = ipAddress;
+    }
+
     public String getUserAgent() {
         return userAgent;
     }
@@ -84,6 +216,113 @@ public class TrackingPixel extends Auditable {
         this.referer = referer;
     }
 
+    public String getCampaign() {
+        return campaign;
+    }
+
+    public void setCampaign(String campaign) {
+        this.campaign = campaign;
+    }
+
+    public String getRecipient() {
+        return recipient;
+    }
+
+    public void setRecipient(String recipient) {
+        this.recipient = recipient;
+    }
+
+    public BrowserFamily getBrowser() {
+        return browser;
+    }
+
+    public void setBrowser(BrowserFamily browser) {
+        this.browser = browser;
+    }
+
+    public Short getBrowserVersion() {
+        return browserVersion;
+    }
+
+    public void setBrowserVersion(Short browserVersion) {
+        this.browserVersion = browserVersion;
+    }
+
+    public OperatingSystem getOperatingSystem() {
+        return operatingSystem;
+    }
+
+    public void setOperatingSystem(OperatingSystem operatingSystem) {
+        this.operatingSystem = operatingSystem;
+    }
+
+    public DeviceClass getDeviceClass() {
+        return deviceClass;
+    }
+
+    public void setDeviceClass(DeviceClass deviceClass) {
+        this.deviceClass = deviceClass;
+    }
+
+    public boolean isBot() {
+        return bot;
+    }
+
+    public void setBot(boolean bot) {
+        this.bot = bot;
+    }
+
+    public Integer getUserAgentId() {
+        return userAgentId;
+    }
+
+    public void setUserAgentId(Integer userAgentId) {
+        this.userAgentId = userAgentId;
+    }
+
+    public Integer getRefererId() {
+        return refererId;
+    }
+
+    public void setRefererId(Integer refererId) {
+        this.refererId = refererId;
+    }
+
+    public Integer getCampaignId() {
+        return campaignId;
+    }
+
+    public void setCampaignId(Integer campaignId) {
+        this.campaignId = campaignId;
+    }
+
+    /**
+     * Truncates the free-form fields to their stored lengths and parses the IP address into its canonical form.
+     * Called by JPA before every insert and update, and by writers that bypass JPA.
+     */
+    @PrePersist
+    @PreUpdate
+    public void prepareColumns() {
+        this.ipAddress = IpAddresses.parse(ip);
+        this.ip = ipAddress != null ? IpAddresses.format(ipAddress) : truncate(ip, IP_LENGTH);
+        this.userAgent = truncate(userAgent, USER_AGENT_LENGTH);
+        this.referer = truncate(referer, REFERER_LENGTH);
+        this.campaign = truncate(campaign, CAMPAIGN_LENGTH);
+        this.recipient = truncate(recipient, RECIPIENT_LENGTH);
+    }
+
+    /**
+     * Restores the textual IP address of a loaded tracking pixel.
+     */
+    @PostLoad
+    public void restoreIp() {
+        this.ip = IpAddresses.format(ipAddress);
+    }
+
+    private static String truncate(String value, int length) {
+        return value == null || value.length() <= length ? value : value.substring(0, length);
+    }
+
     /**
      * Constructs a TrackingPixel instance using a builder pattern.
      *
@@ -94,6 +333,8 @@ public class TrackingPixel extends Auditable {
         this.ip = builder.ip;
         this.userAgent = builder.userAgent;
         this.referer = builder.referer;
+        this.campaign = builder.campaign;
+        this.recipient = builder.recipient;
     }
 
     /**
@@ -104,6 +345,8 @@ public class TrackingPixel extends Auditable {
         private String ip;
         private String userAgent;
         private String referer;
+        private String campaign;
+        private String recipient;
 
         public Builder ip(String ip) {
             this.ip = ip;
@@ -120,6 +363,16 @@ public class TrackingPixel extends Auditable {
             return this;
         }
 
+        public Builder campaign(String campaign) {
+            this.campaign = campaign;
+            return this;
+        }
+
+        public Builder recipient(String recipient) {
+            this.recipient = recipient;
+            return this;
+        }
+
         /**
          * Builds and returns a TrackingPixel instance.
          *
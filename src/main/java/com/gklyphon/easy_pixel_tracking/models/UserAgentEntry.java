@@ -0,0 +1,20 @@
+package com.gklyphon.easy_pixel_tracking.models;
+
+import jakarta.persistence.AttributeOverride;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+/**
+ * Dimension table of distinct user agent strings referenced by {@link TrackingPixel}.
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+@Entity
+@Table(name = "user_agent", uniqueConstraints =
+        @UniqueConstraint(name = "uk_user_agent_content", columnNames = {"contentHash", "content"}))
+@AttributeOverride(name = "content", column = @Column(nullable = false, length = TrackingPixel.USER_AGENT_LENGTH))
+public class UserAgentEntry extends DictionaryEntry {
+}
@@ -0,0 +1,29 @@
+package com.gklyphon.easy_pixel_tracking.models;
+
+/**
+ * Attributes parsed from a user agent string.
+ *
+ * @param browser         the browser family
+ * @param browserVersion  the major version of the browser, or null if unknown
+ * @param operatingSystem the operating system
+ * @param device          the kind of device
+ * @param bot             whether the user agent belongs to a bot rather than a person
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+public record UserAgentInfo(BrowserFamily browser, Short browserVersion, OperatingSystem operatingSystem,
+                            DeviceClass device, boolean bot) {
+
+    /**
+     * Copies the attributes onto the columns of a tracking pixel.
+     *
+     * @param trackingPixel the tracking pixel to classify
+     */
+    public void applyTo(TrackingPixel trackingPixel) {
+        trackingPixel.setBrowser(browser);
+        trackingPixel.setBrowserVersion(browserVersion);
+        trackingPixel.setOperatingSystem(operatingSystem);
+        trackingPixel.setDeviceClass(device);
+        trackingPixel.setBot(bot);
+    }
+}
@@ -0,0 +1,85 @@
+package com.gklyphon.easy_pixel_tracking.models;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+
+/**
+ * Serialized HyperLogLog sketch of the distinct visitor IPs seen for one referer on one day.
+ * An empty referer holds the sketch of all visitors of that day.
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+@Entity
+@Table(name = "visitor_sketch", indexes = {
+        @Index(name = "uk_visitor_sketch_referer_day", columnList = "refererHash, visitDay", unique = true)
+})
+public class VisitorSketch {
+
+    /**
+     * Largest serialized sketch, see {@link com.gklyphon.easy_pixel_tracking.utils.HyperLogLog#MAX_PRECISION}.
+     */
+    public static final int MAX_SKETCH_LENGTH = (1 << 16) + 1;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate visitDay;
+
+    @Column(nullable = false)
+    private Long refererHash;
+
+    @Column(nullable = false, length = TrackingPixel.REFERER_LENGTH)
+    private String referer;
+
+    @Column(nullable = false, length = MAX_SKETCH_LENGTH)
+    private byte[] sketch;
+
+    /**
+     * Default constructor.
+     */
+    public VisitorSketch() {
+    }
+
+    /**
+     * Parameterized constructor to initialize a VisitorSketch instance.
+     *
+     * @param visitDay    the day covered by the sketch
+     * @param refererHash hash of the referer
+     * @param referer     the referer, empty for all visitors
+     * @param sketch      the serialized sketch
+     */
+    public VisitorSketch(LocalDate visitDay, Long refererHash, String referer, byte[] sketch) {
+        this.visitDay = visitDay;
+        this.refererHash = refererHash;
+        this.referer = referer;
+        this.sketch = sketch;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public LocalDate getVisitDay() {
+        return visitDay;
+    }
+
+    public Long getRefererHash() {
+        return refererHash;
+    }
+
+    public String getReferer() {
+        return referer;
+    }
+
+    public byte[] getSketch() {
+        return sketch;
+    }
+
+    public void setSketch(byte[] sketch) {
+        this.sketch = sketch;
+    }
+}
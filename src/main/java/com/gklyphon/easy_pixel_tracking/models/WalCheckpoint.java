@@ -0,0 +1,51 @@
+package com.gklyphon.easy_pixel_tracking.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Last write-ahead log record whose hit has been stored. It is updated in the same transaction
+ * as the hits, so a replayed record is never inserted twice.
+ * The archive keeps the last archived day here the same way, as an epoch day.
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+@Entity
+@Table(name = "wal_checkpoint")
+public class WalCheckpoint {
+
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    @Column(nullable = false)
+    private Long lastSequence;
+
+    /**
+     * Default constructor.
+     */
+    public WalCheckpoint() {
+    }
+
+    /**
+     * Parameterized constructor to initialize a WalCheckpoint instance.
+     *
+     * @param name         name of the log
+     * @param lastSequence sequence of the last stored record
+     */
+    public WalCheckpoint(String name, Long lastSequence) {
+        this.name = name;
+        this.lastSequence = lastSequence;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Long getLastSequence() {
+        return lastSequence;
+    }
+}
@@ -0,0 +1,40 @@
+package com.gklyphon.easy_pixel_tracking.repository;
+
+import com.gklyphon.easy_pixel_tracking.models.CampaignCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Repository interface for managing CampaignCounter entities.
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+public interface ICampaignCounterRepository extends JpaRepository<CampaignCounter, String> {
+
+    /**
+     * Adds hits to an existing campaign counter.
+     *
+     * @param campaign the campaign id
+     * @param delta    number of hits to add
+     * @return the number of updated rows, 0 if the counter does not exist yet
+     */
+    @Modifying
+    @Transactional
+    @Query("update CampaignCounter c set c.hitCount = c.hitCount + :delta where c.campaign = :campaign")
+    int increment(@Param("campaign") String campaign, @Param("delta") long delta);
+
+    /**
+     * Retrieves the number of hits of a campaign written so far.
+     *
+     * @param campaign the campaign id
+     * @return the number of hits, if the campaign has a counter
+     */
+    @Query("select c.hitCount from CampaignCounter c where c.campaign = :campaign")
+    Optional<Long> findHitCount(@Param("campaign") String campaign);
+}
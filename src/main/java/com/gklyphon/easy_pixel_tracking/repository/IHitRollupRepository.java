@@ -0,0 +1,81 @@
+package com.gklyphon.easy_pixel_tracking.repository;
+
+import com.gklyphon.easy_pixel_tracking.models.HitDimension;
+import com.gklyphon.easy_pixel_tracking.models.HitRollup;
+import com.gklyphon.easy_pixel_tracking.models.RollupGranularity;
+import com.gklyphon.easy_pixel_tracking.models.RollupPoint;
+import com.gklyphon.easy_pixel_tracking.models.RollupTotal;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository interface for managing HitRollup entities.
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+public interface IHitRollupRepository extends JpaRepository<HitRollup, Long> {
+
+    /**
+     * Adds hits to an existing rollup bucket. A bucket holding another value with the same hash is not updated.
+     *
+     * @param granularity the bucket size
+     * @param dimension   the dimension counted
+     * @param valueHash   hash of the dimension value
+     * @param value       the dimension value
+     * @param bucketStart start of the bucket
+     * @param delta       number of hits to add
+     * @return the number of updated rows, 0 if the bucket does not exist yet
+     */
+    @Modifying
+    @Transactional
+    @Query("update HitRollup r set r.hitCount = r.hitCount + :delta where r.granularity = :granularity "
+            + "and r.dimension = :dimension and r.valueHash = :valueHash and r.bucketStart = :bucketStart "
+            + "and r.dimensionValue = :value")
+    int increment(@Param("granularity") RollupGranularity granularity, @Param("dimension") HitDimension dimension,
+                  @Param("valueHash") Long valueHash, @Param("value") String value,
+                  @Param("bucketStart") LocalDateTime bucketStart, @Param("delta") long delta);
+
+    /**
+     * Retrieves the hits per bucket of one dimension value within a time range.
+     *
+     * @param granularity the bucket size
+     * @param dimension   the dimension counted
+     * @param valueHash   hash of the dimension value
+     * @param value       the dimension value
+     * @param from        inclusive start of the range
+     * @param to          exclusive end of the range
+     * @return hits per bucket ordered by bucket start
+     */
+    @Query("select r.bucketStart as bucketStart, sum(r.hitCount) as hits from HitRollup r "
+            + "where r.granularity = :granularity and r.dimension = :dimension and r.valueHash = :valueHash "
+            + "and r.dimensionValue = :value and r.bucketStart >= :from and r.bucketStart < :to "
+            + "group by r.bucketStart order by r.bucketStart")
+    List<RollupPoint> findSeries(@Param("granularity") RollupGranularity granularity, @Param("dimension") HitDimension dimension,
+                                 @Param("valueHash") Long valueHash, @Param("value") String value,
+                                 @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    /**
+     * Retrieves the dimension values with the most hits within a time range.
+     *
+     * @param granularity the bucket size to read
+     * @param dimension   the dimension counted
+     * @param from        inclusive start of the range
+     * @param to          exclusive end of the range
+     * @param pageable    maximum number of values
+     * @return dimension values ordered by hits, descending
+     */
+    @Query("select r.dimensionValue as dimensionValue, sum(r.hitCount) as hits from HitRollup r "
+            + "where r.granularity = :granularity and r.dimension = :dimension "
+            + "and r.bucketStart >= :from and r.bucketStart < :to "
+            + "group by r.dimensionValue order by sum(r.hitCount) desc")
+    List<RollupTotal> findTop(@Param("granularity") RollupGranularity granularity, @Param("dimension") HitDimension dimension,
+                              @Param("from") LocalDateTime from, @Param("to") LocalDateTime to, Pageable pageable);
+}
@@ -1,9 +1,17 @@
 package com.gklyphon.easy_pixel_tracking.repository;
 
+import com.gklyphon.easy_pixel_tracking.models.BrowserFamily;
+import com.gklyphon.easy_pixel_tracking.models.DeviceClass;
+import com.gklyphon.easy_pixel_tracking.models.OperatingSystem;
 import com.gklyphon.easy_pixel_tracking.models.TrackingPixel;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
 
 /**
  * Repository interface for managing TrackingPixel entities.
@@ -24,27 +32,220 @@ public interface ITrackingPixelRepository extends JpaRepository<TrackingPixel, L
     /**
      * Retrieves a paginated list of tracking pixels filtered by IP address and ordered by creation date.
      *
-     * @param ip the IP address to filter by
+     * @param ipAddress the binary IP address to filter by
      * @param pageable pagination information
      * @return a paginated list of tracking pixels matching the given IP address
      */
-    Page<TrackingPixel> findByIpOrderByCreatedAt(String ip, Pageable pageable);
+    Page<TrackingPixel> findByIpAddressOrderByCreatedAt(byte[] ipAddress, Pageable pageable);
 
     /**
-     * Retrieves a paginated list of tracking pixels filtered by user agent and ordered by creation date.
+     * Retrieves a paginated list of tracking pixels whose IP address lies in a range, ordered by creation date.
      *
-     * @param userAgent the user agent string to filter by
+     * @param low  the first binary IP address of the range
+     * @param high the last binary IP address of the range
+     * @param pageable pagination information
+     * @return a paginated list of tracking pixels within the range
+     */
+    Page<TrackingPixel> findByIpAddressBetweenOrderByCreatedAt(byte[] low, byte[] high, Pageable pageable);
+
+    /**
+     * Retrieves a paginated list of tracking pixels filtered by user agent key and ordered by creation date.
+     *
+     * @param userAgentId the key of the user agent in the dimension table
      * @param pageable pagination information
      * @return a paginated list of tracking pixels matching the given user agent
      */
-    Page<TrackingPixel> findByUserAgentOrderByCreatedAt(String userAgent, Pageable pageable);
+    Page<TrackingPixel> findByUserAgentIdOrderByCreatedAt(Integer userAgentId, Pageable pageable);
 
     /**
-     * Retrieves a paginated list of tracking pixels filtered by referrer URL and ordered by creation date.
+     * Retrieves a paginated list of tracking pixels filtered by referer key and ordered by creation date.
      *
-     * @param referer the referrer URL to filter by
+     * @param refererId the key of the referrer URL in the dimension table
      * @param pageable pagination information
      * @return a paginated list of tracking pixels matching the given referrer URL
      */
-    Page<TrackingPixel> findByRefererOrderByCreatedAt(String referer, Pageable pageable);
+    Page<TrackingPixel> findByRefererIdOrderByCreatedAt(Integer refererId, Pageable pageable);
+
+    /**
+     * Retrieves a paginated list of tracking pixels filtered by campaign key and ordered by creation date.
+     *
+     * @param campaignId the key of the campaign in the dimension table
+     * @param pageable pagination information
+     * @return a paginated list of tracking pixels of the given campaign
+     */
+    Page<TrackingPixel> findByCampaignIdOrderByCreatedAt(Integer campaignId, Pageable pageable);
+
+    /**
+     * Retrieves a paginated list of tracking pixels filtered by browser family and ordered by creation date.
+     *
+     * @param browser the browser family parsed from the user agent
+     * @param pageable pagination information
+     * @return a paginated list of tracking pixels matching the given browser family
+     */
+    Page<TrackingPixel> findByBrowserOrderByCreatedAt(BrowserFamily browser, Pageable pageable);
+
+    /**
+     * Retrieves a paginated list of tracking pixels filtered by operating system and ordered by creation date.
+     *
+     * @param operatingSystem the operating system parsed from the user agent
+     * @param pageable pagination information
+     * @return a paginated list of tracking pixels matching the given operating system
+     */
+    Page<TrackingPixel> findByOperatingSystemOrderByCreatedAt(OperatingSystem operatingSystem, Pageable pageable);
+
+    /**
+     * Retrieves a paginated list of tracking pixels filtered by device class and ordered by creation date.
+     *
+     * @param deviceClass the kind of device parsed from the user agent
+     * @param pageable pagination information
+     * @return a paginated list of tracking pixels matching the given device class
+     */
+    Page<TrackingPixel> findByDeviceClassOrderByCreatedAt(DeviceClass deviceClass, Pageable pageable);
+
+    /**
+     * Retrieves a paginated list of tracking pixels from bots or from people, ordered by creation date.
+     *
+     * @param bot whether to list bot hits
+     * @param pageable pagination information
+     * @return a paginated list of tracking pixels with the given bot flag
+     */
+    Page<TrackingPixel> findByBotOrderByCreatedAt(boolean bot, Pageable pageable);
+
+    /**
+     * Retrieves a slice of tracking pixels that are older than the given position,
+     * ordered descending by creation date and id. No count query is issued.
+     *
+     * @param createdAt   creation date of the position
+     * @param id          id of the position
+     * @param pageable    slice size
+     * @return a slice of tracking pixels
+     */
+    @Query("select t from TrackingPixel t where t.createdAt <= :createdAt "
+            + "and (t.createdAt < :createdAt or t.id < :id) order by t.createdAt desc, t.id desc")
+    Slice<TrackingPixel> findOlder(@Param("createdAt") LocalDateTime createdAt, @Param("id") long id, Pageable pageable);
+
+    /**
+     * Retrieves a slice of tracking pixels that are newer than the given position,
+     * ordered ascending by creation date and id. No count query is issued.
+     *
+     * @param createdAt   creation date of the position
+     * @param id          id of the position
+     * @param pageable    slice size
+     * @return a slice of tracking pixels
+     */
+    @Query("select t from TrackingPixel t where t.createdAt >= :createdAt "
+            + "and (t.createdAt > :createdAt or t.id > :id) order by t.createdAt asc, t.id asc")
+    Slice<TrackingPixel> findNewer(@Param("createdAt") LocalDateTime createdAt, @Param("id") long id, Pageable pageable);
+
+    /**
+     * Retrieves a slice of tracking pixels filtered by IP address that are older than the given position,
+     * ordered descending by creation date and id. No count query is issued.
+     *
+     * @param ipAddress   the binary IP address to filter by
+     * @param createdAt   creation date of the position
+     * @param id          id of the position
+     * @param pageable    slice size
+     * @return a slice of tracking pixels
+     */
+    @Query("select t from TrackingPixel t where t.ipAddress = :ipAddress and t.createdAt <= :createdAt "
+            + "and (t.createdAt < :createdAt or t.id < :id) order by t.createdAt desc, t.id desc")
+    Slice<TrackingPixel> findOlderByIpAddress(@Param("ipAddress") byte[] ipAddress, @Param("createdAt") LocalDateTime createdAt, @Param("id") long id, Pageable pageable);
+
+    /**
+     * Retrieves a slice of tracking pixels filtered by IP address that are newer than the given position,
+     * ordered ascending by creation date and id. No count query is issued.
+     *
+     * @param ipAddress   the binary IP address to filter by
+     * @param createdAt   creation date of the position
+     * @param id          id of the position
+     * @param pageable    slice size
+     * @return a slice of tracking pixels
+     */
+    @Query("select t from TrackingPixel t where t.ipAddress = :ipAddress and t.createdAt >= :createdAt "
+            + "and (t.createdAt > :createdAt or t.id > :id) order by t.createdAt asc, t.id asc")
+    Slice<TrackingPixel> findNewerByIpAddress(@Param("ipAddress") byte[] ipAddress, @Param("createdAt") LocalDateTime createdAt, @Param("id") long id, Pageable pageable);
+
+    /**
+     * Retrieves a slice of tracking pixels filtered by user agent key that are older than the given position,
+     * ordered descending by creation date and id. No count query is issued.
+     *
+     * @param userAgentId the key of the user agent in the dimension table
+     * @param createdAt   creation date of the position
+     * @param id          id of the position
+     * @param pageable    slice size
+     * @return a slice of tracking pixels
+     */
+    @Query("select t from TrackingPixel t where t.userAgentId = :userAgentId and t.createdAt <= :createdAt "
+            + "and (t.createdAt < :createdAt or t.id < :id) order by t.createdAt desc, t.id desc")
+    Slice<TrackingPixel> findOlderByUserAgentId(@Param("userAgentId") Integer userAgentId, @Param("createdAt") LocalDateTime createdAt, @Param("id") long id, Pageable pageable);
+
+    /**
+     * Retrieves a slice of tracking pixels filtered by user agent key that are newer than the given position,
+     * ordered ascending by creation date and id. No count query is issued.
+     *
+     * @param userAgentId the key of the user agent in the dimension table
+     * @param createdAt   creation date of the position
+     * @param id          id of the position
+     * @param pageable    slice size
+     * @return a slice of tracking pixels
+     */
+    @Query("select t from TrackingPixel t where t.userAgentId = :userAgentId and t.createdAt >= :createdAt "
+            + "and (t.createdAt > :createdAt or t.id > :id) order by t.createdAt asc, t.id asc")
+    Slice<TrackingPixel> findNewerByUserAgentId(@Param("userAgentId") Integer userAgentId, @Param("createdAt") LocalDateTime createdAt, @Param("id") long id, Pageable pageable);
+
+    /**
+     * Retrieves a slice of tracking pixels filtered by referer key that are older than the given position,
+     * ordered descending by creation date and id. No count query is issued.
+     *
+     * @param refererId   the key of the referrer URL in the dimension table
+     * @param createdAt   creation date of the position
+     * @param id          id of the position
+     * @param pageable    slice size
+     * @return a slice of tracking pixels
+     */
+    @Query("select t from TrackingPixel t where t.refererId = :refererId and t.createdAt <= :createdAt "
+            + "and (t.createdAt < :createdAt or t.id < :id) order by t.createdAt desc, t.id desc")
+    Slice<TrackingPixel> findOlderByRefererId(@Param("refererId") Integer refererId, @Param("createdAt") LocalDateTime createdAt, @Param("id") long id, Pageable pageable);
+
+    /**
+     * Retrieves a slice of tracking pixels filtered by referer key that are newer than the given position,
+     * ordered ascending by creation date and id. No count query is issued.
+     *
+     * @param refererId   the key of the referrer URL in the dimension table
+     * @param createdAt   creation date of the position
+     * @param id          id of the position
+     * @param pageable    slice size
+     * @return a slice of tracking pixels
+     */
+    @Query("select t from TrackingPixel t where t.refererId = :refererId and t.createdAt >= :createdAt "
+            + "and (t.createdAt > :createdAt or t.id > :id) order by t.createdAt asc, t.id asc")
+    Slice<TrackingPixel> findNewerByRefererId(@Param("refererId") Integer refererId, @Param("createdAt") LocalDateTime createdAt, @Param("id") long id, Pageable pageable);
+
+    /**
+     * Retrieves a slice of tracking pixels filtered by campaign key that are older than the given position,
+     * ordered descending by creation date and id. No count query is issued.
+     *
+     * @param campaignId  the key of the campaign in the dimension table
+     * @param createdAt   creation date of the position
+     * @param id          id of the position
+     * @param pageable    slice size
+     * @return a slice of tracking pixels
+     */
+    @Query("select t from TrackingPixel t where t.campaignId = :campaignId and t.createdAt <= :createdAt "
+            + "and (t.createdAt < :createdAt or t.id < :id) order by t.createdAt desc, t.id desc")
+    Slice<TrackingPixel> findOlderByCampaignId(@Param("campaignId") Integer campaignId, @Param("createdAt") LocalDateTime createdAt, @Param("id") long id, Pageable pageable);
+
+    /**
+     * Retrieves a slice of tracking pixels filtered by campaign key that are newer than the given position,
+     * ordered ascending by creation date and id. No count query is issued.
+     *
+     * @param campaignId  the key of the campaign in the dimension table
+     * @param createdAt   creation date of the position
+     * @param id          id of the position
+     * @param pageable    slice size
+     * @return a slice of tracking pixels
+     */
+    @Query("select t from TrackingPixel t where t.campaignId = :campaignId and t.createdAt >= :createdAt "
+            + "and (t.createdAt > :createdAt or t.id > :id) order by t.createdAt asc, t.id asc")
+    Slice<TrackingPixel> findNewerByCampaignId(@Param("campaignId") Integer campaignId, @Param("createdAt") LocalDateTime createdAt, @Param("id") long id, Pageable pageable);
 }
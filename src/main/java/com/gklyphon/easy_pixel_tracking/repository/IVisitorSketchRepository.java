@@ -0,0 +1,36 @@
+package com.gklyphon.easy_pixel_tracking.repository;
+
+import com.gklyphon.easy_pixel_tracking.models.VisitorSketch;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for managing VisitorSketch entities.
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+public interface IVisitorSketchRepository extends JpaRepository<VisitorSketch, Long> {
+
+    /**
+     * Retrieves the sketch of a referer for one day.
+     *
+     * @param refererHash hash of the referer
+     * @param visitDay    the day
+     * @return the sketch, if any visitor was recorded
+     */
+    Optional<VisitorSketch> findByRefererHashAndVisitDay(Long refererHash, LocalDate visitDay);
+
+    /**
+     * Retrieves the sketches of a referer within a range of days.
+     *
+     * @param refererHash hash of the referer
+     * @param from        first day, inclusive
+     * @param to          last day, inclusive
+     * @return the sketches found
+     */
+    List<VisitorSketch> findByRefererHashAndVisitDayBetween(Long refererHash, LocalDate from, LocalDate to);
+}
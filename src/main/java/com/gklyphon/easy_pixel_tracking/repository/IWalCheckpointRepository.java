@@ -0,0 +1,13 @@
+package com.gklyphon.easy_pixel_tracking.repository;
+
+import com.gklyphon.easy_pixel_tracking.models.WalCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * Repository interface for managing WalCheckpoint entities.
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+public interface IWalCheckpointRepository extends JpaRepository<WalCheckpoint, String> {
+}
@@ -0,0 +1,112 @@
+package com.gklyphon.easy_pixel_tracking.services;
+
+import com.gklyphon.easy_pixel_tracking.models.HitDimension;
+import com.gklyphon.easy_pixel_tracking.models.TrackingPixel;
+import com.gklyphon.easy_pixel_tracking.utils.IpAddresses;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Service interface for tracking pixels moved out of the tracking_pixel table into archive segments.
+ * Every archived tracking pixel is older than every tracking pixel still in the table.
+ *
+ * <p>Queries take a dimension and value to filter by: {@code ALL} matches every row and ignores the value,
+ * {@code IP}, {@code USER_AGENT} and {@code REFERER} match the exact value.</p>
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+public interface IArchiveService {
+
+    /**
+     * Moves every day older than the configured age from the table into the archive.
+     */
+    void archive();
+
+    /**
+     * Deletes the segments of every archived day before the given one. Each day is a single file,
+     * so the cost does not depend on the number of rows. Files are deleted once running queries are done.
+     *
+     * @param day first day to keep
+     * @return the number of tracking pixels removed
+     */
+    long dropBefore(LocalDate day);
+
+    /**
+     * @return true if nothing has been archived
+     */
+    boolean isEmpty();
+
+    /**
+     * Counts the archived tracking pixels matching a filter.
+     *
+     * @param dimension dimension to filter by
+     * @param value     value to match
+     * @return the number of matching tracking pixels
+     */
+    long count(HitDimension dimension, String value);
+
+    /**
+     * Counts the archived tracking pixels whose IP address lies in a range.
+     *
+     * @param range the range of binary IP addresses
+     * @return the number of matching tracking pixels
+     */
+    long countInRange(IpAddresses.Range range);
+
+    /**
+     * Retrieves the archived tracking pixels whose IP address lies in a range, oldest first.
+     *
+     * @param range  the range of binary IP addresses
+     * @param offset number of matching tracking pixels to skip
+     * @param limit  maximum number of tracking pixels
+     * @return the tracking pixels ordered by creation date and id, ascending
+     */
+    List<TrackingPixel> findInRangeOldestFirst(IpAddresses.Range range, long offset, int limit);
+
+    /**
+     * Retrieves matching archived tracking pixels, oldest first.
+     *
+     * @param dimension dimension to filter by
+     * @param value     value to match
+     * @param offset    number of matching tracking pixels to skip
+     * @param limit     maximum number of tracking pixels
+     * @return the tracking pixels ordered by creation date and id, ascending
+     */
+    List<TrackingPixel> findOldestFirst(HitDimension dimension, String value, long offset, int limit);
+
+    /**
+     * Retrieves matching archived tracking pixels older than a position.
+     *
+     * @param dimension dimension to filter by
+     * @param value     value to match
+     * @param createdAt creation date of the position
+     * @param id        id of the position
+     * @param limit     maximum number of tracking pixels
+     * @return the tracking pixels ordered by creation date and id, descending
+     */
+    List<TrackingPixel> findOlder(HitDimension dimension, String value, LocalDateTime createdAt, long id, int limit);
+
+    /**
+     * Retrieves matching archived tracking pixels newer than a position.
+     *
+     * @param dimension dimension to filter by
+     * @param value     value to match
+     * @param createdAt creation date of the position
+     * @param id        id of the position
+     * @param limit     maximum number of tracking pixels
+     * @return the tracking pixels ordered by creation date and id, ascending
+     */
+    List<TrackingPixel> findNewer(HitDimension dimension, String value, LocalDateTime createdAt, long id, int limit);
+
+    /**
+     * Retrieves an archived tracking pixel by its id.
+     *
+     * @param id the id
+     * @return the tracking pixel, or empty if it is not archived
+     */
+    Optional<TrackingPixel> findById(long id);
+}
@@ -0,0 +1,26 @@
+package com.gklyphon.easy_pixel_tracking.services;
+
+import com.gklyphon.easy_pixel_tracking.models.BatchFormat;
+import com.gklyphon.easy_pixel_tracking.models.BatchResult;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Service interface for ingesting batches of hits sent by server-side senders and SDKs.
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+public interface IBatchIngestionService {
+
+    /**
+     * Reads, validates and writes every record of a batch.
+     *
+     * @param format the format of the batch
+     * @param in     the batch, read up to its end
+     * @return the status of the first records that were not accepted, and the counts of each status
+     * @throws IOException if the batch cannot be read
+     */
+    BatchResult ingest(BatchFormat format, InputStream in) throws IOException;
+}
@@ -0,0 +1,34 @@
+package com.gklyphon.easy_pixel_tracking.services;
+
+import com.gklyphon.easy_pixel_tracking.models.CampaignCount;
+
+/**
+ * Service interface for campaign pixels and their running hit counts.
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+public interface ICampaignService {
+
+    /**
+     * Decides whether hits of a campaign are recorded with their campaign.
+     *
+     * @param campaign the campaign id from the pixel URL
+     * @return false if the id is not a valid token or not an allowed campaign
+     */
+    boolean accepts(String campaign);
+
+    /**
+     * Retrieves the number of hits of a campaign, without reading its tracking pixels.
+     *
+     * @param campaign the campaign id
+     * @return the hits recorded so far, 0 for a campaign never hit
+     * @throws IllegalArgumentException if the id is not a valid token
+     */
+    CampaignCount count(String campaign);
+
+    /**
+     * Writes the counts accumulated in memory to the campaign_counter table.
+     */
+    void flush();
+}
@@ -0,0 +1,52 @@
+package com.gklyphon.easy_pixel_tracking.services;
+
+import com.gklyphon.easy_pixel_tracking.models.TrackingPixel;
+
+/**
+ * Service interface for the dimension tables that store user agents, referers and campaign ids
+ * once under integer keys.
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+public interface IDictionaryService {
+
+    /**
+     * Resolves the dimension keys of a tracking pixel from its user agent, referer and campaign,
+     * interning strings that have not been seen before, and classifies its user agent.
+     *
+     * @param trackingPixel the tracking pixel about to be stored
+     */
+    void encode(TrackingPixel trackingPixel);
+
+    /**
+     * Restores the user agent, referer and campaign strings of a loaded tracking pixel from its dimension keys.
+     *
+     * @param trackingPixel the tracking pixel read from the store
+     */
+    void decode(TrackingPixel trackingPixel);
+
+    /**
+     * Looks up the key of a user agent without interning it.
+     *
+     * @param userAgent the user agent string
+     * @return the key, or null if the user agent has never been stored
+     */
+    Integer findUserAgentId(String userAgent);
+
+    /**
+     * Looks up the key of a referrer URL without interning it.
+     *
+     * @param referer the referrer URL
+     * @return the key, or null if the referer has never been stored
+     */
+    Integer findRefererId(String referer);
+
+    /**
+     * Looks up the key of a campaign id without interning it.
+     *
+     * @param campaign the campaign id
+     * @return the key, or null if the campaign has never been stored
+     */
+    Integer findCampaignId(String campaign);
+}
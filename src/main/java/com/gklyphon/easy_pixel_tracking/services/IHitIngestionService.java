@@ -0,0 +1,28 @@
+package com.gklyphon.easy_pixel_tracking.services;
+
+import com.gklyphon.easy_pixel_tracking.models.TrackingPixel;
+
+/**
+ * Service interface for accepting tracking pixel hits and handing them over to persistence.
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+public interface IHitIngestionService {
+
+    /**
+     * Submits a hit for persistence. Depending on configuration the hit may be written
+     * asynchronously after this method returns.
+     *
+     * @param trackingPixel the hit to persist
+     * @return {@code true} if the hit was accepted, {@code false} if it was dropped
+     */
+    boolean submit(TrackingPixel trackingPixel);
+
+    /**
+     * Returns the number of hits currently waiting to be written.
+     *
+     * @return the number of pending hits
+     */
+    int getPendingCount();
+}
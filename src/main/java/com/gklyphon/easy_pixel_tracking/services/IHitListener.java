@@ -0,0 +1,20 @@
+package com.gklyphon.easy_pixel_tracking.services;
+
+import com.gklyphon.easy_pixel_tracking.models.TrackingPixel;
+
+/**
+ * Callback notified of every hit accepted by the ingestion pipeline, before it is persisted, or once written for
+ * bulk batches. Implementations run on the request thread and must be fast and non-blocking.
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+public interface IHitListener {
+
+    /**
+     * Called for each accepted hit.
+     *
+     * @param trackingPixel the accepted hit, with its creation timestamp assigned
+     */
+    void onHit(TrackingPixel trackingPixel);
+}
@@ -0,0 +1,28 @@
+package com.gklyphon.easy_pixel_tracking.services;
+
+import com.gklyphon.easy_pixel_tracking.models.HitStreamFilter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Service interface for pushing accepted hits to live subscribers as server-sent events.
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+public interface IHitStreamService {
+
+    /**
+     * Opens a subscription to the hits accepted from now on.
+     *
+     * @param filter   selects the hits sent to this subscriber
+     * @param coalesce send one frame per second with the matching hit counts instead of every hit
+     * @return the emitter to return from the request handler
+     * @throws IllegalStateException if the maximum number of subscribers is connected
+     */
+    SseEmitter subscribe(HitStreamFilter filter, boolean coalesce);
+
+    /**
+     * Sends the hits accepted since the previous call to the subscribers.
+     */
+    void flush();
+}
@@ -0,0 +1,21 @@
+package com.gklyphon.easy_pixel_tracking.services;
+
+import com.gklyphon.easy_pixel_tracking.models.HitVerdict;
+import com.gklyphon.easy_pixel_tracking.models.TrackingPixel;
+
+/**
+ * Service interface for discarding repeated and excessive pixel hits before they are ingested.
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+public interface IHitThrottleService {
+
+    /**
+     * Decides whether a hit is ingested, and records it for the decisions about later hits.
+     *
+     * @param trackingPixel the hit, with its IP, user agent, referer and campaign set
+     * @return whether the hit is ingested or why it is discarded
+     */
+    HitVerdict admit(TrackingPixel trackingPixel);
+}
@@ -0,0 +1,18 @@
+package com.gklyphon.easy_pixel_tracking.services;
+
+/**
+ * Service interface for purging expired tracking pixels.
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+public interface IRetentionService {
+
+    /**
+     * Removes every tracking pixel of the days older than the configured retention,
+     * from the archive and from the tracking_pixel table.
+     *
+     * @return the number of tracking pixels removed
+     */
+    long purge();
+}
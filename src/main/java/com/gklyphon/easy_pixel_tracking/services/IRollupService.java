@@ -0,0 +1,51 @@
+package com.gklyphon.easy_pixel_tracking.services;
+
+import com.gklyphon.easy_pixel_tracking.models.HitDimension;
+import com.gklyphon.easy_pixel_tracking.models.RollupGranularity;
+import com.gklyphon.easy_pixel_tracking.models.RollupPoint;
+import com.gklyphon.easy_pixel_tracking.models.RollupTotal;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Service interface for pre-aggregated hit counters per time bucket and dimension.
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+public interface IRollupService {
+
+    /**
+     * Retrieves the hits per bucket of one dimension value within a time range.
+     *
+     * @param granularity the bucket size
+     * @param dimension   the dimension counted
+     * @param value       the dimension value, ignored for {@link HitDimension#ALL}
+     * @param from        inclusive start of the range
+     * @param to          exclusive end of the range
+     * @return hits per bucket ordered by bucket start
+     * @throws IllegalArgumentException if the dimension is not rolled up
+     */
+    List<RollupPoint> getTimeSeries(RollupGranularity granularity, HitDimension dimension, String value,
+                                    LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Retrieves the dimension values with the most hits within a time range.
+     *
+     * @param granularity the bucket size to read
+     * @param dimension   the dimension counted
+     * @param from        inclusive start of the range
+     * @param to          exclusive end of the range
+     * @param limit       maximum number of values, at least 1
+     * @return dimension values ordered by hits, descending
+     * @throws IllegalArgumentException if the dimension is not rolled up or the limit is below 1
+     */
+    List<RollupTotal> getTop(RollupGranularity granularity, HitDimension dimension,
+                             LocalDateTime from, LocalDateTime to, int limit);
+
+    /**
+     * Writes the counters accumulated in memory to the rollup table.
+     */
+    void flush();
+}
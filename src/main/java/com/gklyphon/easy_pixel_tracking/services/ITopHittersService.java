@@ -0,0 +1,28 @@
+package com.gklyphon.easy_pixel_tracking.services;
+
+import com.gklyphon.easy_pixel_tracking.models.HeavyHitters;
+import com.gklyphon.easy_pixel_tracking.models.HitDimension;
+import com.gklyphon.easy_pixel_tracking.models.TopWindow;
+
+/**
+ * Service interface for the most frequent dimension values over recent sliding windows.
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+public interface ITopHittersService {
+
+    /**
+     * Retrieves the latest heavy-hitter snapshot of a dimension and window.
+     *
+     * @param dimension the dimension ranked, other than {@link HitDimension#ALL}
+     * @param window    the sliding window
+     * @return the heavy hitters, most hits first
+     */
+    HeavyHitters getTop(HitDimension dimension, TopWindow window);
+
+    /**
+     * Recomputes the snapshots returned by {@link #getTop(HitDimension, TopWindow)}.
+     */
+    void refresh();
+}
@@ -0,0 +1,26 @@
+package com.gklyphon.easy_pixel_tracking.services;
+
+import com.gklyphon.easy_pixel_tracking.models.ExportFilter;
+import com.gklyphon.easy_pixel_tracking.models.ExportFormat;
+
+import java.io.OutputStream;
+
+/**
+ * Service interface for bulk exports of tracking pixels.
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+public interface ITrackingExportService {
+
+    /**
+     * Writes every tracking pixel matching the filter to the stream, newest first.
+     * Rows are streamed from the database as they are read and never collected in memory.
+     *
+     * @param filter the rows to export
+     * @param format the output format
+     * @param out    the stream to write to, left open
+     * @return the number of rows written
+     */
+    long export(ExportFilter filter, ExportFormat format, OutputStream out);
+}
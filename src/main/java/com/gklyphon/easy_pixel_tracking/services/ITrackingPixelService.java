@@ -1,8 +1,13 @@
 package com.gklyphon.easy_pixel_tracking.services;
 
+import com.gklyphon.easy_pixel_tracking.models.HitDimension;
+import com.gklyphon.easy_pixel_tracking.models.TrackingCursor;
 import com.gklyphon.easy_pixel_tracking.models.TrackingPixel;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
 
 /**
  * Service interface for managing TrackingPixel entities.
@@ -37,6 +42,16 @@ public interface ITrackingPixelService {
      */
     Page<TrackingPixel> findByIpOrderByCreatedAt(String ip, Pageable pageable);
 
+    /**
+     * Retrieves a paginated list of tracking pixels whose IP address lies in a network, ordered by creation date.
+     *
+     * @param range the network in CIDR notation, such as {@code 10.0.0.0/8} or {@code 2001:db8::/32}
+     * @param pageable pagination information
+     * @return a paginated list of tracking pixels within the network
+     * @throws IllegalArgumentException if the range is not in CIDR notation
+     */
+    Page<TrackingPixel> findByCidrOrderByCreatedAt(String range, Pageable pageable);
+
     /**
      * Retrieves a paginated list of tracking pixels filtered by user agent and ordered by creation date.
      *
@@ -55,6 +70,77 @@ public interface ITrackingPixelService {
      */
     Page<TrackingPixel> findByRefererOrderByCreatedAt(String referer, Pageable pageable);
 
+    /**
+     * Retrieves a paginated list of the tracking pixels of a campaign, ordered by creation date.
+     *
+     * @param campaign the campaign id to filter by
+     * @param pageable pagination information
+     * @return a paginated list of tracking pixels of the given campaign
+     */
+    Page<TrackingPixel> findByCampaignOrderByCreatedAt(String campaign, Pageable pageable);
+
+    /**
+     * Retrieves a paginated list of tracking pixels filtered by an attribute parsed from the user agent
+     * and ordered by creation date.
+     *
+     * @param dimension one of {@link HitDimension#BROWSER}, {@link HitDimension#OPERATING_SYSTEM},
+     *                  {@link HitDimension#DEVICE_CLASS} or {@link HitDimension#BOT}
+     * @param value the constant name of the attribute, or {@code true}/{@code false} for bots
+     * @param pageable pagination information
+     * @return a paginated list of tracking pixels matching the given attribute
+     * @throws IllegalArgumentException if the dimension is not parsed from the user agent or the value is unknown
+     */
+    Page<TrackingPixel> findByClientOrderByCreatedAt(HitDimension dimension, String value, Pageable pageable);
+
+    /**
+     * Retrieves a slice of all tracking pixels starting at the given cursor, newest first.
+     *
+     * @param cursor the position to scroll from
+     * @param size   maximum number of entries
+     * @return a slice of tracking pixels ordered by creation date and id, descending
+     */
+    Slice<TrackingPixel> scrollAll(TrackingCursor cursor, int size);
+
+    /**
+     * Retrieves a slice of tracking pixels filtered by IP address starting at the given cursor, newest first.
+     *
+     * @param ip     the IP address to filter by
+     * @param cursor the position to scroll from
+     * @param size   maximum number of entries
+     * @return a slice of tracking pixels ordered by creation date and id, descending
+     */
+    Slice<TrackingPixel> scrollByIp(String ip, TrackingCursor cursor, int size);
+
+    /**
+     * Retrieves a slice of tracking pixels filtered by user agent starting at the given cursor, newest first.
+     *
+     * @param userAgent the user agent string to filter by
+     * @param cursor    the position to scroll from
+     * @param size      maximum number of entries
+     * @return a slice of tracking pixels ordered by creation date and id, descending
+     */
+    Slice<TrackingPixel> scrollByUserAgent(String userAgent, TrackingCursor cursor, int size);
+
+    /**
+     * Retrieves a slice of tracking pixels filtered by referrer URL starting at the given cursor, newest first.
+     *
+     * @param referer the referrer URL to filter by
+     * @param cursor  the position to scroll from
+     * @param size    maximum number of entries
+     * @return a slice of tracking pixels ordered by creation date and id, descending
+     */
+    Slice<TrackingPixel> scrollByReferer(String referer, TrackingCursor cursor, int size);
+
+    /**
+     * Retrieves a slice of the tracking pixels of a campaign starting at the given cursor, newest first.
+     *
+     * @param campaign the campaign id to filter by
+     * @param cursor   the position to scroll from
+     * @param size     maximum number of entries
+     * @return a slice of tracking pixels ordered by creation date and id, descending
+     */
+    Slice<TrackingPixel> scrollByCampaign(String campaign, TrackingCursor cursor, int size);
+
     /**
      * Retrieves a tracking pixel by its unique identifier.
      *
@@ -68,15 +154,25 @@ public interface ITrackingPixelService {
      *
      * @param trackingPixel the tracking pixel to save
      * @return the saved tracking pixel entity
+     * @throws IllegalArgumentException if the IP address is given but is not an IP literal
      */
     TrackingPixel save(TrackingPixel trackingPixel);
 
+    /**
+     * Saves a batch of new tracking pixel entities in a single transaction.
+     *
+     * @param trackingPixels the tracking pixels to save
+     * @return the saved tracking pixel entities
+     */
+    List<TrackingPixel> saveAll(List<TrackingPixel> trackingPixels);
+
     /**
      * Updates an existing tracking pixel entity.
      *
      * @param id the ID of the tracking pixel to update
      * @param trackingPixel the updated tracking pixel data
      * @return the updated tracking pixel entity
+     * @throws IllegalArgumentException if the IP address is given but is not an IP literal
      */
     TrackingPixel update(Long id, TrackingPixel trackingPixel);
 
@@ -0,0 +1,21 @@
+package com.gklyphon.easy_pixel_tracking.services;
+
+import com.gklyphon.easy_pixel_tracking.models.TrackingPixel;
+
+import java.util.List;
+
+/**
+ * Service interface for appending newly ingested tracking pixels to the store.
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+public interface ITrackingPixelWriter {
+
+    /**
+     * Appends a batch of new tracking pixels in a single transaction.
+     *
+     * @param trackingPixels the tracking pixels to append
+     */
+    void writeAll(List<TrackingPixel> trackingPixels);
+}
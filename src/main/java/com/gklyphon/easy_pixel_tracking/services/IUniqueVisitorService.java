@@ -0,0 +1,27 @@
+package com.gklyphon.easy_pixel_tracking.services;
+
+import java.time.LocalDate;
+
+/**
+ * Service interface for approximate counts of distinct visitors.
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+public interface IUniqueVisitorService {
+
+    /**
+     * Estimates the number of distinct visitor IPs within a range of days.
+     *
+     * @param referer the referer to count, or null for all visitors
+     * @param from    first day, inclusive
+     * @param to      last day, inclusive
+     * @return the estimated number of distinct visitors
+     */
+    long estimate(String referer, LocalDate from, LocalDate to);
+
+    /**
+     * Merges the sketches accumulated in memory into the stored ones.
+     */
+    void flush();
+}
@@ -0,0 +1,28 @@
+package com.gklyphon.easy_pixel_tracking.services;
+
+import com.gklyphon.easy_pixel_tracking.models.TrackingPixel;
+import com.gklyphon.easy_pixel_tracking.models.UserAgentInfo;
+
+/**
+ * Service interface for classifying user agents into browser, operating system, device and bot attributes.
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+public interface IUserAgentService {
+
+    /**
+     * Classifies a user agent string.
+     *
+     * @param userAgent the user agent, may be null
+     * @return the parsed attributes
+     */
+    UserAgentInfo parse(String userAgent);
+
+    /**
+     * Sets the browser, operating system, device and bot columns of a tracking pixel from its user agent.
+     *
+     * @param trackingPixel the tracking pixel about to be ingested or stored
+     */
+    void classify(TrackingPixel trackingPixel);
+}
@@ -0,0 +1,612 @@
+package com.gklyphon.easy_pixel_tracking.services.impl;
+
+import com.gklyphon.easy_pixel_tracking.config.ArchiveProperties;
+import com.gklyphon.easy_pixel_tracking.models.HitDimension;
+import com.gklyphon.easy_pixel_tracking.models.TrackingPixel;
+import com.gklyphon.easy_pixel_tracking.models.WalCheckpoint;
+import com.gklyphon.easy_pixel_tracking.repository.IWalCheckpointRepository;
+import com.gklyphon.easy_pixel_tracking.services.IArchiveService;
+import com.gklyphon.easy_pixel_tracking.services.IUserAgentService;
+import com.gklyphon.easy_pixel_tracking.utils.ColumnarSegment;
+import com.gklyphon.easy_pixel_tracking.utils.ColumnarSegment.StringColumn;
+import com.gklyphon.easy_pixel_tracking.utils.IpAddresses;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.hibernate.service.spi.ServiceException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Service implementation that moves aged days of tracking pixels into one {@link ColumnarSegment} file per day
+ * and answers queries over them.
+ *
+ * <p>A day is written to a temporary file first, named after the day and a new generation number. Its rows are then
+ * deleted from the table in the same transaction that records the generation in {@code wal_checkpoint}, and the file
+ * is renamed into place once that commits. A temporary file left by a crash is kept only if the checkpoint holds its
+ * generation, so a day is never both archived and in the table, also when a day already archived is written again
+ * with rows created since. The previous generation of a day is deleted once the new one is in place, while no query
+ * is reading.</p>
+ *
+ * <p>Queries skip segments by their creation time and id ranges and, when filtering, by their bloom filters and
+ * dictionaries, so only segments containing the value are decoded, and only the columns that are needed. The readers
+ * of the most recently queried segments are cached with their decoded columns, so paging through a day, or counting
+ * and then listing it, decodes each column once. Segments
+ * keep the user agent string only: the attributes parsed from it are derived again when reading, once per distinct
+ * user agent of a segment.</p>
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+@Service
+public class ArchiveServiceImpl implements IArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(ArchiveServiceImpl.class);
+
+    static final String CHECKPOINT_NAME = "archive";
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String TEMPORARY_SUFFIX = ".seg.tmp";
+    private static final int[] NO_ROWS = new int[0];
+
+    private static final String OLDEST_SQL = "SELECT MIN(created_at) FROM tracking_pixel";
+    private static final String SELECT_DAY_SQL =
+            "SELECT p.id, p.created_at, p.updated_at, p.ip_address, u.content, r.content, c.content, p.recipient"
+                    + " FROM tracking_pixel p"
+                    + " LEFT JOIN user_agent u ON u.id = p.user_agent_id"
+                    + " LEFT JOIN referer r ON r.id = p.referer_id"
+                    + " LEFT JOIN campaign c ON c.id = p.campaign_id"
+                    + " WHERE p.created_at >= ? AND p.created_at < ? ORDER BY p.created_at, p.id";
+    private static final String DELETE_DAY_SQL = "DELETE FROM tracking_pixel WHERE created_at >= ? AND created_at < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final IWalCheckpointRepository walCheckpointRepository;
+    private final IUserAgentService userAgentService;
+    private final TransactionTemplate transactionTemplate;
+    private final ArchiveProperties properties;
+    private final Path directory;
+    private final ConcurrentSkipListMap<LocalDate, ColumnarSegment> segments = new ConcurrentSkipListMap<>();
+    private final Cache<Path, ColumnarSegment.Reader> readers;
+    private final ReentrantLock archiveLock = new ReentrantLock();
+    /**
+     * Held for reading by queries and for writing while segment files are replaced or deleted.
+     */
+    private final ReentrantReadWriteLock filesLock = new ReentrantReadWriteLock();
+    private long generation;
+
+    public ArchiveServiceImpl(JdbcTemplate jdbcTemplate, IWalCheckpointRepository walCheckpointRepository,
+                              IUserAgentService userAgentService, PlatformTransactionManager transactionManager,
+                              ArchiveProperties properties, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.walCheckpointRepository = walCheckpointRepository;
+        this.userAgentService = userAgentService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.directory = Path.of(properties.getDirectory());
+        this.readers = Caffeine.newBuilder()
+                .maximumSize(properties.getCachedSegments())
+                .build();
+        Gauge.builder("tracking.archive.rows", segments,
+                        map -> map.values().stream().mapToLong(ColumnarSegment::getRowCount).sum())
+                .description("Tracking pixels held in archive segments")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Completes or discards a day left half-archived by a crash and loads the header of the latest generation
+     * of every day.
+     *
+     * @throws IOException if the archive directory cannot be read
+     */
+    @PostConstruct
+    public void load() throws IOException {
+        long checkpoint = walCheckpointRepository.findById(CHECKPOINT_NAME)
+                .map(WalCheckpoint::getLastSequence)
+                .orElse(0L);
+        generation = checkpoint;
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + TEMPORARY_SUFFIX)) {
+            for (Path file : files) {
+                SegmentName name = SegmentName.of(file, TEMPORARY_SUFFIX);
+                if (name != null && name.generation() == checkpoint) {
+                    Files.move(file, segmentFile(name), StandardCopyOption.ATOMIC_MOVE,
+                            StandardCopyOption.REPLACE_EXISTING);
+                } else {
+                    Files.delete(file);
+                }
+            }
+        }
+        Map<LocalDate, SegmentName> latest = new HashMap<>();
+        List<SegmentName> superseded = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                SegmentName name = SegmentName.of(file, SEGMENT_SUFFIX);
+                if (name == null) {
+                    continue;
+                }
+                generation = Math.max(generation, name.generation());
+                SegmentName other = latest.get(name.day());
+                if (other == null || other.generation() < name.generation()) {
+                    latest.put(name.day(), name);
+                }
+                if (other != null) {
+                    superseded.add(other.generation() < name.generation() ? other : name);
+                }
+            }
+        }
+        // A crash after a day was written again can leave its previous generation behind.
+        for (SegmentName name : superseded) {
+            Files.deleteIfExists(segmentFile(name));
+        }
+        for (SegmentName name : latest.values()) {
+            try {
+                segments.put(name.day(), ColumnarSegment.open(segmentFile(name)));
+            } catch (IOException ex) {
+                log.warn("Skipping unreadable archive segment {}.", segmentFile(name), ex);
+            }
+        }
+    }
+
+    /**
+     * Moves every day older than {@code tracking.archive.max-age} from the table into the archive, oldest first.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${tracking.archive.interval:PT1H}")
+    public void archive() {
+        if (!properties.isEnabled() || !archiveLock.tryLock()) {
+            return;
+        }
+        try {
+            LocalDate cutoff = LocalDateTime.now().minus(properties.getMaxAge()).toLocalDate();
+            while (true) {
+                LocalDateTime oldest = jdbcTemplate.queryForObject(OLDEST_SQL, LocalDateTime.class);
+                if (oldest == null || !oldest.toLocalDate().isBefore(cutoff)) {
+                    return;
+                }
+                LocalDate day = oldest.toLocalDate();
+                try {
+                    int rows = archiveDay(day);
+                    log.info("Archived {} tracking pixels of {}.", rows, day);
+                } catch (Exception ex) {
+                    log.warn("Failed to archive {}, will retry.", day, ex);
+                    return;
+                }
+            }
+        } finally {
+            archiveLock.unlock();
+        }
+    }
+
+    private int archiveDay(LocalDate day) throws IOException {
+        LocalDateTime from = day.atStartOfDay();
+        LocalDateTime to = from.plusDays(1);
+        ColumnarSegment existing = segments.get(day);
+        List<ArchivedRow> rows = existing != null ? read(() -> readAll(existing)) : new ArrayList<>();
+        ColumnarSegment.Builder builder = new ColumnarSegment.Builder();
+        int[] moved = {0};
+        jdbcTemplate.query(SELECT_DAY_SQL, rs -> {
+            LocalDateTime createdAt = rs.getObject(2, LocalDateTime.class);
+            LocalDateTime updatedAt = rs.getObject(3, LocalDateTime.class);
+            ArchivedRow row = new ArchivedRow(rs.getLong(1), ColumnarSegment.toMicros(createdAt),
+                    ColumnarSegment.toMicros(updatedAt != null ? updatedAt : createdAt),
+                    IpAddresses.format(rs.getBytes(4)), rs.getString(5), rs.getString(6), rs.getString(7),
+                    rs.getString(8));
+            if (existing != null) {
+                rows.add(row);
+            } else {
+                row.addTo(builder);
+            }
+            moved[0]++;
+        }, from, to);
+        if (existing != null) {
+            // Rows created for a day already archived, merged into its segment.
+            rows.sort(Comparator.comparingLong(ArchivedRow::createdAt).thenComparingLong(ArchivedRow::id));
+            rows.forEach(row -> row.addTo(builder));
+        }
+
+        Files.createDirectories(directory);
+        SegmentName name = new SegmentName(day, generation + 1);
+        Path temporary = directory.resolve(name.fileName(TEMPORARY_SUFFIX));
+        builder.writeTo(temporary, properties.getFalsePositiveRate());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                int deleted = jdbcTemplate.update(DELETE_DAY_SQL, from, to);
+                if (deleted != moved[0]) {
+                    throw new IllegalStateException("Tracking pixels of " + day + " changed while archiving");
+                }
+                walCheckpointRepository.save(new WalCheckpoint(CHECKPOINT_NAME, name.generation()));
+            });
+        } catch (RuntimeException ex) {
+            Files.deleteIfExists(temporary);
+            throw ex;
+        }
+        generation = name.generation();
+        Path file = segmentFile(name);
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        ColumnarSegment segment = ColumnarSegment.open(file);
+        filesLock.writeLock().lock();
+        try {
+            segments.put(day, segment);
+            if (existing != null) {
+                readers.invalidate(existing.getFile());
+                Files.deleteIfExists(existing.getFile());
+            }
+        } finally {
+            filesLock.writeLock().unlock();
+        }
+        return moved[0];
+    }
+
+    @Override
+    public long dropBefore(LocalDate day) {
+        long dropped = 0;
+        // Waits for running queries, which may still read columns of the expired segments.
+        filesLock.writeLock().lock();
+        try {
+            for (LocalDate expired : new ArrayList<>(segments.headMap(day).keySet())) {
+                ColumnarSegment segment = segments.remove(expired);
+                readers.invalidate(segment.getFile());
+                try {
+                    Files.deleteIfExists(segment.getFile());
+                    dropped += segment.getRowCount();
+                } catch (IOException ex) {
+                    segments.put(expired, segment);
+                    log.warn("Failed to drop archive segment {}, will retry.", segment.getFile(), ex);
+                }
+            }
+        } finally {
+            filesLock.writeLock().unlock();
+        }
+        return dropped;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return segments.isEmpty();
+    }
+
+    @Override
+    public long count(HitDimension dimension, String value) {
+        return count(valueFilter(dimension, value));
+    }
+
+    @Override
+    public long countInRange(IpAddresses.Range range) {
+        return count(rangeFilter(range));
+    }
+
+    @Override
+    public List<TrackingPixel> findOldestFirst(HitDimension dimension, String value, long offset, int limit) {
+        return findOldestFirst(valueFilter(dimension, value), offset, limit);
+    }
+
+    @Override
+    public List<TrackingPixel> findInRangeOldestFirst(IpAddresses.Range range, long offset, int limit) {
+        return findOldestFirst(rangeFilter(range), offset, limit);
+    }
+
+    private long count(RowFilter filter) {
+        return read(() -> {
+            long count = 0;
+            for (ColumnarSegment segment : segments.values()) {
+                int[] rows = filter.matchingRows(segment, reader(segment));
+                count += rows == null ? segment.getRowCount() : rows.length;
+            }
+            return count;
+        });
+    }
+
+    private List<TrackingPixel> findOldestFirst(RowFilter filter, long offset, int limit) {
+        return read(() -> {
+            List<TrackingPixel> result = new ArrayList<>(limit);
+            long skip = offset;
+            for (ColumnarSegment segment : segments.values()) {
+                if (result.size() == limit) {
+                    break;
+                }
+                ColumnarSegment.Reader reader = reader(segment);
+                int[] rows = filter.matchingRows(segment, reader);
+                int matches = rows == null ? segment.getRowCount() : rows.length;
+                if (skip >= matches) {
+                    skip -= matches;
+                    continue;
+                }
+                for (int i = (int) skip; i < matches && result.size() < limit; i++) {
+                    result.add(toTrackingPixel(reader, rows == null ? i : rows[i]));
+                }
+                skip = 0;
+            }
+            return result;
+        });
+    }
+
+    @Override
+    public List<TrackingPixel> findOlder(HitDimension dimension, String value, LocalDateTime createdAt, long id, int limit) {
+        long position = ColumnarSegment.toMicros(createdAt);
+        return read(() -> {
+            List<TrackingPixel> result = new ArrayList<>(limit);
+            for (ColumnarSegment segment : segments.descendingMap().values()) {
+                if (result.size() == limit) {
+                    break;
+                }
+                if (segment.getMinCreatedAt() > position) {
+                    continue;
+                }
+                ColumnarSegment.Reader reader = reader(segment);
+                int[] rows = valueFilter(dimension, value).matchingRows(segment, reader);
+                int matches = rows == null ? segment.getRowCount() : rows.length;
+                long[] created = reader.createdAt();
+                long[] ids = reader.ids();
+                for (int i = matches - 1; i >= 0 && result.size() < limit; i--) {
+                    int row = rows == null ? i : rows[i];
+                    if (created[row] < position || created[row] == position && ids[row] < id) {
+                        result.add(toTrackingPixel(reader, row));
+                    }
+                }
+            }
+            return result;
+        });
+    }
+
+    @Override
+    public List<TrackingPixel> findNewer(HitDimension dimension, String value, LocalDateTime createdAt, long id, int limit) {
+        long position = ColumnarSegment.toMicros(createdAt);
+        return read(() -> {
+            List<TrackingPixel> result = new ArrayList<>(limit);
+            for (ColumnarSegment segment : segments.values()) {
+                if (result.size() == limit) {
+                    break;
+                }
+                if (segment.getMaxCreatedAt() < position) {
+                    continue;
+                }
+                ColumnarSegment.Reader reader = reader(segment);
+                int[] rows = valueFilter(dimension, value).matchingRows(segment, reader);
+                int matches = rows == null ? segment.getRowCount() : rows.length;
+                long[] created = reader.createdAt();
+                long[] ids = reader.ids();
+                for (int i = 0; i < matches && result.size() < limit; i++) {
+                    int row = rows == null ? i : rows[i];
+                    if (created[row] > position || created[row] == position && ids[row] > id) {
+                        result.add(toTrackingPixel(reader, row));
+                    }
+                }
+            }
+            return result;
+        });
+    }
+
+    @Override
+    public Optional<TrackingPixel> findById(long id) {
+        return read(() -> {
+            for (ColumnarSegment segment : segments.values()) {
+                if (id < segment.getMinId() || id > segment.getMaxId()) {
+                    continue;
+                }
+                ColumnarSegment.Reader reader = reader(segment);
+                long[] ids = reader.ids();
+                for (int row = 0; row < ids.length; row++) {
+                    if (ids[row] == id) {
+                        return Optional.of(toTrackingPixel(reader, row));
+                    }
+                }
+            }
+            return Optional.empty();
+        });
+    }
+
+    /**
+     * Runs a query over the segments, which are not replaced or deleted until it returns.
+     */
+    private <T> T read(SegmentQuery<T> query) {
+        filesLock.readLock().lock();
+        try {
+            return query.run();
+        } catch (IOException ex) {
+            throw new ServiceException("Unexpected error while reading the archive.", ex);
+        } finally {
+            filesLock.readLock().unlock();
+        }
+    }
+
+    private ColumnarSegment.Reader reader(ColumnarSegment segment) {
+        return readers.get(segment.getFile(), file -> segment.reader());
+    }
+
+    /**
+     * Builds the filter matching one value of a dimension.
+     */
+    private RowFilter valueFilter(HitDimension dimension, String value) {
+        return switch (dimension) {
+            case ALL -> (segment, reader) -> null;
+            case IP -> stringFilter(StringColumn.IP, value);
+            case USER_AGENT -> stringFilter(StringColumn.USER_AGENT, value);
+            case REFERER -> stringFilter(StringColumn.REFERER, value);
+            case CAMPAIGN -> stringFilter(StringColumn.CAMPAIGN, value);
+            case BROWSER, OPERATING_SYSTEM, DEVICE_CLASS, BOT -> userAgentFilter(dimension, value);
+        };
+    }
+
+    /**
+     * Builds the filter matching one value of a string column, using the bloom filter and dictionary before the codes.
+     */
+    private static RowFilter stringFilter(StringColumn column, String value) {
+        return (segment, reader) -> {
+            if (value == null || !segment.mightContain(column, value)) {
+                return NO_ROWS;
+            }
+            ColumnarSegment.Dictionary dictionary = reader.column(column);
+            int code = dictionary.codeOf(value);
+            return code < 0 ? NO_ROWS : rowsWithCodes(dictionary, segment.getRowCount(), Set.of(code));
+        };
+    }
+
+    /**
+     * Builds the filter matching an attribute parsed from the user agent, classifying each dictionary entry once.
+     */
+    private RowFilter userAgentFilter(HitDimension dimension, String value) {
+        return (segment, reader) -> {
+            ColumnarSegment.Dictionary dictionary = reader.column(StringColumn.USER_AGENT);
+            TrackingPixel probe = new TrackingPixel();
+            Set<Integer> codes = new HashSet<>();
+            for (int code = 0; code < dictionary.size(); code++) {
+                userAgentService.parse(dictionary.valueOf(code)).applyTo(probe);
+                if (dimension.valueOf(probe).equals(value)) {
+                    codes.add(code);
+                }
+            }
+            return codes.isEmpty() ? NO_ROWS : rowsWithCodes(dictionary, segment.getRowCount(), codes);
+        };
+    }
+
+    /**
+     * Builds the filter matching the IP addresses within a range. Segments whose address bounds miss the range
+     * are skipped unread; otherwise the codes come from the sorted addresses kept by the cached dictionary.
+     */
+    private static RowFilter rangeFilter(IpAddresses.Range range) {
+        return (segment, reader) -> {
+            if (!segment.mightContainAddressBetween(range.low(), range.high())) {
+                return NO_ROWS;
+            }
+            ColumnarSegment.Dictionary dictionary = reader.column(StringColumn.IP);
+            int[] codes = dictionary.codesOfAddressesBetween(range.low(), range.high());
+            if (codes.length == 0) {
+                return NO_ROWS;
+            }
+            Set<Integer> selected = HashSet.newHashSet(codes.length);
+            for (int code : codes) {
+                selected.add(code);
+            }
+            return rowsWithCodes(dictionary, segment.getRowCount(), selected);
+        };
+    }
+
+    private static int[] rowsWithCodes(ColumnarSegment.Dictionary dictionary, int rowCount, Set<Integer> codes) {
+        int[] rows = new int[rowCount];
+        int count = 0;
+        for (int row = 0; row < rowCount; row++) {
+            if (codes.contains(dictionary.code(row))) {
+                rows[count++] = row;
+            }
+        }
+        return Arrays.copyOf(rows, count);
+    }
+
+    private TrackingPixel toTrackingPixel(ColumnarSegment.Reader reader, int row) throws IOException {
+        TrackingPixel trackingPixel = new TrackingPixel(reader.ids()[row],
+                reader.column(StringColumn.IP).value(row),
+                reader.column(StringColumn.USER_AGENT).value(row),
+                reader.column(StringColumn.REFERER).value(row));
+        trackingPixel.setCampaign(reader.column(StringColumn.CAMPAIGN).value(row));
+        trackingPixel.setRecipient(reader.column(StringColumn.RECIPIENT).value(row));
+        trackingPixel.setCreatedAt(ColumnarSegment.fromMicros(reader.createdAt()[row]));
+        trackingPixel.setUpdatedAt(ColumnarSegment.fromMicros(reader.updatedAt()[row]));
+        userAgentService.classify(trackingPixel);
+        return trackingPixel;
+    }
+
+    private List<ArchivedRow> readAll(ColumnarSegment segment) throws IOException {
+        ColumnarSegment.Reader reader = reader(segment);
+        List<ArchivedRow> rows = new ArrayList<>(segment.getRowCount());
+        for (int row = 0; row < segment.getRowCount(); row++) {
+            rows.add(new ArchivedRow(reader.ids()[row], reader.createdAt()[row], reader.updatedAt()[row],
+                    reader.column(StringColumn.IP).value(row),
+                    reader.column(StringColumn.USER_AGENT).value(row),
+                    reader.column(StringColumn.REFERER).value(row),
+                    reader.column(StringColumn.CAMPAIGN).value(row),
+                    reader.column(StringColumn.RECIPIENT).value(row)));
+        }
+        return rows;
+    }
+
+    private Path segmentFile(SegmentName name) {
+        return directory.resolve(name.fileName(SEGMENT_SUFFIX));
+    }
+
+    /**
+     * A query over the segments.
+     */
+    @FunctionalInterface
+    private interface SegmentQuery<T> {
+
+        T run() throws IOException;
+    }
+
+    /**
+     * Selects rows of a segment.
+     */
+    @FunctionalInterface
+    private interface RowFilter {
+
+        /**
+         * @return the matching row indexes in ascending order, or null if every row matches
+         */
+        int[] matchingRows(ColumnarSegment segment, ColumnarSegment.Reader reader) throws IOException;
+    }
+
+    /**
+     * Day and generation of a segment file, named {@code <day>.<generation>.seg}.
+     */
+    private record SegmentName(LocalDate day, long generation) {
+
+        /**
+         * @return the name, or null if the file is not named {@code <day>.<generation>} before the suffix
+         */
+        static SegmentName of(Path file, String suffix) {
+            String name = file.getFileName().toString();
+            String stem = name.substring(0, name.length() - suffix.length());
+            int dot = stem.indexOf('.');
+            if (dot < 0) {
+                return null;
+            }
+            try {
+                return new SegmentName(LocalDate.parse(stem.substring(0, dot)),
+                        Long.parseLong(stem.substring(dot + 1)));
+            } catch (DateTimeParseException | NumberFormatException ex) {
+                return null;
+            }
+        }
+
+        String fileName(String suffix) {
+            return day + "." + generation + suffix;
+        }
+    }
+
+    private record ArchivedRow(long id, long createdAt, long updatedAt, String ip, String userAgent, String referer,
+                               String campaign, String recipient) {
+
+        void addTo(ColumnarSegment.Builder builder) {
+            builder.add(id, createdAt, updatedAt, ip, userAgent, referer, campaign, recipient);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.gklyphon.easy_pixel_tracking.services.impl;
+
+import com.gklyphon.easy_pixel_tracking.config.BatchProperties;
+import com.gklyphon.easy_pixel_tracking.config.PixelProperties;
+import com.gklyphon.easy_pixel_tracking.models.BatchFormat;
+import com.gklyphon.easy_pixel_tracking.models.BatchRecordStatus;
+import com.gklyphon.easy_pixel_tracking.models.BatchResult;
+import com.gklyphon.easy_pixel_tracking.models.TrackingPixel;
+import com.gklyphon.easy_pixel_tracking.services.IBatchIngestionService;
+import com.gklyphon.easy_pixel_tracking.services.ICampaignService;
+import com.gklyphon.easy_pixel_tracking.services.IHitListener;
+import com.gklyphon.easy_pixel_tracking.services.ITrackingPixelWriter;
+import com.gklyphon.easy_pixel_tracking.services.IUserAgentService;
+import com.gklyphon.easy_pixel_tracking.utils.BatchReader;
+import com.gklyphon.easy_pixel_tracking.utils.IpAddresses;
+import com.gklyphon.easy_pixel_tracking.utils.Tokens;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Service implementation that ingests batches chunk by chunk while they are being read.
+ *
+ * <p>Records are decoded one at a time and validated, and valid ones are collected into chunks of
+ * {@code tracking.batch.chunk-size} written through the {@link ITrackingPixelWriter} in one transaction each, so
+ * only one chunk is held in memory whatever the size of the batch. Records are accepted once their chunk is written,
+ * and only then passed to the {@link IHitListener}s. IP addresses are truncated to the prefix lengths of the pixel
+ * endpoint, and campaigns are accepted as they are by the campaign pixel.</p>
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+@Service
+public class BatchIngestionServiceImpl implements IBatchIngestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchIngestionServiceImpl.class);
+
+    private final ITrackingPixelWriter trackingPixelWriter;
+    private final IUserAgentService userAgentService;
+    private final ICampaignService campaignService;
+    private final BatchProperties properties;
+    private final PixelProperties pixelProperties;
+    private final List<IHitListener> hitListeners;
+    private final Counter acceptedCounter;
+    private final Counter rejectedCounter;
+    private final Counter failedCounter;
+
+    public BatchIngestionServiceImpl(ITrackingPixelWriter trackingPixelWriter, IUserAgentService userAgentService,
+                                     ICampaignService campaignService, BatchProperties properties, PixelProperties pixelProperties,
+                                     ObjectProvider<IHitListener> hitListeners, MeterRegistry meterRegistry) {
+        this.trackingPixelWriter = trackingPixelWriter;
+        this.userAgentService = userAgentService;
+        this.campaignService = campaignService;
+        this.properties = properties;
+        this.pixelProperties = pixelProperties;
+        this.hitListeners = hitListeners.orderedStream().toList();
+        this.acceptedCounter = records(meterRegistry, "accepted");
+        this.rejectedCounter = records(meterRegistry, "rejected");
+        this.failedCounter = records(meterRegistry, "failed");
+    }
+
+    /**
+     * Reads, validates and writes every record of a batch.
+     *
+     * @param format the format of the batch
+     * @param in     the batch, read up to its end
+     * @return the status of the first {@code tracking.batch.max-failures} records that were not accepted, and the
+     * counts of each status
+     * @throws IOException if the batch cannot be read
+     */
+    @Override
+    public BatchResult ingest(BatchFormat format, InputStream in) throws IOException {
+        BatchReader reader = new BatchReader(format, in, properties.getMaxRecordSize());
+        BatchResult result = new BatchResult(properties.getMaxFailures());
+        int chunkSize = properties.getChunkSize();
+        List<TrackingPixel> chunk = new ArrayList<>(chunkSize);
+        long[] indexes = new long[chunkSize];
+
+        for (long index = 0; ; index++) {
+            TrackingPixel trackingPixel;
+            try {
+                trackingPixel = reader.next();
+                if (trackingPixel == null) {
+                    break;
+                }
+                if (index >= properties.getMaxRecords()) {
+                    result.truncate();
+                    break;
+                }
+                prepare(trackingPixel);
+            } catch (IllegalArgumentException ex) {
+                if (index >= properties.getMaxRecords()) {
+                    result.truncate();
+                    break;
+                }
+                result.fail(index, BatchRecordStatus.REJECTED, ex.getMessage());
+                rejectedCounter.increment();
+                continue;
+            }
+            indexes[chunk.size()] = index;
+            chunk.add(trackingPixel);
+            if (chunk.size() == chunkSize) {
+                write(chunk, indexes, result);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            write(chunk, indexes, result);
+        }
+        return result;
+    }
+
+    /**
+     * Validates a record and fills in the columns derived at ingestion.
+     *
+     * @throws IllegalArgumentException if the record is invalid
+     */
+    private void prepare(TrackingPixel trackingPixel) {
+        String ip = trackingPixel.getIp();
+        if (ip == null || IpAddresses.parse(ip) == null) {
+            throw new IllegalArgumentException("ip: not an IP address");
+        }
+        if (trackingPixel.getUserAgent() != null
+                && trackingPixel.getUserAgent().length() > TrackingPixel.USER_AGENT_LENGTH) {
+            throw new IllegalArgumentException("userAgent: longer than " + TrackingPixel.USER_AGENT_LENGTH + " characters");
+        }
+        if (trackingPixel.getReferer() != null && trackingPixel.getReferer().length() > TrackingPixel.REFERER_LENGTH) {
+            throw new IllegalArgumentException("referer: longer than " + TrackingPixel.REFERER_LENGTH + " characters");
+        }
+        if (trackingPixel.getCampaign() != null && !campaignService.accepts(trackingPixel.getCampaign())) {
+            throw new IllegalArgumentException("campaign: not a valid or allowed campaign id");
+        }
+        if (trackingPixel.getRecipient() != null
+                && !Tokens.isValid(trackingPixel.getRecipient(), TrackingPixel.RECIPIENT_LENGTH)) {
+            throw new IllegalArgumentException("recipient: not a valid token");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime createdAt = trackingPixel.getCreatedAt();
+        if (createdAt == null) {
+            trackingPixel.setCreatedAt(now);
+        } else if (createdAt.isAfter(now.plus(properties.getMaxClockSkew()))) {
+            throw new IllegalArgumentException("createdAt: in the future");
+        } else if (createdAt.isBefore(now.minus(properties.getMaxAge()))) {
+            throw new IllegalArgumentException("createdAt: older than " + properties.getMaxAge());
+        }
+        trackingPixel.setIp(IpAddresses.anonymize(ip, pixelProperties.getIpv4PrefixLength(),
+                pixelProperties.getIpv6PrefixLength()));
+        trackingPixel.prepareColumns();
+        userAgentService.classify(trackingPixel);
+    }
+
+    private void write(List<TrackingPixel> chunk, long[] indexes, BatchResult result) {
+        try {
+            trackingPixelWriter.writeAll(chunk);
+        } catch (RuntimeException ex) {
+            log.warn("Failed to write a chunk of {} batch records.", chunk.size(), ex);
+            for (int i = 0; i < chunk.size(); i++) {
+                result.fail(indexes[i], BatchRecordStatus.FAILED, "Could not be written, send it again");
+            }
+            failedCounter.increment(chunk.size());
+            chunk.clear();
+            return;
+        }
+        result.accept(chunk.size());
+        acceptedCounter.increment(chunk.size());
+        for (TrackingPixel trackingPixel : chunk) {
+            for (IHitListener hitListener : hitListeners) {
+                hitListener.onHit(trackingPixel);
+            }
+        }
+        chunk.clear();
+    }
+
+    private static Counter records(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("tracking.batch.records")
+                .description("Records received through bulk ingestion, by result")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
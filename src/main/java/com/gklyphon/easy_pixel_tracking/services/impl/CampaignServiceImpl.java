@@ -0,0 +1,234 @@
+package com.gklyphon.easy_pixel_tracking.services.impl;
+
+import com.gklyphon.easy_pixel_tracking.config.CampaignProperties;
+import com.gklyphon.easy_pixel_tracking.models.CampaignCount;
+import com.gklyphon.easy_pixel_tracking.models.CampaignCounter;
+import com.gklyphon.easy_pixel_tracking.models.TrackingPixel;
+import com.gklyphon.easy_pixel_tracking.repository.ICampaignCounterRepository;
+import com.gklyphon.easy_pixel_tracking.services.ICampaignService;
+import com.gklyphon.easy_pixel_tracking.services.IHitListener;
+import com.gklyphon.easy_pixel_tracking.utils.Tokens;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Service implementation that counts hits per campaign in memory and periodically adds the counts to the
+ * campaign_counter table.
+ *
+ * <p>Each campaign hit recently has a {@link LongAdder} of hits not yet written and the total last read back from
+ * the table, so a count is answered from memory without touching the tracking pixels. Totals are read back after
+ * every write, which also picks up the hits other nodes have written; campaigns without a counter in memory are
+ * counted from the table.</p>
+ *
+ * <p>Counters are released once their hits are written and they have had none for
+ * {@code tracking.campaign.idle-timeout}, or as soon as they are written while {@code tracking.campaign.max-campaigns}
+ * counters are held, so a flood of made-up campaign ids only holds memory for a few flushes. Hits of new campaigns
+ * beyond that cap are stored but not counted, and published as {@code tracking.campaign.uncounted}.
+ * {@code tracking.campaign.allowed} restricts the campaigns recorded at all.</p>
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+@Service
+public class CampaignServiceImpl implements ICampaignService, IHitListener {
+
+    private static final Logger log = LoggerFactory.getLogger(CampaignServiceImpl.class);
+
+    private final ICampaignCounterRepository campaignCounterRepository;
+    private final CampaignProperties properties;
+    private final int idleFlushes;
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final LongAdder uncounted = new LongAdder();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public CampaignServiceImpl(ICampaignCounterRepository campaignCounterRepository, CampaignProperties properties,
+                               MeterRegistry meterRegistry) {
+        this.campaignCounterRepository = campaignCounterRepository;
+        this.properties = properties;
+        this.idleFlushes = (int) Math.max(1, properties.getIdleTimeout().toMillis()
+                / Math.max(1, properties.getFlushInterval().toMillis()));
+        Gauge.builder("tracking.campaign.counters", counters, Map::size)
+                .description("Campaign counters held in memory")
+                .register(meterRegistry);
+        FunctionCounter.builder("tracking.campaign.uncounted", uncounted, LongAdder::sum)
+                .description("Campaign hits not counted because too many campaigns were counted at once")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Decides whether hits of a campaign are recorded with their campaign.
+     *
+     * @param campaign the campaign id from the pixel URL
+     * @return false if the id is not a valid token or not an allowed campaign
+     */
+    @Override
+    public boolean accepts(String campaign) {
+        if (!Tokens.isValid(campaign, TrackingPixel.CAMPAIGN_LENGTH)) {
+            return false;
+        }
+        return properties.getAllowed().isEmpty() || properties.getAllowed().contains(campaign);
+    }
+
+    /**
+     * Counts a hit of a campaign pixel.
+     *
+     * @param trackingPixel the accepted hit
+     */
+    @Override
+    public void onHit(TrackingPixel trackingPixel) {
+        String campaign = trackingPixel.getCampaign();
+        if (campaign == null) {
+            return;
+        }
+        while (true) {
+            Counter counter = counters.get(campaign);
+            if (counter == null) {
+                if (counters.size() >= properties.getMaxCampaigns()) {
+                    uncounted.increment();
+                    return;
+                }
+                counter = counters.computeIfAbsent(campaign, c -> new Counter());
+            }
+            counter.pending.increment();
+            if (!counter.released) {
+                return;
+            }
+            // Being released by a concurrent flush, which either keeps the counter or removes it without
+            // writing this hit: take the hit back and retry.
+            counter.pending.decrement();
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Retrieves the number of hits of a campaign, without reading its tracking pixels.
+     * A campaign without a counter in memory, or only counted by other nodes so far, is read from the
+     * campaign_counter table.
+     *
+     * @param campaign the campaign id
+     * @return the hits recorded so far, 0 for a campaign never hit
+     * @throws IllegalArgumentException if the id is not a valid token
+     */
+    @Override
+    public CampaignCount count(String campaign) {
+        if (!Tokens.isValid(campaign, TrackingPixel.CAMPAIGN_LENGTH)) {
+            throw new IllegalArgumentException("Invalid campaign id: " + campaign);
+        }
+        Counter counter = counters.get(campaign);
+        if (counter == null || !counter.synced) {
+            long written = campaignCounterRepository.findHitCount(campaign).orElse(0L);
+            return new CampaignCount(campaign, written + (counter == null ? 0 : counter.pending.sum()));
+        }
+        return new CampaignCount(campaign, counter.total());
+    }
+
+    /**
+     * Writes the counts accumulated in memory to the campaign_counter table, reads back the totals, and releases
+     * idle counters.
+     */
+    @Override
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${tracking.campaign.flush-interval:PT5S}")
+    public void flush() {
+        // The flush on shutdown may start while a scheduled one is still writing the same deltas.
+        flushLock.lock();
+        try {
+            boolean full = counters.size() >= properties.getMaxCampaigns();
+            for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+                Counter counter = entry.getValue();
+                long delta = counter.pending.sum();
+                if (delta == 0) {
+                    if (full || ++counter.idleFlushes >= idleFlushes) {
+                        release(entry.getKey(), counter);
+                    }
+                    continue;
+                }
+                counter.idleFlushes = 0;
+                try {
+                    long written = write(entry.getKey(), delta);
+                    counter.written(written, delta);
+                } catch (Exception ex) {
+                    log.warn("Failed to flush the counter of campaign {}, will retry.", entry.getKey(), ex);
+                }
+            }
+            if (full && uncounted.sum() > 0) {
+                log.warn("More than {} campaigns were hit within a flush; {} hits so far were not counted.",
+                        properties.getMaxCampaigns(), uncounted.sum());
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Removes a counter with no pending hits from memory. A hit counted concurrently keeps the counter.
+     */
+    private void release(String campaign, Counter counter) {
+        counter.released = true;
+        if (counter.pending.sum() != 0) {
+            counter.released = false;
+            return;
+        }
+        counters.remove(campaign, counter);
+    }
+
+    /**
+     * Adds hits to the counter of a campaign, creating it if needed.
+     *
+     * @return the total hits of the campaign after the write
+     */
+    private long write(String campaign, long delta) {
+        if (campaignCounterRepository.increment(campaign, delta) == 0) {
+            try {
+                campaignCounterRepository.save(new CampaignCounter(campaign, delta));
+            } catch (DataIntegrityViolationException ex) {
+                // Created concurrently by another node.
+                campaignCounterRepository.increment(campaign, delta);
+            }
+        }
+        return campaignCounterRepository.findHitCount(campaign).orElse(delta);
+    }
+
+    /**
+     * Hits of one campaign: those written to the table, as last read back, and those not written yet.
+     * Hits are only added to {@link #pending}; the two parts move together under the lock of the counter, so once
+     * the total has been read back, a count never sees a flushed hit twice or not at all.
+     *
+     * <p>A counter is released by setting {@link #released} and then checking that nothing is pending. A hit
+     * increments {@link #pending} and then checks {@link #released}, so either the flush sees the hit and keeps the
+     * counter, or the hit sees the release and is counted again once the counter is kept or replaced.</p>
+     */
+    private static final class Counter {
+
+        private final LongAdder pending = new LongAdder();
+        private long written;
+        private volatile boolean synced;
+        private volatile boolean released;
+        /**
+         * Consecutive flushes without hits. Only used by the flush.
+         */
+        private int idleFlushes;
+
+        private synchronized long total() {
+            return written + pending.sum();
+        }
+
+        private synchronized void written(long total, long delta) {
+            written = total;
+            pending.add(-delta);
+            synced = true;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.gklyphon.easy_pixel_tracking.services.impl;
+
+import com.gklyphon.easy_pixel_tracking.config.DictionaryProperties;
+import com.gklyphon.easy_pixel_tracking.models.TrackingPixel;
+import com.gklyphon.easy_pixel_tracking.services.IDictionaryService;
+import com.gklyphon.easy_pixel_tracking.services.IUserAgentService;
+import com.gklyphon.easy_pixel_tracking.utils.Hashing;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.util.List;
+
+/**
+ * Service implementation that interns user agents, referers and campaign ids into their dimension tables.
+ *
+ * <p>Both directions are cached in bounded caches that keep the strings in use and evict the rest, so ingestion
+ * only touches the database the first time a string is seen or after it has been evicted. Hits and misses are
+ * published as {@code cache.gets{cache=dictionary}}, tagged by table and key. New strings are inserted in their own
+ * transaction: a key that was handed out stays valid even if the batch that needed it is rolled back.</p>
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+@Service
+public class DictionaryServiceImpl implements IDictionaryService {
+
+    private final Dictionary userAgents;
+    private final Dictionary referers;
+    private final Dictionary campaigns;
+    private final IUserAgentService userAgentService;
+
+    public DictionaryServiceImpl(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                 IUserAgentService userAgentService, DictionaryProperties properties,
+                                 MeterRegistry meterRegistry) {
+        this.userAgentService = userAgentService;
+        TransactionTemplate insertTransaction = new TransactionTemplate(transactionManager);
+        insertTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.userAgents = new Dictionary("user_agent", jdbcTemplate, insertTransaction, properties.getCacheSize(),
+                meterRegistry);
+        this.referers = new Dictionary("referer", jdbcTemplate, insertTransaction, properties.getCacheSize(),
+                meterRegistry);
+        this.campaigns = new Dictionary("campaign", jdbcTemplate, insertTransaction, properties.getCacheSize(),
+                meterRegistry);
+    }
+
+    /**
+     * Resolves the dimension keys of a tracking pixel from its user agent, referer and campaign,
+     * interning strings that have not been seen before, and classifies its user agent.
+     *
+     * @param trackingPixel the tracking pixel about to be stored
+     */
+    @Override
+    public void encode(TrackingPixel trackingPixel) {
+        trackingPixel.prepareColumns();
+        userAgentService.classify(trackingPixel);
+        trackingPixel.setUserAgentId(userAgents.intern(trackingPixel.getUserAgent()));
+        trackingPixel.setRefererId(referers.intern(trackingPixel.getReferer()));
+        trackingPixel.setCampaignId(campaigns.intern(trackingPixel.getCampaign()));
+    }
+
+    /**
+     * Restores the user agent, referer and campaign strings of a loaded tracking pixel from its dimension keys.
+     *
+     * @param trackingPixel the tracking pixel read from the store
+     */
+    @Override
+    public void decode(TrackingPixel trackingPixel) {
+        trackingPixel.setUserAgent(userAgents.lookup(trackingPixel.getUserAgentId()));
+        trackingPixel.setReferer(referers.lookup(trackingPixel.getRefererId()));
+        trackingPixel.setCampaign(campaigns.lookup(trackingPixel.getCampaignId()));
+    }
+
+    /**
+     * Looks up the key of a user agent without interning it.
+     *
+     * @param userAgent the user agent string
+     * @return the key, or null if the user agent has never been stored
+     */
+    @Override
+    public Integer findUserAgentId(String userAgent) {
+        return userAgents.find(userAgent);
+    }
+
+    /**
+     * Looks up the key of a referrer URL without interning it.
+     *
+     * @param referer the referrer URL
+     * @return the key, or null if the referer has never been stored
+     */
+    @Override
+    public Integer findRefererId(String referer) {
+        return referers.find(referer);
+    }
+
+    /**
+     * Looks up the key of a campaign id without interning it.
+     *
+     * @param campaign the campaign id
+     * @return the key, or null if the campaign has never been stored
+     */
+    @Override
+    public Integer findCampaignId(String campaign) {
+        return campaigns.find(campaign);
+    }
+
+    /**
+     * Cached access to a single dimension table.
+     */
+    private static final class Dictionary {
+
+        private final JdbcTemplate jdbcTemplate;
+        private final TransactionTemplate insertTransaction;
+        private final String selectIdSql;
+        private final String selectContentSql;
+        private final String insertSql;
+        private final Cache<String, Integer> ids;
+        private final Cache<Integer, String> contents;
+
+        private Dictionary(String table, JdbcTemplate jdbcTemplate, TransactionTemplate insertTransaction, int cacheSize,
+                           MeterRegistry meterRegistry) {
+            this.jdbcTemplate = jdbcTemplate;
+            this.insertTransaction = insertTransaction;
+            this.ids = Caffeine.newBuilder().maximumSize(cacheSize).recordStats().build();
+            this.contents = Caffeine.newBuilder().maximumSize(cacheSize).recordStats().build();
+            CaffeineCacheMetrics.monitor(meterRegistry, ids, "dictionary", "table", table, "key", "content");
+            CaffeineCacheMetrics.monitor(meterRegistry, contents, "dictionary", "table", table, "key", "id");
+            this.selectIdSql = "SELECT id FROM " + table + " WHERE content_hash = ? AND content = ?";
+            this.selectContentSql = "SELECT content FROM " + table + " WHERE id = ?";
+            this.insertSql = "INSERT INTO " + table + " (content_hash, content) VALUES (?, ?)";
+        }
+
+        private Integer intern(String content) {
+            if (content == null) {
+                return null;
+            }
+            Integer id = find(content);
+            if (id != null) {
+                return id;
+            }
+            try {
+                id = insertTransaction.execute(status -> insert(content));
+            } catch (DuplicateKeyException ex) {
+                // Interned concurrently by another writer.
+                id = selectId(content);
+            }
+            cache(content, id);
+            return id;
+        }
+
+        private Integer find(String content) {
+            if (content == null) {
+                return null;
+            }
+            Integer id = ids.getIfPresent(content);
+            if (id == null) {
+                id = selectId(content);
+                if (id != null) {
+                    cache(content, id);
+                }
+            }
+            return id;
+        }
+
+        private String lookup(Integer id) {
+            if (id == null) {
+                return null;
+            }
+            String content = contents.getIfPresent(id);
+            if (content == null) {
+                List<String> rows = jdbcTemplate.queryForList(selectContentSql, String.class, id);
+                if (!rows.isEmpty()) {
+                    content = rows.get(0);
+                    cache(content, id);
+                }
+            }
+            return content;
+        }
+
+        private Integer selectId(String content) {
+            List<Integer> rows = jdbcTemplate.queryForList(selectIdSql, Integer.class, Hashing.hash64(content), content);
+            return rows.isEmpty() ? null : rows.get(0);
+        }
+
+        private Integer insert(String content) {
+            KeyHolder keyHolder = new GeneratedKeyHolder();
+            jdbcTemplate.update(connection -> {
+                PreparedStatement ps = connection.prepareStatement(insertSql, new String[]{"id"});
+                ps.setLong(1, Hashing.hash64(content));
+                ps.setString(2, content);
+                return ps;
+            }, keyHolder);
+            return keyHolder.getKey().intValue();
+        }
+
+        private void cache(String content, Integer id) {
+            ids.put(content, id);
+            contents.put(id, content);
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package com.gklyphon.easy_pixel_tracking.services.impl;
+
+import com.gklyphon.easy_pixel_tracking.config.IngestionProperties;
+import com.gklyphon.easy_pixel_tracking.models.TrackingPixel;
+import com.gklyphon.easy_pixel_tracking.services.IHitIngestionService;
+import com.gklyphon.easy_pixel_tracking.services.IHitListener;
+import com.gklyphon.easy_pixel_tracking.services.ITrackingPixelWriter;
+import com.gklyphon.easy_pixel_tracking.services.IUserAgentService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service implementation that buffers hits in a bounded queue and writes them in batches
+ * from a single writer thread, so request latency does not depend on database latency.
+ *
+ * <p>A batch is flushed when it reaches the configured size or when the oldest hit in it
+ * has waited for the flush interval. Buffered hits are drained on shutdown, including those a request
+ * enqueued while the buffer was being drained. A batch that cannot be written is tried once more after the flush
+ * interval; hits of a batch that fails again are counted as {@code tracking.ingestion.hits{result=lost}}. Every
+ * accepted hit is also passed to the registered {@link IHitListener}s. Replaced by
+ * {@link WalHitIngestionServiceImpl} when the write-ahead log is enabled.</p>
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+@Service
+@ConditionalOnProperty(name = "tracking.wal.enabled", havingValue = "false", matchIfMissing = true)
+public class HitIngestionServiceImpl implements IHitIngestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(HitIngestionServiceImpl.class);
+
+    private final ITrackingPixelWriter trackingPixelWriter;
+    private final IUserAgentService userAgentService;
+    private final IngestionProperties properties;
+    private final List<IHitListener> hitListeners;
+    private final BlockingQueue<TrackingPixel> queue;
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final Counter acceptedCounter;
+    private final Counter lostCounter;
+    private final Counter failedCounter;
+    private final DistributionSummary batchSizes;
+    private final Timer batchTimer;
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public HitIngestionServiceImpl(ITrackingPixelWriter trackingPixelWriter, IUserAgentService userAgentService,
+                                   IngestionProperties properties, ObjectProvider<IHitListener> hitListeners,
+                                   MeterRegistry meterRegistry) {
+        this.trackingPixelWriter = trackingPixelWriter;
+        this.userAgentService = userAgentService;
+        this.properties = properties;
+        this.hitListeners = hitListeners.orderedStream().toList();
+        this.queue = new ArrayBlockingQueue<>(properties.getCapacity());
+        this.acceptedCounter = IngestionMeters.hits(meterRegistry, "accepted");
+        this.lostCounter = IngestionMeters.hits(meterRegistry, "lost");
+        this.failedCounter = IngestionMeters.failures(meterRegistry);
+        this.batchSizes = IngestionMeters.batchSizes(meterRegistry);
+        this.batchTimer = IngestionMeters.batchWrites(meterRegistry);
+        FunctionCounter.builder(IngestionMeters.HITS, droppedCount, AtomicLong::get)
+                .tag("result", "dropped")
+                .register(meterRegistry);
+        Gauge.builder(IngestionMeters.PENDING, queue, BlockingQueue::size)
+                .description("Hits waiting to be written")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts the writer thread when batching is enabled.
+     */
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        running = true;
+        writerThread = new Thread(this::drainLoop, "hit-ingestion-writer");
+        writerThread.start();
+    }
+
+    /**
+     * Stops accepting new batches and writes every hit still in the buffer.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (writerThread == null) {
+            return;
+        }
+        running = false;
+        writerThread.join(properties.getShutdownTimeout().toMillis());
+        drainRemaining();
+    }
+
+    /**
+     * Writes every hit left in the buffer once the writer thread has stopped.
+     */
+    private void drainRemaining() {
+        List<TrackingPixel> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            flush(remaining);
+        }
+    }
+
+    /**
+     * Submits a hit for persistence, applying the configured backpressure policy when the buffer is full.
+     *
+     * @param trackingPixel the hit to persist
+     * @return {@code true} if the hit was accepted, {@code false} if it was dropped
+     */
+    @Override
+    public boolean submit(TrackingPixel trackingPixel) {
+        if (trackingPixel.getCreatedAt() == null) {
+            trackingPixel.setCreatedAt(LocalDateTime.now());
+        }
+        trackingPixel.prepareColumns();
+        userAgentService.classify(trackingPixel);
+        if (!enqueue(trackingPixel)) {
+            return false;
+        }
+        acceptedCounter.increment();
+        for (IHitListener hitListener : hitListeners) {
+            hitListener.onHit(trackingPixel);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of hits currently waiting to be written.
+     *
+     * @return the number of pending hits
+     */
+    @Override
+    public int getPendingCount() {
+        return queue.size();
+    }
+
+    /**
+     * Returns the number of hits discarded because the buffer was full. Hits lost to failed writes are counted
+     * separately, as {@code tracking.ingestion.hits{result=lost}}.
+     *
+     * @return the number of dropped hits
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    private boolean enqueue(TrackingPixel trackingPixel) {
+        if (!running) {
+            trackingPixelWriter.writeAll(List.of(trackingPixel));
+            return true;
+        }
+        if (queue.offer(trackingPixel)) {
+            if (!running) {
+                // Stopped between the check and the offer: the buffer may already have been drained.
+                drainRemaining();
+            }
+            return true;
+        }
+        return switch (properties.getBackpressure()) {
+            case DROP -> drop();
+            case BLOCK -> offerBlocking(trackingPixel) || drop();
+            case SPILL -> {
+                trackingPixelWriter.writeAll(List.of(trackingPixel));
+                yield true;
+            }
+        };
+    }
+
+    private boolean offerBlocking(TrackingPixel trackingPixel) {
+        try {
+            return queue.offer(trackingPixel, properties.getBlockTimeout().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private boolean drop() {
+        droppedCount.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Collects hits into batches bounded by size and age and writes them until stopped.
+     */
+    private void drainLoop() {
+        int batchSize = properties.getBatchSize();
+        long flushIntervalNanos = properties.getFlushInterval().toNanos();
+        List<TrackingPixel> batch = new ArrayList<>(batchSize);
+
+        while (running) {
+            try {
+                TrackingPixel first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    TrackingPixel next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<TrackingPixel> batch) {
+        batchSizes.record(batch.size());
+        if (write(batch)) {
+            return;
+        }
+        log.warn("Failed to write a batch of {} hits, trying again in {}.", batch.size(), properties.getFlushInterval());
+        try {
+            TimeUnit.NANOSECONDS.sleep(properties.getFlushInterval().toNanos());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        if (!write(batch)) {
+            lostCounter.increment(batch.size());
+            log.error("Lost a batch of {} hits that could not be written twice.", batch.size());
+        }
+    }
+
+    private boolean write(List<TrackingPixel> batch) {
+        long start = System.nanoTime();
+        try {
+            trackingPixelWriter.writeAll(batch);
+            batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return true;
+        } catch (Exception ex) {
+            failedCounter.increment();
+            log.error("Failed to write a batch of {} hits.", batch.size(), ex);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package com.gklyphon.easy_pixel_tracking.services.impl;
+
+import com.gklyphon.easy_pixel_tracking.config.StreamProperties;
+import com.gklyphon.easy_pixel_tracking.models.HitEvent;
+import com.gklyphon.easy_pixel_tracking.models.HitFrame;
+import com.gklyphon.easy_pixel_tracking.models.HitStreamFilter;
+import com.gklyphon.easy_pixel_tracking.models.TrackingPixel;
+import com.gklyphon.easy_pixel_tracking.services.IHitListener;
+import com.gklyphon.easy_pixel_tracking.services.IHitStreamService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Service implementation that pushes accepted hits to live subscribers as server-sent events.
+ *
+ * <p>Hits are appended to one bounded backlog on the request thread, which costs nothing while nobody is
+ * subscribed. On a schedule the backlog is swapped out and fanned out to every subscriber whose filter selects the
+ * hit, so subscribers never query the database. Each subscriber has its own bounded buffer, drained by one virtual
+ * thread at a time, so a write blocked on a slow client holds neither a platform thread nor the other subscribers.
+ * A slow client loses its oldest buffered events, and one whose write has been blocked for
+ * {@code tracking.stream.send-timeout} is disconnected.</p>
+ *
+ * <p>Coalescing subscribers receive one frame per second with the number of matching hits instead. Frames are
+ * kept open per second until the second is closed, so hits appended slightly out of order still count towards their
+ * own second; hits of a second whose frame was already sent, such as backdated batch records, are not counted.</p>
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+@Service
+public class HitStreamServiceImpl implements IHitStreamService, IHitListener {
+
+    private static final Logger log = LoggerFactory.getLogger(HitStreamServiceImpl.class);
+
+    private final StreamProperties properties;
+    private final ExecutorService sendExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ReentrantLock backlogLock = new ReentrantLock();
+    private final LongAdder backlogDrops = new LongAdder();
+    private final LongAdder subscriberDrops = new LongAdder();
+    private final LongAdder lateDrops = new LongAdder();
+    private final LongAdder stalledSubscribers = new LongAdder();
+    private ArrayDeque<HitEvent> backlog = new ArrayDeque<>();
+
+    public HitStreamServiceImpl(StreamProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        Gauge.builder("tracking.stream.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Clients subscribed to the live hit stream")
+                .register(meterRegistry);
+        FunctionCounter.builder("tracking.stream.dropped", backlogDrops, LongAdder::sum)
+                .description("Hits or frames not streamed, by stage")
+                .tag("stage", "backlog")
+                .register(meterRegistry);
+        FunctionCounter.builder("tracking.stream.dropped", subscriberDrops, LongAdder::sum)
+                .description("Hits or frames not streamed, by stage")
+                .tag("stage", "subscriber")
+                .register(meterRegistry);
+        FunctionCounter.builder("tracking.stream.dropped", lateDrops, LongAdder::sum)
+                .description("Hits or frames not streamed, by stage")
+                .tag("stage", "late")
+                .register(meterRegistry);
+        FunctionCounter.builder("tracking.stream.stalled", stalledSubscribers, LongAdder::sum)
+                .description("Subscribers disconnected because a write to them was blocked for too long")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Appends a hit to the backlog, dropping the oldest one when it is full.
+     *
+     * @param trackingPixel the accepted hit
+     */
+    @Override
+    public void onHit(TrackingPixel trackingPixel) {
+        if (subscriberCount.get() == 0) {
+            return;
+        }
+        HitEvent event = HitEvent.of(trackingPixel);
+        backlogLock.lock();
+        try {
+            if (backlog.size() >= properties.getBacklog()) {
+                backlog.pollFirst();
+                backlogDrops.increment();
+            }
+            backlog.addLast(event);
+        } finally {
+            backlogLock.unlock();
+        }
+    }
+
+    /**
+     * Opens a subscription to the hits accepted from now on.
+     *
+     * @param filter   selects the hits sent to this subscriber
+     * @param coalesce send one frame per second with the matching hit counts instead of every hit
+     * @return the emitter to return from the request handler
+     * @throws IllegalStateException if the maximum number of subscribers is connected
+     */
+    @Override
+    public SseEmitter subscribe(HitStreamFilter filter, boolean coalesce) {
+        if (subscriberCount.incrementAndGet() > properties.getMaxSubscribers()) {
+            subscriberCount.decrementAndGet();
+            throw new IllegalStateException("Too many stream subscribers");
+        }
+        Subscriber subscriber = new Subscriber(filter, coalesce, new SseEmitter(properties.getTimeout().toMillis()));
+        subscribers.add(subscriber);
+        subscriber.emitter.onCompletion(() -> remove(subscriber));
+        subscriber.emitter.onTimeout(() -> remove(subscriber));
+        subscriber.emitter.onError(ex -> remove(subscriber));
+        return subscriber.emitter;
+    }
+
+    /**
+     * Fans the backlog out to the subscribers and starts sending to those with buffered events.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${tracking.stream.flush-interval:PT0.25S}")
+    public void flush() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        ArrayDeque<HitEvent> batch;
+        backlogLock.lock();
+        try {
+            batch = backlog;
+            backlog = new ArrayDeque<>();
+        } finally {
+            backlogLock.unlock();
+        }
+        // A second is closed once a whole flush interval has passed after it, so hits accepted at its very end
+        // still make it into its frame.
+        long closedBefore = LocalDateTime.now().minus(properties.getFlushInterval()).toEpochSecond(ZoneOffset.UTC);
+        long stalledBefore = System.nanoTime() - properties.getSendTimeout().toNanos();
+        for (Subscriber subscriber : subscribers) {
+            long sendStartedAt = subscriber.sendStartedAt;
+            if (sendStartedAt != 0 && sendStartedAt - stalledBefore < 0) {
+                disconnect(subscriber);
+                continue;
+            }
+            if (subscriber.coalesce) {
+                subscriber.count(batch, closedBefore);
+            } else {
+                subscriber.offer(batch);
+            }
+            if (subscriber.hasPending()) {
+                startSending(subscriber);
+            }
+        }
+    }
+
+    private void startSending(Subscriber subscriber) {
+        if (!subscriber.sending.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            sendExecutor.execute(() -> send(subscriber));
+        } catch (RejectedExecutionException ex) {
+            // Shutting down.
+            subscriber.sending.set(false);
+        }
+    }
+
+    /**
+     * Drops a subscriber whose write is blocked and closes its stream, which fails the blocked write.
+     */
+    private void disconnect(Subscriber subscriber) {
+        if (!subscribers.contains(subscriber)) {
+            return;
+        }
+        remove(subscriber);
+        stalledSubscribers.increment();
+        log.debug("Disconnecting a stream subscriber blocked for more than {}.", properties.getSendTimeout());
+        try {
+            // Completing waits for the blocked write, so it must not hold up the flush.
+            sendExecutor.execute(subscriber.emitter::complete);
+        } catch (RejectedExecutionException ex) {
+            log.debug("Stream subscriber not completed, shutting down.", ex);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        sendExecutor.shutdownNow();
+    }
+
+    /**
+     * Sends the buffered events of a subscriber until its buffer is empty.
+     */
+    private void send(Subscriber subscriber) {
+        while (true) {
+            Object item = subscriber.poll();
+            if (item == null) {
+                subscriber.sending.set(false);
+                // An event buffered after the poll but before the flag was cleared would otherwise wait a flush.
+                if (!subscriber.hasPending() || !subscriber.sending.compareAndSet(false, true)) {
+                    return;
+                }
+                continue;
+            }
+            try {
+                subscriber.sendStartedAt = System.nanoTime() | 1;
+                subscriber.emitter.send(SseEmitter.event()
+                        .name(item instanceof HitFrame ? "frame" : "hit")
+                        .data(item, MediaType.APPLICATION_JSON));
+            } catch (IOException | IllegalStateException ex) {
+                log.debug("Stream subscriber disconnected.", ex);
+                remove(subscriber);
+                subscriber.sending.set(false);
+                return;
+            } finally {
+                subscriber.sendStartedAt = 0;
+            }
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            subscriberCount.decrementAndGet();
+        }
+    }
+
+    /**
+     * One connected client with its filter and buffer of events not yet sent.
+     */
+    private final class Subscriber {
+
+        private final HitStreamFilter filter;
+        private final boolean coalesce;
+        private final SseEmitter emitter;
+        private final ArrayDeque<Object> buffer = new ArrayDeque<>();
+        private final AtomicBoolean sending = new AtomicBoolean();
+        /**
+         * When the write in progress started, from {@link System#nanoTime()} with the low bit set, or 0 if none.
+         */
+        private volatile long sendStartedAt;
+        /**
+         * Hit and bot counts of the seconds not closed yet, by epoch second.
+         */
+        private final TreeMap<Long, long[]> openFrames = new TreeMap<>();
+        private long lastClosed = Long.MIN_VALUE;
+
+        private Subscriber(HitStreamFilter filter, boolean coalesce, SseEmitter emitter) {
+            this.filter = filter;
+            this.coalesce = coalesce;
+            this.emitter = emitter;
+        }
+
+        private void offer(ArrayDeque<HitEvent> batch) {
+            for (HitEvent event : batch) {
+                if (filter.matches(event)) {
+                    enqueue(event);
+                }
+            }
+        }
+
+        /**
+         * Counts the matching hits into per-second frames and sends the frames of the closed seconds, oldest first.
+         * Only called from the scheduled flush.
+         */
+        private void count(ArrayDeque<HitEvent> batch, long closedBefore) {
+            for (HitEvent event : batch) {
+                if (!filter.matches(event)) {
+                    continue;
+                }
+                long eventSecond = event.createdAt().toEpochSecond(ZoneOffset.UTC);
+                if (eventSecond <= lastClosed) {
+                    lateDrops.increment();
+                    continue;
+                }
+                long[] counts = openFrames.computeIfAbsent(eventSecond, s -> new long[2]);
+                counts[0]++;
+                if (event.bot()) {
+                    counts[1]++;
+                }
+            }
+            Iterator<Map.Entry<Long, long[]>> closed = openFrames.headMap(closedBefore).entrySet().iterator();
+            while (closed.hasNext()) {
+                Map.Entry<Long, long[]> frame = closed.next();
+                enqueue(new HitFrame(LocalDateTime.ofEpochSecond(frame.getKey(), 0, ZoneOffset.UTC),
+                        frame.getValue()[0], frame.getValue()[1]));
+                lastClosed = frame.getKey();
+                closed.remove();
+            }
+        }
+
+        private synchronized void enqueue(Object item) {
+            if (buffer.size() >= properties.getBufferSize()) {
+                buffer.pollFirst();
+                subscriberDrops.increment();
+            }
+            buffer.addLast(item);
+        }
+
+        private synchronized Object poll() {
+            return buffer.pollFirst();
+        }
+
+        private synchronized boolean hasPending() {
+            return !buffer.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.gklyphon.easy_pixel_tracking.services.impl;
+
+import com.gklyphon.easy_pixel_tracking.config.DedupProperties;
+import com.gklyphon.easy_pixel_tracking.config.RateLimitProperties;
+import com.gklyphon.easy_pixel_tracking.models.HitVerdict;
+import com.gklyphon.easy_pixel_tracking.models.TrackingPixel;
+import com.gklyphon.easy_pixel_tracking.services.IHitThrottleService;
+import com.gklyphon.easy_pixel_tracking.utils.Hashing;
+import com.gklyphon.easy_pixel_tracking.utils.RotatingBloomFilter;
+import com.gklyphon.easy_pixel_tracking.utils.TokenBuckets;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Service implementation that discards repeated hits and hits beyond a per-IP rate, in bounded memory.
+ *
+ * <p>Repeats are recognized by a hash of the IP, user agent, referer, campaign and recipient in a
+ * {@link RotatingBloomFilter}, and rates are enforced by {@link TokenBuckets} keyed by a hash of the IP. Both are
+ * split into stripes selected by the hash, each with its own {@link ReentrantLock}, so concurrent requests rarely wait
+ * for each other and virtual threads waiting for a stripe do not pin their carrier. A repeat is discarded before it
+ * takes a token, so refresh loops do not use up the rate of their IP.</p>
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+@Service
+public class HitThrottleServiceImpl implements IHitThrottleService {
+
+    private static final int STRIPES = 64;
+
+    private final RotatingBloomFilter[] seen;
+    private final ReentrantLock[] seenLocks;
+    private final TokenBuckets[] buckets;
+    private final ReentrantLock[] bucketLocks;
+    private final Counter duplicateCounter;
+    private final Counter rateLimitedCounter;
+
+    public HitThrottleServiceImpl(DedupProperties dedupProperties, RateLimitProperties rateLimitProperties,
+                                  MeterRegistry meterRegistry) {
+        long now = System.nanoTime();
+        if (dedupProperties.isEnabled()) {
+            this.seen = new RotatingBloomFilter[STRIPES];
+            this.seenLocks = locks();
+            for (int i = 0; i < STRIPES; i++) {
+                seen[i] = new RotatingBloomFilter(Math.max(1, dedupProperties.getExpectedHits() / STRIPES),
+                        dedupProperties.getFalsePositiveRate(), dedupProperties.getWindow(), now);
+            }
+            FunctionCounter.builder("tracking.dedup.early-rotations", this, HitThrottleServiceImpl::earlyRotations)
+                    .description("Dedup filters rotated before the end of their window because they were full")
+                    .register(meterRegistry);
+        } else {
+            this.seen = null;
+            this.seenLocks = null;
+        }
+        if (rateLimitProperties.isEnabled()) {
+            this.buckets = new TokenBuckets[STRIPES];
+            this.bucketLocks = locks();
+            for (int i = 0; i < STRIPES; i++) {
+                buckets[i] = new TokenBuckets(Math.max(1, rateLimitProperties.getMaxIps() / STRIPES),
+                        rateLimitProperties.getRate(), rateLimitProperties.getBurst());
+            }
+            Gauge.builder("tracking.rate-limit.ips", this, HitThrottleServiceImpl::trackedIps)
+                    .description("IPs whose hit rate is tracked")
+                    .register(meterRegistry);
+        } else {
+            this.buckets = null;
+            this.bucketLocks = null;
+        }
+        this.duplicateCounter = suppressed(meterRegistry, "duplicate");
+        this.rateLimitedCounter = suppressed(meterRegistry, "rate_limited");
+    }
+
+    /**
+     * Decides whether a hit is ingested, and records it for the decisions about later hits.
+     *
+     * @param trackingPixel the hit, with its IP, user agent, referer and campaign set
+     * @return whether the hit is ingested or why it is discarded
+     */
+    @Override
+    public HitVerdict admit(TrackingPixel trackingPixel) {
+        if (seen != null) {
+            long hash = Hashing.hash64(trackingPixel.getIp(), trackingPixel.getUserAgent(), trackingPixel.getReferer(),
+                    trackingPixel.getCampaign(), trackingPixel.getRecipient());
+            int stripe = stripe(hash);
+            boolean added;
+            seenLocks[stripe].lock();
+            try {
+                added = seen[stripe].add(hash, System.nanoTime());
+            } finally {
+                seenLocks[stripe].unlock();
+            }
+            if (!added) {
+                duplicateCounter.increment();
+                return HitVerdict.DUPLICATE;
+            }
+        }
+        if (buckets != null && trackingPixel.getIp() != null) {
+            long hash = Hashing.hash64(trackingPixel.getIp());
+            int stripe = stripe(hash);
+            boolean acquired;
+            bucketLocks[stripe].lock();
+            try {
+                acquired = buckets[stripe].tryAcquire(hash, System.nanoTime());
+            } finally {
+                bucketLocks[stripe].unlock();
+            }
+            if (!acquired) {
+                rateLimitedCounter.increment();
+                return HitVerdict.RATE_LIMITED;
+            }
+        }
+        return HitVerdict.ACCEPTED;
+    }
+
+    /**
+     * Selects a stripe by the top bits of a hash, leaving the low bits to place the key within the stripe.
+     */
+    private static int stripe(long hash) {
+        return (int) (hash >>> 58) & (STRIPES - 1);
+    }
+
+    private static ReentrantLock[] locks() {
+        ReentrantLock[] locks = new ReentrantLock[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        return locks;
+    }
+
+    private double trackedIps() {
+        long total = 0;
+        for (int i = 0; i < STRIPES; i++) {
+            bucketLocks[i].lock();
+            try {
+                total += buckets[i].size();
+            } finally {
+                bucketLocks[i].unlock();
+            }
+        }
+        return total;
+    }
+
+    private double earlyRotations() {
+        long total = 0;
+        for (int i = 0; i < STRIPES; i++) {
+            seenLocks[i].lock();
+            try {
+                total += seen[i].getEarlyRotations();
+            } finally {
+                seenLocks[i].unlock();
+            }
+        }
+        return total;
+    }
+
+    private static Counter suppressed(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("tracking.pixel.suppressed")
+                .description("Pixel hits discarded before ingestion, by reason")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
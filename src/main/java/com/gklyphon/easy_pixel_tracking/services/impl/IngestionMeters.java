@@ -0,0 +1,48 @@
+package com.gklyphon.easy_pixel_tracking.services.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Meters shared by the ingestion implementations, so dashboards work whichever one is enabled.
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+final class IngestionMeters {
+
+    static final String HITS = "tracking.ingestion.hits";
+    static final String PENDING = "tracking.ingestion.pending";
+
+    private IngestionMeters() {
+    }
+
+    static Counter hits(MeterRegistry meterRegistry, String result) {
+        return Counter.builder(HITS)
+                .description("Hits submitted to ingestion, by result")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    static Counter failures(MeterRegistry meterRegistry) {
+        return Counter.builder("tracking.ingestion.failures")
+                .description("Batches that could not be written to the database")
+                .register(meterRegistry);
+    }
+
+    static DistributionSummary batchSizes(MeterRegistry meterRegistry) {
+        return DistributionSummary.builder("tracking.ingestion.batch.size")
+                .description("Hits per batch written to the database")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    static Timer batchWrites(MeterRegistry meterRegistry) {
+        return Timer.builder("tracking.ingestion.batch.write")
+                .description("Time to write a batch of hits to the database")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
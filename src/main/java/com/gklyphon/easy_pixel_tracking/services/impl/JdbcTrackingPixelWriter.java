@@ -0,0 +1,170 @@
+package com.gklyphon.easy_pixel_tracking.services.impl;
+
+import com.gklyphon.easy_pixel_tracking.config.PersistenceProperties;
+import com.gklyphon.easy_pixel_tracking.models.TrackingPixel;
+import com.gklyphon.easy_pixel_tracking.services.IDictionaryService;
+import com.gklyphon.easy_pixel_tracking.services.ITrackingPixelWriter;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.service.spi.ServiceException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.incrementer.AbstractSequenceMaxValueIncrementer;
+import org.springframework.jdbc.support.incrementer.DataFieldMaxValueIncrementer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Writer implementation that appends tracking pixels with plain multi-row JDBC inserts.
+ *
+ * <p>It skips the entity manager entirely: no persistence context, dirty checking or
+ * lifecycle callbacks. Timestamps and dimension keys are filled in here and ids are reserved in blocks from
+ * the same pooled sequence used by {@link TrackingPixel}, so rows written by both paths
+ * never collide. The sequence is read with the statement of the Hibernate dialect in use, so the writer runs on
+ * any database Hibernate is configured for.</p>
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+@Service
+@ConditionalOnProperty(name = "tracking.persistence.writer", havingValue = "jdbc", matchIfMissing = true)
+public class JdbcTrackingPixelWriter implements ITrackingPixelWriter {
+
+    private static final String INSERT_PREFIX =
+            "INSERT INTO tracking_pixel (id, created_at, updated_at, ip_address, user_agent_id, referer_id,"
+                    + " campaign_id, recipient, browser, browser_version, operating_system, device_class, bot) VALUES ";
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final IDictionaryService dictionaryService;
+    private final TrackingPixelPageCache pageCache;
+    private final DataFieldMaxValueIncrementer idIncrementer;
+    private final int rowsPerStatement;
+    private final String fullInsertSql;
+    private final ReentrantLock idLock = new ReentrantLock();
+
+    private long nextId;
+    private long idBlockEnd;
+
+    public JdbcTrackingPixelWriter(JdbcTemplate jdbcTemplate, DataSource dataSource,
+                                   EntityManagerFactory entityManagerFactory, IDictionaryService dictionaryService,
+                                   TrackingPixelPageCache pageCache, PersistenceProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dictionaryService = dictionaryService;
+        this.pageCache = pageCache;
+        Dialect dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+        this.idIncrementer = new DialectSequenceIncrementer(dataSource, dialect);
+        this.rowsPerStatement = properties.getRowsPerStatement();
+        this.fullInsertSql = buildInsertSql(rowsPerStatement);
+    }
+
+    /**
+     * Appends a batch of new tracking pixels in a single transaction.
+     *
+     * @param trackingPixels the tracking pixels to append
+     */
+    @Override
+    @Transactional
+    public void writeAll(List<TrackingPixel> trackingPixels) {
+        try {
+            for (int from = 0; from < trackingPixels.size(); from += rowsPerStatement) {
+                List<TrackingPixel> chunk = trackingPixels.subList(from, Math.min(from + rowsPerStatement, trackingPixels.size()));
+                insertChunk(chunk);
+            }
+            pageCache.evictPages(trackingPixels);
+        } catch (Exception ex) {
+            throw new ServiceException("Unexpected error while writing batch.", ex);
+        }
+    }
+
+    private void insertChunk(List<TrackingPixel> chunk) {
+        String sql = chunk.size() == rowsPerStatement ? fullInsertSql : buildInsertSql(chunk.size());
+        LocalDateTime now = LocalDateTime.now();
+        for (TrackingPixel trackingPixel : chunk) {
+            trackingPixel.setId(allocateId());
+            if (trackingPixel.getCreatedAt() == null) {
+                trackingPixel.setCreatedAt(now);
+            }
+            trackingPixel.setUpdatedAt(trackingPixel.getCreatedAt());
+            dictionaryService.encode(trackingPixel);
+        }
+        jdbcTemplate.update(sql, ps -> {
+            int index = 1;
+            for (TrackingPixel trackingPixel : chunk) {
+                ps.setLong(index++, trackingPixel.getId());
+                ps.setObject(index++, trackingPixel.getCreatedAt());
+                ps.setObject(index++, trackingPixel.getUpdatedAt());
+                ps.setBytes(index++, trackingPixel.getIpAddress());
+                ps.setObject(index++, trackingPixel.getUserAgentId());
+                ps.setObject(index++, trackingPixel.getRefererId());
+                ps.setObject(index++, trackingPixel.getCampaignId());
+                ps.setString(index++, trackingPixel.getRecipient());
+                ps.setObject(index++, ordinal(trackingPixel.getBrowser()));
+                ps.setObject(index++, trackingPixel.getBrowserVersion());
+                ps.setObject(index++, ordinal(trackingPixel.getOperatingSystem()));
+                ps.setObject(index++, ordinal(trackingPixel.getDeviceClass()));
+                ps.setBoolean(index++, trackingPixel.isBot());
+            }
+        });
+    }
+
+    private static Integer ordinal(Enum<?> value) {
+        return value == null ? null : value.ordinal();
+    }
+
+    /**
+     * Hands out the next id, reserving a new block from the sequence when the current one is used up.
+     * Guarded by a lock rather than {@code synchronized}, so a virtual thread waiting for the
+     * sequence does not pin its carrier thread.
+     *
+     * @return a unique id
+     */
+    private long allocateId() {
+        idLock.lock();
+        try {
+            if (nextId == idBlockEnd) {
+                nextId = idIncrementer.nextLongValue();
+                idBlockEnd = nextId + TrackingPixel.ID_ALLOCATION_SIZE;
+            }
+            return nextId++;
+        } finally {
+            idLock.unlock();
+        }
+    }
+
+    /**
+     * Reads the next value of the tracking pixel sequence with the statement of a Hibernate dialect.
+     */
+    private static final class DialectSequenceIncrementer extends AbstractSequenceMaxValueIncrementer {
+
+        private final String sequenceQuery;
+
+        DialectSequenceIncrementer(DataSource dataSource, Dialect dialect) {
+            super(dataSource, TrackingPixel.ID_SEQUENCE);
+            this.sequenceQuery = dialect.getSequenceSupport().getSequenceNextValString(TrackingPixel.ID_SEQUENCE);
+        }
+
+        @Override
+        protected String getSequenceQuery() {
+            return sequenceQuery;
+        }
+    }
+
+    private static String buildInsertSql(int rows) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + rows * (ROW_PLACEHOLDERS.length() + 2));
+        sql.append(INSERT_PREFIX);
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(ROW_PLACEHOLDERS);
+        }
+        return sql.toString();
+    }
+}
@@ -0,0 +1,36 @@
+package com.gklyphon.easy_pixel_tracking.services.impl;
+
+import com.gklyphon.easy_pixel_tracking.models.TrackingPixel;
+import com.gklyphon.easy_pixel_tracking.services.ITrackingPixelService;
+import com.gklyphon.easy_pixel_tracking.services.ITrackingPixelWriter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Writer implementation that saves tracking pixels as JPA entities through {@link ITrackingPixelService}.
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+@Service
+@ConditionalOnProperty(name = "tracking.persistence.writer", havingValue = "jpa")
+public class JpaTrackingPixelWriter implements ITrackingPixelWriter {
+
+    private final ITrackingPixelService trackingPixelService;
+
+    public JpaTrackingPixelWriter(ITrackingPixelService trackingPixelService) {
+        this.trackingPixelService = trackingPixelService;
+    }
+
+    /**
+     * Appends a batch of new tracking pixels in a single transaction.
+     *
+     * @param trackingPixels the tracking pixels to append
+     */
+    @Override
+    public void writeAll(List<TrackingPixel> trackingPixels) {
+        trackingPixelService.saveAll(trackingPixels);
+    }
+}
@@ -0,0 +1,145 @@
+package com.gklyphon.easy_pixel_tracking.services.impl;
+
+import com.gklyphon.easy_pixel_tracking.config.ArchiveProperties;
+import com.gklyphon.easy_pixel_tracking.config.RetentionProperties;
+import com.gklyphon.easy_pixel_tracking.services.IArchiveService;
+import com.gklyphon.easy_pixel_tracking.services.IRetentionService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SingleColumnRowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Service implementation that purges expired days of tracking pixels.
+ *
+ * <p>Archived days are stored one segment file per day, so an expired day is dropped by deleting its file,
+ * whatever its number of rows. The tracking_pixel table is not partitioned: expired rows still in it, when
+ * archiving is off or set to a longer age, are deleted in chunks, so their cost grows with the number of rows.
+ * Each chunk selects the ids of the oldest rows through the creation date index, with a row limit set on the
+ * statement rather than in SQL, and deletes them by id in its own transaction, so no statement holds locks on
+ * a large part of the table and no database-specific syntax is needed.</p>
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+@Service
+public class RetentionServiceImpl implements IRetentionService {
+
+    private static final Logger log = LoggerFactory.getLogger(RetentionServiceImpl.class);
+
+    private static final String SELECT_CHUNK_SQL =
+            "SELECT id FROM tracking_pixel WHERE created_at < ? ORDER BY created_at, id";
+    private static final String DELETE_ROW_SQL = "DELETE FROM tracking_pixel WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final IArchiveService archiveService;
+    private final TrackingPixelPageCache pageCache;
+    private final RetentionProperties properties;
+    private final ArchiveProperties archiveProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter archivePurged;
+    private final Counter livePurged;
+    private final ReentrantLock purgeLock = new ReentrantLock();
+
+    public RetentionServiceImpl(JdbcTemplate jdbcTemplate, IArchiveService archiveService,
+                                TrackingPixelPageCache pageCache, RetentionProperties properties,
+                                ArchiveProperties archiveProperties, PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.archiveService = archiveService;
+        this.pageCache = pageCache;
+        this.properties = properties;
+        this.archiveProperties = archiveProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.archivePurged = purgedCounter(meterRegistry, "archive");
+        this.livePurged = purgedCounter(meterRegistry, "live");
+    }
+
+    /**
+     * Warns when expired days would be deleted row by row from the table instead of dropped from the archive.
+     */
+    @PostConstruct
+    public void checkTiers() {
+        if (properties.isEnabled() && (!archiveProperties.isEnabled()
+                || archiveProperties.getMaxAge().compareTo(properties.getMaxAge()) >= 0)) {
+            log.warn("Retention is enabled but days expire before they are archived: expired tracking pixels "
+                    + "are deleted from tracking_pixel in chunks of {} rows. Enable tracking.archive with a "
+                    + "shorter max-age to drop whole days instead.", properties.getDeleteChunkSize());
+        }
+    }
+
+    /**
+     * Purges every day older than {@code tracking.retention.max-age}.
+     *
+     * @return the number of tracking pixels removed
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${tracking.retention.interval:PT1H}")
+    public long purge() {
+        if (!properties.isEnabled() || !purgeLock.tryLock()) {
+            return 0;
+        }
+        try {
+            LocalDate firstKept = LocalDateTime.now().minus(properties.getMaxAge()).toLocalDate();
+            long archived = archiveService.dropBefore(firstKept);
+            archivePurged.increment(archived);
+            long live = 0;
+            int deleted;
+            do {
+                deleted = deleteChunk(firstKept.atStartOfDay());
+                live += deleted;
+                livePurged.increment(deleted);
+            } while (deleted == properties.getDeleteChunkSize());
+            if (archived + live > 0) {
+                pageCache.evictAll();
+                log.info("Purged {} archived and {} live tracking pixels created before {}.", archived, live, firstKept);
+            }
+            return archived + live;
+        } catch (Exception ex) {
+            log.warn("Failed to purge expired tracking pixels, will retry.", ex);
+            return 0;
+        } finally {
+            purgeLock.unlock();
+        }
+    }
+
+    /**
+     * Deletes up to {@code tracking.retention.delete-chunk-size} of the oldest rows created before a time.
+     *
+     * @return the number of rows deleted
+     */
+    private int deleteChunk(LocalDateTime before) {
+        int chunkSize = properties.getDeleteChunkSize();
+        Integer deleted = transactionTemplate.execute(status -> {
+            List<Long> ids = jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(SELECT_CHUNK_SQL);
+                statement.setMaxRows(chunkSize);
+                statement.setObject(1, before);
+                return statement;
+            }, new SingleColumnRowMapper<>(Long.class));
+            jdbcTemplate.batchUpdate(DELETE_ROW_SQL, ids, chunkSize, (statement, id) -> statement.setLong(1, id));
+            return ids.size();
+        });
+        return deleted == null ? 0 : deleted;
+    }
+
+    private static Counter purgedCounter(MeterRegistry meterRegistry, String tier) {
+        return Counter.builder("tracking.retention.purged")
+                .description("Expired tracking pixels removed")
+                .tag("tier", tier)
+                .register(meterRegistry);
+    }
+}
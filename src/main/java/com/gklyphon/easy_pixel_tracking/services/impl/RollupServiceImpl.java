@@ -0,0 +1,232 @@
+package com.gklyphon.easy_pixel_tracking.services.impl;
+
+import com.gklyphon.easy_pixel_tracking.config.RollupProperties;
+import com.gklyphon.easy_pixel_tracking.models.HitDimension;
+import com.gklyphon.easy_pixel_tracking.models.HitRollup;
+import com.gklyphon.easy_pixel_tracking.models.RollupGranularity;
+import com.gklyphon.easy_pixel_tracking.models.RollupPoint;
+import com.gklyphon.easy_pixel_tracking.models.RollupTotal;
+import com.gklyphon.easy_pixel_tracking.models.TrackingPixel;
+import com.gklyphon.easy_pixel_tracking.repository.IHitRollupRepository;
+import com.gklyphon.easy_pixel_tracking.services.IHitListener;
+import com.gklyphon.easy_pixel_tracking.services.IRollupService;
+import com.gklyphon.easy_pixel_tracking.utils.Hashing;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Service implementation that counts hits per time bucket and dimension in memory
+ * and periodically adds the counts to the rollup table.
+ *
+ * <p>Counters are {@link LongAdder}s, which stripe contended increments across cells,
+ * so request threads updating the same bucket do not serialize on a single value.</p>
+ *
+ * <p>Each flush swaps in an empty map and writes the counters of the one it took out. A request thread may still
+ * add to a counter of that map after it was read, so the map is read again on the next flush before it is dropped:
+ * counters are never removed one by one, which could lose an increment made between the read and the removal.</p>
+ *
+ * <p>Only the configured dimensions are counted, and at most {@code tracking.rollup.max-counters} counters are held
+ * between two flushes, so memory stays bounded whatever the number of distinct values. Rows are found by the hash and
+ * the value: a value whose hash is taken by another value in the same bucket is not counted rather than merged
+ * into it, and is reported in {@code tracking.rollup.dropped}.</p>
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+@Service
+public class RollupServiceImpl implements IRollupService, IHitListener {
+
+    private static final Logger log = LoggerFactory.getLogger(RollupServiceImpl.class);
+
+    private static final HitDimension[] DIMENSIONS = HitDimension.values();
+    private static final RollupGranularity[] GRANULARITIES = RollupGranularity.values();
+
+    private final IHitRollupRepository hitRollupRepository;
+    private final RollupProperties properties;
+    private final Counter overflowDrops;
+    private final Counter collisionDrops;
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private volatile Map<RollupKey, LongAdder> counters = new ConcurrentHashMap<>();
+    /**
+     * Counters swapped out by the previous flush, read once more for increments that landed after it.
+     */
+    private Map<RollupKey, LongAdder> retired = Map.of();
+
+    public RollupServiceImpl(IHitRollupRepository hitRollupRepository, RollupProperties properties,
+                             MeterRegistry meterRegistry) {
+        this.hitRollupRepository = hitRollupRepository;
+        this.properties = properties;
+        Gauge.builder("tracking.rollup.counters", this, service -> service.counters.size())
+                .description("Rollup counters held in memory")
+                .register(meterRegistry);
+        this.overflowDrops = droppedCounter(meterRegistry, "overflow");
+        this.collisionDrops = droppedCounter(meterRegistry, "collision");
+    }
+
+    /**
+     * Counts a hit into the current bucket of every granularity and dimension.
+     *
+     * @param trackingPixel the accepted hit
+     */
+    @Override
+    public void onHit(TrackingPixel trackingPixel) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        LocalDateTime createdAt = trackingPixel.getCreatedAt();
+        Map<RollupKey, LongAdder> current = counters;
+        for (HitDimension dimension : DIMENSIONS) {
+            if (!properties.getDimensions().contains(dimension)) {
+                continue;
+            }
+            String value = dimension.valueOf(trackingPixel);
+            for (RollupGranularity granularity : GRANULARITIES) {
+                RollupKey key = new RollupKey(granularity, dimension, value, granularity.bucketOf(createdAt));
+                LongAdder counter = current.get(key);
+                if (counter == null) {
+                    if (current.size() >= properties.getMaxCounters()) {
+                        overflowDrops.increment();
+                        continue;
+                    }
+                    counter = current.computeIfAbsent(key, k -> new LongAdder());
+                }
+                counter.increment();
+            }
+        }
+    }
+
+    /**
+     * Retrieves the hits per bucket of one dimension value within a time range.
+     *
+     * @param granularity the bucket size
+     * @param dimension   the dimension counted
+     * @param value       the dimension value, ignored for {@link HitDimension#ALL}
+     * @param from        inclusive start of the range
+     * @param to          exclusive end of the range
+     * @return hits per bucket ordered by bucket start
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<RollupPoint> getTimeSeries(RollupGranularity granularity, HitDimension dimension, String value,
+                                           LocalDateTime from, LocalDateTime to) {
+        checkRolledUp(dimension);
+        String dimensionValue = dimension == HitDimension.ALL || value == null ? "" : value;
+        return hitRollupRepository.findSeries(granularity, dimension, Hashing.hash64(dimensionValue), dimensionValue,
+                from, to);
+    }
+
+    /**
+     * Retrieves the dimension values with the most hits within a time range.
+     *
+     * @param granularity the bucket size to read
+     * @param dimension   the dimension counted
+     * @param from        inclusive start of the range
+     * @param to          exclusive end of the range
+     * @param limit       maximum number of values, at least 1
+     * @return dimension values ordered by hits, descending
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<RollupTotal> getTop(RollupGranularity granularity, HitDimension dimension,
+                                    LocalDateTime from, LocalDateTime to, int limit) {
+        checkRolledUp(dimension);
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be at least 1");
+        }
+        return hitRollupRepository.findTop(granularity, dimension, from, to, PageRequest.of(0, limit));
+    }
+
+    /**
+     * Writes the counters accumulated in memory to the rollup table.
+     * Counters are dropped once they have been read on two flushes in a row.
+     */
+    @Override
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${tracking.rollup.flush-interval:PT10S}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            Map<RollupKey, LongAdder> drained = counters;
+            counters = new ConcurrentHashMap<>();
+            writeAll(retired);
+            writeAll(drained);
+            retired = drained;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void writeAll(Map<RollupKey, LongAdder> drained) {
+        for (Map.Entry<RollupKey, LongAdder> entry : drained.entrySet()) {
+            RollupKey key = entry.getKey();
+            long delta = entry.getValue().sumThenReset();
+            if (delta == 0) {
+                continue;
+            }
+            try {
+                write(key, delta);
+            } catch (Exception ex) {
+                counters.computeIfAbsent(key, k -> new LongAdder()).add(delta);
+                log.warn("Failed to flush rollup {}, will retry.", key, ex);
+            }
+        }
+    }
+
+    private void write(RollupKey key, long delta) {
+        long valueHash = Hashing.hash64(key.value());
+        if (increment(key, valueHash, delta)) {
+            return;
+        }
+        try {
+            hitRollupRepository.save(new HitRollup(key.granularity(), key.dimension(), valueHash, key.value(),
+                    key.bucketStart(), delta));
+        } catch (DataIntegrityViolationException ex) {
+            // Created concurrently by another node, or the hash belongs to another value in this bucket.
+            if (!increment(key, valueHash, delta)) {
+                collisionDrops.increment(delta);
+                log.warn("Dropped {} hits of rollup {}: its value hash is taken by another value.", delta, key);
+            }
+        }
+    }
+
+    private boolean increment(RollupKey key, long valueHash, long delta) {
+        return hitRollupRepository.increment(key.granularity(), key.dimension(), valueHash, key.value(),
+                key.bucketStart(), delta) > 0;
+    }
+
+    private void checkRolledUp(HitDimension dimension) {
+        if (!properties.getDimensions().contains(dimension)) {
+            throw new IllegalArgumentException("Dimension " + dimension + " is not rolled up");
+        }
+    }
+
+    private static Counter droppedCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("tracking.rollup.dropped")
+                .description("Hits not counted into a rollup")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Identifies one in-memory counter.
+     */
+    private record RollupKey(RollupGranularity granularity, HitDimension dimension, String value,
+                             LocalDateTime bucketStart) {
+    }
+}
@@ -0,0 +1,207 @@
+package com.gklyphon.easy_pixel_tracking.services.impl;
+
+import com.gklyphon.easy_pixel_tracking.config.TopHittersProperties;
+import com.gklyphon.easy_pixel_tracking.models.HeavyHitter;
+import com.gklyphon.easy_pixel_tracking.models.HeavyHitters;
+import com.gklyphon.easy_pixel_tracking.models.HitDimension;
+import com.gklyphon.easy_pixel_tracking.models.TopWindow;
+import com.gklyphon.easy_pixel_tracking.models.TrackingPixel;
+import com.gklyphon.easy_pixel_tracking.services.IHitListener;
+import com.gklyphon.easy_pixel_tracking.services.ITopHittersService;
+import com.gklyphon.easy_pixel_tracking.utils.CountMinSketch;
+import com.gklyphon.easy_pixel_tracking.utils.Hashing;
+import com.gklyphon.easy_pixel_tracking.utils.SpaceSaving;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Service implementation that tracks heavy hitters per dimension over sliding windows in bounded memory.
+ *
+ * <p>Every window is a ring of slots, each holding a Count-Min Sketch and a Space-Saving summary.
+ * The summaries name the candidate values, and the sketches, summed over the live slots, estimate
+ * their counts with a known error bound. The lower bound of a count is the tighter of the sketch's
+ * bound and the sum of the summaries' guaranteed counts. Snapshots are recomputed on a schedule so
+ * that reads never touch the slots.</p>
+ *
+ * <p>Hits are counted on the ingestion threads, so every slot is split into
+ * {@code tracking.top.stripes} stripes, each with its own lock, sketch and summary. A thread always
+ * counts into the same stripe, and only the refresh reads all of them.</p>
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+@Service
+public class TopHittersServiceImpl implements ITopHittersService, IHitListener {
+
+    private static final HitDimension[] DIMENSIONS = {HitDimension.IP, HitDimension.REFERER, HitDimension.USER_AGENT};
+    private static final TopWindow[] WINDOWS = TopWindow.values();
+
+    private final TopHittersProperties properties;
+    private final Map<HitDimension, Ring[]> rings = new EnumMap<>(HitDimension.class);
+
+    public TopHittersServiceImpl(TopHittersProperties properties) {
+        this.properties = properties;
+        for (HitDimension dimension : DIMENSIONS) {
+            Ring[] windows = new Ring[WINDOWS.length];
+            for (TopWindow window : WINDOWS) {
+                windows[window.ordinal()] = new Ring(dimension, window);
+            }
+            rings.put(dimension, windows);
+        }
+    }
+
+    /**
+     * Counts a hit into the current slot of every dimension and window.
+     *
+     * @param trackingPixel the accepted hit
+     */
+    @Override
+    public void onHit(TrackingPixel trackingPixel) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (HitDimension dimension : DIMENSIONS) {
+            String value = dimension.valueOf(trackingPixel);
+            if (value.isEmpty()) {
+                continue;
+            }
+            long hash = Hashing.hash64(value);
+            for (Ring ring : rings.get(dimension)) {
+                ring.add(now, value, hash);
+            }
+        }
+    }
+
+    /**
+     * Retrieves the latest heavy-hitter snapshot of a dimension and window.
+     *
+     * @param dimension the dimension ranked, other than {@link HitDimension#ALL}
+     * @param window    the sliding window
+     * @return the heavy hitters, most hits first
+     */
+    @Override
+    public HeavyHitters getTop(HitDimension dimension, TopWindow window) {
+        Ring[] windows = rings.get(dimension);
+        if (windows == null) {
+            throw new IllegalArgumentException("Heavy hitters are not tracked for dimension " + dimension);
+        }
+        return windows[window.ordinal()].snapshot;
+    }
+
+    /**
+     * Recomputes the snapshots of every dimension and window.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${tracking.top.refresh-interval:PT1S}")
+    public void refresh() {
+        long now = System.currentTimeMillis();
+        for (Ring[] windows : rings.values()) {
+            for (Ring ring : windows) {
+                ring.refresh(now);
+            }
+        }
+    }
+
+    /**
+     * Slots of one dimension and window.
+     */
+    private final class Ring {
+
+        private final HitDimension dimension;
+        private final TopWindow window;
+        private final Slot[][] slots;
+        private volatile HeavyHitters snapshot;
+
+        private Ring(HitDimension dimension, TopWindow window) {
+            this.dimension = dimension;
+            this.window = window;
+            this.slots = new Slot[window.getSlots()][properties.getStripes()];
+            for (Slot[] stripes : slots) {
+                for (int i = 0; i < stripes.length; i++) {
+                    stripes[i] = new Slot();
+                }
+            }
+            this.snapshot = new HeavyHitters(dimension, window, Instant.now(), 0, 0,
+                    new CountMinSketch(properties.getWidth(), properties.getDepth()).getConfidence(), List.of());
+        }
+
+        private void add(long now, String value, long hash) {
+            long index = now / window.getSlotMillis();
+            Slot[] stripes = slots[(int) (index % slots.length)];
+            Slot slot = stripes[(int) (Thread.currentThread().threadId() % stripes.length)];
+            slot.lock.lock();
+            try {
+                if (slot.index != index) {
+                    slot.reset(index);
+                }
+                slot.sketch.add(hash, 1);
+                slot.summary.offer(value);
+            } finally {
+                slot.lock.unlock();
+            }
+        }
+
+        private void refresh(long now) {
+            long current = now / window.getSlotMillis();
+            CountMinSketch merged = new CountMinSketch(properties.getWidth(), properties.getDepth());
+            // Sum of the guaranteed counts of every candidate over the summaries monitoring it.
+            Map<String, Long> candidates = new HashMap<>();
+            for (Slot[] stripes : slots) {
+                for (Slot slot : stripes) {
+                    slot.lock.lock();
+                    try {
+                        if (slot.index > current - slots.length && slot.index <= current) {
+                            merged.merge(slot.sketch);
+                            for (String value : slot.summary.values()) {
+                                candidates.merge(value, slot.summary.count(value) - slot.summary.error(value),
+                                        Long::sum);
+                            }
+                        }
+                    } finally {
+                        slot.lock.unlock();
+                    }
+                }
+            }
+            long errorBound = merged.getErrorBound();
+            List<HeavyHitter> hitters = new ArrayList<>(candidates.size());
+            for (Map.Entry<String, Long> candidate : candidates.entrySet()) {
+                long count = merged.estimate(Hashing.hash64(candidate.getKey()));
+                long minCount = Math.min(count, Math.max(count - errorBound, candidate.getValue()));
+                hitters.add(new HeavyHitter(candidate.getKey(), count, Math.max(0, minCount)));
+            }
+            hitters.sort(Comparator.comparingLong(HeavyHitter::getCount).reversed());
+            if (hitters.size() > properties.getCapacity()) {
+                hitters = new ArrayList<>(hitters.subList(0, properties.getCapacity()));
+            }
+            snapshot = new HeavyHitters(dimension, window, Instant.ofEpochMilli(now), merged.getTotal(), errorBound,
+                    merged.getConfidence(), List.copyOf(hitters));
+        }
+    }
+
+    /**
+     * Counts of one stripe of a slot, reset when the ring wraps around to it.
+     */
+    private final class Slot {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final CountMinSketch sketch = new CountMinSketch(properties.getWidth(), properties.getDepth());
+        private final SpaceSaving summary = new SpaceSaving(properties.getCapacity());
+        private long index = -1;
+
+        private void reset(long index) {
+            this.index = index;
+            sketch.clear();
+            summary.clear();
+        }
+    }
+}
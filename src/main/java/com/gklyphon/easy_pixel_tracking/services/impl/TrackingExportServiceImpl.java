@@ -0,0 +1,156 @@
+package com.gklyphon.easy_pixel_tracking.services.impl;
+
+import com.gklyphon.easy_pixel_tracking.config.ExportProperties;
+import com.gklyphon.easy_pixel_tracking.models.ExportFilter;
+import com.gklyphon.easy_pixel_tracking.models.ExportFormat;
+import com.gklyphon.easy_pixel_tracking.services.IDictionaryService;
+import com.gklyphon.easy_pixel_tracking.services.ITrackingExportService;
+import com.gklyphon.easy_pixel_tracking.utils.ExportWriter;
+import com.gklyphon.easy_pixel_tracking.utils.IpAddresses;
+import org.hibernate.service.spi.ServiceException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Service implementation that streams tracking pixels from a forward-only JDBC cursor.
+ *
+ * <p>Rows are fetched {@code tracking.export.fetch-size} at a time and written to the output as they
+ * arrive, so memory use does not depend on the size of the export. User agents and referers are joined
+ * from their dimension tables in the same query. Filters map onto the {@code (column, createdAt DESC, id DESC)}
+ * indexes of the tracking_pixel table, so the rows come back in index order without a sort.</p>
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+@Service
+public class TrackingExportServiceImpl implements ITrackingExportService {
+
+    private static final String SELECT =
+            "SELECT p.id, p.created_at, p.ip_address, u.content, r.content FROM tracking_pixel p"
+                    + " LEFT JOIN user_agent u ON u.id = p.user_agent_id"
+                    + " LEFT JOIN referer r ON r.id = p.referer_id";
+    private static final String ORDER_BY = " ORDER BY p.created_at DESC, p.id DESC";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final IDictionaryService dictionaryService;
+    private final ExportProperties properties;
+
+    public TrackingExportServiceImpl(JdbcTemplate jdbcTemplate, IDictionaryService dictionaryService,
+                                     ExportProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dictionaryService = dictionaryService;
+        this.properties = properties;
+    }
+
+    /**
+     * Writes every tracking pixel matching the filter to the stream, newest first.
+     * Runs in a read-only transaction so that drivers which only honour the fetch size
+     * outside auto-commit stream as well.
+     *
+     * @param filter the rows to export
+     * @param format the output format
+     * @param out    the stream to write to, left open
+     * @return the number of rows written
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long export(ExportFilter filter, ExportFormat format, OutputStream out) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), properties.getBufferSize());
+        ExportWriter exportWriter = new ExportWriter(format, writer);
+        try {
+            exportWriter.begin();
+            long rows = 0;
+            List<Object> args = new ArrayList<>();
+            String sql = buildQuery(filter, args);
+            if (sql != null) {
+                rows = stream(sql, args, exportWriter);
+            }
+            writer.flush();
+            return rows;
+        } catch (IOException | UncheckedIOException ex) {
+            throw new ServiceException("Export aborted while writing.", ex);
+        } catch (Exception ex) {
+            throw new ServiceException("Unexpected error while exporting.", ex);
+        }
+    }
+
+    private long stream(String sql, List<Object> args, ExportWriter exportWriter) {
+        long[] rows = {0};
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(properties.getFetchSize());
+            for (int i = 0; i < args.size(); i++) {
+                ps.setObject(i + 1, args.get(i));
+            }
+            return ps;
+        }, rs -> {
+            Timestamp createdAt = rs.getTimestamp(2);
+            try {
+                exportWriter.write(rs.getLong(1), createdAt != null ? createdAt.toLocalDateTime() : null,
+                        IpAddresses.format(rs.getBytes(3)), rs.getString(4), rs.getString(5));
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            rows[0]++;
+        });
+        return rows[0];
+    }
+
+    /**
+     * Builds the query for a filter. IPs are parsed and user agents and referers resolved to their dimension keys first.
+     *
+     * @param filter the rows to export
+     * @param args   receives the query arguments
+     * @return the query, or null when a filter value cannot have been stored and nothing can match
+     */
+    private String buildQuery(ExportFilter filter, List<Object> args) {
+        StringBuilder where = new StringBuilder();
+        if (filter.getIp() != null) {
+            byte[] ipAddress = IpAddresses.parse(filter.getIp());
+            if (ipAddress == null) {
+                return null;
+            }
+            appendCondition(where, "p.ip_address = ?", args, ipAddress);
+        }
+        if (filter.getUserAgent() != null) {
+            Integer userAgentId = dictionaryService.findUserAgentId(filter.getUserAgent());
+            if (userAgentId == null) {
+                return null;
+            }
+            appendCondition(where, "p.user_agent_id = ?", args, userAgentId);
+        }
+        if (filter.getReferer() != null) {
+            Integer refererId = dictionaryService.findRefererId(filter.getReferer());
+            if (refererId == null) {
+                return null;
+            }
+            appendCondition(where, "p.referer_id = ?", args, refererId);
+        }
+        if (filter.getFrom() != null) {
+            appendCondition(where, "p.created_at >= ?", args, filter.getFrom());
+        }
+        if (filter.getTo() != null) {
+            appendCondition(where, "p.created_at < ?", args, filter.getTo());
+        }
+        return SELECT + where + ORDER_BY;
+    }
+
+    private static void appendCondition(StringBuilder where, String condition, List<Object> args, Object value) {
+        where.append(where.isEmpty() ? " WHERE " : " AND ").append(condition);
+        args.add(value);
+    }
+}
@@ -0,0 +1,104 @@
+package com.gklyphon.easy_pixel_tracking.services.impl;
+
+import com.gklyphon.easy_pixel_tracking.models.TrackingPixel;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Caffeine cache manager whose caches hold copies of tracking pixels rather than the entities themselves.
+ *
+ * <p>Tracking pixels and pages of them are copied when stored and again on every hit, so a cached value is
+ * never an instance loaded by a persistence context, and no caller can change what the next one is served.
+ * The caches are still {@link CaffeineCache} instances, so their statistics are published like any other.
+ * Configured by {@code spring.cache.cache-names} and {@code spring.cache.caffeine.spec}, in place of the
+ * manager Spring Boot would create from them.</p>
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+@Component("cacheManager")
+public class TrackingPixelCacheManager extends CaffeineCacheManager {
+
+    public TrackingPixelCacheManager(@Value("${spring.cache.caffeine.spec:}") String specification,
+                                     @Value("${spring.cache.cache-names:}") List<String> cacheNames) {
+        if (!specification.isEmpty()) {
+            setCacheSpecification(specification);
+        }
+        if (!cacheNames.isEmpty()) {
+            setCacheNames(cacheNames);
+        }
+    }
+
+    @Override
+    protected Cache adaptCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+        return new SnapshotCache(name, cache, isAllowNullValues());
+    }
+
+    /**
+     * Copies a cached value, if it is a tracking pixel or a page of them.
+     */
+    static Object snapshot(Object value) {
+        if (value instanceof TrackingPixel trackingPixel) {
+            return copyOf(trackingPixel);
+        }
+        if (value instanceof Page<?> page && page.getContent().stream().allMatch(TrackingPixel.class::isInstance)) {
+            List<TrackingPixel> content = page.getContent().stream()
+                    .map(trackingPixel -> copyOf((TrackingPixel) trackingPixel))
+                    .toList();
+            return new PageImpl<>(content, page.getPageable(), page.getTotalElements());
+        }
+        return value;
+    }
+
+    private static TrackingPixel copyOf(TrackingPixel trackingPixel) {
+        TrackingPixel copy = new TrackingPixel();
+        BeanUtils.copyProperties(trackingPixel, copy);
+        if (trackingPixel.getIpAddress() != null) {
+            copy.setIpAddress(trackingPixel.getIpAddress().clone());
+        }
+        return copy;
+    }
+
+    /**
+     * Caffeine cache storing and serving copies of tracking pixels.
+     */
+    static final class SnapshotCache extends CaffeineCache {
+
+        SnapshotCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache,
+                      boolean allowNullValues) {
+            super(name, cache, allowNullValues);
+        }
+
+        @Override
+        protected Object lookup(Object key) {
+            return snapshot(super.lookup(key));
+        }
+
+        @Override
+        public <T> T get(Object key, Callable<T> valueLoader) {
+            @SuppressWarnings("unchecked")
+            T value = (T) snapshot(super.get(key, () -> snapshot(valueLoader.call())));
+            return value;
+        }
+
+        @Override
+        public void put(Object key, Object value) {
+            super.put(key, snapshot(value));
+        }
+
+        @Override
+        public ValueWrapper putIfAbsent(Object key, Object value) {
+            ValueWrapper existing = super.putIfAbsent(key, snapshot(value));
+            return existing == null ? null : () -> snapshot(existing.get());
+        }
+    }
+}
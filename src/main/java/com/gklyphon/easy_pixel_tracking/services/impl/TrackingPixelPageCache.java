@@ -0,0 +1,195 @@
+package com.gklyphon.easy_pixel_tracking.services.impl;
+
+import com.gklyphon.easy_pixel_tracking.models.HitDimension;
+import com.gklyphon.easy_pixel_tracking.models.TrackingPixel;
+import com.gklyphon.easy_pixel_tracking.utils.IpAddresses;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keys and invalidates the cached pages of the {@code findAll} and {@code findBy*OrderByCreatedAt} queries.
+ *
+ * <p>Pages are keyed by query, filter value, page request and the version of their query and filter value. Evicting
+ * the pages of a filter value drops its version, so its next read starts a new one and misses; the pages of the old
+ * version are no longer reachable and age out of the cache. Versions come from a single counter and are never reused,
+ * so the table of versions can forget any entry at any time. A write therefore costs one step per written value,
+ * whatever the size of the cache.</p>
+ *
+ * <p>When hits are written, the pages of the unfiltered queries are evicted, as their totals change, and so are the
+ * pages filtered by one of the written IPs, user agents, referers, campaigns or user agent attributes, or by a
+ * network containing a written IP. Other filter values keep their pages. Evictions run after the writing transaction
+ * commits, so a concurrent read cannot cache the state from before the write under the new version.</p>
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+@Component
+public class TrackingPixelPageCache implements KeyGenerator {
+
+    /**
+     * Cache of single tracking pixels by id.
+     */
+    public static final String BY_ID = "trackingPixels";
+
+    /**
+     * Cache of query pages, keyed by this generator.
+     */
+    public static final String PAGES = "trackingPixelPages";
+
+    private static final String BY_IP = "findByIpOrderByCreatedAt";
+    private static final String BY_CIDR = "findByCidrOrderByCreatedAt";
+    private static final String BY_USER_AGENT = "findByUserAgentOrderByCreatedAt";
+    private static final String BY_REFERER = "findByRefererOrderByCreatedAt";
+    private static final String BY_CAMPAIGN = "findByCampaignOrderByCreatedAt";
+    private static final String BY_CLIENT = "findByClientOrderByCreatedAt";
+    private static final List<String> UNFILTERED = List.of("findAll", "findAllByOrderByCreatedAt");
+    private static final List<HitDimension> CLIENT_DIMENSIONS = List.of(HitDimension.BROWSER,
+            HitDimension.OPERATING_SYSTEM, HitDimension.DEVICE_CLASS, HitDimension.BOT);
+    private static final int MAX_VERSIONS = 100_000;
+
+    private final CacheManager cacheManager;
+    private final AtomicLong lastVersion = new AtomicLong();
+    private final com.github.benmanes.caffeine.cache.Cache<Group, Long> versions = Caffeine.newBuilder()
+            .maximumSize(MAX_VERSIONS)
+            .build();
+    /**
+     * Networks with a version, so a written IP is checked against them rather than against every version.
+     * A network that is forgotten drops its version too, as its pages could no longer be evicted.
+     */
+    private final com.github.benmanes.caffeine.cache.Cache<String, IpAddresses.Range> networks = Caffeine.newBuilder()
+            .maximumSize(MAX_VERSIONS)
+            .<String, IpAddresses.Range>evictionListener((network, range, cause) ->
+                    versions.invalidate(new Group(BY_CIDR, network)))
+            .build();
+
+    public TrackingPixelPageCache(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Builds the key of a page query from the method name, its filter values, if any, the current version
+     * of that query and filter, and its page request.
+     */
+    @Override
+    public Object generate(Object target, Method method, Object... params) {
+        String query = method.getName();
+        String filter = switch (params.length) {
+            case 1 -> null;
+            case 2 -> query.equals(BY_IP) ? IpAddresses.normalize((String) params[0]) : (String) params[0];
+            default -> params[0] + "=" + ((String) params[1]).toUpperCase(Locale.ROOT);
+        };
+        if (query.equals(BY_CIDR)) {
+            networks.get(filter, IpAddresses::parseCidr);
+        }
+        Group group = new Group(query, filter);
+        long version = versions.get(group, g -> lastVersion.incrementAndGet());
+        return new PageKey(group, version, (Pageable) params[params.length - 1]);
+    }
+
+    /**
+     * Evicts the cached pages that may include the given tracking pixels.
+     *
+     * @param trackingPixels tracking pixels that were created, changed or deleted
+     */
+    public void evictPages(Collection<TrackingPixel> trackingPixels) {
+        Set<Group> groups = new HashSet<>();
+        UNFILTERED.forEach(query -> groups.add(new Group(query, null)));
+        List<byte[]> addresses = new ArrayList<>();
+        for (TrackingPixel trackingPixel : trackingPixels) {
+            groups.add(new Group(BY_IP, IpAddresses.normalize(trackingPixel.getIp())));
+            groups.add(new Group(BY_USER_AGENT, trackingPixel.getUserAgent()));
+            groups.add(new Group(BY_REFERER, trackingPixel.getReferer()));
+            groups.add(new Group(BY_CAMPAIGN, trackingPixel.getCampaign()));
+            for (HitDimension dimension : CLIENT_DIMENSIONS) {
+                groups.add(new Group(BY_CLIENT,
+                        dimension + "=" + dimension.valueOf(trackingPixel).toUpperCase(Locale.ROOT)));
+            }
+            byte[] address = IpAddresses.parse(trackingPixel.getIp());
+            if (address != null) {
+                addresses.add(address);
+            }
+        }
+        afterCommit(() -> {
+            if (!addresses.isEmpty()) {
+                networks.asMap().forEach((network, range) -> {
+                    if (containsAny(range, addresses)) {
+                        groups.add(new Group(BY_CIDR, network));
+                    }
+                });
+            }
+            versions.invalidateAll(groups);
+        });
+    }
+
+    /**
+     * Evicts every cached tracking pixel and page, after bulk removals.
+     */
+    public void evictAll() {
+        afterCommit(() -> {
+            versions.invalidateAll();
+            for (String name : new String[] {BY_ID, PAGES}) {
+                Cache cache = cacheManager.getCache(name);
+                if (cache != null) {
+                    cache.clear();
+                }
+            }
+        });
+    }
+
+    private static boolean containsAny(IpAddresses.Range range, List<byte[]> addresses) {
+        for (byte[] address : addresses) {
+            if (Arrays.compareUnsigned(address, range.low()) >= 0 && Arrays.compareUnsigned(address, range.high()) <= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void afterCommit(Runnable eviction) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eviction.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                eviction.run();
+            }
+        });
+    }
+
+    /**
+     * Identifies the pages of one query and filter value, evicted together.
+     *
+     * @param query  name of the service method
+     * @param filter the filter value, null for unfiltered queries
+     */
+    record Group(String query, String filter) {
+    }
+
+    /**
+     * Identifies one cached page.
+     *
+     * @param group    the query and filter value
+     * @param version  version of the group when the page was read
+     * @param pageable the page request
+     */
+    record PageKey(Group group, long version, Pageable pageable) {
+    }
+}
@@ -1,28 +1,64 @@
 package com.gklyphon.easy_pixel_tracking.services.impl;
 
+import com.gklyphon.easy_pixel_tracking.models.BrowserFamily;
+import com.gklyphon.easy_pixel_tracking.models.DeviceClass;
+import com.gklyphon.easy_pixel_tracking.models.HitDimension;
+import com.gklyphon.easy_pixel_tracking.models.OperatingSystem;
+import com.gklyphon.easy_pixel_tracking.models.TrackingCursor;
 import com.gklyphon.easy_pixel_tracking.models.TrackingPixel;
 import com.gklyphon.easy_pixel_tracking.repository.ITrackingPixelRepository;
+import com.gklyphon.easy_pixel_tracking.services.IArchiveService;
+import com.gklyphon.easy_pixel_tracking.services.IDictionaryService;
 import com.gklyphon.easy_pixel_tracking.services.ITrackingPixelService;
+import com.gklyphon.easy_pixel_tracking.utils.IpAddresses;
+import io.micrometer.core.annotation.Timed;
 import org.hibernate.service.spi.ServiceException;
 import org.springframework.beans.BeanUtils;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
 /**
  * Service implementation for managing TrackingPixel entities.
+ * Every public method is timed as {@code tracking.service}, tagged with its name and outcome.
+ * Single pixels and query pages are cached, see {@link TrackingPixelPageCache}.
+ * Reads span the tracking_pixel table and the archive, whose rows are all older: listings ordered
+ * by creation date serve archived rows first, scrolls continue into the archive after the table.
+ * Archived tracking pixels are read-only.
  *
  * @author JFCiscoHuerta
  * @date 2025-03-26
  */
 @Service
+@Timed(value = "tracking.service", histogram = true)
 public class TrackingPixelServiceImpl implements ITrackingPixelService {
 
     private final ITrackingPixelRepository trackingPixelRepository;
+    private final IDictionaryService dictionaryService;
+    private final TrackingPixelPageCache pageCache;
+    private final IArchiveService archiveService;
 
-    public TrackingPixelServiceImpl(ITrackingPixelRepository trackingPixelRepository) {
+    public TrackingPixelServiceImpl(ITrackingPixelRepository trackingPixelRepository, IDictionaryService dictionaryService,
+                                    TrackingPixelPageCache pageCache, IArchiveService archiveService) {
         this.trackingPixelRepository = trackingPixelRepository;
+        this.dictionaryService = dictionaryService;
+        this.pageCache = pageCache;
+        this.archiveService = archiveService;
     }
 
     /**
@@ -32,9 +68,10 @@ public class TrackingPixelServiceImpl implements ITrackingPixelService {
      * @return a paginated list of tracking pixels
      */
     @Override
+    @Cacheable(cacheNames = TrackingPixelPageCache.PAGES, keyGenerator = "trackingPixelPageCache")
     @Transactional(readOnly = true)
     public Page<TrackingPixel> findAll(Pageable pageable) {
-        return trackingPixelRepository.findAll(pageable);
+        return page(HitDimension.ALL, null, pageable, trackingPixelRepository::findAll);
     }
 
     /**
@@ -44,9 +81,10 @@ public class TrackingPixelServiceImpl implements ITrackingPixelService {
      * @return a paginated list of tracking pixels
      */
     @Override
+    @Cacheable(cacheNames = TrackingPixelPageCache.PAGES, keyGenerator = "trackingPixelPageCache")
     @Transactional
     public Page<TrackingPixel> findAllByOrderByCreatedAt(Pageable pageable) {
-        return trackingPixelRepository.findAllByOrderByCreatedAt(pageable);
+        return page(HitDimension.ALL, null, pageable, trackingPixelRepository::findAllByOrderByCreatedAt);
     }
 
     /**
@@ -57,9 +95,31 @@ public class TrackingPixelServiceImpl implements ITrackingPixelService {
      * @return a paginated list of tracking pixels matching the given IP address
      */
     @Override
+    @Cacheable(cacheNames = TrackingPixelPageCache.PAGES, keyGenerator = "trackingPixelPageCache")
     @Transactional(readOnly = true)
     public Page<TrackingPixel> findByIpOrderByCreatedAt(String ip, Pageable pageable) {
-        return trackingPixelRepository.findByIpOrderByCreatedAt(ip, pageable);
+        byte[] ipAddress = IpAddresses.parse(ip);
+        return page(HitDimension.IP, IpAddresses.normalize(ip), pageable, p -> ipAddress == null
+                ? Page.empty(p)
+                : trackingPixelRepository.findByIpAddressOrderByCreatedAt(ipAddress, p));
+    }
+
+    /**
+     * Retrieves a paginated list of tracking pixels whose IP address lies in a network, ordered by creation date.
+     * The network is one range of the binary IP address index.
+     *
+     * @param range    the network in CIDR notation
+     * @param pageable pagination information
+     * @return a paginated list of tracking pixels within the network
+     */
+    @Override
+    @Cacheable(cacheNames = TrackingPixelPageCache.PAGES, keyGenerator = "trackingPixelPageCache")
+    @Transactional(readOnly = true)
+    public Page<TrackingPixel> findByCidrOrderByCreatedAt(String range, Pageable pageable) {
+        IpAddresses.Range network = IpAddresses.parseCidr(range);
+        return page(() -> archiveService.countInRange(network),
+                (offset, limit) -> archiveService.findInRangeOldestFirst(network, offset, limit), pageable,
+                p -> trackingPixelRepository.findByIpAddressBetweenOrderByCreatedAt(network.low(), network.high(), p));
     }
 
     /**
@@ -70,9 +130,13 @@ public class TrackingPixelServiceImpl implements ITrackingPixelService {
      * @return a paginated list of tracking pixels matching the given user agent
      */
     @Override
+    @Cacheable(cacheNames = TrackingPixelPageCache.PAGES, keyGenerator = "trackingPixelPageCache")
     @Transactional(readOnly = true)
     public Page<TrackingPixel> findByUserAgentOrderByCreatedAt(String userAgent, Pageable pageable) {
-        return trackingPixelRepository.findByUserAgentOrderByCreatedAt(userAgent, pageable);
+        Integer userAgentId = dictionaryService.findUserAgentId(userAgent);
+        return page(HitDimension.USER_AGENT, userAgent, pageable, p -> userAgentId == null
+                ? Page.empty(p)
+                : trackingPixelRepository.findByUserAgentIdOrderByCreatedAt(userAgentId, p));
     }
 
     /**
@@ -83,9 +147,169 @@ public class TrackingPixelServiceImpl implements ITrackingPixelService {
      * @return a paginated list of tracking pixels matching the given referrer URL
      */
     @Override
+    @Cacheable(cacheNames = TrackingPixelPageCache.PAGES, keyGenerator = "trackingPixelPageCache")
     @Transactional(readOnly = true)
     public Page<TrackingPixel> findByRefererOrderByCreatedAt(String referer, Pageable pageable) {
-        return trackingPixelRepository.findByRefererOrderByCreatedAt(referer, pageable);
+        Integer refererId = dictionaryService.findRefererId(referer);
+        return page(HitDimension.REFERER, referer, pageable, p -> refererId == null
+                ? Page.empty(p)
+                : trackingPixelRepository.findByRefererIdOrderByCreatedAt(refererId, p));
+    }
+
+    /**
+     * Retrieves a paginated list of the tracking pixels of a campaign, ordered by creation date.
+     * Only the campaign's range of the campaign index is read.
+     *
+     * @param campaign the campaign id to filter by
+     * @param pageable pagination information
+     * @return a paginated list of tracking pixels of the given campaign
+     */
+    @Override
+    @Cacheable(cacheNames = TrackingPixelPageCache.PAGES, keyGenerator = "trackingPixelPageCache")
+    @Transactional(readOnly = true)
+    public Page<TrackingPixel> findByCampaignOrderByCreatedAt(String campaign, Pageable pageable) {
+        Integer campaignId = dictionaryService.findCampaignId(campaign);
+        return page(HitDimension.CAMPAIGN, campaign, pageable, p -> campaignId == null
+                ? Page.empty(p)
+                : trackingPixelRepository.findByCampaignIdOrderByCreatedAt(campaignId, p));
+    }
+
+    /**
+     * Retrieves a paginated list of tracking pixels filtered by an attribute parsed from the user agent
+     * and ordered by creation date.
+     *
+     * @param dimension the attribute to filter by
+     * @param value     the constant name of the attribute, or {@code true}/{@code false} for bots, in any case
+     * @param pageable  pagination information
+     * @return a paginated list of tracking pixels matching the given attribute
+     */
+    @Override
+    @Cacheable(cacheNames = TrackingPixelPageCache.PAGES, keyGenerator = "trackingPixelPageCache")
+    @Transactional(readOnly = true)
+    public Page<TrackingPixel> findByClientOrderByCreatedAt(HitDimension dimension, String value, Pageable pageable) {
+        String name = value.toUpperCase(Locale.ROOT);
+        return switch (dimension) {
+            case BROWSER -> {
+                BrowserFamily browser = BrowserFamily.valueOf(name);
+                yield page(dimension, browser.name(), pageable,
+                        p -> trackingPixelRepository.findByBrowserOrderByCreatedAt(browser, p));
+            }
+            case OPERATING_SYSTEM -> {
+                OperatingSystem operatingSystem = OperatingSystem.valueOf(name);
+                yield page(dimension, operatingSystem.name(), pageable,
+                        p -> trackingPixelRepository.findByOperatingSystemOrderByCreatedAt(operatingSystem, p));
+            }
+            case DEVICE_CLASS -> {
+                DeviceClass deviceClass = DeviceClass.valueOf(name);
+                yield page(dimension, deviceClass.name(), pageable,
+                        p -> trackingPixelRepository.findByDeviceClassOrderByCreatedAt(deviceClass, p));
+            }
+            case BOT -> {
+                if (!name.equals("TRUE") && !name.equals("FALSE")) {
+                    throw new IllegalArgumentException("Bot must be true or false: " + value);
+                }
+                boolean bot = name.equals("TRUE");
+                yield page(dimension, Boolean.toString(bot), pageable,
+                        p -> trackingPixelRepository.findByBotOrderByCreatedAt(bot, p));
+            }
+            default -> throw new IllegalArgumentException("Not parsed from the user agent: " + dimension);
+        };
+    }
+
+    /**
+     * Retrieves a slice of all tracking pixels starting at the given cursor, newest first.
+     *
+     * @param cursor the position to scroll from
+     * @param size   maximum number of entries
+     * @return a slice of tracking pixels ordered by creation date and id, descending
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<TrackingPixel> scrollAll(TrackingCursor cursor, int size) {
+        return scroll(HitDimension.ALL, null, cursor, size,
+                p -> trackingPixelRepository.findOlder(cursor.getCreatedAt(), cursor.getId(), p),
+                p -> trackingPixelRepository.findNewer(cursor.getCreatedAt(), cursor.getId(), p));
+    }
+
+    /**
+     * Retrieves a slice of tracking pixels filtered by IP address starting at the given cursor, newest first.
+     *
+     * @param ip     the IP address to filter by
+     * @param cursor the position to scroll from
+     * @param size   maximum number of entries
+     * @return a slice of tracking pixels ordered by creation date and id, descending
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<TrackingPixel> scrollByIp(String ip, TrackingCursor cursor, int size) {
+        byte[] ipAddress = IpAddresses.parse(ip);
+        String value = IpAddresses.normalize(ip);
+        if (ipAddress == null) {
+            return scroll(HitDimension.IP, value, cursor, size, TrackingPixelServiceImpl::none, TrackingPixelServiceImpl::none);
+        }
+        return scroll(HitDimension.IP, value, cursor, size,
+                p -> trackingPixelRepository.findOlderByIpAddress(ipAddress, cursor.getCreatedAt(), cursor.getId(), p),
+                p -> trackingPixelRepository.findNewerByIpAddress(ipAddress, cursor.getCreatedAt(), cursor.getId(), p));
+    }
+
+    /**
+     * Retrieves a slice of tracking pixels filtered by user agent starting at the given cursor, newest first.
+     *
+     * @param userAgent the user agent string to filter by
+     * @param cursor    the position to scroll from
+     * @param size      maximum number of entries
+     * @return a slice of tracking pixels ordered by creation date and id, descending
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<TrackingPixel> scrollByUserAgent(String userAgent, TrackingCursor cursor, int size) {
+        Integer userAgentId = dictionaryService.findUserAgentId(userAgent);
+        if (userAgentId == null) {
+            return scroll(HitDimension.USER_AGENT, userAgent, cursor, size, TrackingPixelServiceImpl::none, TrackingPixelServiceImpl::none);
+        }
+        return scroll(HitDimension.USER_AGENT, userAgent, cursor, size,
+                p -> trackingPixelRepository.findOlderByUserAgentId(userAgentId, cursor.getCreatedAt(), cursor.getId(), p),
+                p -> trackingPixelRepository.findNewerByUserAgentId(userAgentId, cursor.getCreatedAt(), cursor.getId(), p));
+    }
+
+    /**
+     * Retrieves a slice of tracking pixels filtered by referrer URL starting at the given cursor, newest first.
+     *
+     * @param referer the referrer URL to filter by
+     * @param cursor  the position to scroll from
+     * @param size    maximum number of entries
+     * @return a slice of tracking pixels ordered by creation date and id, descending
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<TrackingPixel> scrollByReferer(String referer, TrackingCursor cursor, int size) {
+        Integer refererId = dictionaryService.findRefererId(referer);
+        if (refererId == null) {
+            return scroll(HitDimension.REFERER, referer, cursor, size, TrackingPixelServiceImpl::none, TrackingPixelServiceImpl::none);
+        }
+        return scroll(HitDimension.REFERER, referer, cursor, size,
+                p -> trackingPixelRepository.findOlderByRefererId(refererId, cursor.getCreatedAt(), cursor.getId(), p),
+                p -> trackingPixelRepository.findNewerByRefererId(refererId, cursor.getCreatedAt(), cursor.getId(), p));
+    }
+
+    /**
+     * Retrieves a slice of the tracking pixels of a campaign starting at the given cursor, newest first.
+     *
+     * @param campaign the campaign id to filter by
+     * @param cursor   the position to scroll from
+     * @param size     maximum number of entries
+     * @return a slice of tracking pixels ordered by creation date and id, descending
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<TrackingPixel> scrollByCampaign(String campaign, TrackingCursor cursor, int size) {
+        Integer campaignId = dictionaryService.findCampaignId(campaign);
+        if (campaignId == null) {
+            return scroll(HitDimension.CAMPAIGN, campaign, cursor, size, TrackingPixelServiceImpl::none, TrackingPixelServiceImpl::none);
+        }
+        return scroll(HitDimension.CAMPAIGN, campaign, cursor, size,
+                p -> trackingPixelRepository.findOlderByCampaignId(campaignId, cursor.getCreatedAt(), cursor.getId(), p),
+                p -> trackingPixelRepository.findNewerByCampaignId(campaignId, cursor.getCreatedAt(), cursor.getId(), p));
     }
 
     /**
@@ -95,9 +319,15 @@ public class TrackingPixelServiceImpl implements ITrackingPixelService {
      * @return the tracking pixel entity
      */
     @Override
+    @Cacheable(cacheNames = TrackingPixelPageCache.BY_ID, key = "#id")
     @Transactional(readOnly = true)
     public TrackingPixel findById(Long id) {
         return trackingPixelRepository.findById(id)
+                .map(trackingPixel -> {
+                    dictionaryService.decode(trackingPixel);
+                    return trackingPixel;
+                })
+                .or(() -> archiveService.findById(id))
                 .orElseThrow();
     }
 
@@ -110,13 +340,34 @@ public class TrackingPixelServiceImpl implements ITrackingPixelService {
     @Override
     @Transactional
     public TrackingPixel save(TrackingPixel trackingPixel) {
+        checkIp(trackingPixel);
         try {
+            dictionaryService.encode(trackingPixel);
+            pageCache.evictPages(List.of(trackingPixel));
             return trackingPixelRepository.save(trackingPixel);
         } catch (Exception ex) {
             throw new ServiceException("Unexpected error while saving.", ex);
         }
     }
 
+    /**
+     * Saves a batch of new tracking pixel entities in a single transaction.
+     *
+     * @param trackingPixels the tracking pixels to save
+     * @return the saved tracking pixel entities
+     */
+    @Override
+    @Transactional
+    public List<TrackingPixel> saveAll(List<TrackingPixel> trackingPixels) {
+        try {
+            trackingPixels.forEach(dictionaryService::encode);
+            pageCache.evictPages(trackingPixels);
+            return trackingPixelRepository.saveAll(trackingPixels);
+        } catch (Exception ex) {
+            throw new ServiceException("Unexpected error while saving batch.", ex);
+        }
+    }
+
     /**
      * Updates an existing tracking pixel entity.
      *
@@ -125,11 +376,17 @@ public class TrackingPixelServiceImpl implements ITrackingPixelService {
      * @return the updated tracking pixel entity
      */
     @Override
+    @CacheEvict(cacheNames = TrackingPixelPageCache.BY_ID, key = "#id")
     @Transactional
     public TrackingPixel update(Long id, TrackingPixel trackingPixel) {
-        TrackingPixel originalTrackingPixel = findById(id);
+        checkIp(trackingPixel);
+        TrackingPixel originalTrackingPixel = findLiveById(id);
         try {
+            TrackingPixel previous = new TrackingPixel();
+            BeanUtils.copyProperties(originalTrackingPixel, previous);
             BeanUtils.copyProperties(trackingPixel, originalTrackingPixel, "id", "createdAt", "updatedAt");
+            dictionaryService.encode(originalTrackingPixel);
+            pageCache.evictPages(List.of(previous, originalTrackingPixel));
             return trackingPixelRepository.save(originalTrackingPixel);
         } catch (Exception ex) {
             throw new ServiceException("Unexpected error while updating.", ex);
@@ -142,13 +399,151 @@ public class TrackingPixelServiceImpl implements ITrackingPixelService {
      * @param id the ID of the tracking pixel to delete
      */
     @Override
+    @CacheEvict(cacheNames = TrackingPixelPageCache.BY_ID, key = "#id")
     @Transactional
     public void deleteById(Long id) {
-        findById(id);
+        pageCache.evictPages(List.of(findLiveById(id)));
         try {
             trackingPixelRepository.deleteById(id);
         } catch (Exception ex) {
             throw new ServiceException("Unexpected error while deleting.", ex);
         }
     }
+
+    /**
+     * Rejects an IP address that would not be stored, as only IP literals are.
+     *
+     * @param trackingPixel the tracking pixel to save
+     */
+    private static void checkIp(TrackingPixel trackingPixel) {
+        if (trackingPixel.getIp() != null && IpAddresses.parse(trackingPixel.getIp()) == null) {
+            throw new IllegalArgumentException("ip: not an IP address");
+        }
+    }
+
+    /**
+     * Retrieves a tracking pixel from the tracking_pixel table only, as archived ones cannot be changed.
+     *
+     * @param id the ID of the tracking pixel
+     * @return the tracking pixel entity
+     */
+    private TrackingPixel findLiveById(Long id) {
+        TrackingPixel trackingPixel = trackingPixelRepository.findById(id)
+                .orElseThrow();
+        dictionaryService.decode(trackingPixel);
+        return trackingPixel;
+    }
+
+    /**
+     * Serves a page of a listing ordered by creation date, archived rows first.
+     *
+     * @param dimension dimension the listing filters by
+     * @param value     value the listing filters by
+     * @param pageable  the requested page
+     * @param liveQuery the listing over the tracking_pixel table
+     * @return the page, counting archived and live rows
+     */
+    private Page<TrackingPixel> page(HitDimension dimension, String value, Pageable pageable,
+                                     Function<Pageable, Page<TrackingPixel>> liveQuery) {
+        return page(() -> archiveService.count(dimension, value),
+                (offset, limit) -> archiveService.findOldestFirst(dimension, value, offset, limit), pageable, liveQuery);
+    }
+
+    /**
+     * Serves a page of a listing ordered by creation date, archived rows first.
+     *
+     * @param archivedCount number of matching archived rows
+     * @param archivedRows  matching archived rows from an offset, oldest first
+     * @param pageable      the requested page
+     * @param liveQuery     the listing over the tracking_pixel table
+     * @return the page, counting archived and live rows
+     */
+    private Page<TrackingPixel> page(LongSupplier archivedCount, BiFunction<Long, Integer, List<TrackingPixel>> archivedRows,
+                                     Pageable pageable, Function<Pageable, Page<TrackingPixel>> liveQuery) {
+        if (archiveService.isEmpty()) {
+            return decoded(liveQuery.apply(pageable));
+        }
+        long archived = archivedCount.getAsLong();
+        List<TrackingPixel> content = new ArrayList<>(pageable.getPageSize());
+        if (pageable.getOffset() < archived) {
+            content.addAll(archivedRows.apply(pageable.getOffset(), pageable.getPageSize()));
+        }
+        int remaining = pageable.getPageSize() - content.size();
+        long liveOffset = Math.max(0, pageable.getOffset() - archived);
+        Page<TrackingPixel> live = liveQuery.apply(new OffsetPageRequest(liveOffset, Math.max(1, remaining), pageable.getSort()));
+        if (remaining > 0) {
+            content.addAll(decoded(live).getContent());
+        }
+        return new PageImpl<>(content, pageable, archived + live.getTotalElements());
+    }
+
+    /**
+     * Serves a slice of a newest-first scroll. Scrolling older continues into the archive once the
+     * tracking_pixel table is exhausted; scrolling newer from an archived position starts in the archive.
+     *
+     * @param dimension dimension the scroll filters by
+     * @param value     value the scroll filters by
+     * @param cursor    the position to scroll from
+     * @param size      maximum number of entries
+     * @param older     live entries older than the cursor, descending
+     * @param newer     live entries newer than the cursor, ascending
+     * @return a slice of tracking pixels ordered by creation date and id, descending
+     */
+    private Slice<TrackingPixel> scroll(HitDimension dimension, String value, TrackingCursor cursor, int size,
+                                        Function<Pageable, Slice<TrackingPixel>> older,
+                                        Function<Pageable, Slice<TrackingPixel>> newer) {
+        Pageable pageable = PageRequest.of(0, size);
+        if (archiveService.isEmpty()) {
+            return decoded(cursor.isBackward() ? reversed(newer.apply(pageable)) : older.apply(pageable));
+        }
+        List<TrackingPixel> content = new ArrayList<>(size + 1);
+        if (cursor.isBackward()) {
+            content.addAll(archiveService.findNewer(dimension, value, cursor.getCreatedAt(), cursor.getId(), size + 1));
+            if (content.size() <= size) {
+                content.addAll(decoded(newer.apply(PageRequest.of(0, size + 1 - content.size()))).getContent());
+            }
+        } else {
+            Slice<TrackingPixel> live = decoded(older.apply(pageable));
+            if (live.hasNext()) {
+                return live;
+            }
+            content.addAll(live.getContent());
+            content.addAll(archiveService.findOlder(dimension, value, cursor.getCreatedAt(), cursor.getId(), size + 1 - content.size()));
+        }
+        boolean hasNext = content.size() > size;
+        if (hasNext) {
+            content.remove(size);
+        }
+        if (cursor.isBackward()) {
+            Collections.reverse(content);
+        }
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    private static Slice<TrackingPixel> none(Pageable pageable) {
+        return new SliceImpl<>(List.of(), pageable, false);
+    }
+
+    /**
+     * Restores the user agent, referer and campaign strings of every tracking pixel in a page or slice.
+     *
+     * @param slice tracking pixels read from the store
+     * @return the same page or slice
+     */
+    private <S extends Slice<TrackingPixel>> S decoded(S slice) {
+        slice.forEach(dictionaryService::decode);
+        return slice;
+    }
+
+    /**
+     * Restores newest-first order for a slice read backwards from a cursor.
+     *
+     * @param slice a slice ordered by creation date and id, ascending
+     * @return the same entries ordered descending
+     */
+    private Slice<TrackingPixel> reversed(Slice<TrackingPixel> slice) {
+        List<TrackingPixel> content = new ArrayList<>(slice.getContent());
+        Collections.reverse(content);
+        return new SliceImpl<>(content, slice.getPageable(), slice.hasNext());
+    }
 }
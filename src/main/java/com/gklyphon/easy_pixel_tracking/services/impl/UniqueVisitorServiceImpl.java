@@ -0,0 +1,308 @@
+package com.gklyphon.easy_pixel_tracking.services.impl;
+
+import com.gklyphon.easy_pixel_tracking.config.VisitorProperties;
+import com.gklyphon.easy_pixel_tracking.models.TrackingPixel;
+import com.gklyphon.easy_pixel_tracking.models.VisitorSketch;
+import com.gklyphon.easy_pixel_tracking.repository.IVisitorSketchRepository;
+import com.gklyphon.easy_pixel_tracking.services.IHitListener;
+import com.gklyphon.easy_pixel_tracking.services.IUniqueVisitorService;
+import com.gklyphon.easy_pixel_tracking.utils.Hashing;
+import com.gklyphon.easy_pixel_tracking.utils.HyperLogLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Service implementation that estimates distinct visitors per referer and day with HyperLogLog sketches.
+ *
+ * <p>Hits update in-memory sketches, which are periodically merged into the stored ones.
+ * Because merging is idempotent, the same in-memory sketch can be merged again after a failed
+ * or concurrent write without counting any visitor twice.</p>
+ *
+ * <p>When a hit needs a new sketch and the memory budget is reached, the hit is still counted and a flush
+ * is started in the background to write out and release the sketches; memory may exceed the budget
+ * until it completes. A sketch is released only once nothing was added to it after it was written,
+ * or once its latest state was written again, so releasing never loses a visitor.</p>
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+@Service
+public class UniqueVisitorServiceImpl implements IUniqueVisitorService, IHitListener {
+
+    private static final Logger log = LoggerFactory.getLogger(UniqueVisitorServiceImpl.class);
+
+    private static final String ALL_REFERERS = "";
+
+    private final IVisitorSketchRepository visitorSketchRepository;
+    private final VisitorProperties properties;
+    private final Map<SketchKey, Sketch> sketches = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean releaseRequested = new AtomicBoolean();
+    private final ExecutorService releaseExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Counter earlyFlushes;
+
+    public UniqueVisitorServiceImpl(IVisitorSketchRepository visitorSketchRepository, VisitorProperties properties,
+                                    MeterRegistry meterRegistry) {
+        this.visitorSketchRepository = visitorSketchRepository;
+        this.properties = properties;
+        Gauge.builder("tracking.visitors.sketches", sketches, Map::size)
+                .description("Unique visitor sketches held in memory")
+                .register(meterRegistry);
+        this.earlyFlushes = Counter.builder("tracking.visitors.early-flushes")
+                .description("Flushes started because the sketch memory budget was reached")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Adds the visitor IP to the sketch of the day for all visitors and for the hit's referer.
+     *
+     * @param trackingPixel the accepted hit
+     */
+    @Override
+    public void onHit(TrackingPixel trackingPixel) {
+        if (!properties.isEnabled() || trackingPixel.getIp() == null) {
+            return;
+        }
+        long ipHash = Hashing.hash64(trackingPixel.getIp());
+        LocalDate day = trackingPixel.getCreatedAt().toLocalDate();
+        add(new SketchKey(day, ALL_REFERERS), ipHash);
+        String referer = trackingPixel.getReferer();
+        if (referer != null && !referer.isEmpty()) {
+            add(new SketchKey(day, referer), ipHash);
+        }
+    }
+
+    /**
+     * Estimates the number of distinct visitor IPs within a range of days by merging
+     * the stored sketches with the ones not yet written.
+     *
+     * @param referer the referer to count, or null for all visitors
+     * @param from    first day, inclusive
+     * @param to      last day, inclusive
+     * @return the estimated number of distinct visitors
+     */
+    @Override
+    public long estimate(String referer, LocalDate from, LocalDate to) {
+        String key = referer == null ? ALL_REFERERS : referer;
+        HyperLogLog union = new HyperLogLog(properties.getPrecision());
+        for (VisitorSketch stored : visitorSketchRepository.findByRefererHashAndVisitDayBetween(Hashing.hash64(key), from, to)) {
+            HyperLogLog sketch = HyperLogLog.fromBytes(stored.getSketch());
+            if (sketch.getPrecision() == union.getPrecision()) {
+                union.merge(sketch);
+            }
+        }
+        for (Map.Entry<SketchKey, Sketch> entry : sketches.entrySet()) {
+            SketchKey sketchKey = entry.getKey();
+            if (sketchKey.referer().equals(key) && !sketchKey.day().isBefore(from) && !sketchKey.day().isAfter(to)) {
+                entry.getValue().mergeInto(union);
+            }
+        }
+        return union.estimate();
+    }
+
+    /**
+     * Merges the sketches accumulated in memory into the stored ones. Sketches of past days,
+     * and all sketches once the memory budget is reached, are released after being written.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${tracking.visitors.flush-interval:PT1M}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            LocalDate today = LocalDate.now();
+            boolean overBudget = sketches.size() >= properties.getMaxSketches();
+            for (Map.Entry<SketchKey, Sketch> entry : sketches.entrySet()) {
+                SketchKey key = entry.getKey();
+                Sketch sketch = entry.getValue();
+                HyperLogLog snapshot = sketch.snapshot();
+                byte[] written = snapshot.toBytes();
+                if (!tryWrite(key, snapshot)) {
+                    continue;
+                }
+                if (overBudget || key.day().isBefore(today)) {
+                    release(key, sketch, written);
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Writes out the remaining sketches once the background flushes are done.
+     */
+    @PreDestroy
+    public void stop() {
+        releaseExecutor.shutdown();
+        flush();
+    }
+
+    private void add(SketchKey key, long hash) {
+        while (true) {
+            Sketch sketch = sketches.get(key);
+            if (sketch == null) {
+                if (sketches.size() >= properties.getMaxSketches()) {
+                    requestRelease();
+                }
+                sketch = sketches.computeIfAbsent(key, k -> new Sketch(properties.getPrecision()));
+            }
+            if (sketch.add(hash)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Starts a flush in the background, unless one already is, so that the sketches are released.
+     */
+    private void requestRelease() {
+        if (!releaseRequested.compareAndSet(false, true)) {
+            return;
+        }
+        earlyFlushes.increment();
+        try {
+            releaseExecutor.execute(() -> {
+                try {
+                    flush();
+                } finally {
+                    releaseRequested.set(false);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            releaseRequested.set(false);
+        }
+    }
+
+    /**
+     * Removes a written sketch from memory. Hits added to it since it was written are written
+     * once more, and put back in memory if that fails.
+     */
+    private void release(SketchKey key, Sketch sketch, byte[] written) {
+        HyperLogLog last = sketch.release();
+        sketches.remove(key, sketch);
+        if (Arrays.equals(last.toBytes(), written) || tryWrite(key, last)) {
+            return;
+        }
+        while (!sketches.computeIfAbsent(key, k -> new Sketch(properties.getPrecision())).merge(last)) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private boolean tryWrite(SketchKey key, HyperLogLog sketch) {
+        try {
+            write(key, sketch);
+            return true;
+        } catch (Exception ex) {
+            log.warn("Failed to write visitor sketch {}, will retry.", key, ex);
+            return false;
+        }
+    }
+
+    private void write(SketchKey key, HyperLogLog sketch) {
+        long refererHash = Hashing.hash64(key.referer());
+        VisitorSketch stored = visitorSketchRepository.findByRefererHashAndVisitDay(refererHash, key.day())
+                .orElse(null);
+        if (stored == null) {
+            visitorSketchRepository.save(new VisitorSketch(key.day(), refererHash, key.referer(), sketch.toBytes()));
+            return;
+        }
+        HyperLogLog storedSketch = HyperLogLog.fromBytes(stored.getSketch());
+        if (storedSketch.getPrecision() == sketch.getPrecision()) {
+            sketch.merge(storedSketch);
+        } else {
+            log.warn("Replacing visitor sketch {} stored with precision {}.", key, storedSketch.getPrecision());
+        }
+        stored.setSketch(sketch.toBytes());
+        visitorSketchRepository.save(stored);
+    }
+
+    /**
+     * In-memory sketch. Once released it no longer accepts hits, which then go to a new sketch.
+     */
+    private static final class Sketch {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final HyperLogLog hyperLogLog;
+        private boolean released;
+
+        private Sketch(int precision) {
+            this.hyperLogLog = new HyperLogLog(precision);
+        }
+
+        private boolean add(long hash) {
+            lock.lock();
+            try {
+                if (released) {
+                    return false;
+                }
+                hyperLogLog.add(hash);
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private boolean merge(HyperLogLog other) {
+            lock.lock();
+            try {
+                if (released) {
+                    return false;
+                }
+                hyperLogLog.merge(other);
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void mergeInto(HyperLogLog union) {
+            lock.lock();
+            try {
+                union.merge(hyperLogLog);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private HyperLogLog snapshot() {
+            lock.lock();
+            try {
+                return HyperLogLog.fromBytes(hyperLogLog.toBytes());
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private HyperLogLog release() {
+            lock.lock();
+            try {
+                released = true;
+                return HyperLogLog.fromBytes(hyperLogLog.toBytes());
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Identifies one in-memory sketch.
+     */
+    private record SketchKey(LocalDate day, String referer) {
+    }
+}
@@ -0,0 +1,58 @@
+package com.gklyphon.easy_pixel_tracking.services.impl;
+
+import com.gklyphon.easy_pixel_tracking.config.UserAgentProperties;
+import com.gklyphon.easy_pixel_tracking.models.TrackingPixel;
+import com.gklyphon.easy_pixel_tracking.models.UserAgentInfo;
+import com.gklyphon.easy_pixel_tracking.services.IUserAgentService;
+import com.gklyphon.easy_pixel_tracking.utils.UserAgentParser;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service implementation that classifies user agents with a {@link UserAgentParser}, fronted by a bounded cache
+ * of recently seen user agents. Cache hits and misses are published as {@code cache.gets{cache=userAgents}}.
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+@Service
+public class UserAgentServiceImpl implements IUserAgentService {
+
+    private final UserAgentParser parser = new UserAgentParser();
+    private final Cache<String, UserAgentInfo> cache;
+
+    public UserAgentServiceImpl(UserAgentProperties properties, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getCacheSize())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "userAgents");
+    }
+
+    /**
+     * Classifies a user agent string, parsing it only if it is not cached.
+     *
+     * @param userAgent the user agent, may be null
+     * @return the parsed attributes
+     */
+    @Override
+    public UserAgentInfo parse(String userAgent) {
+        if (userAgent == null) {
+            return UserAgentParser.MISSING;
+        }
+        return cache.get(userAgent, parser::parse);
+    }
+
+    /**
+     * Sets the browser, operating system, device and bot columns of a tracking pixel from its user agent.
+     *
+     * @param trackingPixel the tracking pixel about to be ingested or stored
+     */
+    @Override
+    public void classify(TrackingPixel trackingPixel) {
+        parse(trackingPixel.getUserAgent()).applyTo(trackingPixel);
+    }
+}
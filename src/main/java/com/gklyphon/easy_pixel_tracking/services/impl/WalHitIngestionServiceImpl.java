@@ -0,0 +1,302 @@
+package com.gklyphon.easy_pixel_tracking.services.impl;
+
+import com.gklyphon.easy_pixel_tracking.config.IngestionProperties;
+import com.gklyphon.easy_pixel_tracking.config.WalProperties;
+import com.gklyphon.easy_pixel_tracking.models.TrackingPixel;
+import com.gklyphon.easy_pixel_tracking.models.WalCheckpoint;
+import com.gklyphon.easy_pixel_tracking.repository.IWalCheckpointRepository;
+import com.gklyphon.easy_pixel_tracking.services.IHitIngestionService;
+import com.gklyphon.easy_pixel_tracking.services.IHitListener;
+import com.gklyphon.easy_pixel_tracking.services.ITrackingPixelWriter;
+import com.gklyphon.easy_pixel_tracking.services.IUserAgentService;
+import com.gklyphon.easy_pixel_tracking.utils.HitRecordCodec;
+import com.gklyphon.easy_pixel_tracking.utils.SegmentLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Service implementation that appends hits to a local write-ahead log and replays the log
+ * into the database from a background thread, so hits are kept while the database is slow or down.
+ *
+ * <p>A sync thread flushes appended records to the storage device every sync interval, covering
+ * all records appended since the previous flush at once. The replayer writes batches of records
+ * and advances the checkpoint in {@code wal_checkpoint} in the same transaction, so after a crash
+ * it resumes exactly after the last stored hit. Segments behind the checkpoint are deleted.</p>
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+@Service
+@ConditionalOnProperty(name = "tracking.wal.enabled", havingValue = "true")
+public class WalHitIngestionServiceImpl implements IHitIngestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(WalHitIngestionServiceImpl.class);
+
+    static final String LOG_NAME = "hits";
+
+    private static final String CHECKPOINT_FILE = "checkpoint";
+
+    private final ITrackingPixelWriter trackingPixelWriter;
+    private final IUserAgentService userAgentService;
+    private final IWalCheckpointRepository walCheckpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final WalProperties properties;
+    private final IngestionProperties ingestionProperties;
+    private final List<IHitListener> hitListeners;
+    private final Path directory;
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final Counter acceptedCounter;
+    private final Counter failedCounter;
+    private final DistributionSummary batchSizes;
+    private final Timer batchTimer;
+
+    private volatile SegmentLog segmentLog;
+    private volatile boolean running;
+    private volatile long checkpoint;
+    private Thread syncThread;
+    private Thread replayThread;
+
+    public WalHitIngestionServiceImpl(ITrackingPixelWriter trackingPixelWriter, IUserAgentService userAgentService,
+                                      IWalCheckpointRepository walCheckpointRepository,
+                                      PlatformTransactionManager transactionManager, WalProperties properties,
+                                      IngestionProperties ingestionProperties,
+                                      ObjectProvider<IHitListener> hitListeners, MeterRegistry meterRegistry) {
+        this.trackingPixelWriter = trackingPixelWriter;
+        this.userAgentService = userAgentService;
+        this.walCheckpointRepository = walCheckpointRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.ingestionProperties = ingestionProperties;
+        this.hitListeners = hitListeners.orderedStream().toList();
+        this.directory = Path.of(properties.getDirectory());
+        this.acceptedCounter = IngestionMeters.hits(meterRegistry, "accepted");
+        this.failedCounter = IngestionMeters.failures(meterRegistry);
+        this.batchSizes = IngestionMeters.batchSizes(meterRegistry);
+        this.batchTimer = IngestionMeters.batchWrites(meterRegistry);
+        FunctionCounter.builder(IngestionMeters.HITS, droppedCount, AtomicLong::get)
+                .tag("result", "dropped")
+                .register(meterRegistry);
+        Gauge.builder(IngestionMeters.PENDING, this, service -> service.segmentLog == null ? 0 : service.getPendingCount())
+                .description("Hits waiting to be written")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens the log, recovering records written before the last shutdown or crash,
+     * and starts the sync and replay threads.
+     *
+     * @throws IOException if the log cannot be opened
+     */
+    @PostConstruct
+    public void start() throws IOException {
+        checkpoint = readLocalCheckpoint();
+        int recordsPerSegment = (int) Math.max(1, properties.getSegmentSize().toBytes() / HitRecordCodec.RECORD_SIZE);
+        segmentLog = SegmentLog.open(directory, HitRecordCodec.RECORD_SIZE, recordsPerSegment, checkpoint + 1);
+        running = true;
+        syncThread = new Thread(this::syncLoop, "hit-wal-sync");
+        syncThread.start();
+        replayThread = new Thread(this::replayLoop, "hit-wal-replayer");
+        replayThread.start();
+    }
+
+    /**
+     * Stops the threads and closes the log. Records not yet replayed stay in the log for the next start.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException, IOException {
+        if (segmentLog == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(syncThread);
+        replayThread.join(ingestionProperties.getShutdownTimeout().toMillis());
+        syncThread.join(ingestionProperties.getShutdownTimeout().toMillis());
+        segmentLog.close();
+    }
+
+    /**
+     * Appends a hit to the log. When {@code tracking.wal.await-sync} is set the call returns
+     * once the hit has been flushed to the storage device.
+     *
+     * @param trackingPixel the hit to persist
+     * @return {@code true} if the hit was logged, {@code false} if it could not be
+     */
+    @Override
+    public boolean submit(TrackingPixel trackingPixel) {
+        if (trackingPixel.getCreatedAt() == null) {
+            trackingPixel.setCreatedAt(LocalDateTime.now());
+        }
+        trackingPixel.prepareColumns();
+        userAgentService.classify(trackingPixel);
+        try {
+            long sequence = segmentLog.append(HitRecordCodec.encode(trackingPixel));
+            if (properties.isAwaitSync() && !segmentLog.awaitSync(sequence)) {
+                return drop();
+            }
+        } catch (IOException ex) {
+            log.error("Failed to append a hit to the write-ahead log.", ex);
+            return drop();
+        } catch (InterruptedException ex) {
+            // The hit is already logged and survives a crash of the process.
+            Thread.currentThread().interrupt();
+        }
+        acceptedCounter.increment();
+        for (IHitListener hitListener : hitListeners) {
+            hitListener.onHit(trackingPixel);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of logged hits not yet stored in the database.
+     *
+     * @return the number of pending hits
+     */
+    @Override
+    public int getPendingCount() {
+        return (int) Math.min(Integer.MAX_VALUE, segmentLog.getLastSequence() - checkpoint);
+    }
+
+    /**
+     * Returns the number of hits that could not be logged.
+     *
+     * @return the number of dropped hits
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    private boolean drop() {
+        droppedCount.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Flushes appended records every sync interval until stopped.
+     */
+    private void syncLoop() {
+        long intervalNanos = properties.getSyncInterval().toNanos();
+        while (running) {
+            LockSupport.parkNanos(intervalNanos);
+            try {
+                segmentLog.force();
+            } catch (Exception ex) {
+                log.error("Failed to sync the write-ahead log.", ex);
+            }
+        }
+    }
+
+    /**
+     * Writes logged hits to the database in batches, advancing the checkpoint with each batch.
+     */
+    private void replayLoop() {
+        while (running && !loadCheckpoint()) {
+            pause(properties.getRetryInterval().toNanos());
+        }
+        int batchSize = ingestionProperties.getBatchSize();
+        while (running) {
+            long from = Math.max(checkpoint, segmentLog.getFirstSequence() - 1) + 1;
+            List<byte[]> records = segmentLog.read(from, batchSize);
+            if (records.isEmpty()) {
+                pause(ingestionProperties.getFlushInterval().toNanos());
+                continue;
+            }
+            long last = from + records.size() - 1;
+            batchSizes.record(records.size());
+            long start = System.nanoTime();
+            try {
+                write(records, last);
+                batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            } catch (Exception ex) {
+                failedCounter.increment();
+                log.warn("Failed to replay {} logged hits, will retry.", records.size(), ex);
+                pause(properties.getRetryInterval().toNanos());
+                continue;
+            }
+            checkpoint = last;
+            try {
+                writeLocalCheckpoint(last);
+                segmentLog.deleteBefore(last + 1);
+            } catch (IOException ex) {
+                log.warn("Failed to clean up the write-ahead log.", ex);
+            }
+        }
+    }
+
+    private void write(List<byte[]> records, long lastSequence) {
+        List<TrackingPixel> hits = new ArrayList<>(records.size());
+        for (byte[] record : records) {
+            hits.add(HitRecordCodec.decode(record));
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            trackingPixelWriter.writeAll(hits);
+            walCheckpointRepository.save(new WalCheckpoint(LOG_NAME, lastSequence));
+        });
+    }
+
+    /**
+     * Reads the checkpoint stored with the hits. The local copy is used when the database has none,
+     * for example after it was recreated.
+     *
+     * @return {@code true} once the checkpoint is known
+     */
+    private boolean loadCheckpoint() {
+        try {
+            walCheckpointRepository.findById(LOG_NAME)
+                    .ifPresent(stored -> checkpoint = stored.getLastSequence());
+            return true;
+        } catch (Exception ex) {
+            log.warn("Failed to read the write-ahead log checkpoint, will retry.", ex);
+            return false;
+        }
+    }
+
+    private long readLocalCheckpoint() throws IOException {
+        Path file = directory.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        return Long.parseLong(Files.readString(file, StandardCharsets.US_ASCII).trim());
+    }
+
+    private void writeLocalCheckpoint(long sequence) throws IOException {
+        Path temporary = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        Files.writeString(temporary, Long.toString(sequence), StandardCharsets.US_ASCII);
+        Files.move(temporary, directory.resolve(CHECKPOINT_FILE), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void pause(long nanos) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
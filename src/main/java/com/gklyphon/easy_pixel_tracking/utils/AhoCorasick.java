@@ -0,0 +1,168 @@
+package com.gklyphon.easy_pixel_tracking.utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Aho-Corasick automaton that finds every occurrence of a fixed set of ASCII patterns in one pass over a text,
+ * ignoring ASCII case.
+ *
+ * <p>The failure links are compiled into a complete transition table, so each character of the text costs one
+ * array read whatever the number of patterns. Characters are first mapped to classes: every character that occurs in
+ * no pattern shares class 0, which keeps the table small. Callers drive the automaton themselves with
+ * {@link #next(int, char)} and {@link #matches(int)}, so a search allocates nothing. States are offsets into the
+ * table, negated when some pattern ends there, so the common step is one lookup and one sign test.</p>
+ *
+ * <p>Immutable and thread-safe once built.</p>
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+public final class AhoCorasick {
+
+    /**
+     * State before any character has been read.
+     */
+    public static final int ROOT = 0;
+
+    private static final int ASCII = 128;
+
+    private final byte[] classes = new byte[ASCII];
+    private final int alphabet;
+    private final int[] transitions;
+    private final int[][] outputs;
+
+    /**
+     * Compiles the automaton.
+     *
+     * @param patterns non-empty ASCII patterns; a pattern may be listed more than once
+     * @throws IllegalArgumentException if a pattern is empty or not ASCII
+     */
+    public AhoCorasick(List<String> patterns) {
+        int classCount = 1;
+        for (String pattern : patterns) {
+            if (pattern.isEmpty()) {
+                throw new IllegalArgumentException("Empty pattern");
+            }
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = pattern.charAt(i);
+                if (c >= ASCII) {
+                    throw new IllegalArgumentException("Pattern is not ASCII: " + pattern);
+                }
+                char lower = toLower(c);
+                if (classes[lower] == 0) {
+                    classes[lower] = (byte) classCount;
+                    classes[Character.toUpperCase(lower)] = (byte) classCount;
+                    classCount++;
+                }
+            }
+        }
+        if (classCount > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many distinct pattern characters");
+        }
+        this.alphabet = classCount;
+
+        List<int[]> trie = new ArrayList<>();
+        List<List<Integer>> ends = new ArrayList<>();
+        trie.add(newRow());
+        ends.add(new ArrayList<>());
+        for (int index = 0; index < patterns.size(); index++) {
+            String pattern = patterns.get(index);
+            int state = ROOT;
+            for (int i = 0; i < pattern.length(); i++) {
+                int c = classes[pattern.charAt(i)];
+                if (trie.get(state)[c] < 0) {
+                    trie.get(state)[c] = trie.size();
+                    trie.add(newRow());
+                    ends.add(new ArrayList<>());
+                }
+                state = trie.get(state)[c];
+            }
+            ends.get(state).add(index);
+        }
+
+        int states = trie.size();
+        int[] table = new int[states * alphabet];
+        this.outputs = new int[states][];
+        int[] fail = new int[states];
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int c = 0; c < alphabet; c++) {
+            int child = trie.get(ROOT)[c];
+            table[c] = child < 0 ? ROOT : child;
+            if (child > 0) {
+                queue.add(child);
+            }
+        }
+        outputs[ROOT] = toArray(ends.get(ROOT));
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            List<Integer> matched = ends.get(state);
+            if (outputs[fail[state]] != null) {
+                for (int index : outputs[fail[state]]) {
+                    matched.add(index);
+                }
+            }
+            outputs[state] = toArray(matched);
+            for (int c = 0; c < alphabet; c++) {
+                int child = trie.get(state)[c];
+                if (child < 0) {
+                    table[state * alphabet + c] = table[fail[state] * alphabet + c];
+                } else {
+                    fail[child] = table[fail[state] * alphabet + c];
+                    table[state * alphabet + c] = child;
+                    queue.add(child);
+                }
+            }
+        }
+        for (int i = 0; i < table.length; i++) {
+            int target = table[i];
+            table[i] = outputs[target] == null ? target * alphabet : ~(target * alphabet);
+        }
+        this.transitions = table;
+    }
+
+    /**
+     * Advances the automaton by one character of the text.
+     *
+     * @param state the current state, {@link #ROOT} at the start of the text
+     * @param c     the next character
+     * @return the new state, negative if some pattern ends at this character
+     */
+    public int next(int state, char c) {
+        return c < ASCII ? transitions[(state < 0 ? ~state : state) + classes[c]] : ROOT;
+    }
+
+    /**
+     * Lists the patterns that end at the character which led to a state.
+     *
+     * @param state a state returned by {@link #next(int, char)}
+     * @return indexes into the pattern list, or null if no pattern ends here
+     */
+    public int[] matches(int state) {
+        return state < 0 ? outputs[~state / alphabet] : null;
+    }
+
+    /**
+     * @return the number of states, a measure of the size of the transition table
+     */
+    public int getStateCount() {
+        return outputs.length;
+    }
+
+    private int[] newRow() {
+        int[] row = new int[alphabet];
+        Arrays.fill(row, -1);
+        return row;
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        return values.isEmpty() ? null : values.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static char toLower(char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+}
@@ -0,0 +1,265 @@
+package com.gklyphon.easy_pixel_tracking.utils;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.gklyphon.easy_pixel_tracking.models.BatchFormat;
+import com.gklyphon.easy_pixel_tracking.models.TrackingPixel;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+
+/**
+ * Reads the records of a bulk ingestion batch one at a time, so a batch of any length is decoded in constant memory.
+ *
+ * <p>NDJSON records are JSON objects, one per line, with the string fields {@code createdAt}, {@code ip},
+ * {@code userAgent}, {@code referer}, {@code campaign} and {@code recipient}. Any of them may be missing or null;
+ * other fields are ignored. Blank lines are skipped. {@code createdAt} is an ISO date-time, converted to the server
+ * time zone when it has an offset.</p>
+ *
+ * <p>Binary records are an unsigned 16-bit big-endian length followed by that many bytes: the creation time as
+ * 64-bit epoch milliseconds (0 when unknown), then the IP, user agent and referer, optionally followed by the
+ * campaign and recipient, each an unsigned 16-bit length ({@code 0xFFFF} for null) followed by UTF-8 bytes.</p>
+ *
+ * <p>A malformed record is skipped and reported by {@link #next()} throwing an {@link IllegalArgumentException};
+ * the following call reads the next record. Not thread-safe.</p>
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+public final class BatchReader {
+
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final int NULL_LENGTH = 0xFFFF;
+
+    private final BatchFormat format;
+    private final InputStream in;
+    private final byte[] record;
+    private final byte[] readBuffer = new byte[READ_BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private boolean end;
+
+    /**
+     * @param format        the format of the input
+     * @param in            the input, read up to its end
+     * @param maxRecordSize largest record accepted, in bytes
+     */
+    public BatchReader(BatchFormat format, InputStream in, int maxRecordSize) {
+        this.format = format;
+        this.in = in;
+        this.record = new byte[maxRecordSize];
+    }
+
+    /**
+     * Reads the next record.
+     *
+     * @return a new, unsaved hit with the fields of the record, or null at the end of the input
+     * @throws IllegalArgumentException if the record is malformed; it has been skipped
+     * @throws IOException              if the input cannot be read
+     */
+    public TrackingPixel next() throws IOException {
+        return format == BatchFormat.BINARY ? nextBinary() : nextLine();
+    }
+
+    private TrackingPixel nextLine() throws IOException {
+        while (!end) {
+            int length = 0;
+            boolean overflow = false;
+            int b;
+            while ((b = read()) >= 0 && b != '\n') {
+                if (length < record.length) {
+                    record[length++] = (byte) b;
+                } else {
+                    overflow = true;
+                }
+            }
+            end = b < 0;
+            if (overflow) {
+                throw new IllegalArgumentException("Record is longer than " + record.length + " bytes");
+            }
+            if (!isBlank(length)) {
+                return parseJson(length);
+            }
+        }
+        return null;
+    }
+
+    private TrackingPixel parseJson(int length) throws IOException {
+        LocalDateTime createdAt = null;
+        String ip = null;
+        String userAgent = null;
+        String referer = null;
+        String campaign = null;
+        String recipient = null;
+        try (JsonParser parser = JSON.createParser(record, 0, length)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("Record is not a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "createdAt" -> {
+                        String value = text(parser, field);
+                        createdAt = value == null ? null : parseDateTime(value);
+                    }
+                    case "ip" -> ip = text(parser, field);
+                    case "userAgent" -> userAgent = text(parser, field);
+                    case "referer" -> referer = text(parser, field);
+                    case "campaign" -> campaign = text(parser, field);
+                    case "recipient" -> recipient = text(parser, field);
+                    default -> parser.skipChildren();
+                }
+            }
+            if (parser.nextToken() != null) {
+                throw new IllegalArgumentException("Unexpected content after the JSON object");
+            }
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("Malformed JSON: " + ex.getOriginalMessage(), ex);
+        }
+        return build(createdAt, ip, userAgent, referer, campaign, recipient);
+    }
+
+    private static String text(JsonParser parser, String field) throws IOException {
+        return switch (parser.currentToken()) {
+            case VALUE_NULL -> null;
+            case VALUE_STRING -> parser.getText();
+            default -> throw new IllegalArgumentException(field + ": expected a string");
+        };
+    }
+
+    private static LocalDateTime parseDateTime(String value) {
+        try {
+            TemporalAccessor parsed = DateTimeFormatter.ISO_DATE_TIME.parse(value);
+            if (parsed.isSupported(ChronoField.OFFSET_SECONDS)) {
+                return OffsetDateTime.from(parsed).atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+            }
+            return LocalDateTime.from(parsed);
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException("createdAt: not an ISO date-time", ex);
+        }
+    }
+
+    private TrackingPixel nextBinary() throws IOException {
+        int first = read();
+        if (first < 0) {
+            end = true;
+            return null;
+        }
+        int second = read();
+        if (second < 0) {
+            end = true;
+            throw new IllegalArgumentException("Truncated record length");
+        }
+        int length = first << 8 | second;
+        if (length > record.length) {
+            skip(length);
+            throw new IllegalArgumentException("Record is longer than " + record.length + " bytes");
+        }
+        for (int i = 0; i < length; i++) {
+            int b = read();
+            if (b < 0) {
+                end = true;
+                throw new IllegalArgumentException("Truncated record");
+            }
+            record[i] = (byte) b;
+        }
+        if (length < Long.BYTES) {
+            throw new IllegalArgumentException("Record is shorter than its timestamp");
+        }
+        long millis = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            millis = millis << 8 | (record[i] & 0xFF);
+        }
+        int[] offset = {Long.BYTES};
+        String ip = binaryString(length, offset, "ip");
+        String userAgent = binaryString(length, offset, "userAgent");
+        String referer = binaryString(length, offset, "referer");
+        String campaign = null;
+        String recipient = null;
+        if (offset[0] != length) {
+            campaign = binaryString(length, offset, "campaign");
+            recipient = binaryString(length, offset, "recipient");
+        }
+        if (offset[0] != length) {
+            throw new IllegalArgumentException("Unexpected bytes after the recipient");
+        }
+        LocalDateTime createdAt = millis == 0 ? null
+                : LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+        return build(createdAt, ip, userAgent, referer, campaign, recipient);
+    }
+
+    private String binaryString(int recordLength, int[] offset, String field) {
+        int at = offset[0];
+        if (at + 2 > recordLength) {
+            throw new IllegalArgumentException(field + ": missing");
+        }
+        int length = (record[at] & 0xFF) << 8 | (record[at + 1] & 0xFF);
+        at += 2;
+        if (length == NULL_LENGTH) {
+            offset[0] = at;
+            return null;
+        }
+        if (at + length > recordLength) {
+            throw new IllegalArgumentException(field + ": longer than the record");
+        }
+        offset[0] = at + length;
+        return new String(record, at, length, StandardCharsets.UTF_8);
+    }
+
+    private static TrackingPixel build(LocalDateTime createdAt, String ip, String userAgent, String referer,
+                                       String campaign, String recipient) {
+        TrackingPixel trackingPixel = new TrackingPixel.Builder()
+                .ip(ip)
+                .userAgent(userAgent)
+                .referer(referer)
+                .campaign(campaign)
+                .recipient(recipient)
+                .build();
+        trackingPixel.setCreatedAt(createdAt);
+        return trackingPixel;
+    }
+
+    private boolean isBlank(int length) {
+        for (int i = 0; i < length; i++) {
+            byte b = record[i];
+            if (b != ' ' && b != '\t' && b != '\r') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int read() throws IOException {
+        if (position == limit) {
+            limit = in.read(readBuffer, 0, readBuffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return readBuffer[position++] & 0xFF;
+    }
+
+    private void skip(int length) throws IOException {
+        for (int i = 0; i < length; i++) {
+            if (read() < 0) {
+                end = true;
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.gklyphon.easy_pixel_tracking.utils;
+
+import java.util.Arrays;
+
+/**
+ * Bloom filter over 64-bit hashes, such as those produced by {@link Hashing}.
+ *
+ * <p>Answers whether a value may have been added: never a false negative, and a false positive
+ * with roughly the probability the filter was sized for. The {@code k} bit positions are derived from
+ * a single hash by double hashing, so adding or testing a value costs one hash and {@code k} multiplies.</p>
+ *
+ * <p>Not thread-safe.</p>
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+public final class BloomFilter {
+
+    private final long[] bits;
+    private final int numHashes;
+    private final long numBits;
+
+    /**
+     * Creates an empty filter sized for the expected number of distinct values.
+     *
+     * @param expectedInsertions number of distinct values that will be added
+     * @param falsePositiveRate  acceptable probability of a false positive, between 0 and 1
+     */
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False positive rate must be between 0 and 1: " + falsePositiveRate);
+        }
+        long n = Math.max(1, expectedInsertions);
+        long m = Math.max(64, (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2))));
+        this.bits = new long[(int) Math.min(Integer.MAX_VALUE - 8, (m + 63) >>> 6)];
+        this.numBits = (long) bits.length << 6;
+        this.numHashes = Math.max(1, (int) Math.round((double) numBits / n * Math.log(2)));
+    }
+
+    /**
+     * Restores a filter from {@link #getNumHashes()} and {@link #toLongArray()}.
+     *
+     * @param numHashes number of bit positions per value
+     * @param bits      the bit array
+     */
+    public BloomFilter(int numHashes, long[] bits) {
+        if (numHashes < 1 || bits.length == 0) {
+            throw new IllegalArgumentException("Invalid bloom filter: " + numHashes + " hashes, " + bits.length + " words");
+        }
+        this.bits = bits.clone();
+        this.numBits = (long) bits.length << 6;
+        this.numHashes = numHashes;
+    }
+
+    /**
+     * Adds a value.
+     *
+     * @param hash 64-bit hash of the value
+     */
+    public void put(long hash) {
+        long h1 = hash;
+        long h2 = Hashing.mix64(hash) | 1;
+        for (int i = 0; i < numHashes; i++) {
+            long bit = Long.remainderUnsigned(h1, numBits);
+            bits[(int) (bit >>> 6)] |= 1L << bit;
+            h1 += h2;
+        }
+    }
+
+    /**
+     * Tests whether a value may have been added.
+     *
+     * @param hash 64-bit hash of the value
+     * @return false if the value was certainly never added
+     */
+    public boolean mightContain(long hash) {
+        long h1 = hash;
+        long h2 = Hashing.mix64(hash) | 1;
+        for (int i = 0; i < numHashes; i++) {
+            long bit = Long.remainderUnsigned(h1, numBits);
+            if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+            h1 += h2;
+        }
+        return true;
+    }
+
+    /**
+     * Clears every bit, leaving the filter as if newly created.
+     */
+    public void clear() {
+        Arrays.fill(bits, 0);
+    }
+
+    public int getNumHashes() {
+        return numHashes;
+    }
+
+    /**
+     * Returns a copy of the bit array.
+     *
+     * @return the bits, 64 per word
+     */
+    public long[] toLongArray() {
+        return bits.clone();
+    }
+}
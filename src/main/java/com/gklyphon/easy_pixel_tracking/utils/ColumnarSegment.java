@@ -0,0 +1,834 @@
+package com.gklyphon.easy_pixel_tracking.utils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Immutable file of tracking pixels stored column by column.
+ *
+ * <p>Rows are kept in ascending order of creation time and id. Each column is encoded and then deflated on its own:</p>
+ * <ul>
+ *     <li>ids and creation times as zigzag varint deltas from the previous row, usually one or two bytes;</li>
+ *     <li>update times as the varint distance from the creation time, usually zero;</li>
+ *     <li>IPs, user agents, referers, campaigns and recipients through a per-segment dictionary, one varint code
+ *     per row.</li>
+ * </ul>
+ *
+ * <p>The header holds the row count, the id and creation time ranges, the range of the IP addresses in binary
+ * form and one {@link BloomFilter} per string column, so a reader can rule a segment out without reading any
+ * column. Every column carries a CRC32C
+ * and is read on its own, so a query reads only the columns it needs.</p>
+ *
+ * <p>Times are stored as microseconds of the local date-time taken as UTC, the precision of the database column.</p>
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+public final class ColumnarSegment {
+
+    /**
+     * Columns holding strings, each dictionary-encoded and covered by a bloom filter.
+     */
+    public enum StringColumn {
+        IP, USER_AGENT, REFERER, CAMPAIGN, RECIPIENT
+    }
+
+    private static final int MAGIC = 0x45505441;
+    private static final int VERSION = 1;
+    private static final int ID = 0;
+    private static final int CREATED_AT = 1;
+    private static final int UPDATED_AT = 2;
+    private static final int FIRST_STRING_COLUMN = 3;
+    private static final int COLUMN_COUNT = FIRST_STRING_COLUMN + StringColumn.values().length;
+
+    private final Path file;
+    private final int rowCount;
+    private final long minId;
+    private final long maxId;
+    private final long minCreatedAt;
+    private final long maxCreatedAt;
+    private final byte[] minAddress;
+    private final byte[] maxAddress;
+    private final BloomFilter[] bloomFilters;
+    private final long[] columnOffsets;
+    private final int[] rawLengths;
+    private final int[] compressedLengths;
+    private final int[] checksums;
+
+    private ColumnarSegment(Path file, int rowCount, long minId, long maxId, long minCreatedAt, long maxCreatedAt,
+                            byte[] minAddress, byte[] maxAddress, BloomFilter[] bloomFilters, long headerLength,
+                            int[] rawLengths, int[] compressedLengths, int[] checksums) {
+        this.file = file;
+        this.rowCount = rowCount;
+        this.minId = minId;
+        this.maxId = maxId;
+        this.minCreatedAt = minCreatedAt;
+        this.maxCreatedAt = maxCreatedAt;
+        this.minAddress = minAddress;
+        this.maxAddress = maxAddress;
+        this.bloomFilters = bloomFilters;
+        this.rawLengths = rawLengths;
+        this.compressedLengths = compressedLengths;
+        this.checksums = checksums;
+        this.columnOffsets = new long[compressedLengths.length];
+        long offset = headerLength;
+        for (int column = 0; column < columnOffsets.length; column++) {
+            columnOffsets[column] = offset;
+            offset += compressedLengths[column];
+        }
+    }
+
+    /**
+     * Reads the header of a segment file. No column is read.
+     *
+     * @param file the segment file
+     * @return the segment
+     * @throws IOException if the file cannot be read or is not a segment
+     */
+    public static ColumnarSegment open(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a columnar segment: " + file);
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported columnar segment version " + version + ": " + file);
+            }
+            long headerLength = 2 * Integer.BYTES;
+            int rowCount = in.readInt();
+            long minId = in.readLong();
+            long maxId = in.readLong();
+            long minCreatedAt = in.readLong();
+            long maxCreatedAt = in.readLong();
+            headerLength += Integer.BYTES + 4 * Long.BYTES;
+            byte[] minAddress = null;
+            byte[] maxAddress = null;
+            // The length of each bound: 0 when no row has an IP literal.
+            int addressLength = in.readUnsignedByte();
+            headerLength++;
+            if (addressLength > 0) {
+                minAddress = in.readNBytes(addressLength);
+                maxAddress = in.readNBytes(addressLength);
+                headerLength += 2L * addressLength;
+            }
+            BloomFilter[] bloomFilters = new BloomFilter[StringColumn.values().length];
+            for (int i = 0; i < bloomFilters.length; i++) {
+                int numHashes = in.readInt();
+                long[] bits = new long[in.readInt()];
+                for (int word = 0; word < bits.length; word++) {
+                    bits[word] = in.readLong();
+                }
+                bloomFilters[i] = new BloomFilter(numHashes, bits);
+                headerLength += 2 * Integer.BYTES + (long) bits.length * Long.BYTES;
+            }
+            int[] rawLengths = new int[COLUMN_COUNT];
+            int[] compressedLengths = new int[COLUMN_COUNT];
+            int[] checksums = new int[COLUMN_COUNT];
+            for (int column = 0; column < COLUMN_COUNT; column++) {
+                rawLengths[column] = in.readInt();
+                compressedLengths[column] = in.readInt();
+                checksums[column] = in.readInt();
+                headerLength += 3 * Integer.BYTES;
+            }
+            return new ColumnarSegment(file, rowCount, minId, maxId, minCreatedAt, maxCreatedAt, minAddress, maxAddress,
+                    bloomFilters, headerLength, rawLengths, compressedLengths, checksums);
+        }
+    }
+
+    /**
+     * Creates a reader for the columns of this segment. Each column is read and decoded on first use.
+     *
+     * @return a reader, thread-safe, so it can be shared and cached
+     */
+    public Reader reader() {
+        return new Reader();
+    }
+
+    /**
+     * Tests whether a string column may contain a value.
+     *
+     * @param column the column
+     * @param value  the value, not null
+     * @return false if no row of this segment has the value
+     */
+    public boolean mightContain(StringColumn column, String value) {
+        return bloomFilters[column.ordinal()].mightContain(Hashing.hash64(value));
+    }
+
+    /**
+     * Tests whether the IP column may hold an address within a range, comparing the binary bounds in the header.
+     *
+     * @param low  the lowest address of the range, in the form of {@link IpAddresses#parse}
+     * @param high the highest address of the range
+     * @return false if no row of this segment has an address within the range
+     */
+    public boolean mightContainAddressBetween(byte[] low, byte[] high) {
+        return minAddress != null && Arrays.compareUnsigned(maxAddress, low) >= 0
+                && Arrays.compareUnsigned(minAddress, high) <= 0;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public long getMinId() {
+        return minId;
+    }
+
+    public long getMaxId() {
+        return maxId;
+    }
+
+    /**
+     * @return the earliest creation time, in microseconds
+     */
+    public long getMinCreatedAt() {
+        return minCreatedAt;
+    }
+
+    /**
+     * @return the latest creation time, in microseconds
+     */
+    public long getMaxCreatedAt() {
+        return maxCreatedAt;
+    }
+
+    /**
+     * Converts a local date-time to the microseconds stored in segments.
+     *
+     * @param time the date-time
+     * @return microseconds since the epoch, taking the date-time as UTC
+     */
+    public static long toMicros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+
+    /**
+     * Converts microseconds stored in segments back to a local date-time.
+     *
+     * @param micros microseconds since the epoch
+     * @return the date-time
+     */
+    public static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+
+    /**
+     * Reads the columns of a segment. Decoded columns are kept for the lifetime of the reader; a column
+     * is decoded once even when several threads ask for it at the same time.
+     */
+    public final class Reader {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile long[] ids;
+        private volatile long[] createdAt;
+        private volatile long[] updatedAt;
+        private final Dictionary[] dictionaries = new Dictionary[StringColumn.values().length];
+
+        private Reader() {
+        }
+
+        /**
+         * @return the id of every row
+         */
+        public long[] ids() throws IOException {
+            long[] values = ids;
+            if (values == null) {
+                lock.lock();
+                try {
+                    if (ids == null) {
+                        ids = readDeltas(ID);
+                    }
+                    values = ids;
+                } finally {
+                    lock.unlock();
+                }
+            }
+            return values;
+        }
+
+        /**
+         * @return the creation time of every row, in microseconds, ascending
+         */
+        public long[] createdAt() throws IOException {
+            long[] values = createdAt;
+            if (values == null) {
+                lock.lock();
+                try {
+                    if (createdAt == null) {
+                        createdAt = readDeltas(CREATED_AT);
+                    }
+                    values = createdAt;
+                } finally {
+                    lock.unlock();
+                }
+            }
+            return values;
+        }
+
+        /**
+         * @return the update time of every row, in microseconds
+         */
+        public long[] updatedAt() throws IOException {
+            long[] values = updatedAt;
+            if (values == null) {
+                long[] created = createdAt();
+                lock.lock();
+                try {
+                    if (updatedAt == null) {
+                        VarIntReader in = new VarIntReader(readColumn(UPDATED_AT));
+                        long[] decoded = new long[rowCount];
+                        for (int row = 0; row < rowCount; row++) {
+                            decoded[row] = created[row] + in.readZigZag();
+                        }
+                        updatedAt = decoded;
+                    }
+                    values = updatedAt;
+                } finally {
+                    lock.unlock();
+                }
+            }
+            return values;
+        }
+
+        /**
+         * @param column the string column
+         * @return the dictionary and per-row codes of the column
+         */
+        public Dictionary column(StringColumn column) throws IOException {
+            int index = column.ordinal();
+            lock.lock();
+            try {
+                if (dictionaries[index] == null) {
+                    VarIntReader in = new VarIntReader(readColumn(FIRST_STRING_COLUMN + index));
+                    String[] values = new String[(int) in.readVarLong() + 1];
+                    for (int code = 1; code < values.length; code++) {
+                        values[code] = in.readString();
+                    }
+                    int[] codes = new int[rowCount];
+                    for (int row = 0; row < rowCount; row++) {
+                        codes[row] = (int) in.readVarLong();
+                    }
+                    dictionaries[index] = new Dictionary(values, codes);
+                }
+                return dictionaries[index];
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private long[] readDeltas(int column) throws IOException {
+            VarIntReader in = new VarIntReader(readColumn(column));
+            long[] values = new long[rowCount];
+            long previous = 0;
+            for (int row = 0; row < rowCount; row++) {
+                previous += in.readZigZag();
+                values[row] = previous;
+            }
+            return values;
+        }
+
+        private byte[] readColumn(int column) throws IOException {
+            ByteBuffer compressed = ByteBuffer.allocate(compressedLengths[column]);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                long position = columnOffsets[column];
+                while (compressed.hasRemaining()) {
+                    if (channel.read(compressed, position + compressed.position()) < 0) {
+                        throw new IOException("Truncated columnar segment: " + file);
+                    }
+                }
+            }
+            CRC32C crc = new CRC32C();
+            crc.update(compressed.array());
+            if ((int) crc.getValue() != checksums[column]) {
+                throw new IOException("Corrupt column " + column + " in " + file);
+            }
+            Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(compressed.array());
+                byte[] raw = new byte[rawLengths[column]];
+                int length = 0;
+                while (length < raw.length && !inflater.finished()) {
+                    length += inflater.inflate(raw, length, raw.length - length);
+                    if (inflater.needsInput() && length < raw.length) {
+                        throw new IOException("Truncated column " + column + " in " + file);
+                    }
+                }
+                return raw;
+            } catch (DataFormatException ex) {
+                throw new IOException("Corrupt column " + column + " in " + file, ex);
+            } finally {
+                inflater.end();
+            }
+        }
+    }
+
+    /**
+     * A dictionary-encoded string column. Code 0 stands for null.
+     */
+    public static final class Dictionary {
+
+        private final String[] values;
+        private final int[] codes;
+        private volatile Map<String, Integer> index;
+        private volatile AddressIndex addressIndex;
+
+        private Dictionary(String[] values, int[] codes) {
+            this.values = values;
+            this.codes = codes;
+        }
+
+        /**
+         * Looks up the code of a value.
+         *
+         * @param value the value, not null
+         * @return its code, or -1 if no row has the value
+         */
+        public int codeOf(String value) {
+            Map<String, Integer> codesByValue = index;
+            if (codesByValue == null) {
+                // Built on first lookup; a race only builds the same map twice.
+                codesByValue = HashMap.newHashMap(values.length);
+                for (int code = 1; code < values.length; code++) {
+                    codesByValue.put(values[code], code);
+                }
+                index = codesByValue;
+            }
+            return codesByValue.getOrDefault(value, -1);
+        }
+
+        /**
+         * Looks up the codes of the values that are IP addresses within a range. The values are parsed once,
+         * on first lookup, and kept sorted in binary form, so each lookup is a binary search.
+         *
+         * @param low  the lowest address of the range, in the form of {@link IpAddresses#parse}
+         * @param high the highest address of the range
+         * @return the codes, in ascending order of address
+         */
+        public int[] codesOfAddressesBetween(byte[] low, byte[] high) {
+            AddressIndex sorted = addressIndex;
+            if (sorted == null) {
+                // Built on first lookup; a race only builds the same index twice.
+                sorted = AddressIndex.of(values);
+                addressIndex = sorted;
+            }
+            return sorted.codesBetween(low, high);
+        }
+
+        /**
+         * @return the number of codes, including code 0 for null
+         */
+        public int size() {
+            return values.length;
+        }
+
+        /**
+         * @param code a code
+         * @return the value of the code, null for code 0
+         */
+        public String valueOf(int code) {
+            return values[code];
+        }
+
+        /**
+         * @param row the row index
+         * @return the code of the row
+         */
+        public int code(int row) {
+            return codes[row];
+        }
+
+        /**
+         * @param row the row index
+         * @return the value of the row, possibly null
+         */
+        public String value(int row) {
+            return values[codes[row]];
+        }
+    }
+
+    /**
+     * The values of a dictionary that are IP literals, in ascending order of their binary form.
+     */
+    private record AddressIndex(byte[][] addresses, int[] codes) {
+
+        static AddressIndex of(String[] values) {
+            List<byte[]> addresses = new ArrayList<>();
+            List<Integer> codes = new ArrayList<>();
+            for (int code = 1; code < values.length; code++) {
+                byte[] address = IpAddresses.parse(values[code]);
+                if (address != null) {
+                    addresses.add(address);
+                    codes.add(code);
+                }
+            }
+            Integer[] order = new Integer[addresses.size()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Arrays.compareUnsigned(addresses.get(a), addresses.get(b)));
+            byte[][] sortedAddresses = new byte[order.length][];
+            int[] sortedCodes = new int[order.length];
+            for (int i = 0; i < order.length; i++) {
+                sortedAddresses[i] = addresses.get(order[i]);
+                sortedCodes[i] = codes.get(order[i]);
+            }
+            return new AddressIndex(sortedAddresses, sortedCodes);
+        }
+
+        int[] codesBetween(byte[] low, byte[] high) {
+            // First address not below low; distinct values may share an address, such as "::1" and "0::1".
+            int from = 0;
+            int to = addresses.length;
+            while (from < to) {
+                int middle = (from + to) >>> 1;
+                if (Arrays.compareUnsigned(addresses[middle], low) < 0) {
+                    from = middle + 1;
+                } else {
+                    to = middle;
+                }
+            }
+            int end = from;
+            while (end < addresses.length && Arrays.compareUnsigned(addresses[end], high) <= 0) {
+                end++;
+            }
+            return Arrays.copyOfRange(codes, from, end);
+        }
+    }
+
+    /**
+     * Collects rows in ascending order of creation time and id and writes them as a segment.
+     */
+    public static final class Builder {
+
+        private long[] ids = new long[1024];
+        private long[] createdAt = new long[1024];
+        private long[] updatedAt = new long[1024];
+        private final List<Map<String, Integer>> dictionaries = new ArrayList<>();
+        private final List<int[]> codes = new ArrayList<>();
+        private int rowCount;
+
+        public Builder() {
+            for (int i = 0; i < StringColumn.values().length; i++) {
+                dictionaries.add(new HashMap<>());
+                codes.add(new int[1024]);
+            }
+        }
+
+        /**
+         * Appends a row without a campaign or recipient.
+         *
+         * @param id        the id
+         * @param createdAt creation time in microseconds, not before the previous row
+         * @param updatedAt update time in microseconds
+         * @param ip        the IP address, possibly null
+         * @param userAgent the user agent, possibly null
+         * @param referer   the referrer URL, possibly null
+         * @throws IllegalArgumentException if the row is out of order
+         */
+        public void add(long id, long createdAt, long updatedAt, String ip, String userAgent, String referer) {
+            add(id, createdAt, updatedAt, ip, userAgent, referer, null, null);
+        }
+
+        /**
+         * Appends a row.
+         *
+         * @param id        the id
+         * @param createdAt creation time in microseconds, not before the previous row
+         * @param updatedAt update time in microseconds
+         * @param ip        the IP address, possibly null
+         * @param userAgent the user agent, possibly null
+         * @param referer   the referrer URL, possibly null
+         * @param campaign  the campaign id, possibly null
+         * @param recipient the recipient token, possibly null
+         * @throws IllegalArgumentException if the row is out of order
+         */
+        public void add(long id, long createdAt, long updatedAt, String ip, String userAgent, String referer,
+                        String campaign, String recipient) {
+            if (rowCount > 0 && (createdAt < this.createdAt[rowCount - 1]
+                    || createdAt == this.createdAt[rowCount - 1] && id <= ids[rowCount - 1])) {
+                throw new IllegalArgumentException("Rows must be added in ascending order of creation time and id");
+            }
+            if (rowCount == ids.length) {
+                int capacity = rowCount * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                this.createdAt = Arrays.copyOf(this.createdAt, capacity);
+                this.updatedAt = Arrays.copyOf(this.updatedAt, capacity);
+                for (int i = 0; i < codes.size(); i++) {
+                    codes.set(i, Arrays.copyOf(codes.get(i), capacity));
+                }
+            }
+            ids[rowCount] = id;
+            this.createdAt[rowCount] = createdAt;
+            this.updatedAt[rowCount] = updatedAt;
+            encode(StringColumn.IP, ip);
+            encode(StringColumn.USER_AGENT, userAgent);
+            encode(StringColumn.REFERER, referer);
+            encode(StringColumn.CAMPAIGN, campaign);
+            encode(StringColumn.RECIPIENT, recipient);
+            rowCount++;
+        }
+
+        private void encode(StringColumn column, String value) {
+            int code = 0;
+            if (value != null) {
+                Map<String, Integer> dictionary = dictionaries.get(column.ordinal());
+                code = dictionary.computeIfAbsent(value, v -> dictionary.size() + 1);
+            }
+            codes.get(column.ordinal())[rowCount] = code;
+        }
+
+        public int getRowCount() {
+            return rowCount;
+        }
+
+        /**
+         * Writes the collected rows to a new file.
+         *
+         * @param file              the file to create, replaced if it exists
+         * @param falsePositiveRate false positive rate of the bloom filters
+         * @return the written segment
+         * @throws IOException if the file cannot be written
+         */
+        public ColumnarSegment writeTo(Path file, double falsePositiveRate) throws IOException {
+            if (rowCount == 0) {
+                throw new IllegalStateException("A segment needs at least one row");
+            }
+            byte[][] raw = new byte[COLUMN_COUNT][];
+            raw[ID] = encodeDeltas(ids);
+            raw[CREATED_AT] = encodeDeltas(createdAt);
+            VarIntWriter updated = new VarIntWriter(rowCount);
+            for (int row = 0; row < rowCount; row++) {
+                updated.writeZigZag(updatedAt[row] - createdAt[row]);
+            }
+            raw[UPDATED_AT] = updated.toByteArray();
+            BloomFilter[] bloomFilters = new BloomFilter[StringColumn.values().length];
+            for (StringColumn column : StringColumn.values()) {
+                Map<String, Integer> dictionary = dictionaries.get(column.ordinal());
+                String[] values = new String[dictionary.size()];
+                dictionary.forEach((value, code) -> values[code - 1] = value);
+                BloomFilter bloomFilter = new BloomFilter(values.length, falsePositiveRate);
+                VarIntWriter out = new VarIntWriter(rowCount * 2);
+                out.writeVarLong(values.length);
+                for (String value : values) {
+                    out.writeString(value);
+                    bloomFilter.put(Hashing.hash64(value));
+                }
+                int[] columnCodes = codes.get(column.ordinal());
+                for (int row = 0; row < rowCount; row++) {
+                    out.writeVarLong(columnCodes[row]);
+                }
+                raw[FIRST_STRING_COLUMN + column.ordinal()] = out.toByteArray();
+                bloomFilters[column.ordinal()] = bloomFilter;
+            }
+
+            byte[] minAddress = null;
+            byte[] maxAddress = null;
+            for (String value : dictionaries.get(StringColumn.IP.ordinal()).keySet()) {
+                byte[] address = IpAddresses.parse(value);
+                if (address == null) {
+                    continue;
+                }
+                if (minAddress == null || Arrays.compareUnsigned(address, minAddress) < 0) {
+                    minAddress = address;
+                }
+                if (maxAddress == null || Arrays.compareUnsigned(address, maxAddress) > 0) {
+                    maxAddress = address;
+                }
+            }
+            long minId = Long.MAX_VALUE;
+            long maxId = Long.MIN_VALUE;
+            for (int row = 0; row < rowCount; row++) {
+                minId = Math.min(minId, ids[row]);
+                maxId = Math.max(maxId, ids[row]);
+            }
+            byte[][] compressed = new byte[COLUMN_COUNT][];
+            int[] rawLengths = new int[COLUMN_COUNT];
+            int[] compressedLengths = new int[COLUMN_COUNT];
+            int[] checksums = new int[COLUMN_COUNT];
+            for (int column = 0; column < COLUMN_COUNT; column++) {
+                compressed[column] = deflate(raw[column]);
+                rawLengths[column] = raw[column].length;
+                compressedLengths[column] = compressed[column].length;
+                CRC32C crc = new CRC32C();
+                crc.update(compressed[column]);
+                checksums[column] = (int) crc.getValue();
+            }
+
+            try (OutputStream stream = new BufferedOutputStream(Files.newOutputStream(file));
+                 DataOutputStream out = new DataOutputStream(stream)) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(rowCount);
+                out.writeLong(minId);
+                out.writeLong(maxId);
+                out.writeLong(createdAt[0]);
+                out.writeLong(createdAt[rowCount - 1]);
+                if (minAddress == null) {
+                    out.writeByte(0);
+                } else {
+                    out.writeByte(minAddress.length);
+                    out.write(minAddress);
+                    out.write(maxAddress);
+                }
+                for (BloomFilter bloomFilter : bloomFilters) {
+                    long[] bits = bloomFilter.toLongArray();
+                    out.writeInt(bloomFilter.getNumHashes());
+                    out.writeInt(bits.length);
+                    for (long word : bits) {
+                        out.writeLong(word);
+                    }
+                }
+                for (int column = 0; column < COLUMN_COUNT; column++) {
+                    out.writeInt(rawLengths[column]);
+                    out.writeInt(compressedLengths[column]);
+                    out.writeInt(checksums[column]);
+                }
+                for (byte[] column : compressed) {
+                    out.write(column);
+                }
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            return open(file);
+        }
+
+        private byte[] encodeDeltas(long[] values) {
+            VarIntWriter out = new VarIntWriter(rowCount * 2);
+            long previous = 0;
+            for (int row = 0; row < rowCount; row++) {
+                out.writeZigZag(values[row] - previous);
+                previous = values[row];
+            }
+            return out.toByteArray();
+        }
+
+        private static byte[] deflate(byte[] raw) {
+            Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+            try {
+                deflater.setInput(raw);
+                deflater.finish();
+                byte[] buffer = new byte[Math.max(64, raw.length / 2)];
+                int length = 0;
+                while (!deflater.finished()) {
+                    if (length == buffer.length) {
+                        buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                    }
+                    length += deflater.deflate(buffer, length, buffer.length - length);
+                }
+                return Arrays.copyOf(buffer, length);
+            } finally {
+                deflater.end();
+            }
+        }
+    }
+
+    private static final class VarIntWriter {
+
+        private byte[] buffer;
+        private int length;
+
+        VarIntWriter(int capacity) {
+            this.buffer = new byte[Math.max(16, capacity)];
+        }
+
+        void writeZigZag(long value) {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        void writeVarLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[length++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[length++] = (byte) value;
+        }
+
+        void writeString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length);
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, length, bytes.length);
+            length += bytes.length;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, length);
+        }
+
+        private void ensureCapacity(int extra) {
+            if (length + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + extra));
+            }
+        }
+    }
+
+    private static final class VarIntReader {
+
+        private final byte[] buffer;
+        private int position;
+
+        VarIntReader(byte[] buffer) {
+            this.buffer = buffer;
+        }
+
+        long readZigZag() throws IOException {
+            long value = readVarLong();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        long readVarLong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (position == buffer.length) {
+                    throw new IOException("Truncated varint");
+                }
+                byte b = buffer[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed varint");
+        }
+
+        String readString() throws IOException {
+            int length = (int) readVarLong();
+            if (length < 0 || position + length > buffer.length) {
+                throw new IOException("Truncated string");
+            }
+            String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.gklyphon.easy_pixel_tracking.utils;
+
+import java.util.Arrays;
+
+/**
+ * Count-Min sketch over 64-bit hashes.
+ *
+ * <p>With width {@code w} and depth {@code d}, an estimate never undercounts and overcounts by
+ * at most {@code (e / w) * total} with probability {@code 1 - e^-d}. Sketches of the same shape
+ * can be merged by adding their counters. Not thread-safe.</p>
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+public final class CountMinSketch {
+
+    private final int width;
+    private final int depth;
+    private final long[] counters;
+    private long total;
+
+    /**
+     * Creates an empty sketch.
+     *
+     * @param width number of counters per row
+     * @param depth number of rows
+     */
+    public CountMinSketch(int width, int depth) {
+        if (width < 1 || depth < 1) {
+            throw new IllegalArgumentException("Width and depth must be positive");
+        }
+        this.width = width;
+        this.depth = depth;
+        this.counters = new long[width * depth];
+    }
+
+    /**
+     * Adds occurrences of a value.
+     *
+     * @param hash  the value's 64-bit hash
+     * @param count the number of occurrences
+     */
+    public void add(long hash, long count) {
+        long second = Hashing.mix64(hash);
+        for (int row = 0; row < depth; row++) {
+            counters[row * width + column(hash, second, row)] += count;
+        }
+        total += count;
+    }
+
+    /**
+     * Estimates the number of occurrences of a value.
+     *
+     * @param hash the value's 64-bit hash
+     * @return an estimate that is never below the true count
+     */
+    public long estimate(long hash) {
+        long second = Hashing.mix64(hash);
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, counters[row * width + column(hash, second, row)]);
+        }
+        return min;
+    }
+
+    /**
+     * Adds the counters of another sketch of the same shape to this one.
+     *
+     * @param other the sketch to merge
+     */
+    public void merge(CountMinSketch other) {
+        if (other.width != width || other.depth != depth) {
+            throw new IllegalArgumentException("Cannot merge sketches of different shapes");
+        }
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] += other.counters[i];
+        }
+        total += other.total;
+    }
+
+    /**
+     * Resets all counters to zero.
+     */
+    public void clear() {
+        Arrays.fill(counters, 0L);
+        total = 0;
+    }
+
+    /**
+     * Returns the maximum overcount of an estimate, with probability {@link #getConfidence()}.
+     *
+     * @return the error bound in occurrences
+     */
+    public long getErrorBound() {
+        return (long) Math.ceil(Math.E / width * total);
+    }
+
+    /**
+     * Returns the probability that an estimate is within {@link #getErrorBound()}.
+     *
+     * @return the confidence, between 0 and 1
+     */
+    public double getConfidence() {
+        return 1 - Math.exp(-depth);
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    private int column(long first, long second, int row) {
+        // Double hashing derives the row hashes from two independent 64-bit hashes.
+        return (int) Long.remainderUnsigned(first + row * second, width);
+    }
+}
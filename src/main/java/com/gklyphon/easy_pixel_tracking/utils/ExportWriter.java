@@ -0,0 +1,139 @@
+package com.gklyphon.easy_pixel_tracking.utils;
+
+import com.gklyphon.easy_pixel_tracking.models.ExportFormat;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Writes exported tracking pixels as NDJSON lines or CSV records.
+ *
+ * <p>Fields are escaped and written straight into the underlying writer, with no intermediate
+ * object tree or per-row strings, so an export costs the same per row however many rows it has.
+ * Both formats use the property names of the {@code /tracking} JSON responses.</p>
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+public final class ExportWriter {
+
+    private static final String CSV_HEADER = "id,createdAt,ip,userAgent,referer\r\n";
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final ExportFormat format;
+    private final Writer out;
+
+    public ExportWriter(ExportFormat format, Writer out) {
+        this.format = format;
+        this.out = out;
+    }
+
+    /**
+     * Writes whatever precedes the first row: the header record for CSV, nothing for NDJSON.
+     */
+    public void begin() throws IOException {
+        if (format == ExportFormat.CSV) {
+            out.write(CSV_HEADER);
+        }
+    }
+
+    /**
+     * Writes one tracking pixel.
+     */
+    public void write(long id, LocalDateTime createdAt, String ip, String userAgent, String referer) throws IOException {
+        if (format == ExportFormat.CSV) {
+            out.write(Long.toString(id));
+            out.write(',');
+            if (createdAt != null) {
+                DateTimeFormatter.ISO_LOCAL_DATE_TIME.formatTo(createdAt, out);
+            }
+            out.write(',');
+            writeCsv(ip);
+            out.write(',');
+            writeCsv(userAgent);
+            out.write(',');
+            writeCsv(referer);
+            out.write("\r\n");
+        } else {
+            out.write("{\"id\":");
+            out.write(Long.toString(id));
+            out.write(",\"createdAt\":");
+            if (createdAt != null) {
+                out.write('"');
+                DateTimeFormatter.ISO_LOCAL_DATE_TIME.formatTo(createdAt, out);
+                out.write('"');
+            } else {
+                out.write("null");
+            }
+            out.write(",\"ip\":");
+            writeJson(ip);
+            out.write(",\"userAgent\":");
+            writeJson(userAgent);
+            out.write(",\"referer\":");
+            writeJson(referer);
+            out.write("}\n");
+        }
+    }
+
+    /**
+     * Quotes a field only when it contains a separator, quote or line break. Null is written as an empty field.
+     */
+    private void writeCsv(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\r' || c == '\n';
+        }
+        if (!quote) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) == '"') {
+                out.write(value, start, i + 1 - start);
+                out.write('"');
+                start = i + 1;
+            }
+        }
+        out.write(value, start, value.length() - start);
+        out.write('"');
+    }
+
+    private void writeJson(String value) throws IOException {
+        if (value == null) {
+            out.write("null");
+            return;
+        }
+        out.write('"');
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= 0x20 && c != '"' && c != '\\') {
+                continue;
+            }
+            out.write(value, start, i - start);
+            switch (c) {
+                case '"' -> out.write("\\\"");
+                case '\\' -> out.write("\\\\");
+                case '\n' -> out.write("\\n");
+                case '\r' -> out.write("\\r");
+                case '\t' -> out.write("\\t");
+                default -> {
+                    out.write("\\u00");
+                    out.write(HEX[c >> 4]);
+                    out.write(HEX[c & 0xF]);
+                }
+            }
+            start = i + 1;
+        }
+        out.write(value, start, value.length() - start);
+        out.write('"');
+    }
+}
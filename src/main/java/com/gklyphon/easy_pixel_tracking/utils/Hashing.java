@@ -0,0 +1,83 @@
+package com.gklyphon.easy_pixel_tracking.utils;
+
+/**
+ * Fast, non-cryptographic 64-bit hashing used for indexed hash columns and in-memory sketches.
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+public final class Hashing {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private Hashing() {
+    }
+
+    /**
+     * Hashes a string with FNV-1a over its UTF-16 code units followed by a 64-bit finalizer,
+     * so that every input bit affects every output bit.
+     *
+     * @param value the string to hash
+     * @return the 64-bit hash
+     */
+    public static long hash64(CharSequence value) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        return mix64(hash);
+    }
+
+    /**
+     * Hashes a tuple of strings with FNV-1a. Each value is followed by its length, or -1 for null, so that
+     * values cannot run into each other: {@code ("ab", "c")} and {@code ("a", "bc")} hash differently.
+     *
+     * @param values the strings to hash, each may be null
+     * @return the 64-bit hash
+     */
+    public static long hash64(CharSequence... values) {
+        long hash = FNV_OFFSET_BASIS;
+        for (CharSequence value : values) {
+            int length = value == null ? -1 : value.length();
+            for (int i = 0; i < length; i++) {
+                hash ^= value.charAt(i);
+                hash *= FNV_PRIME;
+            }
+            hash ^= length;
+            hash *= FNV_PRIME;
+        }
+        return mix64(hash);
+    }
+
+    /**
+     * Hashes a byte array with FNV-1a followed by a 64-bit finalizer.
+     *
+     * @param value the bytes to hash
+     * @return the 64-bit hash
+     */
+    public static long hash64(byte[] value) {
+        long hash = FNV_OFFSET_BASIS;
+        for (byte b : value) {
+            hash ^= b & 0xFF;
+            hash *= FNV_PRIME;
+        }
+        return mix64(hash);
+    }
+
+    /**
+     * Applies the MurmurHash3 64-bit finalizer.
+     *
+     * @param value the value to mix
+     * @return the mixed value
+     */
+    public static long mix64(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
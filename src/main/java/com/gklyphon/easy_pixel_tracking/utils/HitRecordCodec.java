@@ -0,0 +1,108 @@
+package com.gklyphon.easy_pixel_tracking.utils;
+
+import com.gklyphon.easy_pixel_tracking.models.TrackingPixel;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Binary encoding of a hit as a {@link SegmentLog} record.
+ *
+ * <p>A record holds the creation time as seconds and nanoseconds, followed by the IP, user agent,
+ * referer, campaign and recipient as length-prefixed UTF-8 (length -1 for null). Strings are cut at a character
+ * boundary to fit {@link #MAX_LENGTH}: ASCII values are kept up to their column length, values
+ * with multi-byte characters may be cut shorter. Records written before campaigns existed end after the
+ * referer and decode without a campaign.</p>
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+public final class HitRecordCodec {
+
+    /**
+     * Size of a log record slot: one memory page, so a record never straddles two pages.
+     */
+    public static final int RECORD_SIZE = 4096;
+
+    /**
+     * Maximum length of an encoded hit.
+     */
+    public static final int MAX_LENGTH = RECORD_SIZE - SegmentLog.HEADER_SIZE;
+
+    private static final int FIXED_LENGTH = 8 + 4 + 5 * 2;
+    private static final int REFERER_BYTES = MAX_LENGTH - FIXED_LENGTH - TrackingPixel.IP_LENGTH
+            - TrackingPixel.USER_AGENT_LENGTH - TrackingPixel.CAMPAIGN_LENGTH - TrackingPixel.RECIPIENT_LENGTH;
+
+    private HitRecordCodec() {
+    }
+
+    /**
+     * Encodes a hit.
+     *
+     * @param trackingPixel the hit, with its creation time set
+     * @return the encoded record
+     */
+    public static byte[] encode(TrackingPixel trackingPixel) {
+        ByteBuffer buffer = ByteBuffer.allocate(MAX_LENGTH);
+        LocalDateTime createdAt = trackingPixel.getCreatedAt();
+        buffer.putLong(createdAt.toEpochSecond(ZoneOffset.UTC));
+        buffer.putInt(createdAt.getNano());
+        putString(buffer, trackingPixel.getIp(), TrackingPixel.IP_LENGTH);
+        putString(buffer, trackingPixel.getUserAgent(), TrackingPixel.USER_AGENT_LENGTH);
+        putString(buffer, trackingPixel.getReferer(), REFERER_BYTES);
+        putString(buffer, trackingPixel.getCampaign(), TrackingPixel.CAMPAIGN_LENGTH);
+        putString(buffer, trackingPixel.getRecipient(), TrackingPixel.RECIPIENT_LENGTH);
+        byte[] record = new byte[buffer.position()];
+        buffer.flip().get(record);
+        return record;
+    }
+
+    /**
+     * Decodes a hit.
+     *
+     * @param record the encoded record
+     * @return a new, unsaved hit
+     */
+    public static TrackingPixel decode(byte[] record) {
+        ByteBuffer buffer = ByteBuffer.wrap(record);
+        LocalDateTime createdAt = LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC);
+        TrackingPixel trackingPixel = new TrackingPixel.Builder()
+                .ip(getString(buffer))
+                .userAgent(getString(buffer))
+                .referer(getString(buffer))
+                .build();
+        if (buffer.hasRemaining()) {
+            trackingPixel.setCampaign(getString(buffer));
+            trackingPixel.setRecipient(getString(buffer));
+        }
+        trackingPixel.setCreatedAt(createdAt);
+        return trackingPixel;
+    }
+
+    private static void putString(ByteBuffer buffer, String value, int maxBytes) {
+        if (value == null) {
+            buffer.putShort((short) -1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(bytes.length, maxBytes);
+        // Step back over continuation bytes so a multi-byte character is never split.
+        while (length < bytes.length && length > 0 && (bytes[length] & 0xC0) == 0x80) {
+            length--;
+        }
+        buffer.putShort((short) length);
+        buffer.put(bytes, 0, length);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getShort();
+        if (length < 0) {
+            return null;
+        }
+        String value = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+}
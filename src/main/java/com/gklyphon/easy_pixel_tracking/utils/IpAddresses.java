@@ -0,0 +1,281 @@
+package com.gklyphon.easy_pixel_tracking.utils;
+
+/**
+ * Parses, formats and masks IP addresses in their 16-byte binary form.
+ *
+ * <p>IPv4 addresses are stored IPv4-mapped ({@code ::ffff:a.b.c.d}), so both families share one column and one
+ * ordering, and an IPv4 network is a range of that column. Parsing only accepts literals and never resolves host
+ * names, unlike {@link java.net.InetAddress#getByName(String)}.</p>
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+public final class IpAddresses {
+
+    /**
+     * Length of the binary form.
+     */
+    public static final int LENGTH = 16;
+
+    private static final int MAPPED_PREFIX_BITS = 96;
+
+    private IpAddresses() {
+    }
+
+    /**
+     * An inclusive range of binary addresses.
+     *
+     * @param low  the first address
+     * @param high the last address
+     */
+    public record Range(byte[] low, byte[] high) {
+    }
+
+    /**
+     * Parses an IPv4 or IPv6 literal. IPv6 literals may be enclosed in brackets and carry a zone id, which is dropped.
+     *
+     * @param value the literal
+     * @return the 16-byte address, or null if the value is not an IP literal
+     */
+    public static byte[] parse(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        if (value.indexOf(':') < 0) {
+            byte[] address = new byte[LENGTH];
+            address[10] = (byte) 0xFF;
+            address[11] = (byte) 0xFF;
+            return parseIpv4(value, address, 12) ? address : null;
+        }
+        String literal = value;
+        if (literal.startsWith("[") && literal.endsWith("]")) {
+            literal = literal.substring(1, literal.length() - 1);
+        }
+        int zone = literal.indexOf('%');
+        if (zone >= 0) {
+            literal = literal.substring(0, zone);
+        }
+        return parseIpv6(literal);
+    }
+
+    /**
+     * Formats a binary address: IPv4-mapped addresses in dotted form, others in the RFC 5952 form.
+     *
+     * @param address the 16-byte address
+     * @return the literal, or null if the address is null
+     */
+    public static String format(byte[] address) {
+        if (address == null) {
+            return null;
+        }
+        if (isIpv4Mapped(address)) {
+            return (address[12] & 0xFF) + "." + (address[13] & 0xFF) + "." + (address[14] & 0xFF) + "." + (address[15] & 0xFF);
+        }
+        int[] groups = new int[8];
+        for (int i = 0; i < 8; i++) {
+            groups[i] = (address[2 * i] & 0xFF) << 8 | address[2 * i + 1] & 0xFF;
+        }
+        int bestStart = -1;
+        int bestLength = 1;
+        for (int i = 0; i < 8; i++) {
+            int length = 0;
+            while (i + length < 8 && groups[i + length] == 0) {
+                length++;
+            }
+            if (length > bestLength) {
+                bestStart = i;
+                bestLength = length;
+            }
+            i += length;
+        }
+        StringBuilder literal = new StringBuilder(39);
+        for (int i = 0; i < 8; i++) {
+            if (i == bestStart) {
+                literal.append("::");
+                i += bestLength - 1;
+                continue;
+            }
+            if (literal.length() > 0 && literal.charAt(literal.length() - 1) != ':') {
+                literal.append(':');
+            }
+            literal.append(Integer.toHexString(groups[i]));
+        }
+        return literal.toString();
+    }
+
+    /**
+     * Returns the canonical literal of an IP literal, so that different spellings of one address compare equal.
+     *
+     * @param value the literal
+     * @return the canonical literal, or the value itself if it is not an IP literal
+     */
+    public static String normalize(String value) {
+        byte[] address = parse(value);
+        return address == null ? value : format(address);
+    }
+
+    /**
+     * Parses a network in CIDR notation, such as {@code 10.0.0.0/8} or {@code 2001:db8::/32}.
+     * A single address without a prefix length is a range of one.
+     *
+     * @param cidr the network
+     * @return the first and last address of the network
+     * @throws IllegalArgumentException if the value is not a network
+     */
+    public static Range parseCidr(String cidr) {
+        int slash = cidr.indexOf('/');
+        byte[] address = parse(slash < 0 ? cidr : cidr.substring(0, slash));
+        if (address == null) {
+            throw new IllegalArgumentException("Not an IP network: " + cidr);
+        }
+        int prefixLength = LENGTH * 8;
+        if (slash >= 0) {
+            try {
+                prefixLength = Integer.parseInt(cidr.substring(slash + 1));
+            } catch (NumberFormatException ex) {
+                throw new IllegalArgumentException("Not an IP network: " + cidr, ex);
+            }
+            int maxPrefixLength = isIpv4Mapped(address) && cidr.indexOf(':') < 0 ? 32 : LENGTH * 8;
+            if (prefixLength < 0 || prefixLength > maxPrefixLength) {
+                throw new IllegalArgumentException("Invalid prefix length in " + cidr);
+            }
+            if (maxPrefixLength == 32) {
+                prefixLength += MAPPED_PREFIX_BITS;
+            }
+        }
+        byte[] low = mask(address, prefixLength);
+        byte[] high = low.clone();
+        for (int bit = prefixLength; bit < LENGTH * 8; bit++) {
+            high[bit >>> 3] |= (byte) (0x80 >>> (bit & 7));
+        }
+        return new Range(low, high);
+    }
+
+    /**
+     * Keeps the leading bits of an address and clears the rest.
+     *
+     * @param address      the 16-byte address
+     * @param prefixLength number of bits to keep, counted over all 128 bits
+     * @return a new masked address
+     */
+    public static byte[] mask(byte[] address, int prefixLength) {
+        byte[] masked = address.clone();
+        for (int bit = prefixLength; bit < LENGTH * 8; bit++) {
+            masked[bit >>> 3] &= (byte) ~(0x80 >>> (bit & 7));
+        }
+        return masked;
+    }
+
+    /**
+     * Truncates an IP literal for privacy, keeping the network part of the address.
+     *
+     * @param value            the literal
+     * @param ipv4PrefixLength bits kept of an IPv4 address, 32 keeps it whole
+     * @param ipv6PrefixLength bits kept of an IPv6 address, 128 keeps it whole
+     * @return the truncated literal, or the value itself if it is not an IP literal
+     */
+    public static String anonymize(String value, int ipv4PrefixLength, int ipv6PrefixLength) {
+        byte[] address = parse(value);
+        if (address == null) {
+            return value;
+        }
+        int prefixLength = isIpv4Mapped(address) ? MAPPED_PREFIX_BITS + ipv4PrefixLength : ipv6PrefixLength;
+        return format(mask(address, prefixLength));
+    }
+
+    private static boolean isIpv4Mapped(byte[] address) {
+        for (int i = 0; i < 10; i++) {
+            if (address[i] != 0) {
+                return false;
+            }
+        }
+        return address[10] == (byte) 0xFF && address[11] == (byte) 0xFF;
+    }
+
+    private static boolean parseIpv4(String value, byte[] address, int offset) {
+        int part = 0;
+        int octet = -1;
+        int digits = 0;
+        for (int i = 0; i <= value.length(); i++) {
+            char c = i < value.length() ? value.charAt(i) : '.';
+            if (c >= '0' && c <= '9') {
+                octet = (octet < 0 ? 0 : octet * 10) + (c - '0');
+                if (++digits > 3 || octet > 255) {
+                    return false;
+                }
+            } else if (c == '.' && octet >= 0 && part < 4) {
+                address[offset + part++] = (byte) octet;
+                octet = -1;
+                digits = 0;
+            } else {
+                return false;
+            }
+        }
+        return part == 4;
+    }
+
+    private static byte[] parseIpv6(String literal) {
+        byte[] address = new byte[LENGTH];
+        int gap = literal.indexOf("::");
+        if (gap >= 0 && literal.indexOf("::", gap + 1) >= 0) {
+            return null;
+        }
+        String head = gap < 0 ? literal : literal.substring(0, gap);
+        String tail = gap < 0 ? "" : literal.substring(gap + 2);
+        int headBytes = parseGroups(head, address, 0, gap < 0);
+        if (headBytes < 0) {
+            return null;
+        }
+        if (gap < 0) {
+            return headBytes == LENGTH ? address : null;
+        }
+        byte[] tailAddress = new byte[LENGTH];
+        int tailBytes = parseGroups(tail, tailAddress, 0, true);
+        if (tailBytes < 0 || headBytes + tailBytes > LENGTH - 2) {
+            return null;
+        }
+        System.arraycopy(tailAddress, 0, address, LENGTH - tailBytes, tailBytes);
+        return address;
+    }
+
+    /**
+     * Parses colon-separated hex groups, optionally ending with a dotted IPv4 address.
+     *
+     * @return the number of bytes written, or -1 if the groups are malformed
+     */
+    private static int parseGroups(String groups, byte[] address, int offset, boolean allowIpv4) {
+        if (groups.isEmpty()) {
+            return 0;
+        }
+        int length = offset;
+        int start = 0;
+        while (start <= groups.length()) {
+            int end = groups.indexOf(':', start);
+            String group = groups.substring(start, end < 0 ? groups.length() : end);
+            if (end < 0 && allowIpv4 && group.indexOf('.') >= 0) {
+                if (length + 4 > LENGTH || !parseIpv4(group, address, length)) {
+                    return -1;
+                }
+                return length + 4 - offset;
+            }
+            if (group.isEmpty() || group.length() > 4 || length + 2 > LENGTH) {
+                return -1;
+            }
+            int value = 0;
+            for (int i = 0; i < group.length(); i++) {
+                int digit = Character.digit(group.charAt(i), 16);
+                if (digit < 0) {
+                    return -1;
+                }
+                value = value << 4 | digit;
+            }
+            address[length++] = (byte) (value >>> 8);
+            address[length++] = (byte) value;
+            if (end < 0) {
+                break;
+            }
+            start = end + 1;
+        }
+        return length - offset;
+    }
+}
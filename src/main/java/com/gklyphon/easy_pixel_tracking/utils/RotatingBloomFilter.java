@@ -0,0 +1,97 @@
+package com.gklyphon.easy_pixel_tracking.utils;
+
+import java.time.Duration;
+
+/**
+ * Remembers the values seen over a sliding time window with two {@link BloomFilter} generations.
+ *
+ * <p>Values are added to the current generation and looked up in both. Once per window the previous generation
+ * is cleared and becomes the current one, so a value is remembered for at least one window and at most two, in
+ * constant memory however many values arrive. Each generation is sized for half the false positive rate, so that
+ * looking in both stays within it.</p>
+ *
+ * <p>A generation that has taken its expected number of insertions is rotated early, so the false positive rate
+ * holds under any load; values are then remembered for less than a window. Early rotations are counted by
+ * {@link #getEarlyRotations()}.</p>
+ *
+ * <p>Not thread-safe.</p>
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+public final class RotatingBloomFilter {
+
+    private final long windowNanos;
+    private final long capacity;
+    private BloomFilter current;
+    private BloomFilter previous;
+    private long rotatedAt;
+    private long insertions;
+    private long earlyRotations;
+
+    /**
+     * @param expectedInsertions distinct values expected per window
+     * @param falsePositiveRate  acceptable probability that a new value is taken as seen
+     * @param window             shortest time a value is remembered
+     * @param now                current {@link System#nanoTime()}
+     */
+    public RotatingBloomFilter(long expectedInsertions, double falsePositiveRate, Duration window, long now) {
+        this.windowNanos = window.toNanos();
+        this.capacity = Math.max(1, expectedInsertions);
+        this.current = new BloomFilter(expectedInsertions, falsePositiveRate / 2);
+        this.previous = new BloomFilter(expectedInsertions, falsePositiveRate / 2);
+        this.rotatedAt = now;
+    }
+
+    /**
+     * Adds a value unless it was seen within the window.
+     *
+     * @param hash 64-bit hash of the value
+     * @param now  current {@link System#nanoTime()}
+     * @return true if the value was added, false if it may have been seen within the window
+     */
+    public boolean add(long hash, long now) {
+        rotate(now);
+        if (current.mightContain(hash) || previous.mightContain(hash)) {
+            return false;
+        }
+        current.put(hash);
+        if (++insertions >= capacity) {
+            earlyRotations++;
+            swap(now);
+        }
+        return true;
+    }
+
+    /**
+     * @return the number of times a generation was rotated because it was full rather than because its window ended
+     */
+    public long getEarlyRotations() {
+        return earlyRotations;
+    }
+
+    private void rotate(long now) {
+        long elapsed = now - rotatedAt;
+        if (elapsed < windowNanos) {
+            return;
+        }
+        if (elapsed >= 2 * windowNanos) {
+            // Nothing seen in the current generation is recent enough either.
+            previous.clear();
+            current.clear();
+            insertions = 0;
+            rotatedAt = now;
+        } else {
+            swap(now);
+        }
+    }
+
+    private void swap(long now) {
+        previous.clear();
+        BloomFilter cleared = previous;
+        previous = current;
+        current = cleared;
+        insertions = 0;
+        rotatedAt = now;
+    }
+}
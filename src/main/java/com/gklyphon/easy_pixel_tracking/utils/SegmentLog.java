@@ -0,0 +1,368 @@
+package com.gklyphon.easy_pixel_tracking.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log of fixed-size records stored in memory-mapped segment files.
+ *
+ * <p>Records are numbered by a sequence starting at 1. A record is slot {@code sequence - first}
+ * of the segment named after its first sequence, and is laid out as the sequence (8 bytes),
+ * the payload length (4 bytes), a CRC32C of both and the payload (4 bytes), then the payload.
+ * An appended record is in the page cache, and survives a crash of the process, as soon as
+ * {@link #append(byte[])} returns; {@link #force()} makes it survive a crash of the machine.</p>
+ *
+ * <p>Opening a log scans it up to the first slot that is empty, torn or out of sequence, and
+ * clears everything after it, so a record is either read back intact or not at all.</p>
+ *
+ * <p>Appends and sync waits use {@link ReentrantLock}s, so virtual threads blocked on them
+ * release their carrier thread.</p>
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+public final class SegmentLog implements Closeable {
+
+    public static final int HEADER_SIZE = 16;
+
+    private static final String SUFFIX = ".log";
+
+    private final Path directory;
+    private final int recordSize;
+    private final int recordsPerSegment;
+    private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final Condition synced = syncLock.newCondition();
+
+    private Segment active;
+    private long nextSequence;
+    private volatile long lastSequence;
+    private long syncedSequence;
+    private boolean closed;
+
+    private SegmentLog(Path directory, int recordSize, int recordsPerSegment) {
+        this.directory = directory;
+        this.recordSize = recordSize;
+        this.recordsPerSegment = recordsPerSegment;
+    }
+
+    /**
+     * Opens the log in a directory, recovering the records written before the last shutdown or crash.
+     *
+     * @param directory         the directory holding the segment files
+     * @param recordSize        size of a record slot in bytes, header included
+     * @param recordsPerSegment number of records per new segment file
+     * @param firstSequence     sequence of the first record if the directory holds no segments
+     * @return the opened log
+     * @throws IOException if the segments cannot be read or created
+     */
+    public static SegmentLog open(Path directory, int recordSize, int recordsPerSegment, long firstSequence)
+            throws IOException {
+        if (recordSize <= HEADER_SIZE || recordsPerSegment < 1 || firstSequence < 1) {
+            throw new IllegalArgumentException("Invalid segment log layout");
+        }
+        Files.createDirectories(directory);
+        SegmentLog log = new SegmentLog(directory, recordSize, recordsPerSegment);
+        log.recover(firstSequence);
+        return log;
+    }
+
+    /**
+     * Appends a record.
+     *
+     * @param payload the record payload, at most {@code recordSize - HEADER_SIZE} bytes
+     * @return the sequence of the record
+     * @throws IOException if a new segment cannot be created
+     */
+    public long append(byte[] payload) throws IOException {
+        if (payload.length > recordSize - HEADER_SIZE) {
+            throw new IllegalArgumentException("Payload of " + payload.length + " bytes does not fit a record");
+        }
+        appendLock.lock();
+        try {
+            if (closed) {
+                throw new IOException("Segment log is closed");
+            }
+            if (active == null || nextSequence - active.first >= active.capacity) {
+                active = createSegment(nextSequence);
+            }
+            long sequence = nextSequence;
+            int position = (int) (sequence - active.first) * recordSize;
+            MappedByteBuffer buffer = active.buffer;
+            buffer.putLong(position, sequence);
+            buffer.putInt(position + 8, payload.length);
+            buffer.put(position + HEADER_SIZE, payload);
+            buffer.putInt(position + 12, checksum(buffer, position, payload.length));
+            nextSequence = sequence + 1;
+            lastSequence = sequence;
+            return sequence;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Reads consecutive records.
+     *
+     * @param fromSequence the sequence of the first record to read
+     * @param maxRecords   the maximum number of records to read
+     * @return the payloads, in sequence order, empty if no record at or after {@code fromSequence} exists
+     */
+    public List<byte[]> read(long fromSequence, int maxRecords) {
+        long toSequence = Math.min(lastSequence, fromSequence + maxRecords - 1);
+        List<byte[]> payloads = new ArrayList<>((int) Math.max(0, toSequence - fromSequence + 1));
+        for (long sequence = fromSequence; sequence <= toSequence; sequence++) {
+            Map.Entry<Long, Segment> entry = segments.floorEntry(sequence);
+            if (entry == null) {
+                throw new IllegalStateException("Record " + sequence + " has been deleted");
+            }
+            Segment segment = entry.getValue();
+            int position = (int) (sequence - segment.first) * recordSize;
+            byte[] payload = new byte[segment.buffer.getInt(position + 8)];
+            segment.buffer.get(position + HEADER_SIZE, payload);
+            payloads.add(payload);
+        }
+        return payloads;
+    }
+
+    /**
+     * Flushes every appended record to the storage device and wakes up the threads waiting for them.
+     *
+     * @throws IOException if the log is closed
+     */
+    public void force() throws IOException {
+        long target = lastSequence;
+        long from;
+        syncLock.lock();
+        try {
+            if (target <= syncedSequence) {
+                return;
+            }
+            from = syncedSequence + 1;
+        } finally {
+            syncLock.unlock();
+        }
+        Long firstKey = segments.floorKey(from);
+        for (Segment segment : segments.tailMap(firstKey != null ? firstKey : from).values()) {
+            if (segment.first > target) {
+                break;
+            }
+            segment.buffer.force();
+        }
+        syncLock.lock();
+        try {
+            syncedSequence = Math.max(syncedSequence, target);
+            synced.signalAll();
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * Waits until a record has been flushed to the storage device by {@link #force()}.
+     *
+     * @param sequence the sequence of the record
+     * @return {@code true} once the record is durable, {@code false} if the log was closed first
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public boolean awaitSync(long sequence) throws InterruptedException {
+        syncLock.lock();
+        try {
+            while (syncedSequence < sequence) {
+                if (closed) {
+                    return false;
+                }
+                synced.await();
+            }
+            return true;
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * Deletes the segments holding only records before a sequence.
+     *
+     * @param sequence the first sequence to keep, at most {@code getLastSequence() + 1}
+     * @throws IOException if a segment file cannot be deleted
+     */
+    public void deleteBefore(long sequence) throws IOException {
+        long keep = Math.min(sequence, lastSequence + 1);
+        for (Segment segment : segments.headMap(keep).values()) {
+            if (segment.first + segment.capacity > keep) {
+                break;
+            }
+            segments.remove(segment.first);
+            segment.channel.close();
+            Files.deleteIfExists(segment.path);
+        }
+    }
+
+    /**
+     * Returns the sequence of the first record still stored.
+     *
+     * @return the first sequence, or {@code getLastSequence() + 1} when the log is empty
+     */
+    public long getFirstSequence() {
+        Map.Entry<Long, Segment> first = segments.firstEntry();
+        return first != null ? first.getKey() : lastSequence + 1;
+    }
+
+    /**
+     * Returns the sequence of the last appended record.
+     *
+     * @return the last sequence, or {@code firstSequence - 1} when nothing has been appended
+     */
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * Flushes and closes every segment. Threads waiting in {@link #awaitSync(long)} are released.
+     *
+     * @throws IOException if a segment cannot be flushed or closed
+     */
+    @Override
+    public void close() throws IOException {
+        appendLock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            force();
+            syncLock.lock();
+            try {
+                closed = true;
+                synced.signalAll();
+            } finally {
+                syncLock.unlock();
+            }
+            for (Segment segment : segments.values()) {
+                segment.channel.close();
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private void recover(long firstSequence) throws IOException {
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(directory)) {
+            files = stream.filter(path -> path.getFileName().toString().endsWith(SUFFIX))
+                    .sorted(Comparator.comparingLong(SegmentLog::firstSequenceOf))
+                    .toList();
+        }
+        long expected = -1;
+        boolean truncated = false;
+        for (Path path : files) {
+            long first = firstSequenceOf(path);
+            if (truncated || (expected != -1 && first != expected)) {
+                Files.delete(path);
+                truncated = true;
+                continue;
+            }
+            Segment segment = Segment.open(path, first, (int) (Files.size(path) / recordSize), recordSize);
+            int valid = 0;
+            while (valid < segment.capacity && isValid(segment, valid)) {
+                valid++;
+            }
+            segments.put(first, segment);
+            expected = first + valid;
+            if (valid < segment.capacity) {
+                clear(segment, valid);
+                truncated = true;
+            }
+        }
+        if (segments.isEmpty()) {
+            nextSequence = firstSequence;
+        } else {
+            active = segments.lastEntry().getValue();
+            nextSequence = expected;
+        }
+        lastSequence = nextSequence - 1;
+        syncedSequence = lastSequence;
+    }
+
+    private boolean isValid(Segment segment, int slot) {
+        int position = slot * recordSize;
+        MappedByteBuffer buffer = segment.buffer;
+        int length = buffer.getInt(position + 8);
+        return buffer.getLong(position) == segment.first + slot
+                && length >= 0 && length <= recordSize - HEADER_SIZE
+                && buffer.getInt(position + 12) == checksum(buffer, position, length);
+    }
+
+    private void clear(Segment segment, int fromSlot) {
+        byte[] zeros = new byte[recordSize];
+        for (int slot = fromSlot; slot < segment.capacity; slot++) {
+            segment.buffer.put(slot * recordSize, zeros);
+        }
+        segment.buffer.force();
+    }
+
+    private Segment createSegment(long first) throws IOException {
+        Path path = directory.resolve(String.format("%020d%s", first, SUFFIX));
+        Segment segment = Segment.open(path, first, recordsPerSegment, recordSize);
+        segments.put(first, segment);
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException ex) {
+            // Not every platform can sync a directory; the segment data itself is still forced.
+        }
+        return segment;
+    }
+
+    private static int checksum(MappedByteBuffer buffer, int position, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(position, 12));
+        crc.update(buffer.slice(position + HEADER_SIZE, length));
+        return (int) crc.getValue();
+    }
+
+    private static long firstSequenceOf(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+    }
+
+    /**
+     * A segment file mapped into memory.
+     */
+    private static final class Segment {
+
+        private final Path path;
+        private final long first;
+        private final int capacity;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+
+        private Segment(Path path, long first, int capacity, FileChannel channel, MappedByteBuffer buffer) {
+            this.path = path;
+            this.first = first;
+            this.capacity = capacity;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        private static Segment open(Path path, long first, int capacity, int recordSize) throws IOException {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) capacity * recordSize);
+            return new Segment(path, first, capacity, channel, buffer);
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.gklyphon.easy_pixel_tracking.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving summary that monitors the most frequent values of a stream in a fixed number of counters.
+ *
+ * <p>When all counters are taken, a new value replaces the one with the smallest count and inherits
+ * that count as its error. Every value occurring more than {@code total / capacity} times is
+ * guaranteed to be monitored. Counters are kept in a stream summary, a list of buckets of equal
+ * count in ascending order, so counting an occurrence takes constant time. Among counters of equal
+ * count, the one counted least recently is replaced first. Not thread-safe.</p>
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+public final class SpaceSaving {
+
+    private final int capacity;
+    private final Map<String, Counter> counters = new HashMap<>();
+    private Bucket lowest;
+    private Bucket highest;
+
+    /**
+     * Creates an empty summary.
+     *
+     * @param capacity the number of values monitored
+     */
+    public SpaceSaving(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * Counts one occurrence of a value.
+     *
+     * @param value the value
+     */
+    public void offer(String value) {
+        Counter counter = counters.get(value);
+        if (counter != null) {
+            increment(counter);
+            return;
+        }
+        if (counters.size() < capacity) {
+            counter = new Counter(value);
+            counters.put(value, counter);
+            if (lowest == null || lowest.count != 1) {
+                insertBefore(lowest, new Bucket(1));
+            }
+            lowest.append(counter);
+            return;
+        }
+        counter = lowest.head;
+        counters.remove(counter.value);
+        counter.value = value;
+        counter.error = lowest.count;
+        counters.put(value, counter);
+        increment(counter);
+    }
+
+    /**
+     * Returns the monitored values.
+     *
+     * @return the values, most frequent first
+     */
+    public List<String> values() {
+        List<String> values = new ArrayList<>(counters.size());
+        for (Bucket bucket = highest; bucket != null; bucket = bucket.previous) {
+            for (Counter counter = bucket.tail; counter != null; counter = counter.previous) {
+                values.add(counter.value);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Returns the upper bound on the occurrences of a monitored value.
+     *
+     * @param value the value
+     * @return the count, or 0 when the value is not monitored
+     */
+    public long count(String value) {
+        Counter counter = counters.get(value);
+        return counter == null ? 0 : counter.bucket.count;
+    }
+
+    /**
+     * Returns how much the count of a monitored value may exceed its true occurrences.
+     *
+     * @param value the value
+     * @return the overestimation, or 0 when the value is not monitored
+     */
+    public long error(String value) {
+        Counter counter = counters.get(value);
+        return counter == null ? 0 : counter.error;
+    }
+
+    /**
+     * Forgets all monitored values.
+     */
+    public void clear() {
+        counters.clear();
+        lowest = null;
+        highest = null;
+    }
+
+    /**
+     * Moves a counter to the bucket of the next count.
+     */
+    private void increment(Counter counter) {
+        Bucket bucket = counter.bucket;
+        Bucket next = bucket.next;
+        if (next == null || next.count != bucket.count + 1) {
+            next = new Bucket(bucket.count + 1);
+            insertBefore(bucket.next, next);
+        }
+        bucket.remove(counter);
+        if (bucket.head == null) {
+            unlink(bucket);
+        }
+        next.append(counter);
+    }
+
+    /**
+     * Links a bucket in front of another one, or at the end when it is null.
+     */
+    private void insertBefore(Bucket successor, Bucket bucket) {
+        Bucket predecessor = successor == null ? highest : successor.previous;
+        bucket.previous = predecessor;
+        bucket.next = successor;
+        if (predecessor == null) {
+            lowest = bucket;
+        } else {
+            predecessor.next = bucket;
+        }
+        if (successor == null) {
+            highest = bucket;
+        } else {
+            successor.previous = bucket;
+        }
+    }
+
+    private void unlink(Bucket bucket) {
+        if (bucket.previous == null) {
+            lowest = bucket.next;
+        } else {
+            bucket.previous.next = bucket.next;
+        }
+        if (bucket.next == null) {
+            highest = bucket.previous;
+        } else {
+            bucket.next.previous = bucket.previous;
+        }
+    }
+
+    /**
+     * Counters sharing a count, least recently counted first.
+     */
+    private static final class Bucket {
+
+        private final long count;
+        private Bucket previous;
+        private Bucket next;
+        private Counter head;
+        private Counter tail;
+
+        private Bucket(long count) {
+            this.count = count;
+        }
+
+        private void append(Counter counter) {
+            counter.bucket = this;
+            counter.previous = tail;
+            counter.next = null;
+            if (tail == null) {
+                head = counter;
+            } else {
+                tail.next = counter;
+            }
+            tail = counter;
+        }
+
+        private void remove(Counter counter) {
+            if (counter.previous == null) {
+                head = counter.next;
+            } else {
+                counter.previous.next = counter.next;
+            }
+            if (counter.next == null) {
+                tail = counter.previous;
+            } else {
+                counter.next.previous = counter.previous;
+            }
+        }
+    }
+
+    private static final class Counter {
+
+        private String value;
+        private long error;
+        private Bucket bucket;
+        private Counter previous;
+        private Counter next;
+
+        private Counter(String value) {
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.gklyphon.easy_pixel_tracking.utils;
+
+/**
+ * Token-bucket rate limiters keyed by 64-bit hashes, in a fixed-size open-addressing table.
+ *
+ * <p>Keys, refill times and token counts live in parallel primitive arrays, so a lookup allocates nothing and
+ * touches a few adjacent slots. A key is looked for in {@value #PROBES} consecutive slots; when none is free, the
+ * bucket refilled longest ago among them is replaced, but only once it has been idle long enough to refill to its
+ * full burst, so replacing it forgets nothing that still limits. Until then the new key is refused as if its own
+ * bucket were empty: a flood of distinct keys is limited rather than resetting the buckets it collides with, and
+ * memory stays bounded however many keys are seen.</p>
+ *
+ * <p>Not thread-safe.</p>
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+public final class TokenBuckets {
+
+    private static final int PROBES = 8;
+
+    private final long[] keys;
+    private final long[] refilledAt;
+    private final double[] tokens;
+    private final int mask;
+    private final double tokensPerNano;
+    private final double burst;
+    private final long refillNanos;
+    private int size;
+
+    /**
+     * @param capacity      most buckets held, rounded up to a power of two
+     * @param ratePerSecond tokens added to a bucket per second
+     * @param burst         tokens a bucket holds when full, at least 1
+     */
+    public TokenBuckets(int capacity, double ratePerSecond, double burst) {
+        if (capacity < 1 || ratePerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Invalid token buckets: capacity " + capacity + ", rate "
+                    + ratePerSecond + ", burst " + burst);
+        }
+        int slots = Math.max(PROBES, Integer.highestOneBit(Math.max(1, capacity - 1)) << 1);
+        this.keys = new long[slots];
+        this.refilledAt = new long[slots];
+        this.tokens = new double[slots];
+        this.mask = slots - 1;
+        this.tokensPerNano = ratePerSecond / 1_000_000_000d;
+        this.burst = burst;
+        this.refillNanos = (long) Math.ceil(burst / tokensPerNano);
+    }
+
+    /**
+     * Takes a token from the bucket of a key, creating a full bucket for a new key.
+     *
+     * @param key 64-bit hash of the key
+     * @param now current {@link System#nanoTime()}
+     * @return true if a token was taken, false if the bucket is empty or a new key finds no idle slot
+     */
+    public boolean tryAcquire(long key, long now) {
+        // 0 marks a free slot.
+        key = key == 0 ? 1 : key;
+        int home = (int) Hashing.mix64(key) & mask;
+        int victim = home;
+        for (int i = 0; i < PROBES; i++) {
+            int slot = (home + i) & mask;
+            if (keys[slot] == key) {
+                return take(slot, now);
+            }
+            if (keys[slot] == 0) {
+                // Slots are never freed, so a key is never stored past a free slot.
+                size++;
+                return fill(slot, key, now);
+            }
+            if (refilledAt[slot] - refilledAt[victim] < 0) {
+                victim = slot;
+            }
+        }
+        if (now - refilledAt[victim] < refillNanos) {
+            return false;
+        }
+        return fill(victim, key, now);
+    }
+
+    /**
+     * @return the number of buckets held
+     */
+    public int size() {
+        return size;
+    }
+
+    private boolean fill(int slot, long key, long now) {
+        keys[slot] = key;
+        refilledAt[slot] = now;
+        tokens[slot] = burst - 1;
+        return true;
+    }
+
+    private boolean take(int slot, long now) {
+        double available = Math.min(burst, tokens[slot] + (now - refilledAt[slot]) * tokensPerNano);
+        refilledAt[slot] = now;
+        if (available < 1) {
+            tokens[slot] = available;
+            return false;
+        }
+        tokens[slot] = available - 1;
+        return true;
+    }
+}
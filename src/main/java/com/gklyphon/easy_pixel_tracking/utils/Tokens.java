@@ -0,0 +1,36 @@
+package com.gklyphon.easy_pixel_tracking.utils;
+
+/**
+ * Validation of the identifiers clients put into pixel URLs, such as campaign ids and recipient tokens.
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+public final class Tokens {
+
+    private Tokens() {
+    }
+
+    /**
+     * Tests whether a value is a token: ASCII letters, digits, {@code -}, {@code .}, {@code _} and {@code ~}, the
+     * characters a URL carries without escaping.
+     *
+     * @param value     the value, possibly null
+     * @param maxLength the longest valid token
+     * @return true if the value is a token of 1 to {@code maxLength} characters
+     */
+    public static boolean isValid(String value, int maxLength) {
+        if (value == null || value.isEmpty() || value.length() > maxLength) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            boolean valid = c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9'
+                    || c == '-' || c == '.' || c == '_' || c == '~';
+            if (!valid) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,232 @@
+package com.gklyphon.easy_pixel_tracking.utils;
+
+import com.gklyphon.easy_pixel_tracking.models.BrowserFamily;
+import com.gklyphon.easy_pixel_tracking.models.DeviceClass;
+import com.gklyphon.easy_pixel_tracking.models.OperatingSystem;
+import com.gklyphon.easy_pixel_tracking.models.UserAgentInfo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Classifies user agent strings by the tokens they contain.
+ *
+ * <p>All tokens are found in a single pass of an {@link AhoCorasick} automaton, case-insensitively. When several
+ * browser or operating system tokens occur, the most specific one wins: Edge and Opera user agents also carry the
+ * Chrome and Safari tokens, and iOS ones carry the macOS token. The browser version is the number following the
+ * winning token, or following {@code Version/} for Safari and {@code rv:} for Internet Explorer 11. A user agent with any bot token, or none at all, is a bot:
+ * browsers always send one. {@code bot} counts as a whole word, or at the end of a product name such as
+ * {@code Googlebot/2.1}, so device names such as {@code CUBOT} are not bots.</p>
+ *
+ * <p>Immutable and thread-safe.</p>
+ *
+ * @author JFCiscoHuerta
+ * @date 2026-10-18
+ */
+public final class UserAgentParser {
+
+    /**
+     * Result for a missing or blank user agent.
+     */
+    public static final UserAgentInfo MISSING =
+            new UserAgentInfo(BrowserFamily.OTHER, null, OperatingSystem.OTHER, DeviceClass.BOT, true);
+
+    private static final int MAX_VERSION_DIGITS = 4;
+    private static final BrowserFamily[] BROWSERS = BrowserFamily.values();
+    private static final OperatingSystem[] SYSTEMS = OperatingSystem.values();
+
+    private enum Kind { BROWSER, VERSION, OS, MOBILE, TABLET, BOT }
+
+    /**
+     * Where the version of a browser is read: after its own token, after {@code Version/} or after {@code rv:}.
+     */
+    private static final int OWN_VERSION = 0;
+    private static final int VERSION_TOKEN = 1;
+    private static final int RV_TOKEN = 2;
+
+    /**
+     * Value of a bot token that only counts between word boundaries.
+     */
+    private static final int WHOLE_WORD = 1;
+
+    private final AhoCorasick matcher;
+    private final Kind[] kinds;
+    private final int[] values;
+    private final int[] lengths;
+
+    public UserAgentParser() {
+        List<String> patterns = new ArrayList<>();
+        List<Kind> kindList = new ArrayList<>();
+        List<Integer> valueList = new ArrayList<>();
+
+        // Browsers, least specific first: a later token overrides an earlier one.
+        Object[][] browsers = {
+                {"safari/", BrowserFamily.SAFARI, VERSION_TOKEN},
+                {"trident/", BrowserFamily.INTERNET_EXPLORER, RV_TOKEN},
+                {"msie ", BrowserFamily.INTERNET_EXPLORER, OWN_VERSION},
+                {"firefox/", BrowserFamily.FIREFOX, OWN_VERSION}, {"fxios/", BrowserFamily.FIREFOX, OWN_VERSION},
+                {"chrome/", BrowserFamily.CHROME, OWN_VERSION}, {"crios/", BrowserFamily.CHROME, OWN_VERSION},
+                {"samsungbrowser/", BrowserFamily.SAMSUNG_INTERNET, OWN_VERSION},
+                {"opera/", BrowserFamily.OPERA, VERSION_TOKEN}, {"opr/", BrowserFamily.OPERA, OWN_VERSION},
+                {"opios/", BrowserFamily.OPERA, OWN_VERSION},
+                {"edge/", BrowserFamily.EDGE, OWN_VERSION}, {"edg/", BrowserFamily.EDGE, OWN_VERSION},
+                {"edga/", BrowserFamily.EDGE, OWN_VERSION}, {"edgios/", BrowserFamily.EDGE, OWN_VERSION}
+        };
+        for (Object[] browser : browsers) {
+            add(patterns, kindList, valueList, (String) browser[0], Kind.BROWSER,
+                    ((BrowserFamily) browser[1]).ordinal() | (int) browser[2] << 8);
+        }
+        add(patterns, kindList, valueList, "version/", Kind.VERSION, VERSION_TOKEN);
+        add(patterns, kindList, valueList, "rv:", Kind.VERSION, RV_TOKEN);
+
+        // Operating systems, least specific first.
+        String[][] systems = {
+                {"linux", "LINUX"},
+                {"macintosh", "MACOS"}, {"mac os x", "MACOS"},
+                {"windows", "WINDOWS"},
+                {"cros ", "CHROME_OS"},
+                {"like mac os x", "IOS"}, {"iphone", "IOS"}, {"ipad", "IOS"}, {"ipod", "IOS"},
+                {"android", "ANDROID"}
+        };
+        for (String[] system : systems) {
+            add(patterns, kindList, valueList, system[0], Kind.OS, OperatingSystem.valueOf(system[1]).ordinal());
+        }
+
+        for (String token : new String[] {"mobile", "iphone", "ipod", "windows phone"}) {
+            add(patterns, kindList, valueList, token, Kind.MOBILE, 0);
+        }
+        for (String token : new String[] {"ipad", "tablet", "kindle", "silk/"}) {
+            add(patterns, kindList, valueList, token, Kind.TABLET, 0);
+        }
+        add(patterns, kindList, valueList, "bot", Kind.BOT, WHOLE_WORD);
+        for (String token : new String[] {"bot/", "bot-", "robot", "crawl", "spider", "slurp", "scrapy", "+http", "headless",
+                "phantomjs", "lighthouse", "pingdom", "monitor", "preview", "fetcher", "externalhit", "validator",
+                "curl/", "wget/", "python-", "python/", "java/", "go-http-client", "okhttp", "httpclient",
+                "libwww", "axios/", "node-fetch"}) {
+            add(patterns, kindList, valueList, token, Kind.BOT, 0);
+        }
+
+        this.matcher = new AhoCorasick(patterns);
+        this.kinds = kindList.toArray(new Kind[0]);
+        this.values = valueList.stream().mapToInt(Integer::intValue).toArray();
+        this.lengths = patterns.stream().mapToInt(String::length).toArray();
+    }
+
+    /**
+     * Classifies a user agent string.
+     *
+     * @param userAgent the user agent, may be null
+     * @return the parsed attributes, never null
+     */
+    public UserAgentInfo parse(String userAgent) {
+        if (userAgent == null || userAgent.isBlank()) {
+            return MISSING;
+        }
+        int browser = -1;
+        int browserEnd = -1;
+        int versionEnd = -1;
+        int rvEnd = -1;
+        int os = -1;
+        boolean mobile = false;
+        boolean tablet = false;
+        boolean bot = false;
+
+        int state = AhoCorasick.ROOT;
+        for (int i = 0; i < userAgent.length(); i++) {
+            state = matcher.next(state, userAgent.charAt(i));
+            if (state >= 0) {
+                continue;
+            }
+            for (int pattern : matcher.matches(state)) {
+                switch (kinds[pattern]) {
+                    case BROWSER -> {
+                        if (pattern >= browser) {
+                            browser = pattern;
+                            browserEnd = i + 1;
+                        }
+                    }
+                    case VERSION -> {
+                        if (values[pattern] == RV_TOKEN) {
+                            rvEnd = rvEnd < 0 ? i + 1 : rvEnd;
+                        } else {
+                            versionEnd = versionEnd < 0 ? i + 1 : versionEnd;
+                        }
+                    }
+                    case OS -> os = Math.max(os, pattern);
+                    case MOBILE -> mobile = true;
+                    case TABLET -> tablet = true;
+                    case BOT -> bot |= values[pattern] != WHOLE_WORD
+                            || isWord(userAgent, i + 1 - lengths[pattern], i + 1);
+                }
+            }
+        }
+
+        BrowserFamily family = BrowserFamily.OTHER;
+        Short version = null;
+        if (browser >= 0) {
+            family = BROWSERS[values[browser] & 0xff];
+            version = switch (values[browser] >>> 8) {
+                case VERSION_TOKEN -> version(userAgent, versionEnd);
+                case RV_TOKEN -> version(userAgent, rvEnd);
+                default -> version(userAgent, browserEnd);
+            };
+        }
+        OperatingSystem system = os < 0 ? OperatingSystem.OTHER : SYSTEMS[values[os]];
+        return new UserAgentInfo(family, version, system, device(system, mobile, tablet, bot), bot);
+    }
+
+    /**
+     * Tests whether a range of a user agent is neither preceded nor followed by a letter or digit.
+     */
+    private static boolean isWord(String userAgent, int start, int end) {
+        return (start == 0 || !Character.isLetterOrDigit(userAgent.charAt(start - 1)))
+                && (end == userAgent.length() || !Character.isLetterOrDigit(userAgent.charAt(end)));
+    }
+
+    private static DeviceClass device(OperatingSystem system, boolean mobile, boolean tablet, boolean bot) {
+        if (bot) {
+            return DeviceClass.BOT;
+        }
+        if (tablet) {
+            return DeviceClass.TABLET;
+        }
+        if (mobile) {
+            return DeviceClass.MOBILE;
+        }
+        return switch (system) {
+            // Android tablets leave out the "Mobile" token.
+            case ANDROID -> DeviceClass.TABLET;
+            case WINDOWS, MACOS, LINUX, CHROME_OS -> DeviceClass.DESKTOP;
+            case IOS, OTHER -> DeviceClass.OTHER;
+        };
+    }
+
+    /**
+     * Reads the major version number starting at a position.
+     *
+     * @return the number, or null if there is no digit at the position
+     */
+    private static Short version(String userAgent, int start) {
+        if (start < 0) {
+            return null;
+        }
+        int version = 0;
+        int end = Math.min(userAgent.length(), start + MAX_VERSION_DIGITS);
+        int i = start;
+        for (; i < end; i++) {
+            char c = userAgent.charAt(i);
+            if (c < '0' || c > '9') {
+                break;
+            }
+            version = version * 10 + (c - '0');
+        }
+        return i == start ? null : (short) version;
+    }
+
+    private static void add(List<String> patterns, List<Kind> kinds, List<Integer> values,
+                            String token, Kind kind, int value) {
+        patterns.add(token);
+        kinds.add(kind);
+        values.add(value);
+    }
+}
@@ -0,0 +1,132 @@
+package com.gklyphon.easy_pixel_tracking.controllers;
+
+import com.gklyphon.easy_pixel_tracking.config.IngestionProperties;
+import com.gklyphon.easy_pixel_tracking.config.PixelProperties;
+import com.gklyphon.easy_pixel_tracking.models.HitVerdict;
+import com.gklyphon.easy_pixel_tracking.models.TrackingPixel;
+import com.gklyphon.easy_pixel_tracking.services.ICampaignService;
+import com.gklyphon.easy_pixel_tracking.services.IHitIngestionService;
+import com.gklyphon.easy_pixel_tracking.services.IHitListener;
+import com.gklyphon.easy_pixel_tracking.services.IUserAgentService;
+import com.gklyphon.easy_pixel_tracking.services.impl.HitIngestionServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that in async mode hits are handed to ingestion from the submit executor, from the request thread when its
+ * queue is full, and that hits still queued at shutdown are written before ingestion stops.
+ */
+@SpringBootTest
+class PixelControllerAsyncTests {
+
+	@Autowired
+	private IUserAgentService userAgentService;
+
+	@Autowired
+	private ICampaignService campaignService;
+
+	@Autowired
+	private ObjectProvider<IHitListener> hitListeners;
+
+	private final List<TrackingPixel> written = new CopyOnWriteArrayList<>();
+	private final List<String> submittingThreads = new CopyOnWriteArrayList<>();
+	private final CountDownLatch submitExecutorReleased = new CountDownLatch(1);
+
+	@Test
+	void submitsQueuedHitsBeforeIngestionStops() throws Exception {
+		HitIngestionServiceImpl hitIngestionService = startIngestion();
+		PixelController pixelController = pixelController(hitIngestionService, 1, 100);
+
+		for (int i = 0; i < 50; i++) {
+			assertThat(pixelController.getPixel(request(i)).getStatusCode().is2xxSuccessful()).isTrue();
+		}
+		assertThat(submittingThreads).isEmpty();
+
+		// In the order of the container: the controller depends on the ingestion service.
+		submitExecutorReleased.countDown();
+		pixelController.stop();
+		hitIngestionService.stop();
+
+		assertThat(written).hasSize(50);
+		assertThat(hitIngestionService.getPendingCount()).isZero();
+		assertThat(submittingThreads).hasSize(50).allMatch(name -> name.startsWith("pixel-submit-"));
+	}
+
+	@Test
+	void submitsFromTheRequestThreadWhenTheQueueIsFull() throws Exception {
+		HitIngestionServiceImpl hitIngestionService = startIngestion();
+		PixelController pixelController = pixelController(hitIngestionService, 1, 1);
+
+		// The first hit occupies the only submit thread and the second its queue.
+		for (int i = 0; i < 3; i++) {
+			pixelController.getPixel(request(i));
+		}
+		assertThat(submittingThreads).containsExactly(Thread.currentThread().getName());
+
+		submitExecutorReleased.countDown();
+		pixelController.stop();
+		hitIngestionService.stop();
+
+		assertThat(written).extracting(TrackingPixel::getIp)
+				.containsExactlyInAnyOrder("10.3.0.0", "10.3.0.1", "10.3.0.2");
+	}
+
+	private HitIngestionServiceImpl startIngestion() {
+		HitIngestionServiceImpl hitIngestionService = new HitIngestionServiceImpl(written::addAll, userAgentService,
+				new IngestionProperties(), hitListeners, new SimpleMeterRegistry());
+		hitIngestionService.start();
+		return hitIngestionService;
+	}
+
+	/**
+	 * Creates a controller in async mode whose submit threads wait until released before handing a hit over.
+	 */
+	private PixelController pixelController(IHitIngestionService hitIngestionService, int threads, int queueCapacity) {
+		PixelProperties properties = new PixelProperties();
+		properties.setAsync(true);
+		properties.setAsyncThreads(threads);
+		properties.setAsyncQueueCapacity(queueCapacity);
+		IHitIngestionService gated = new IHitIngestionService() {
+			@Override
+			public boolean submit(TrackingPixel trackingPixel) {
+				String thread = Thread.currentThread().getName();
+				if (thread.startsWith("pixel-submit-")) {
+					try {
+						submitExecutorReleased.await();
+					} catch (InterruptedException ex) {
+						Thread.currentThread().interrupt();
+						return false;
+					}
+				}
+				submittingThreads.add(thread);
+				return hitIngestionService.submit(trackingPixel);
+			}
+
+			@Override
+			public int getPendingCount() {
+				return hitIngestionService.getPendingCount();
+			}
+		};
+		MeterRegistry meterRegistry = new SimpleMeterRegistry();
+		return new PixelController(gated, trackingPixel -> HitVerdict.ACCEPTED, campaignService, properties,
+				meterRegistry);
+	}
+
+	private static MockHttpServletRequest request(int i) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/pixel");
+		request.setRemoteAddr("10.3.0." + i);
+		request.addHeader("User-Agent", "async-test");
+		return request;
+	}
+}
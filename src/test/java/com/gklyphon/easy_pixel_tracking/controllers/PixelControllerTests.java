@@ -0,0 +1,163 @@
+package com.gklyphon.easy_pixel_tracking.controllers;
+
+import com.gklyphon.easy_pixel_tracking.config.PixelProperties;
+import com.gklyphon.easy_pixel_tracking.models.HitVerdict;
+import com.gklyphon.easy_pixel_tracking.models.PixelImage;
+import com.gklyphon.easy_pixel_tracking.models.TrackingPixel;
+import com.gklyphon.easy_pixel_tracking.services.ICampaignService;
+import com.gklyphon.easy_pixel_tracking.services.IHitIngestionService;
+import com.gklyphon.easy_pixel_tracking.services.IHitThrottleService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.util.DigestUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks the response of each pixel variant: its bytes, Content-Type, Content-Length, ETag and
+ * {@code Cache-Control: no-store}, the 204 of the body-less variant, and that the PNG is read from a packaged jar.
+ */
+@WebMvcTest(PixelController.class)
+@EnableConfigurationProperties(PixelProperties.class)
+@Import(SimpleMeterRegistry.class)
+class PixelControllerTests {
+
+	private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@MockitoBean
+	private IHitIngestionService hitIngestionService;
+
+	@MockitoBean
+	private IHitThrottleService hitThrottleService;
+
+	@MockitoBean
+	private ICampaignService campaignService;
+
+	@BeforeEach
+	void admitEveryHit() {
+		when(hitThrottleService.admit(any())).thenReturn(HitVerdict.ACCEPTED);
+	}
+
+	@Test
+	void servesThePngByDefault() throws Exception {
+		byte[] png;
+		try (InputStream in = getClass().getResourceAsStream("/static/pixel.png")) {
+			png = in.readAllBytes();
+		}
+
+		byte[] body = assertImage(mockMvc, "image/png");
+
+		assertThat(body).isEqualTo(png).startsWith(PNG_SIGNATURE);
+		verify(hitIngestionService).submit(any(TrackingPixel.class));
+	}
+
+	@Test
+	void loadsThePngFromAPackagedJar(@TempDir Path directory) throws IOException {
+		byte[] png;
+		try (InputStream in = getClass().getResourceAsStream("/static/pixel.png")) {
+			png = in.readAllBytes();
+		}
+		Path jar = directory.resolve("app.jar");
+		try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+			out.putNextEntry(new JarEntry("static/pixel.png"));
+			out.write(png);
+			out.closeEntry();
+		}
+
+		// Only the jar, not the build output directory, can provide the image.
+		Thread thread = Thread.currentThread();
+		ClassLoader previous = thread.getContextClassLoader();
+		try (URLClassLoader packaged = new URLClassLoader(new URL[] {jar.toUri().toURL()}, null)) {
+			assertThat(packaged.getResource("static/pixel.png").getProtocol()).isEqualTo("jar");
+			thread.setContextClassLoader(packaged);
+			assertThat(PixelImage.PNG.load()).isEqualTo(png);
+		} finally {
+			thread.setContextClassLoader(previous);
+		}
+	}
+
+	@Nested
+	@TestPropertySource(properties = "tracking.pixel.format=GIF")
+	class Gif {
+
+		@Autowired
+		private MockMvc gifMockMvc;
+
+		@Test
+		void servesTheGif() throws Exception {
+			byte[] body = assertImage(gifMockMvc, "image/gif");
+
+			assertThat(body).hasSize(43).startsWith("GIF89a".getBytes(StandardCharsets.US_ASCII));
+			assertThat(body[body.length - 1]).isEqualTo((byte) 0x3B);
+		}
+	}
+
+	@Nested
+	@TestPropertySource(properties = "tracking.pixel.format=NONE")
+	class None {
+
+		@Autowired
+		private MockMvc noneMockMvc;
+
+		@Test
+		void answersWithNoContent() throws Exception {
+			MvcResult result = noneMockMvc.perform(get("/pixel"))
+					.andExpect(status().isNoContent())
+					.andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-store"))
+					.andExpect(header().doesNotExist(HttpHeaders.CONTENT_TYPE))
+					.andExpect(header().doesNotExist(HttpHeaders.ETAG))
+					.andReturn();
+
+			assertThat(result.getResponse().getContentAsByteArray()).isEmpty();
+		}
+	}
+
+	/**
+	 * Requests the pixel and checks the headers every image variant carries.
+	 *
+	 * @return the image bytes
+	 */
+	private static byte[] assertImage(MockMvc mockMvc, String contentType) throws Exception {
+		MvcResult result = mockMvc.perform(get("/pixel"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CONTENT_TYPE, contentType))
+				.andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-store"))
+				.andReturn();
+		byte[] body = result.getResponse().getContentAsByteArray();
+		assertThat(result.getResponse().getHeader(HttpHeaders.CONTENT_LENGTH)).isEqualTo(Integer.toString(body.length));
+		assertThat(result.getResponse().getHeader(HttpHeaders.ETAG))
+				.isEqualTo("\"" + DigestUtils.md5DigestAsHex(body) + "\"");
+		return body;
+	}
+}
@@ -0,0 +1,57 @@
+package com.gklyphon.easy_pixel_tracking.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the validation of /tracking requests: page sizes, and IP addresses of created tracking pixels.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class TrackingControllerTests {
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private final HttpClient client = HttpClient.newHttpClient();
+
+	@Test
+	void rejectsEmptyPagesAndReducesLargeOnes() throws Exception {
+		assertThat(get("/tracking?size=0").statusCode()).isEqualTo(400);
+		assertThat(get("/tracking?page=-1").statusCode()).isEqualTo(400);
+		assertThat(get("/tracking/by-ip?ip=10.0.0.1&size=-5").statusCode()).isEqualTo(400);
+		assertThat(get("/tracking/scroll?size=0").statusCode()).isEqualTo(400);
+
+		HttpResponse<String> response = get("/tracking?size=5000");
+		assertThat(response.statusCode()).isEqualTo(200);
+		assertThat(objectMapper.readTree(response.body()).at("/page/size").asInt()).isEqualTo(1000);
+		assertThat(get("/tracking/scroll?size=5000").statusCode()).isEqualTo(200);
+	}
+
+	@Test
+	void rejectsTrackingPixelsWhoseIpIsNotAnAddress() throws Exception {
+		HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/tracking"))
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString("{\"ip\":\"not-an-ip\",\"userAgent\":\"controller-test\"}"))
+				.build();
+
+		assertThat(client.send(request, HttpResponse.BodyHandlers.ofString()).statusCode()).isEqualTo(400);
+	}
+
+	private HttpResponse<String> get(String path) throws Exception {
+		return client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).build(),
+				HttpResponse.BodyHandlers.ofString());
+	}
+}
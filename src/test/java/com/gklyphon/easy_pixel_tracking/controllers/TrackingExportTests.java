@@ -0,0 +1,150 @@
+package com.gklyphon.easy_pixel_tracking.controllers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gklyphon.easy_pixel_tracking.models.TrackingPixel;
+import com.gklyphon.easy_pixel_tracking.services.ITrackingPixelWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that /tracking/export streams the rows matching each of its filters, newest first, as NDJSON, CSV or
+ * gzip-compressed, and an empty export when a filter value was never stored.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class TrackingExportTests {
+
+	private static final LocalDateTime FIRST = LocalDateTime.of(2019, 3, 1, 10, 0);
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private ITrackingPixelWriter trackingPixelWriter;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private final HttpClient client = HttpClient.newHttpClient();
+
+	private String userAgent;
+
+	/**
+	 * Writes three tracking pixels an hour apart, under a user agent of their own:
+	 * 10.11.0.1 from https://a.example/, then 10.11.0.2 and 10.11.0.1 from https://b.example/.
+	 */
+	@BeforeEach
+	void insert() {
+		userAgent = "export-test-" + System.nanoTime();
+		long last = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM tracking_pixel", Long.class);
+		List<TrackingPixel> trackingPixels = new ArrayList<>();
+		trackingPixels.add(new TrackingPixel.Builder().ip("10.11.0.1").userAgent(userAgent)
+				.referer("https://a.example/").build());
+		trackingPixels.add(new TrackingPixel.Builder().ip("10.11.0.2").userAgent(userAgent)
+				.referer("https://b.example/").build());
+		trackingPixels.add(new TrackingPixel.Builder().ip("10.11.0.1").userAgent(userAgent)
+				.referer("https://b.example/").build());
+		trackingPixelWriter.writeAll(trackingPixels);
+		List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM tracking_pixel WHERE id > ? ORDER BY id",
+				Long.class, last);
+		for (int i = 0; i < ids.size(); i++) {
+			LocalDateTime createdAt = FIRST.plusHours(i);
+			jdbcTemplate.update("UPDATE tracking_pixel SET created_at = ?, updated_at = ? WHERE id = ?",
+					createdAt, createdAt, ids.get(i));
+		}
+	}
+
+	@Test
+	void exportsTheRowsMatchingEachFilter() throws Exception {
+		assertThat(export("")).containsExactly(
+				"2019-03-01T12:00:00|10.11.0.1|https://b.example/",
+				"2019-03-01T11:00:00|10.11.0.2|https://b.example/",
+				"2019-03-01T10:00:00|10.11.0.1|https://a.example/");
+		assertThat(export("&ip=10.11.0.1")).containsExactly(
+				"2019-03-01T12:00:00|10.11.0.1|https://b.example/",
+				"2019-03-01T10:00:00|10.11.0.1|https://a.example/");
+		assertThat(export("&referer=" + encode("https://b.example/"))).containsExactly(
+				"2019-03-01T12:00:00|10.11.0.1|https://b.example/",
+				"2019-03-01T11:00:00|10.11.0.2|https://b.example/");
+		assertThat(export("&from=2019-03-01T11:00:00&to=2019-03-01T12:00:00")).containsExactly(
+				"2019-03-01T11:00:00|10.11.0.2|https://b.example/");
+		assertThat(export("&ip=10.11.0.1&referer=" + encode("https://a.example/"))).containsExactly(
+				"2019-03-01T10:00:00|10.11.0.1|https://a.example/");
+	}
+
+	@Test
+	void exportsNothingForValuesNeverStored() throws Exception {
+		assertThat(export("&referer=" + encode("https://never.example/"))).isEmpty();
+		assertThat(export("&ip=not-an-ip")).isEmpty();
+		assertThat(get("/tracking/export?format=CSV&user-agent=" + encode(userAgent + "-unknown")).body())
+				.isEqualTo("id,createdAt,ip,userAgent,referer\r\n");
+	}
+
+	@Test
+	void exportsCsvCompressedWithGzip() throws Exception {
+		HttpResponse<InputStream> response = client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port
+						+ "/tracking/export?format=CSV&gzip=true&ip=10.11.0.2&user-agent=" + encode(userAgent))).build(),
+				HttpResponse.BodyHandlers.ofInputStream());
+
+		assertThat(response.statusCode()).isEqualTo(200);
+		assertThat(response.headers().firstValue("Content-Encoding")).hasValue("gzip");
+		assertThat(response.headers().firstValue("Content-Disposition")).hasValueSatisfying(
+				disposition -> assertThat(disposition).contains("tracking-export.csv"));
+		try (InputStream body = new GZIPInputStream(response.body())) {
+			assertThat(new String(body.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(
+					"id,createdAt,ip,userAgent,referer\r\n" + csvRow("10.11.0.2", "2019-03-01T11:00:00", "https://b.example/"));
+		}
+	}
+
+	/**
+	 * Exports the rows of this test's user agent as NDJSON, each reduced to "createdAt|ip|referer".
+	 */
+	private List<String> export(String filters) throws Exception {
+		HttpResponse<String> response = get("/tracking/export?user-agent=" + encode(userAgent) + filters);
+		assertThat(response.statusCode()).isEqualTo(200);
+		List<String> rows = new ArrayList<>();
+		for (String line : response.body().lines().toList()) {
+			JsonNode row = objectMapper.readTree(line);
+			assertThat(row.get("userAgent").asText()).isEqualTo(userAgent);
+			rows.add(row.get("createdAt").asText() + "|" + row.get("ip").asText() + "|" + row.get("referer").asText());
+		}
+		return rows;
+	}
+
+	private String csvRow(String ip, String createdAt, String referer) {
+		long id = jdbcTemplate.queryForObject("SELECT p.id FROM tracking_pixel p JOIN user_agent u"
+				+ " ON u.id = p.user_agent_id WHERE u.content = ? AND p.created_at = ?", Long.class,
+				userAgent, LocalDateTime.parse(createdAt));
+		return id + "," + createdAt + "," + ip + "," + userAgent + "," + referer + "\r\n";
+	}
+
+	private HttpResponse<String> get(String path) throws Exception {
+		return client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).build(),
+				HttpResponse.BodyHandlers.ofString());
+	}
+
+	private static String encode(String value) {
+		return URLEncoder.encode(value, StandardCharsets.UTF_8);
+	}
+}
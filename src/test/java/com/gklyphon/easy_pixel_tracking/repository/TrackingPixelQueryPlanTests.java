@@ -0,0 +1,157 @@
+package com.gklyphon.easy_pixel_tracking.repository;
+
+import com.gklyphon.easy_pixel_tracking.models.BrowserFamily;
+import com.gklyphon.easy_pixel_tracking.models.DeviceClass;
+import com.gklyphon.easy_pixel_tracking.models.OperatingSystem;
+import com.gklyphon.easy_pixel_tracking.utils.IpAddresses;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards the /tracking filter queries against falling back to full table scans.
+ * Each repository method is called as the service calls it, and every statement Hibernate generates for it,
+ * count queries included, is explained as it was sent, with its parameters unbound.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+		+ "com.gklyphon.easy_pixel_tracking.repository.TrackingPixelQueryPlanTests$RecordingStatementInspector")
+class TrackingPixelQueryPlanTests {
+
+	private static final Pageable NEWEST_FIRST = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "createdAt"));
+	private static final Pageable SLICE = PageRequest.of(0, 11);
+	private static final LocalDateTime CREATED_AT = LocalDateTime.of(2026, 1, 1, 0, 0);
+	private static final long ID = 100;
+	private static final byte[] IP_10_0_0_1 = IpAddresses.parse("10.0.0.1");
+
+	@Autowired
+	private ITrackingPixelRepository trackingPixelRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void findByIpUsesIndex() {
+		assertUsesIndex(() -> trackingPixelRepository.findByIpAddressOrderByCreatedAt(IP_10_0_0_1, NEWEST_FIRST));
+	}
+
+	@Test
+	void findByCidrUsesIndex() {
+		IpAddresses.Range range = IpAddresses.parseCidr("10.0.0.0/8");
+		assertUsesIndex(() -> trackingPixelRepository.findByIpAddressBetweenOrderByCreatedAt(range.low(),
+				range.high(), NEWEST_FIRST));
+	}
+
+	@Test
+	void findByUserAgentUsesIndex() {
+		assertUsesIndex(() -> trackingPixelRepository.findByUserAgentIdOrderByCreatedAt(1, NEWEST_FIRST));
+	}
+
+	@Test
+	void findByRefererUsesIndex() {
+		assertUsesIndex(() -> trackingPixelRepository.findByRefererIdOrderByCreatedAt(1, NEWEST_FIRST));
+	}
+
+	@Test
+	void findByCampaignUsesIndex() {
+		assertUsesIndex(() -> trackingPixelRepository.findByCampaignIdOrderByCreatedAt(1, NEWEST_FIRST));
+	}
+
+	@Test
+	void findByClientUsesIndex() {
+		assertUsesIndex(() -> trackingPixelRepository.findByBrowserOrderByCreatedAt(BrowserFamily.values()[0],
+				NEWEST_FIRST));
+		assertUsesIndex(() -> trackingPixelRepository.findByOperatingSystemOrderByCreatedAt(
+				OperatingSystem.values()[0], NEWEST_FIRST));
+		assertUsesIndex(() -> trackingPixelRepository.findByDeviceClassOrderByCreatedAt(DeviceClass.values()[0],
+				NEWEST_FIRST));
+		assertUsesIndex(() -> trackingPixelRepository.findByBotOrderByCreatedAt(false, NEWEST_FIRST));
+	}
+
+	@Test
+	void dictionaryLookupUsesIndex() {
+		// Issued through JDBC by the dictionary service, as written here.
+		assertUsesIndex("SELECT id FROM user_agent WHERE content_hash = ? AND content = ?");
+		assertUsesIndex("SELECT id FROM referer WHERE content_hash = ? AND content = ?");
+		assertUsesIndex("SELECT id FROM campaign WHERE content_hash = ? AND content = ?");
+	}
+
+	@Test
+	void scrollByIpUsesIndex() {
+		assertUsesIndex(() -> trackingPixelRepository.findOlderByIpAddress(IP_10_0_0_1, CREATED_AT, ID, SLICE));
+		assertUsesIndex(() -> trackingPixelRepository.findNewerByIpAddress(IP_10_0_0_1, CREATED_AT, ID, SLICE));
+	}
+
+	@Test
+	void scrollByUserAgentUsesIndex() {
+		assertUsesIndex(() -> trackingPixelRepository.findOlderByUserAgentId(1, CREATED_AT, ID, SLICE));
+		assertUsesIndex(() -> trackingPixelRepository.findNewerByUserAgentId(1, CREATED_AT, ID, SLICE));
+	}
+
+	@Test
+	void scrollByRefererUsesIndex() {
+		assertUsesIndex(() -> trackingPixelRepository.findOlderByRefererId(1, CREATED_AT, ID, SLICE));
+		assertUsesIndex(() -> trackingPixelRepository.findNewerByRefererId(1, CREATED_AT, ID, SLICE));
+	}
+
+	@Test
+	void scrollByCampaignUsesIndex() {
+		assertUsesIndex(() -> trackingPixelRepository.findOlderByCampaignId(1, CREATED_AT, ID, SLICE));
+		assertUsesIndex(() -> trackingPixelRepository.findNewerByCampaignId(1, CREATED_AT, ID, SLICE));
+	}
+
+	private void assertUsesIndex(Runnable query) {
+		List<String> statements = RecordingStatementInspector.record(query);
+		assertThat(statements).isNotEmpty();
+		statements.forEach(this::assertUsesIndex);
+	}
+
+	private void assertUsesIndex(String sql) {
+		String plan = jdbcTemplate.query("EXPLAIN " + sql, statement -> {
+			for (int i = 1; i <= statement.getParameterMetaData().getParameterCount(); i++) {
+				statement.setNull(i, Types.NULL);
+			}
+		}, (ResultSet rows) -> rows.next() ? rows.getString(1) : null);
+		assertThat(plan).as(sql).isNotNull().doesNotContainIgnoringCase("tableScan");
+	}
+
+	/**
+	 * Records the statements Hibernate prepares on the calling thread while a query runs.
+	 */
+	public static class RecordingStatementInspector implements StatementInspector {
+
+		private static final ThreadLocal<List<String>> STATEMENTS = new ThreadLocal<>();
+
+		static List<String> record(Runnable query) {
+			List<String> statements = new ArrayList<>();
+			STATEMENTS.set(statements);
+			try {
+				query.run();
+			} finally {
+				STATEMENTS.remove();
+			}
+			return statements;
+		}
+
+		@Override
+		public String inspect(String sql) {
+			List<String> statements = STATEMENTS.get();
+			if (statements != null) {
+				statements.add(sql);
+			}
+			return sql;
+		}
+	}
+}
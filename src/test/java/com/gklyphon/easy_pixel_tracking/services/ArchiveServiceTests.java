@@ -0,0 +1,204 @@
+package com.gklyphon.easy_pixel_tracking.services;
+
+import com.gklyphon.easy_pixel_tracking.config.ArchiveProperties;
+import com.gklyphon.easy_pixel_tracking.models.HitDimension;
+import com.gklyphon.easy_pixel_tracking.models.TrackingPixel;
+import com.gklyphon.easy_pixel_tracking.repository.IWalCheckpointRepository;
+import com.gklyphon.easy_pixel_tracking.services.impl.ArchiveServiceImpl;
+import com.gklyphon.easy_pixel_tracking.utils.ColumnarSegment;
+import com.gklyphon.easy_pixel_tracking.utils.IpAddresses;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that archived days are read back in order from their segments, that a day written again replaces
+ * its previous generation without duplicating rows, that files left by a crash are completed or discarded
+ * according to the checkpoint, and that expired days are dropped.
+ */
+@SpringBootTest
+class ArchiveServiceTests {
+
+	private static final LocalDate FIRST_DAY = LocalDate.now().minusDays(41);
+	private static final LocalDate SECOND_DAY = LocalDate.now().minusDays(40);
+	private static final LocalDate RECOVERED_DAY = LocalDate.now().minusDays(42);
+	private static final LocalDate EXPIRED_DAY = LocalDate.now().minusDays(50);
+
+	@TempDir
+	static Path directory;
+
+	@DynamicPropertySource
+	static void archiveDirectory(DynamicPropertyRegistry registry) {
+		registry.add("tracking.archive.directory", directory::toString);
+	}
+
+	@Autowired
+	private ArchiveServiceImpl archiveService;
+
+	@Autowired
+	private ArchiveProperties archiveProperties;
+
+	@Autowired
+	private ITrackingPixelWriter trackingPixelWriter;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private IWalCheckpointRepository walCheckpointRepository;
+
+	@Autowired
+	private IUserAgentService userAgentService;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@BeforeEach
+	void enableArchive() {
+		archiveProperties.setEnabled(true);
+	}
+
+	@AfterEach
+	void disableArchive() {
+		archiveProperties.setEnabled(false);
+	}
+
+	@Test
+	void archivesDaysAndReadsThemBack() throws IOException {
+		long before = archiveService.count(HitDimension.ALL, null);
+		long first = insert(FIRST_DAY, "10.1.0.1", "10.1.0.2", "10.1.0.1");
+		insert(SECOND_DAY, "10.1.0.3", "10.1.0.1");
+
+		archiveService.archive();
+
+		assertThat(liveRowsBefore(SECOND_DAY.plusDays(1))).isZero();
+		assertThat(segmentFiles(FIRST_DAY)).hasSize(1);
+		assertThat(archiveService.count(HitDimension.ALL, null)).isEqualTo(before + 5);
+		assertThat(archiveService.count(HitDimension.IP, "10.1.0.1")).isEqualTo(3);
+		assertThat(archiveService.count(HitDimension.IP, "10.1.0.9")).isZero();
+		assertThat(archiveService.countInRange(IpAddresses.parseCidr("10.1.0.0/30"))).isEqualTo(5);
+		assertThat(archiveService.countInRange(IpAddresses.parseCidr("10.1.0.2/31"))).isEqualTo(2);
+		assertThat(archiveService.countInRange(IpAddresses.parseCidr("10.1.1.0/24"))).isZero();
+
+		List<TrackingPixel> page = archiveService.findOldestFirst(HitDimension.IP, "10.1.0.1", 1, 10);
+		assertThat(page).extracting(TrackingPixel::getCreatedAt)
+				.containsExactly(FIRST_DAY.atTime(10, 2), SECOND_DAY.atTime(10, 1));
+		assertThat(archiveService.findById(first + 1)).get()
+				.extracting(TrackingPixel::getIp).isEqualTo("10.1.0.2");
+	}
+
+	@Test
+	void writesAnArchivedDayAgainWithoutDuplicates() throws IOException {
+		insert(FIRST_DAY, "10.2.0.1");
+		archiveService.archive();
+		long before = archiveService.count(HitDimension.ALL, null);
+		Path previous = segmentFiles(FIRST_DAY).get(0);
+
+		insert(FIRST_DAY, "10.2.0.2");
+		archiveService.archive();
+
+		assertThat(archiveService.count(HitDimension.ALL, null)).isEqualTo(before + 1);
+		assertThat(archiveService.count(HitDimension.IP, "10.2.0.1")).isEqualTo(1);
+		assertThat(segmentFiles(FIRST_DAY)).hasSize(1).doesNotContain(previous);
+	}
+
+	@Test
+	void completesOrDiscardsFilesLeftByACrash() throws IOException {
+		insert(FIRST_DAY, "10.3.0.1");
+		archiveService.archive();
+		Path segment = segmentFiles(FIRST_DAY).get(0);
+		long checkpoint = walCheckpointRepository.findById("archive").orElseThrow().getLastSequence();
+		long before = archiveService.count(HitDimension.ALL, null);
+
+		// Written again but not committed: its rows are still in the table, so the file must go.
+		Path uncommitted = directory.resolve(FIRST_DAY + "." + (checkpoint + 1) + ".seg.tmp");
+		Files.copy(segment, uncommitted);
+		// Committed but not yet renamed, replacing an older generation left next to it.
+		Path committed = directory.resolve(RECOVERED_DAY + "." + checkpoint + ".seg.tmp");
+		Files.copy(segment, committed);
+		Path superseded = directory.resolve(RECOVERED_DAY + "." + (checkpoint - 1) + ".seg");
+		Files.copy(segment, superseded);
+
+		ArchiveServiceImpl restarted = new ArchiveServiceImpl(jdbcTemplate, walCheckpointRepository,
+				userAgentService, transactionManager, archiveProperties, new SimpleMeterRegistry());
+		restarted.load();
+
+		assertThat(uncommitted).doesNotExist();
+		assertThat(committed).doesNotExist();
+		assertThat(superseded).doesNotExist();
+		Path recovered = directory.resolve(RECOVERED_DAY + "." + checkpoint + ".seg");
+		assertThat(segmentFiles(RECOVERED_DAY)).containsExactly(recovered);
+		assertThat(restarted.count(HitDimension.ALL, null))
+				.isEqualTo(before + ColumnarSegment.open(segment).getRowCount());
+		Files.delete(recovered);
+	}
+
+	@Test
+	void dropsExpiredDays() throws IOException {
+		insert(EXPIRED_DAY, "10.5.0.1", "10.5.0.2");
+		archiveService.archive();
+		long before = archiveService.count(HitDimension.ALL, null);
+		Path expired = segmentFiles(EXPIRED_DAY).get(0);
+
+		assertThat(archiveService.dropBefore(EXPIRED_DAY.plusDays(1))).isEqualTo(2);
+
+		assertThat(expired).doesNotExist();
+		assertThat(archiveService.count(HitDimension.ALL, null)).isEqualTo(before - 2);
+		assertThat(archiveService.count(HitDimension.IP, "10.5.0.1")).isZero();
+		assertThat(archiveService.dropBefore(EXPIRED_DAY.plusDays(1))).isZero();
+	}
+
+	/**
+	 * Writes one tracking pixel per IP address, a minute apart from 10:00 of a day.
+	 *
+	 * @return the id of the first one
+	 */
+	private long insert(LocalDate day, String... ips) {
+		long last = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM tracking_pixel", Long.class);
+		List<TrackingPixel> trackingPixels = new ArrayList<>();
+		for (String ip : ips) {
+			trackingPixels.add(new TrackingPixel.Builder().ip(ip).userAgent("archive-test").build());
+		}
+		trackingPixelWriter.writeAll(trackingPixels);
+		List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM tracking_pixel WHERE id > ? ORDER BY id",
+				Long.class, last);
+		for (int i = 0; i < ids.size(); i++) {
+			LocalDateTime createdAt = day.atTime(10, i);
+			jdbcTemplate.update("UPDATE tracking_pixel SET created_at = ?, updated_at = ? WHERE id = ?",
+					createdAt, createdAt, ids.get(i));
+		}
+		return ids.get(0);
+	}
+
+	private long liveRowsBefore(LocalDate day) {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tracking_pixel WHERE created_at < ?", Long.class,
+				day.atStartOfDay());
+	}
+
+	private static List<Path> segmentFiles(LocalDate day) throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.filter(file -> file.getFileName().toString().startsWith(day + "."))
+					.filter(file -> file.getFileName().toString().endsWith(".seg"))
+					.toList();
+		}
+	}
+}
@@ -0,0 +1,142 @@
+package com.gklyphon.easy_pixel_tracking.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gklyphon.easy_pixel_tracking.config.BatchProperties;
+import com.gklyphon.easy_pixel_tracking.config.PixelProperties;
+import com.gklyphon.easy_pixel_tracking.models.BatchFailure;
+import com.gklyphon.easy_pixel_tracking.models.BatchFormat;
+import com.gklyphon.easy_pixel_tracking.models.BatchRecordStatus;
+import com.gklyphon.easy_pixel_tracking.models.BatchResult;
+import com.gklyphon.easy_pixel_tracking.services.impl.BatchIngestionServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Checks that a chunk that cannot be written fails only its own records, and that the batch endpoint reads gzip
+ * bodies, cuts batches off at the record limit with 413 and lists a bounded number of failures.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"tracking.batch.max-records=6",
+		"tracking.batch.max-failures=2"
+})
+class BatchIngestionServiceTests {
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private ITrackingPixelWriter trackingPixelWriter;
+
+	@Autowired
+	private IUserAgentService userAgentService;
+
+	@Autowired
+	private ICampaignService campaignService;
+
+	@Autowired
+	private PixelProperties pixelProperties;
+
+	@Autowired
+	private ObjectProvider<IHitListener> hitListeners;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private final HttpClient client = HttpClient.newHttpClient();
+
+	@Test
+	void failsOnlyTheRecordsOfAChunkThatCannotBeWritten() throws IOException {
+		BatchProperties properties = new BatchProperties();
+		properties.setChunkSize(2);
+		AtomicInteger writes = new AtomicInteger();
+		ITrackingPixelWriter failingSecondWrite = trackingPixels -> {
+			if (writes.incrementAndGet() == 2) {
+				throw new IllegalStateException("Connection lost");
+			}
+			trackingPixelWriter.writeAll(trackingPixels);
+		};
+		BatchIngestionServiceImpl batchIngestionService = new BatchIngestionServiceImpl(failingSecondWrite,
+				userAgentService, campaignService, properties, pixelProperties, hitListeners, new SimpleMeterRegistry());
+
+		// Chunks are [0, 2], [3, 4] and [5]; record 1 is rejected before any write.
+		BatchResult result = batchIngestionService.ingest(BatchFormat.NDJSON, new ByteArrayInputStream(
+				ndjson("10.8.0.1", "not-an-ip", "10.8.0.2", "10.8.0.3", "10.8.0.4", "10.8.0.5")));
+
+		assertThat(result.getRecords()).isEqualTo(6);
+		assertThat(result.getAccepted()).isEqualTo(3);
+		assertThat(result.getRejected()).isEqualTo(1);
+		assertThat(result.getFailed()).isEqualTo(2);
+		assertThat(result.getFailures()).extracting(BatchFailure::index, BatchFailure::status)
+				.containsExactly(
+						tuple(1L, BatchRecordStatus.REJECTED),
+						tuple(3L, BatchRecordStatus.FAILED),
+						tuple(4L, BatchRecordStatus.FAILED));
+		assertThat(result.isFailuresTruncated()).isFalse();
+	}
+
+	@Test
+	void readsGzipBodiesAndCutsOffLongBatches() throws Exception {
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+		try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+			out.write(ndjson("10.8.1.1", "10.8.1.2", "10.8.1.3", "10.8.1.4", "10.8.1.5", "10.8.1.6", "10.8.1.7"));
+		}
+
+		HttpResponse<String> response = post(compressed.toByteArray(), true);
+
+		assertThat(response.statusCode()).isEqualTo(413);
+		JsonNode result = objectMapper.readTree(response.body());
+		assertThat(result.get("records").asLong()).isEqualTo(6);
+		assertThat(result.get("accepted").asLong()).isEqualTo(6);
+		assertThat(result.get("truncated").asBoolean()).isTrue();
+	}
+
+	@Test
+	void listsABoundedNumberOfFailures() throws Exception {
+		HttpResponse<String> response = post(ndjson("a", "10.8.2.1", "b", "c", "d"), false);
+
+		assertThat(response.statusCode()).isEqualTo(200);
+		JsonNode result = objectMapper.readTree(response.body());
+		assertThat(result.get("rejected").asLong()).isEqualTo(4);
+		assertThat(result.get("accepted").asLong()).isEqualTo(1);
+		assertThat(result.get("failures")).extracting(failure -> failure.get("index").asLong())
+				.containsExactly(0L, 2L);
+		assertThat(result.get("failuresTruncated").asBoolean()).isTrue();
+	}
+
+	private HttpResponse<String> post(byte[] body, boolean gzip) throws Exception {
+		HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/tracking/batch"))
+				.header("Content-Type", "application/x-ndjson")
+				.POST(HttpRequest.BodyPublishers.ofByteArray(body));
+		if (gzip) {
+			request.header("Content-Encoding", "gzip");
+		}
+		return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+	}
+
+	private static byte[] ndjson(String... ips) {
+		StringBuilder lines = new StringBuilder();
+		for (String ip : ips) {
+			lines.append("{\"ip\":\"").append(ip).append("\",\"userAgent\":\"batch-test\"}\n");
+		}
+		return lines.toString().getBytes(StandardCharsets.UTF_8);
+	}
+}
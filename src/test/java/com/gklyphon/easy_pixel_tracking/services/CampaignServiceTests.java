@@ -0,0 +1,140 @@
+package com.gklyphon.easy_pixel_tracking.services;
+
+import com.gklyphon.easy_pixel_tracking.config.CampaignProperties;
+import com.gklyphon.easy_pixel_tracking.models.TrackingPixel;
+import com.gklyphon.easy_pixel_tracking.repository.ICampaignCounterRepository;
+import com.gklyphon.easy_pixel_tracking.services.impl.CampaignServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that campaign counts are written and read back across nodes sharing the campaign_counter table,
+ * that overlapping flushes write each hit once, and that the counter cap and idle release never stop a campaign
+ * from being counted for good.
+ */
+@SpringBootTest
+class CampaignServiceTests {
+
+	@Autowired
+	private ICampaignCounterRepository campaignCounterRepository;
+
+	@Test
+	void countsAcrossNodes() {
+		CampaignServiceImpl first = new CampaignServiceImpl(campaignCounterRepository, new CampaignProperties(),
+				new SimpleMeterRegistry());
+		CampaignServiceImpl second = new CampaignServiceImpl(campaignCounterRepository, new CampaignProperties(),
+				new SimpleMeterRegistry());
+
+		hit(first, "nodes", 3);
+		hit(second, "nodes", 2);
+		assertThat(first.count("nodes").hits()).isEqualTo(3);
+
+		first.flush();
+		assertThat(first.count("nodes").hits()).isEqualTo(3);
+		// Not flushed yet: the table plus what is pending on this node.
+		assertThat(second.count("nodes").hits()).isEqualTo(5);
+
+		second.flush();
+		hit(first, "nodes", 1);
+		first.flush();
+		assertThat(first.count("nodes").hits()).isEqualTo(6);
+		assertThat(campaignCounterRepository.findHitCount("nodes")).contains(6L);
+		assertThat(first.count("never-hit").hits()).isZero();
+	}
+
+	@Test
+	void releasesCountersWhenFullOrIdle() {
+		CampaignProperties properties = new CampaignProperties();
+		properties.setMaxCampaigns(2);
+		properties.setFlushInterval(Duration.ofSeconds(5));
+		properties.setIdleTimeout(Duration.ofSeconds(10));
+		MeterRegistry meterRegistry = new SimpleMeterRegistry();
+		CampaignServiceImpl campaignService = new CampaignServiceImpl(campaignCounterRepository, properties,
+				meterRegistry);
+
+		hit(campaignService, "flood-1", 1);
+		hit(campaignService, "flood-2", 1);
+		hit(campaignService, "real", 1);
+		assertThat(meterRegistry.get("tracking.campaign.uncounted").functionCounter().count()).isEqualTo(1);
+
+		// Written on the first flush, released on the next one as the cap is reached.
+		campaignService.flush();
+		campaignService.flush();
+		assertThat(counters(meterRegistry)).isZero();
+		hit(campaignService, "real", 2);
+		campaignService.flush();
+		assertThat(campaignService.count("real").hits()).isEqualTo(2);
+		assertThat(campaignService.count("flood-1").hits()).isEqualTo(1);
+
+		// Below the cap, released after two flushes without hits.
+		campaignService.flush();
+		assertThat(counters(meterRegistry)).isEqualTo(1);
+		campaignService.flush();
+		assertThat(counters(meterRegistry)).isZero();
+		assertThat(campaignService.count("real").hits()).isEqualTo(2);
+	}
+
+	@Test
+	void writesEachHitOnceWhenFlushesOverlap() throws Exception {
+		CampaignServiceImpl campaignService = new CampaignServiceImpl(campaignCounterRepository,
+				new CampaignProperties(), new SimpleMeterRegistry());
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			for (int round = 1; round <= 50; round++) {
+				hit(campaignService, "overlap", 1);
+				// A scheduled flush and the flush on shutdown.
+				CyclicBarrier start = new CyclicBarrier(2);
+				Callable<Void> flush = () -> {
+					start.await();
+					campaignService.flush();
+					return null;
+				};
+				for (Future<Void> flushed : executor.invokeAll(List.of(flush, flush))) {
+					flushed.get();
+				}
+				assertThat(campaignCounterRepository.findHitCount("overlap")).contains((long) round);
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	void acceptsOnlyAllowedTokens() {
+		CampaignProperties properties = new CampaignProperties();
+		CampaignServiceImpl campaignService = new CampaignServiceImpl(campaignCounterRepository, properties,
+				new SimpleMeterRegistry());
+
+		assertThat(campaignService.accepts("spring-sale")).isTrue();
+		assertThat(campaignService.accepts("not a token")).isFalse();
+		assertThat(campaignService.accepts("x".repeat(TrackingPixel.CAMPAIGN_LENGTH + 1))).isFalse();
+
+		properties.setAllowed(Set.of("spring-sale"));
+		assertThat(campaignService.accepts("spring-sale")).isTrue();
+		assertThat(campaignService.accepts("summer-sale")).isFalse();
+	}
+
+	private static void hit(CampaignServiceImpl campaignService, String campaign, int times) {
+		for (int i = 0; i < times; i++) {
+			campaignService.onHit(new TrackingPixel.Builder().campaign(campaign).build());
+		}
+	}
+
+	private static double counters(MeterRegistry meterRegistry) {
+		return meterRegistry.get("tracking.campaign.counters").gauge().value();
+	}
+}
@@ -0,0 +1,59 @@
+package com.gklyphon.easy_pixel_tracking.services;
+
+import com.gklyphon.easy_pixel_tracking.config.DictionaryProperties;
+import com.gklyphon.easy_pixel_tracking.models.TrackingPixel;
+import com.gklyphon.easy_pixel_tracking.services.impl.DictionaryServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that dimension keys keep being cached once the cache is full, and that evicted strings keep their keys.
+ */
+@SpringBootTest
+class DictionaryServiceTests {
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private IUserAgentService userAgentService;
+
+	@Test
+	void keepsCachingPastTheCacheSize() {
+		DictionaryProperties properties = new DictionaryProperties();
+		properties.setCacheSize(2);
+		MeterRegistry meterRegistry = new SimpleMeterRegistry();
+		DictionaryServiceImpl dictionaryService = new DictionaryServiceImpl(jdbcTemplate, transactionManager,
+				userAgentService, properties, meterRegistry);
+
+		Integer[] ids = new Integer[5];
+		for (int i = 0; i < ids.length; i++) {
+			TrackingPixel trackingPixel = new TrackingPixel.Builder().ip("10.9.0.1")
+					.referer("https://dictionary.example/" + i).build();
+			dictionaryService.encode(trackingPixel);
+			ids[i] = trackingPixel.getRefererId();
+		}
+		double hits = hits(meterRegistry);
+		for (int i = 0; i < 10; i++) {
+			assertThat(dictionaryService.findRefererId("https://dictionary.example/4")).isEqualTo(ids[4]);
+		}
+
+		assertThat(hits(meterRegistry)).isGreaterThan(hits);
+		assertThat(dictionaryService.findRefererId("https://dictionary.example/0")).isEqualTo(ids[0]);
+	}
+
+	private static double hits(MeterRegistry meterRegistry) {
+		return meterRegistry.get("cache.gets").tags("cache", "dictionary", "table", "referer", "key", "content",
+				"result", "hit").functionCounter().count();
+	}
+}
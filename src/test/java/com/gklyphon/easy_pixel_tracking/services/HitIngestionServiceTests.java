@@ -0,0 +1,127 @@
+package com.gklyphon.easy_pixel_tracking.services;
+
+import com.gklyphon.easy_pixel_tracking.config.IngestionProperties;
+import com.gklyphon.easy_pixel_tracking.models.TrackingPixel;
+import com.gklyphon.easy_pixel_tracking.services.impl.HitIngestionServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that a batch that cannot be written is tried again before its hits are counted as lost, and that no hit
+ * accepted while the service stops is left in the buffer.
+ */
+@SpringBootTest
+class HitIngestionServiceTests {
+
+	@Autowired
+	private IUserAgentService userAgentService;
+
+	@Autowired
+	private ObjectProvider<IHitListener> hitListeners;
+
+	@Test
+	void retriesAFailedBatchOnce() throws Exception {
+		List<TrackingPixel> written = new CopyOnWriteArrayList<>();
+		AtomicInteger writes = new AtomicInteger();
+		MeterRegistry meterRegistry = new SimpleMeterRegistry();
+		HitIngestionServiceImpl hitIngestionService = start(trackingPixels -> {
+			if (writes.incrementAndGet() == 1) {
+				throw new IllegalStateException("Connection lost");
+			}
+			written.addAll(trackingPixels);
+		}, meterRegistry);
+
+		submit(hitIngestionService, 3);
+		hitIngestionService.stop();
+
+		assertThat(written).hasSize(3);
+		assertThat(meterRegistry.get("tracking.ingestion.failures").counter().count()).isEqualTo(1);
+		assertThat(lost(meterRegistry)).isZero();
+	}
+
+	@Test
+	void countsTheHitsOfABatchThatFailsTwice() throws Exception {
+		MeterRegistry meterRegistry = new SimpleMeterRegistry();
+		HitIngestionServiceImpl hitIngestionService = start(trackingPixels -> {
+			throw new IllegalStateException("Connection lost");
+		}, meterRegistry);
+
+		submit(hitIngestionService, 1);
+		hitIngestionService.stop();
+
+		assertThat(meterRegistry.get("tracking.ingestion.failures").counter().count()).isEqualTo(2);
+		assertThat(lost(meterRegistry)).isEqualTo(1);
+		assertThat(hitIngestionService.getDroppedCount()).isZero();
+	}
+
+	@Test
+	void writesEveryHitAcceptedWhileStopping() throws Exception {
+		List<TrackingPixel> written = new CopyOnWriteArrayList<>();
+		HitIngestionServiceImpl hitIngestionService = start(written::addAll, new SimpleMeterRegistry());
+		AtomicInteger accepted = new AtomicInteger();
+		CountDownLatch submitting = new CountDownLatch(4);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<?>> submitters = new CopyOnWriteArrayList<>();
+			for (int t = 0; t < 4; t++) {
+				submitters.add(executor.submit(() -> {
+					submitting.countDown();
+					for (int i = 0; i < 2_000; i++) {
+						if (hitIngestionService.submit(hit(i))) {
+							accepted.incrementAndGet();
+						}
+					}
+				}));
+			}
+			submitting.await();
+			hitIngestionService.stop();
+			for (Future<?> submitter : submitters) {
+				submitter.get(30, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		assertThat(hitIngestionService.getPendingCount()).isZero();
+		assertThat(written).hasSize(accepted.get());
+	}
+
+	private HitIngestionServiceImpl start(ITrackingPixelWriter trackingPixelWriter, MeterRegistry meterRegistry) {
+		IngestionProperties properties = new IngestionProperties();
+		properties.setFlushInterval(Duration.ofMillis(20));
+		HitIngestionServiceImpl hitIngestionService = new HitIngestionServiceImpl(trackingPixelWriter,
+				userAgentService, properties, hitListeners, meterRegistry);
+		hitIngestionService.start();
+		return hitIngestionService;
+	}
+
+	private static void submit(HitIngestionServiceImpl hitIngestionService, int hits) {
+		for (int i = 0; i < hits; i++) {
+			assertThat(hitIngestionService.submit(hit(i))).isTrue();
+		}
+	}
+
+	private static TrackingPixel hit(int i) {
+		return new TrackingPixel.Builder().ip("10.9.0." + (i % 256)).userAgent("ingestion-test").build();
+	}
+
+	private static double lost(MeterRegistry meterRegistry) {
+		return meterRegistry.get("tracking.ingestion.hits").tag("result", "lost").counter().count();
+	}
+}
@@ -0,0 +1,132 @@
+package com.gklyphon.easy_pixel_tracking.services;
+
+import com.gklyphon.easy_pixel_tracking.models.TrackingPixel;
+import com.gklyphon.easy_pixel_tracking.services.impl.HitStreamServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static java.time.format.DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that subscribers receive the hits their filter selects, that a full backlog loses its oldest hits,
+ * and that coalesced frames count each hit towards its own second.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"tracking.stream.backlog=3",
+		// Flushed by the tests, hits are backdated by more than the interval so their seconds are closed.
+		"tracking.stream.flush-interval=PT1H"
+})
+class HitStreamServiceTests {
+
+	private static final LocalDateTime PAST = LocalDateTime.now().minusHours(2).truncatedTo(ChronoUnit.SECONDS);
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private HitStreamServiceImpl hitStreamService;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	private final HttpClient client = HttpClient.newHttpClient();
+
+	@Test
+	void streamsMatchingHitsAndDropsTheOldest() throws Exception {
+		BlockingQueue<String> events = subscribe("?referer=https://filter.example/");
+		double dropped = dropped("backlog");
+
+		for (int i = 1; i <= 5; i++) {
+			hitStreamService.onHit(hit("https://filter.example/" + i, PAST, false));
+		}
+		hitStreamService.onHit(hit("https://other.example/", PAST, false));
+		hitStreamService.flush();
+
+		assertThat(events.poll(5, TimeUnit.SECONDS)).contains("https://filter.example/4");
+		assertThat(events.poll(5, TimeUnit.SECONDS)).contains("https://filter.example/5");
+		assertThat(events.poll(500, TimeUnit.MILLISECONDS)).isNull();
+		assertThat(dropped("backlog") - dropped).isEqualTo(3);
+	}
+
+	@Test
+	void coalescesHitsIntoTheirOwnSecond() throws Exception {
+		BlockingQueue<String> events = subscribe("?referer=https://frames.example/&coalesce=true");
+		double late = dropped("late");
+
+		hitStreamService.onHit(hit("https://frames.example/", PAST, false));
+		hitStreamService.onHit(hit("https://frames.example/", PAST.plusSeconds(1), false));
+		hitStreamService.onHit(hit("https://frames.example/", PAST.plusNanos(500_000_000), true));
+		hitStreamService.flush();
+
+		String first = events.poll(5, TimeUnit.SECONDS);
+		assertThat(first).contains("\"second\":\"" + ISO_LOCAL_DATE_TIME.format(PAST) + "\"")
+				.contains("\"hits\":2")
+				.contains("\"bots\":1");
+		String second = events.poll(5, TimeUnit.SECONDS);
+		assertThat(second).contains("\"second\":\"" + ISO_LOCAL_DATE_TIME.format(PAST.plusSeconds(1)) + "\"")
+				.contains("\"hits\":1");
+
+		hitStreamService.onHit(hit("https://frames.example/", PAST, false));
+		hitStreamService.flush();
+
+		assertThat(events.poll(500, TimeUnit.MILLISECONDS)).isNull();
+		assertThat(dropped("late") - late).isEqualTo(1);
+	}
+
+	/**
+	 * Opens a stream, waits until it is subscribed and collects the data lines of its events.
+	 * The response headers only arrive with the first event, so the subscription is awaited on the server.
+	 */
+	private BlockingQueue<String> subscribe(String query) throws Exception {
+		HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/tracking/stream" + query))
+				.build();
+		double subscribed = subscribers();
+		CompletableFuture<HttpResponse<Stream<String>>> response = client.sendAsync(request,
+				HttpResponse.BodyHandlers.ofLines());
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (subscribers() == subscribed && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+		assertThat(subscribers()).isEqualTo(subscribed + 1);
+		BlockingQueue<String> events = new LinkedBlockingQueue<>();
+		Thread.ofVirtual().start(() -> response.join().body()
+				.filter(line -> line.startsWith("data:"))
+				.forEach(events::add));
+		return events;
+	}
+
+	private double subscribers() {
+		return meterRegistry.get("tracking.stream.subscribers").gauge().value();
+	}
+
+	private double dropped(String stage) {
+		return meterRegistry.get("tracking.stream.dropped").tag("stage", stage).functionCounter().count();
+	}
+
+	private static TrackingPixel hit(String referer, LocalDateTime createdAt, boolean bot) {
+		TrackingPixel trackingPixel = new TrackingPixel.Builder()
+				.ip("10.0.0.1")
+				.userAgent("stream-test")
+				.referer(referer)
+				.build();
+		trackingPixel.setCreatedAt(createdAt);
+		trackingPixel.setBot(bot);
+		return trackingPixel;
+	}
+}
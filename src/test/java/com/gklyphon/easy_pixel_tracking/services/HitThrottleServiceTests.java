@@ -0,0 +1,64 @@
+package com.gklyphon.easy_pixel_tracking.services;
+
+import com.gklyphon.easy_pixel_tracking.config.DedupProperties;
+import com.gklyphon.easy_pixel_tracking.config.RateLimitProperties;
+import com.gklyphon.easy_pixel_tracking.models.HitVerdict;
+import com.gklyphon.easy_pixel_tracking.models.TrackingPixel;
+import com.gklyphon.easy_pixel_tracking.services.impl.HitThrottleServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that repeats are discarded before they take a token and that nothing is discarded when both are disabled.
+ */
+class HitThrottleServiceTests {
+
+	@Test
+	void discardsRepeatsBeforeTakingTokens() {
+		DedupProperties dedupProperties = new DedupProperties();
+		dedupProperties.setEnabled(true);
+		RateLimitProperties rateLimitProperties = new RateLimitProperties();
+		rateLimitProperties.setEnabled(true);
+		rateLimitProperties.setRate(0.001);
+		rateLimitProperties.setBurst(2);
+		MeterRegistry meterRegistry = new SimpleMeterRegistry();
+		HitThrottleServiceImpl hitThrottleService = new HitThrottleServiceImpl(dedupProperties, rateLimitProperties,
+				meterRegistry);
+
+		assertThat(hitThrottleService.admit(hit("/a"))).isEqualTo(HitVerdict.ACCEPTED);
+		for (int i = 0; i < 5; i++) {
+			assertThat(hitThrottleService.admit(hit("/a"))).isEqualTo(HitVerdict.DUPLICATE);
+		}
+		assertThat(hitThrottleService.admit(hit("/b"))).isEqualTo(HitVerdict.ACCEPTED);
+		assertThat(hitThrottleService.admit(hit("/c"))).isEqualTo(HitVerdict.RATE_LIMITED);
+
+		assertThat(meterRegistry.get("tracking.pixel.suppressed").tag("reason", "duplicate").counter().count())
+				.isEqualTo(5);
+		assertThat(meterRegistry.get("tracking.pixel.suppressed").tag("reason", "rate_limited").counter().count())
+				.isEqualTo(1);
+	}
+
+	@Test
+	void admitsEverythingWhenDisabled() {
+		MeterRegistry meterRegistry = new SimpleMeterRegistry();
+		HitThrottleServiceImpl hitThrottleService = new HitThrottleServiceImpl(new DedupProperties(),
+				new RateLimitProperties(), meterRegistry);
+
+		for (int i = 0; i < 1_000; i++) {
+			assertThat(hitThrottleService.admit(hit("/a"))).isEqualTo(HitVerdict.ACCEPTED);
+		}
+		assertThat(meterRegistry.find("tracking.rate-limit.ips").gauge()).isNull();
+		assertThat(meterRegistry.find("tracking.dedup.early-rotations").functionCounter()).isNull();
+	}
+
+	private static TrackingPixel hit(String path) {
+		return new TrackingPixel.Builder()
+				.ip("10.0.0.1")
+				.userAgent("Mozilla/5.0")
+				.referer("https://example.com" + path)
+				.build();
+	}
+}
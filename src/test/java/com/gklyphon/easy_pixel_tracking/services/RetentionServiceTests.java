@@ -0,0 +1,80 @@
+package com.gklyphon.easy_pixel_tracking.services;
+
+import com.gklyphon.easy_pixel_tracking.config.RetentionProperties;
+import com.gklyphon.easy_pixel_tracking.models.TrackingPixel;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that a purge deletes every expired row of the tracking_pixel table over several chunks,
+ * and keeps the rows of the days that have not expired.
+ */
+@SpringBootTest(properties = "tracking.retention.delete-chunk-size=2")
+class RetentionServiceTests {
+
+	@Autowired
+	private IRetentionService retentionService;
+
+	@Autowired
+	private RetentionProperties retentionProperties;
+
+	@Autowired
+	private ITrackingPixelWriter trackingPixelWriter;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Test
+	void deletesExpiredRowsInChunks() {
+		LocalDateTime expired = LocalDateTime.now().minus(retentionProperties.getMaxAge()).minusDays(2);
+		LocalDateTime kept = LocalDateTime.now().minus(retentionProperties.getMaxAge()).plusDays(1);
+		List<Long> expiredIds = insert(expired, 5);
+		List<Long> keptIds = insert(kept, 1);
+		double purgedBefore = meterRegistry.get("tracking.retention.purged").tag("tier", "live").counter().count();
+
+		retentionProperties.setEnabled(true);
+		try {
+			assertThat(retentionService.purge()).isEqualTo(5);
+		} finally {
+			retentionProperties.setEnabled(false);
+		}
+
+		assertThat(remaining(expiredIds.get(0), keptIds.get(0))).containsExactlyElementsOf(keptIds);
+		assertThat(meterRegistry.get("tracking.retention.purged").tag("tier", "live").counter().count())
+				.isEqualTo(purgedBefore + 5);
+	}
+
+	/**
+	 * Writes tracking pixels created at the given time.
+	 *
+	 * @return their ids
+	 */
+	private List<Long> insert(LocalDateTime createdAt, int count) {
+		long last = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM tracking_pixel", Long.class);
+		List<TrackingPixel> trackingPixels = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			trackingPixels.add(new TrackingPixel.Builder().ip("10.4.0." + i).userAgent("retention-test").build());
+		}
+		trackingPixelWriter.writeAll(trackingPixels);
+		jdbcTemplate.update("UPDATE tracking_pixel SET created_at = ?, updated_at = ? WHERE id > ?",
+				createdAt, createdAt, last);
+		return jdbcTemplate.queryForList("SELECT id FROM tracking_pixel WHERE id > ? ORDER BY id", Long.class, last);
+	}
+
+	private List<Long> remaining(long from, long to) {
+		return jdbcTemplate.queryForList("SELECT id FROM tracking_pixel WHERE id BETWEEN ? AND ? ORDER BY id",
+				Long.class, from, to);
+	}
+}
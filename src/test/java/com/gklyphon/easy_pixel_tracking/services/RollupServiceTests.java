@@ -0,0 +1,102 @@
+package com.gklyphon.easy_pixel_tracking.services;
+
+import com.gklyphon.easy_pixel_tracking.config.RollupProperties;
+import com.gklyphon.easy_pixel_tracking.models.HitDimension;
+import com.gklyphon.easy_pixel_tracking.models.HitRollup;
+import com.gklyphon.easy_pixel_tracking.models.RollupGranularity;
+import com.gklyphon.easy_pixel_tracking.models.RollupPoint;
+import com.gklyphon.easy_pixel_tracking.models.TrackingPixel;
+import com.gklyphon.easy_pixel_tracking.repository.IHitRollupRepository;
+import com.gklyphon.easy_pixel_tracking.services.impl.RollupServiceImpl;
+import com.gklyphon.easy_pixel_tracking.utils.Hashing;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Checks that rollup counters are written once per hit across flushes, that values sharing a hash are never
+ * merged, and that memory and requests stay within their bounds.
+ */
+@SpringBootTest
+class RollupServiceTests {
+
+	private static final LocalDateTime HOUR = LocalDateTime.of(2020, 1, 1, 10, 0);
+
+	@Autowired
+	private IHitRollupRepository hitRollupRepository;
+
+	@Test
+	void writesEveryHitOnce() {
+		RollupServiceImpl rollupService = new RollupServiceImpl(hitRollupRepository, new RollupProperties(),
+				new SimpleMeterRegistry());
+
+		hit(rollupService, "https://once.example/", 3);
+		rollupService.flush();
+		hit(rollupService, "https://once.example/", 2);
+		rollupService.flush();
+		rollupService.flush();
+
+		assertThat(series(rollupService, "https://once.example/"))
+				.extracting(RollupPoint::getHits).containsExactly(5L);
+	}
+
+	@Test
+	void neverMergesValuesSharingAHash() {
+		MeterRegistry meterRegistry = new SimpleMeterRegistry();
+		RollupServiceImpl rollupService = new RollupServiceImpl(hitRollupRepository, new RollupProperties(),
+				meterRegistry);
+		String value = "https://collision.example/";
+		hitRollupRepository.save(new HitRollup(RollupGranularity.HOUR, HitDimension.REFERER, Hashing.hash64(value),
+				"https://other.example/", HOUR, 7));
+
+		hit(rollupService, value, 2);
+		rollupService.flush();
+
+		assertThat(series(rollupService, value)).isEmpty();
+		assertThat(hitRollupRepository.findAll())
+				.filteredOn(rollup -> rollup.getDimensionValue().equals("https://other.example/"))
+				.extracting(HitRollup::getHitCount).containsExactly(7L);
+		assertThat(meterRegistry.get("tracking.rollup.dropped").tag("reason", "collision").counter().count())
+				.isEqualTo(2);
+	}
+
+	@Test
+	void boundsCountersAndRequests() {
+		RollupProperties properties = new RollupProperties();
+		properties.setMaxCounters(12);
+		MeterRegistry meterRegistry = new SimpleMeterRegistry();
+		RollupServiceImpl rollupService = new RollupServiceImpl(hitRollupRepository, properties, meterRegistry);
+
+		// ALL, REFERER, CAMPAIGN, BROWSER, OPERATING_SYSTEM, DEVICE_CLASS and BOT, at three granularities.
+		hit(rollupService, "https://bounded.example/", 1);
+
+		assertThat(meterRegistry.get("tracking.rollup.counters").gauge().value()).isEqualTo(12);
+		assertThat(meterRegistry.get("tracking.rollup.dropped").tag("reason", "overflow").counter().count())
+				.isEqualTo(9);
+		assertThatThrownBy(() -> rollupService.getTimeSeries(RollupGranularity.HOUR, HitDimension.IP, "10.0.0.1",
+				HOUR, HOUR.plusHours(1))).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> rollupService.getTop(RollupGranularity.HOUR, HitDimension.REFERER,
+				HOUR, HOUR.plusHours(1), 0)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private static void hit(RollupServiceImpl rollupService, String referer, int times) {
+		for (int i = 0; i < times; i++) {
+			TrackingPixel trackingPixel = new TrackingPixel.Builder().ip("10.7.0.1").referer(referer).build();
+			trackingPixel.setCreatedAt(HOUR.plusMinutes(i));
+			rollupService.onHit(trackingPixel);
+		}
+	}
+
+	private static List<RollupPoint> series(RollupServiceImpl rollupService, String referer) {
+		return rollupService.getTimeSeries(RollupGranularity.HOUR, HitDimension.REFERER, referer,
+				HOUR, HOUR.plusHours(1));
+	}
+}
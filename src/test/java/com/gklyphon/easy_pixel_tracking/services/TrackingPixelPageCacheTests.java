@@ -0,0 +1,99 @@
+package com.gklyphon.easy_pixel_tracking.services;
+
+import com.gklyphon.easy_pixel_tracking.models.HitDimension;
+import com.gklyphon.easy_pixel_tracking.models.TrackingPixel;
+import com.gklyphon.easy_pixel_tracking.services.impl.TrackingPixelPageCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that updating or deleting a tracking pixel evicts only the cached pages that may include it,
+ * and that cached pages cannot be changed through the tracking pixels they serve.
+ */
+@SpringBootTest
+class TrackingPixelPageCacheTests {
+
+	private static final Pageable FIRST_PAGE = PageRequest.of(0, 10);
+
+	@Autowired
+	private ITrackingPixelService trackingPixelService;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	@Test
+	void evictsOnlyThePagesOfChangedValues() {
+		TrackingPixel first = trackingPixelService.save(pixel("10.6.0.1", "https://a.example/"));
+		TrackingPixel second = trackingPixelService.save(pixel("10.6.0.2", "https://b.example/"));
+		trackingPixelService.findByIpOrderByCreatedAt("10.6.0.1", FIRST_PAGE);
+		trackingPixelService.findByIpOrderByCreatedAt("10.6.0.2", FIRST_PAGE);
+		trackingPixelService.findByRefererOrderByCreatedAt("https://b.example/", FIRST_PAGE);
+
+		trackingPixelService.update(first.getId(), pixel("10.6.0.1", "https://c.example/"));
+
+		long hits = hits();
+		assertThat(trackingPixelService.findByIpOrderByCreatedAt("10.6.0.2", FIRST_PAGE).getContent()).hasSize(1);
+		assertThat(trackingPixelService.findByRefererOrderByCreatedAt("https://b.example/", FIRST_PAGE)
+				.getContent()).hasSize(1);
+		assertThat(hits()).isEqualTo(hits + 2);
+		assertThat(trackingPixelService.findByIpOrderByCreatedAt("10.6.0.1", FIRST_PAGE).getContent())
+				.extracting(TrackingPixel::getReferer).containsExactly("https://c.example/");
+		assertThat(hits()).isEqualTo(hits + 2);
+
+		trackingPixelService.deleteById(second.getId());
+
+		assertThat(trackingPixelService.findByIpOrderByCreatedAt("10.6.0.2", FIRST_PAGE).getContent()).isEmpty();
+		assertThat(trackingPixelService.findByRefererOrderByCreatedAt("https://b.example/", FIRST_PAGE)
+				.getContent()).isEmpty();
+		assertThat(trackingPixelService.findByIpOrderByCreatedAt("10.6.0.1", FIRST_PAGE).getContent()).hasSize(1);
+		assertThat(hits()).isEqualTo(hits + 3);
+	}
+
+	@Test
+	void evictsOnlyThePagesOfWrittenAttributes() {
+		trackingPixelService.findByClientOrderByCreatedAt(HitDimension.BOT, "true", FIRST_PAGE);
+		Page<TrackingPixel> people = trackingPixelService.findByClientOrderByCreatedAt(HitDimension.BOT, "false",
+				FIRST_PAGE);
+
+		TrackingPixel bot = pixel("10.6.1.1", "https://d.example/");
+		bot.setUserAgent("curl/8.5.0");
+		trackingPixelService.save(bot);
+
+		long hits = hits();
+		assertThat(trackingPixelService.findByClientOrderByCreatedAt(HitDimension.BOT, "FALSE", FIRST_PAGE)
+				.getTotalElements()).isEqualTo(people.getTotalElements());
+		assertThat(hits()).isEqualTo(hits + 1);
+		trackingPixelService.findByClientOrderByCreatedAt(HitDimension.BOT, "true", FIRST_PAGE);
+		assertThat(hits()).isEqualTo(hits + 1);
+	}
+
+	@Test
+	void servesCopiesOfCachedPixels() {
+		TrackingPixel saved = trackingPixelService.save(pixel("10.6.2.1", "https://e.example/"));
+		trackingPixelService.findByIpOrderByCreatedAt("10.6.2.1", FIRST_PAGE).getContent().get(0)
+				.setReferer("https://changed.example/");
+		trackingPixelService.findById(saved.getId()).setReferer("https://changed.example/");
+
+		assertThat(trackingPixelService.findByIpOrderByCreatedAt("10.6.2.1", FIRST_PAGE).getContent())
+				.extracting(TrackingPixel::getReferer).containsExactly("https://e.example/");
+		assertThat(trackingPixelService.findById(saved.getId()).getReferer()).isEqualTo("https://e.example/");
+	}
+
+	private static TrackingPixel pixel(String ip, String referer) {
+		return new TrackingPixel.Builder().ip(ip).userAgent("Mozilla/5.0 (X11; Linux x86_64) Firefox/128.0")
+				.referer(referer).build();
+	}
+
+	private long hits() {
+		CaffeineCache pages = (CaffeineCache) cacheManager.getCache(TrackingPixelPageCache.PAGES);
+		return pages.getNativeCache().stats().hitCount();
+	}
+}
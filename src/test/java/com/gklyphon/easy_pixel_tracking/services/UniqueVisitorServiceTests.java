@@ -0,0 +1,61 @@
+package com.gklyphon.easy_pixel_tracking.services;
+
+import com.gklyphon.easy_pixel_tracking.config.VisitorProperties;
+import com.gklyphon.easy_pixel_tracking.models.TrackingPixel;
+import com.gklyphon.easy_pixel_tracking.repository.IVisitorSketchRepository;
+import com.gklyphon.easy_pixel_tracking.services.impl.UniqueVisitorServiceImpl;
+import com.gklyphon.easy_pixel_tracking.utils.Hashing;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that hits needing a sketch beyond the memory budget are still counted, and that the sketches
+ * are written out and released instead.
+ */
+@SpringBootTest
+class UniqueVisitorServiceTests {
+
+	private static final LocalDate DAY = LocalDate.of(2020, 2, 1);
+
+	@Autowired
+	private IVisitorSketchRepository visitorSketchRepository;
+
+	@Test
+	void releasesSketchesOnceTheBudgetIsReached() {
+		VisitorProperties properties = new VisitorProperties();
+		properties.setMaxSketches(2);
+		MeterRegistry meterRegistry = new SimpleMeterRegistry();
+		UniqueVisitorServiceImpl visitorService = new UniqueVisitorServiceImpl(visitorSketchRepository, properties,
+				meterRegistry);
+
+		hit(visitorService, "10.8.0.1", "https://first.budget.example/");
+		hit(visitorService, "10.8.0.2", "https://second.budget.example/");
+		hit(visitorService, "10.8.0.3", "https://second.budget.example/");
+		visitorService.flush();
+
+		assertThat(meterRegistry.get("tracking.visitors.early-flushes").counter().count()).isPositive();
+		assertThat(meterRegistry.get("tracking.visitors.sketches").gauge().value()).isZero();
+		assertThat(visitorService.estimate("https://first.budget.example/", DAY, DAY)).isEqualTo(1);
+		assertThat(visitorService.estimate("https://second.budget.example/", DAY, DAY)).isEqualTo(2);
+		assertThat(visitorSketchRepository.findByRefererHashAndVisitDay(
+				Hashing.hash64("https://second.budget.example/"), DAY)).isPresent();
+
+		hit(visitorService, "10.8.0.4", "https://second.budget.example/");
+
+		assertThat(visitorService.estimate("https://second.budget.example/", DAY, DAY)).isEqualTo(3);
+		visitorService.stop();
+	}
+
+	private static void hit(UniqueVisitorServiceImpl visitorService, String ip, String referer) {
+		TrackingPixel trackingPixel = new TrackingPixel.Builder().ip(ip).referer(referer).build();
+		trackingPixel.setCreatedAt(DAY.atTime(12, 0));
+		visitorService.onHit(trackingPixel);
+	}
+}
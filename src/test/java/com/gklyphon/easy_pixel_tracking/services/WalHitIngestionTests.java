@@ -0,0 +1,233 @@
+package com.gklyphon.easy_pixel_tracking.services;
+
+import com.gklyphon.easy_pixel_tracking.EasyPixelTrackingApplication;
+import com.gklyphon.easy_pixel_tracking.models.TrackingPixel;
+import com.gklyphon.easy_pixel_tracking.services.impl.WalHitIngestionServiceImpl;
+import org.h2.tools.Server;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that hits accepted through the write-ahead log reach the database once,
+ * also when the replayer restarts from its checkpoint or its process is killed while writing.
+ */
+@SpringBootTest(properties = "tracking.wal.enabled=true")
+class WalHitIngestionTests {
+
+	@TempDir
+	static Path directory;
+
+	@DynamicPropertySource
+	static void walDirectory(DynamicPropertyRegistry registry) {
+		registry.add("tracking.wal.directory", directory::toString);
+	}
+
+	@Autowired
+	private WalHitIngestionServiceImpl hitIngestionService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void replaysEveryHitExactlyOnce() throws Exception {
+		long before = countHits();
+		for (int i = 0; i < 1_000; i++) {
+			assertThat(hitIngestionService.submit(new TrackingPixel.Builder()
+					.ip("10.0." + (i / 256) + "." + (i % 256))
+					.userAgent("wal-test")
+					.referer("https://example.com/" + i)
+					.build())).isTrue();
+		}
+		awaitUntil(() -> hitIngestionService.getPendingCount() == 0);
+		assertThat(countHits()).isEqualTo(before + 1_000);
+
+		hitIngestionService.stop();
+		hitIngestionService.start();
+		assertThat(hitIngestionService.submit(new TrackingPixel.Builder().ip("10.1.0.1").userAgent("wal-test").build()))
+				.isTrue();
+
+		// The hit logged after the restart is written once the replayer has passed the checkpoint.
+		awaitUntil(() -> hitIngestionService.getPendingCount() == 0 && countHits() >= before + 1_001);
+		assertThat(countHits()).isEqualTo(before + 1_001);
+	}
+
+	@Test
+	void keepsAcknowledgedHitsWhenKilledWhileReplaying(@TempDir Path log) throws Exception {
+		// The database outlives the killed processes, as a database server would.
+		Server server = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+		try {
+			String database = "jdbc:h2:tcp://localhost:" + server.getPort() + "/mem:wal-crash;DB_CLOSE_DELAY=-1";
+			replayUntilKilled(database, log);
+		} finally {
+			server.stop();
+		}
+	}
+
+	private static void replayUntilKilled(String database, Path log) throws Exception {
+
+		assertThat(run(database, log, Replayer.LOG, 1_000)).isEqualTo(1_000);
+		assertThat(countHits(database)).isZero();
+
+		// Killed once the second batch is committed, before the local checkpoint file is updated.
+		run(database, log, Replayer.AFTER_COMMIT, 0);
+		assertThat(countHits(database)).isEqualTo(200);
+
+		assertThat(run(database, log, Replayer.LOG, 1_000)).isEqualTo(1_000);
+		assertThat(countHits(database)).isEqualTo(200);
+
+		// Restarted behind the stored checkpoint, then killed with the second batch written but not committed.
+		run(database, log, Replayer.DURING_BATCH, 0);
+		assertThat(countHits(database)).isEqualTo(300);
+
+		run(database, log, Replayer.NONE, 0);
+		assertThat(countHits(database)).isEqualTo(2_000);
+	}
+
+	private long countHits() {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tracking_pixel", Long.class);
+	}
+
+	private static long countHits(String database) throws SQLException {
+		try (Connection connection = DriverManager.getConnection(database);
+			 ResultSet count = connection.createStatement().executeQuery("SELECT COUNT(*) FROM tracking_pixel")) {
+			count.next();
+			return count.getLong(1);
+		}
+	}
+
+	/**
+	 * Runs the application in a child process that either logs hits or replays the log until the given crash.
+	 *
+	 * @return the number of hits the child acknowledged
+	 */
+	private static long run(String database, Path log, String mode, int hits) throws Exception {
+		Process replayer = new ProcessBuilder(Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+				"-cp", System.getProperty("java.class.path"), Replayer.class.getName(),
+				database, log.toString(), mode, Integer.toString(hits))
+				.redirectError(ProcessBuilder.Redirect.INHERIT)
+				.start();
+		long acknowledged = -1;
+		try (BufferedReader output = new BufferedReader(new InputStreamReader(replayer.getInputStream(),
+				StandardCharsets.US_ASCII))) {
+			String line;
+			while ((line = output.readLine()) != null) {
+				if (line.startsWith(Replayer.ACKNOWLEDGED)) {
+					acknowledged = Long.parseLong(line.substring(Replayer.ACKNOWLEDGED.length()));
+				}
+			}
+		}
+		assertThat(replayer.waitFor(2, TimeUnit.MINUTES)).isTrue();
+		assertThat(replayer.exitValue()).isEqualTo(Replayer.NONE.equals(mode) ? 0 : Replayer.KILLED);
+		return acknowledged;
+	}
+
+	private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+		while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+			Thread.sleep(50);
+		}
+		assertThat(condition.getAsBoolean()).isTrue();
+	}
+
+	/**
+	 * Starts the application on the given database with the log enabled. In {@code log} mode it logs hits with the
+	 * replayer held back and is killed once they are acknowledged; otherwise it replays the log in full batches and
+	 * halts at the crash point of the second batch, or exits once every logged hit is stored.
+	 */
+	static final class Replayer {
+
+		static final String LOG = "log";
+		static final String NONE = "none";
+		static final String AFTER_COMMIT = "after-commit";
+		static final String DURING_BATCH = "during-batch";
+		static final String ACKNOWLEDGED = "acknowledged ";
+		static final int KILLED = 137;
+
+		private static final AtomicInteger batches = new AtomicInteger();
+
+		public static void main(String[] args) throws Exception {
+			String mode = args[2];
+			SpringApplication application = new SpringApplication(EasyPixelTrackingApplication.class);
+			application.addInitializers(context -> context.getBeanFactory().addBeanPostProcessor(new BeanPostProcessor() {
+				@Override
+				public Object postProcessAfterInitialization(Object bean, String beanName) {
+					return bean instanceof ITrackingPixelWriter writer ? crashing(writer, mode) : bean;
+				}
+			}));
+			ConfigurableApplicationContext context = application.run(
+					"--server.port=0",
+					"--spring.datasource.url=" + args[0],
+					"--spring.jpa.hibernate.ddl-auto=update",
+					"--tracking.wal.enabled=true",
+					"--tracking.wal.directory=" + args[1],
+					"--tracking.wal.segment-size=1MB",
+					"--tracking.wal.await-sync=true",
+					"--tracking.wal.sync-interval=1ms",
+					"--tracking.ingestion.batch-size=100");
+			WalHitIngestionServiceImpl hitIngestionService = context.getBean(WalHitIngestionServiceImpl.class);
+			long acknowledged = 0;
+			for (int i = 0; i < Integer.parseInt(args[3]); i++) {
+				if (hitIngestionService.submit(new TrackingPixel.Builder()
+						.ip("10.2." + (i / 256) + "." + (i % 256))
+						.userAgent("wal-crash-test")
+						.build())) {
+					acknowledged++;
+				}
+			}
+			System.out.println(ACKNOWLEDGED + acknowledged);
+			System.out.flush();
+			if (LOG.equals(mode)) {
+				Runtime.getRuntime().halt(KILLED);
+			}
+			awaitUntil(() -> hitIngestionService.getPendingCount() == 0);
+			context.close();
+			System.exit(0);
+		}
+
+		private static ITrackingPixelWriter crashing(ITrackingPixelWriter writer, String mode) {
+			return trackingPixels -> {
+				if (LOG.equals(mode)) {
+					throw new IllegalStateException("Replay held back while logging");
+				}
+				boolean second = batches.incrementAndGet() == 2;
+				writer.writeAll(trackingPixels);
+				if (second && DURING_BATCH.equals(mode)) {
+					Runtime.getRuntime().halt(KILLED);
+				}
+				if (second && AFTER_COMMIT.equals(mode)) {
+					TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+						@Override
+						public void afterCommit() {
+							Runtime.getRuntime().halt(KILLED);
+						}
+					});
+				}
+			};
+		}
+	}
+}
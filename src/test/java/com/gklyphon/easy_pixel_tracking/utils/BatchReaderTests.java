@@ -0,0 +1,125 @@
+package com.gklyphon.easy_pixel_tracking.utils;
+
+import com.gklyphon.easy_pixel_tracking.models.BatchFormat;
+import com.gklyphon.easy_pixel_tracking.models.TrackingPixel;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Checks that batch records are decoded and that a malformed record is skipped without losing the next one.
+ */
+class BatchReaderTests {
+
+	@Test
+	void readsNdjsonRecordsAndSkipsBlankLines() throws IOException {
+		BatchReader reader = reader(BatchFormat.NDJSON, ("{\"ip\":\"10.0.0.1\",\"userAgent\":\"curl/8.0\",\"extra\":[1,{}]}\r\n"
+				+ "\n"
+				+ "{\"createdAt\":\"2026-10-18T12:30:00\",\"ip\":\"::1\",\"referer\":null}").getBytes(StandardCharsets.UTF_8));
+
+		TrackingPixel first = reader.next();
+		assertThat(first.getIp()).isEqualTo("10.0.0.1");
+		assertThat(first.getUserAgent()).isEqualTo("curl/8.0");
+		assertThat(first.getCreatedAt()).isNull();
+		TrackingPixel second = reader.next();
+		assertThat(second.getIp()).isEqualTo("::1");
+		assertThat(second.getCreatedAt()).isEqualTo(LocalDateTime.of(2026, 10, 18, 12, 30));
+		assertThat(second.getReferer()).isNull();
+		assertThat(reader.next()).isNull();
+	}
+
+	@Test
+	void skipsMalformedNdjsonLines() throws IOException {
+		BatchReader reader = reader(BatchFormat.NDJSON, ("{\"ip\":\n"
+				+ "{\"ip\":42}\n"
+				+ "{\"ip\":\"10.0.0.2\"}\n").getBytes(StandardCharsets.UTF_8));
+
+		assertThatIllegalArgumentException().isThrownBy(reader::next).withMessageStartingWith("Malformed JSON");
+		assertThatIllegalArgumentException().isThrownBy(reader::next).withMessage("ip: expected a string");
+		assertThat(reader.next().getIp()).isEqualTo("10.0.0.2");
+		assertThat(reader.next()).isNull();
+	}
+
+	@Test
+	void rejectsLinesLongerThanTheLimit() throws IOException {
+		BatchReader reader = new BatchReader(BatchFormat.NDJSON, new ByteArrayInputStream(
+				("{\"ip\":\"10.0.0.1\",\"referer\":\"" + "x".repeat(100) + "\"}\n{\"ip\":\"10.0.0.3\"}\n")
+						.getBytes(StandardCharsets.UTF_8)), 64);
+
+		assertThatIllegalArgumentException().isThrownBy(reader::next).withMessage("Record is longer than 64 bytes");
+		assertThat(reader.next().getIp()).isEqualTo("10.0.0.3");
+	}
+
+	@Test
+	void readsBinaryRecords() throws IOException {
+		long millis = LocalDateTime.of(2026, 10, 18, 12, 30).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		writeBinary(out, millis, "10.0.0.1", "Mozilla/5.0", null);
+		out.writeShort(3);
+		out.write(new byte[] {1, 2, 3});
+		writeBinary(out, 0, "2001:db8::1", null, "https://example.com/\u00e9");
+
+		BatchReader reader = reader(BatchFormat.BINARY, bytes.toByteArray());
+
+		TrackingPixel first = reader.next();
+		assertThat(first.getCreatedAt()).isEqualTo(LocalDateTime.of(2026, 10, 18, 12, 30));
+		assertThat(first.getUserAgent()).isEqualTo("Mozilla/5.0");
+		assertThat(first.getReferer()).isNull();
+		assertThatIllegalArgumentException().isThrownBy(reader::next);
+		TrackingPixel third = reader.next();
+		assertThat(third.getCreatedAt()).isNull();
+		assertThat(third.getReferer()).isEqualTo("https://example.com/\u00e9");
+		assertThat(reader.next()).isNull();
+	}
+
+	@Test
+	void readsCampaignFields() throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		writeBinary(out, 0, "10.0.0.1", null, null, "spring-sale", null);
+		writeBinary(out, 0, "10.0.0.2", null, null, "spring-sale");
+
+		BatchReader binary = reader(BatchFormat.BINARY, bytes.toByteArray());
+		BatchReader ndjson = reader(BatchFormat.NDJSON,
+				"{\"ip\":\"10.0.0.3\",\"campaign\":\"spring-sale\",\"recipient\":\"r-42\"}".getBytes(StandardCharsets.UTF_8));
+
+		TrackingPixel first = binary.next();
+		assertThat(first.getCampaign()).isEqualTo("spring-sale");
+		assertThat(first.getRecipient()).isNull();
+		assertThatIllegalArgumentException().isThrownBy(binary::next).withMessage("recipient: missing");
+		TrackingPixel json = ndjson.next();
+		assertThat(json.getCampaign()).isEqualTo("spring-sale");
+		assertThat(json.getRecipient()).isEqualTo("r-42");
+	}
+
+	private static BatchReader reader(BatchFormat format, byte[] bytes) {
+		return new BatchReader(format, new ByteArrayInputStream(bytes), 1024);
+	}
+
+	private static void writeBinary(DataOutputStream out, long millis, String... values) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream record = new DataOutputStream(bytes);
+		record.writeLong(millis);
+		for (String value : values) {
+			if (value == null) {
+				record.writeShort(0xFFFF);
+			} else {
+				byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+				record.writeShort(utf8.length);
+				record.write(utf8);
+			}
+		}
+		out.writeShort(bytes.size());
+		bytes.writeTo(out);
+	}
+}
@@ -0,0 +1,183 @@
+package com.gklyphon.easy_pixel_tracking.utils;
+
+import com.gklyphon.easy_pixel_tracking.utils.ColumnarSegment.StringColumn;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Writes archive segments of synthetic hits and reads them back.
+ */
+class ColumnarSegmentTests {
+
+	private static final int ROWS = 100_000;
+
+	private static final String[] USER_AGENTS = {
+			"Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/124.0 Safari/537.36",
+			"Mozilla/5.0 (iPhone; CPU iPhone OS 17_4 like Mac OS X) AppleWebKit/605.1.15 (KHTML, like Gecko) Mobile/15E148",
+			"curl/8.7.1"
+	};
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void readsBackEveryColumn() throws IOException {
+		long start = ColumnarSegment.toMicros(LocalDateTime.of(2026, 9, 1, 0, 0));
+		ColumnarSegment.Builder builder = new ColumnarSegment.Builder();
+		builder.add(10, start, start, "10.0.0.1", USER_AGENTS[0], null);
+		builder.add(12, start, start + 5, "10.0.0.2", null, "https://example.com/a");
+		builder.add(11, start + 1, start + 1, "10.0.0.1", USER_AGENTS[0], "https://example.com/a");
+
+		ColumnarSegment segment = ColumnarSegment.open(builder.writeTo(directory.resolve("day.seg"), 0.01).getFile());
+		ColumnarSegment.Reader reader = segment.reader();
+
+		assertThat(segment.getRowCount()).isEqualTo(3);
+		assertThat(segment.getMinId()).isEqualTo(10);
+		assertThat(segment.getMaxId()).isEqualTo(12);
+		assertThat(reader.ids()).containsExactly(10, 12, 11);
+		assertThat(reader.createdAt()).containsExactly(start, start, start + 1);
+		assertThat(reader.updatedAt()).containsExactly(start, start + 5, start + 1);
+		assertThat(reader.column(StringColumn.USER_AGENT).value(1)).isNull();
+		assertThat(reader.column(StringColumn.REFERER).value(2)).isEqualTo("https://example.com/a");
+		assertThat(reader.column(StringColumn.IP).codeOf("10.0.0.1")).isEqualTo(reader.column(StringColumn.IP).code(2));
+		assertThat(reader.column(StringColumn.IP).codeOf("10.0.0.3")).isEqualTo(-1);
+	}
+
+	@Test
+	void readsBackCampaignColumns() throws IOException {
+		ColumnarSegment.Builder builder = new ColumnarSegment.Builder();
+		builder.add(1, 100, 100, "10.0.0.1", null, null, "spring-sale", "r-1");
+		builder.add(2, 101, 101, "10.0.0.2", null, null, null, null);
+		builder.add(3, 102, 102, "10.0.0.3", null, null, "spring-sale", "r-2");
+
+		ColumnarSegment segment = builder.writeTo(directory.resolve("day.seg"), 0.01);
+		ColumnarSegment.Reader reader = segment.reader();
+
+		assertThat(segment.mightContain(StringColumn.CAMPAIGN, "spring-sale")).isTrue();
+		assertThat(reader.column(StringColumn.CAMPAIGN).value(1)).isNull();
+		assertThat(reader.column(StringColumn.CAMPAIGN).code(2)).isEqualTo(reader.column(StringColumn.CAMPAIGN).code(0));
+		assertThat(reader.column(StringColumn.RECIPIENT).value(2)).isEqualTo("r-2");
+	}
+
+	@Test
+	void findsAddressesWithinARange() throws IOException {
+		ColumnarSegment.Builder builder = new ColumnarSegment.Builder();
+		builder.add(1, 100, 100, "10.0.0.9", null, null);
+		builder.add(2, 101, 101, "not-an-ip", null, null);
+		builder.add(3, 102, 102, null, null, null);
+		builder.add(4, 103, 103, "10.0.0.1", null, null);
+		builder.add(5, 104, 104, "10.0.1.1", null, null);
+
+		ColumnarSegment segment = ColumnarSegment.open(builder.writeTo(directory.resolve("ips.seg"), 0.01).getFile());
+		ColumnarSegment.Dictionary ips = segment.reader().column(StringColumn.IP);
+		IpAddresses.Range range = IpAddresses.parseCidr("10.0.0.0/24");
+
+		assertThat(segment.mightContainAddressBetween(range.low(), range.high())).isTrue();
+		assertThat(IntStream.of(ips.codesOfAddressesBetween(range.low(), range.high())).mapToObj(ips::valueOf))
+				.containsExactly("10.0.0.1", "10.0.0.9");
+		IpAddresses.Range outside = IpAddresses.parseCidr("192.168.0.0/16");
+		assertThat(segment.mightContainAddressBetween(outside.low(), outside.high())).isFalse();
+		assertThat(ips.codesOfAddressesBetween(outside.low(), outside.high())).isEmpty();
+	}
+
+	@Test
+	void bloomFiltersRuleOutAbsentValues() throws IOException {
+		ColumnarSegment segment = syntheticDay().writeTo(directory.resolve("day.seg"), 0.01);
+
+		assertThat(segment.mightContain(StringColumn.IP, "10.0.7.7")).isTrue();
+		assertThat(segment.mightContain(StringColumn.USER_AGENT, USER_AGENTS[2])).isTrue();
+		int falsePositives = 0;
+		for (int i = 0; i < 10_000; i++) {
+			if (segment.mightContain(StringColumn.REFERER, "https://other.example.org/" + i)) {
+				falsePositives++;
+			}
+		}
+		assertThat(falsePositives).isLessThan(300);
+	}
+
+	@Test
+	void isAtLeastTenTimesSmallerThanTheRowPayload() throws IOException {
+		ColumnarSegment segment = syntheticDay().writeTo(directory.resolve("day.seg"), 0.01);
+
+		long payload = 0;
+		ColumnarSegment.Reader reader = segment.reader();
+		for (int row = 0; row < ROWS; row++) {
+			payload += 3 * Long.BYTES + utf8Length(reader.column(StringColumn.IP).value(row))
+					+ utf8Length(reader.column(StringColumn.USER_AGENT).value(row))
+					+ utf8Length(reader.column(StringColumn.REFERER).value(row));
+		}
+		assertThat(payload / Files.size(segment.getFile())).isGreaterThanOrEqualTo(10);
+	}
+
+	@Test
+	void detectsCorruptColumns() throws IOException {
+		ColumnarSegment segment = syntheticDay().writeTo(directory.resolve("day.seg"), 0.01);
+		byte[] bytes = Files.readAllBytes(segment.getFile());
+		bytes[bytes.length - 8] ^= 0x55;
+		Files.write(segment.getFile(), bytes);
+
+		assertThatThrownBy(() -> ColumnarSegment.open(segment.getFile()).reader().column(StringColumn.RECIPIENT))
+				.isInstanceOf(IOException.class);
+	}
+
+	@Test
+	void rejectsOtherFormatVersions() throws IOException {
+		ColumnarSegment segment = syntheticDay().writeTo(directory.resolve("day.seg"), 0.01);
+		byte[] bytes = Files.readAllBytes(segment.getFile());
+		// The version follows the four magic bytes.
+		bytes[7]++;
+		Files.write(segment.getFile(), bytes);
+
+		assertThatThrownBy(() -> ColumnarSegment.open(segment.getFile()))
+				.isInstanceOf(IOException.class)
+				.hasMessageContaining("Unsupported columnar segment version 2");
+	}
+
+	@Test
+	void rejectsRowsOutOfOrder() {
+		ColumnarSegment.Builder builder = new ColumnarSegment.Builder();
+		builder.add(2, 100, 100, null, null, null);
+
+		assertThatThrownBy(() -> builder.add(1, 100, 100, null, null, null))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void convertsTimesWithMicrosecondPrecision() {
+		LocalDateTime time = LocalDateTime.of(1969, 12, 31, 23, 59, 59, 123_456_000);
+
+		assertThat(ColumnarSegment.fromMicros(ColumnarSegment.toMicros(time))).isEqualTo(time);
+	}
+
+	/**
+	 * One day of hits, a few every second, from a few hundred visitors across 25 sites.
+	 */
+	private static ColumnarSegment.Builder syntheticDay() {
+		Random random = new Random(42);
+		ColumnarSegment.Builder builder = new ColumnarSegment.Builder();
+		long time = ColumnarSegment.toMicros(LocalDateTime.of(2026, 9, 1, 0, 0));
+		for (int row = 0; row < ROWS; row++) {
+			time += random.nextInt(800_000);
+			String referer = random.nextInt(5) == 0 ? null
+					: "https://site" + random.nextInt(25) + ".example.com/page/" + random.nextInt(40);
+			builder.add(1_000 + row, time, time, "10.0." + random.nextInt(16) + "." + random.nextInt(32),
+					USER_AGENTS[random.nextInt(USER_AGENTS.length)], referer);
+		}
+		return builder;
+	}
+
+	private static int utf8Length(String value) {
+		return value == null ? 0 : value.getBytes(StandardCharsets.UTF_8).length;
+	}
+}
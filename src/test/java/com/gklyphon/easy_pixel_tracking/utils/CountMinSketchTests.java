@@ -0,0 +1,66 @@
+package com.gklyphon.easy_pixel_tracking.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Checks that Count-Min estimates never undercount, stay within the error bound, and merge like the
+ * sketch of the combined stream.
+ */
+class CountMinSketchTests {
+
+	private static final int VALUES = 10_000;
+
+	@Test
+	void estimatesWithinTheErrorBound() {
+		CountMinSketch sketch = new CountMinSketch(2048, 4);
+		for (int i = 0; i < VALUES; i++) {
+			sketch.add(Hashing.hash64("value-" + i), 1 + i % 5);
+		}
+		sketch.add(Hashing.hash64("heavy"), 5_000);
+
+		long errorBound = sketch.getErrorBound();
+		int outside = 0;
+		for (int i = 0; i < VALUES; i++) {
+			long estimate = sketch.estimate(Hashing.hash64("value-" + i));
+			assertThat(estimate).isGreaterThanOrEqualTo(1 + i % 5);
+			if (estimate > 1 + i % 5 + errorBound) {
+				outside++;
+			}
+		}
+		assertThat(sketch.getTotal()).isEqualTo(35_000);
+		assertThat(errorBound).isEqualTo((long) Math.ceil(Math.E / 2048 * 35_000));
+		assertThat(sketch.estimate(Hashing.hash64("heavy"))).isBetween(5_000L, 5_000L + errorBound);
+		// The bound may be exceeded with probability e^-4, under 2%.
+		assertThat(outside).isLessThan(VALUES / 50);
+	}
+
+	@Test
+	void mergesAndClears() {
+		CountMinSketch first = new CountMinSketch(64, 3);
+		CountMinSketch second = new CountMinSketch(64, 3);
+		CountMinSketch both = new CountMinSketch(64, 3);
+		for (int i = 0; i < 500; i++) {
+			long hash = Hashing.hash64("value-" + i);
+			(i % 2 == 0 ? first : second).add(hash, 2);
+			both.add(hash, 2);
+		}
+
+		first.merge(second);
+
+		assertThat(first.getTotal()).isEqualTo(both.getTotal());
+		for (int i = 0; i < 500; i++) {
+			long hash = Hashing.hash64("value-" + i);
+			assertThat(first.estimate(hash)).isEqualTo(both.estimate(hash));
+		}
+		assertThatThrownBy(() -> first.merge(new CountMinSketch(32, 3)))
+				.isInstanceOf(IllegalArgumentException.class);
+
+		first.clear();
+
+		assertThat(first.getTotal()).isZero();
+		assertThat(first.estimate(Hashing.hash64("value-1"))).isZero();
+	}
+}
@@ -0,0 +1,42 @@
+package com.gklyphon.easy_pixel_tracking.utils;
+
+import com.gklyphon.easy_pixel_tracking.models.ExportFormat;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the quoting and escaping of exported rows.
+ */
+class ExportWriterTests {
+
+	private static final LocalDateTime CREATED_AT = LocalDateTime.of(2026, 10, 18, 12, 30);
+
+	@Test
+	void writesCsvHeaderAndQuotesOnlyWhenNeeded() throws IOException {
+		String csv = write(ExportFormat.CSV, "Mozilla/5.0 (X11, \"Linux\")", null);
+
+		assertThat(csv).isEqualTo("id,createdAt,ip,userAgent,referer\r\n"
+				+ "7,2026-10-18T12:30:00,10.0.0.1,\"Mozilla/5.0 (X11, \"\"Linux\"\")\",\r\n");
+	}
+
+	@Test
+	void escapesJsonStringsAndWritesNulls() throws IOException {
+		String json = write(ExportFormat.NDJSON, "a\"b\\c\td\u0001", null);
+
+		assertThat(json).isEqualTo("{\"id\":7,\"createdAt\":\"2026-10-18T12:30:00\",\"ip\":\"10.0.0.1\","
+				+ "\"userAgent\":\"a\\\"b\\\\c\\td\\u0001\",\"referer\":null}\n");
+	}
+
+	private static String write(ExportFormat format, String userAgent, String referer) throws IOException {
+		StringWriter out = new StringWriter();
+		ExportWriter writer = new ExportWriter(format, out);
+		writer.begin();
+		writer.write(7, CREATED_AT, "10.0.0.1", userAgent, referer);
+		return out.toString();
+	}
+}
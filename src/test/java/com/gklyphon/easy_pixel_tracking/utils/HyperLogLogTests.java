@@ -0,0 +1,72 @@
+package com.gklyphon.easy_pixel_tracking.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Compares HyperLogLog estimates against exact counts of synthetic visitor IPs.
+ */
+class HyperLogLogTests {
+
+	private static final int PRECISION = 12;
+
+	/** Three standard errors at precision 12 (1.04 / sqrt(4096) ~ 1.6%). */
+	private static final double TOLERANCE = 0.05;
+
+	@Test
+	void estimatesSmallAndLargeCardinalities() {
+		for (int exact : new int[] {10, 1_000, 100_000, 1_000_000}) {
+			HyperLogLog sketch = sketchOf(0, exact);
+			assertThat((double) sketch.estimate()).isCloseTo(exact, within(Math.max(1.0, exact * TOLERANCE)));
+		}
+	}
+
+	@Test
+	void duplicateVisitorsAreCountedOnce() {
+		HyperLogLog sketch = new HyperLogLog(PRECISION);
+		for (int repeat = 0; repeat < 10; repeat++) {
+			for (int i = 0; i < 5_000; i++) {
+				sketch.add(Hashing.hash64(ip(i)));
+			}
+		}
+		assertThat((double) sketch.estimate()).isCloseTo(5_000, within(5_000 * TOLERANCE));
+	}
+
+	@Test
+	void mergeOfOverlappingDaysEstimatesTheUnion() {
+		HyperLogLog monday = sketchOf(0, 60_000);
+		HyperLogLog tuesday = sketchOf(40_000, 100_000);
+		monday.merge(tuesday);
+		assertThat((double) monday.estimate()).isCloseTo(100_000, within(100_000 * TOLERANCE));
+
+		long before = monday.estimate();
+		monday.merge(tuesday);
+		assertThat(monday.estimate()).isEqualTo(before);
+	}
+
+	@Test
+	void bytesRoundTrip() {
+		HyperLogLog sketch = sketchOf(0, 20_000);
+		byte[] bytes = sketch.toBytes();
+		HyperLogLog restored = HyperLogLog.fromBytes(bytes);
+
+		assertThat(bytes).hasSize((1 << PRECISION) + 1);
+		assertThat(restored.getPrecision()).isEqualTo(PRECISION);
+		assertThat(restored.estimate()).isEqualTo(sketch.estimate());
+		assertThat(restored.toBytes()).isEqualTo(bytes);
+	}
+
+	private static HyperLogLog sketchOf(int from, int to) {
+		HyperLogLog sketch = new HyperLogLog(PRECISION);
+		for (int i = from; i < to; i++) {
+			sketch.add(Hashing.hash64(ip(i)));
+		}
+		return sketch;
+	}
+
+	private static String ip(int i) {
+		return "10." + ((i >>> 16) & 0xFF) + "." + ((i >>> 8) & 0xFF) + "." + (i & 0xFF);
+	}
+}
@@ -0,0 +1,61 @@
+package com.gklyphon.easy_pixel_tracking.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Checks parsing, canonical formatting and network ranges of binary IP addresses.
+ */
+class IpAddressesTests {
+
+	@Test
+	void mapsIpv4AndFormatsItBack() {
+		byte[] address = IpAddresses.parse("10.0.0.1");
+
+		assertThat(address).hasSize(IpAddresses.LENGTH);
+		assertThat(IpAddresses.format(address)).isEqualTo("10.0.0.1");
+		assertThat(IpAddresses.normalize("::ffff:10.0.0.1")).isEqualTo("10.0.0.1");
+	}
+
+	@Test
+	void formatsIpv6Canonically() {
+		assertThat(IpAddresses.normalize("2001:DB8:0:0:0:0:0:1")).isEqualTo("2001:db8::1");
+		assertThat(IpAddresses.normalize("2001:db8:0:0:1:0:0:1")).isEqualTo("2001:db8::1:0:0:1");
+		assertThat(IpAddresses.normalize("::")).isEqualTo("::");
+	}
+
+	@Test
+	void rejectsWhatIsNotALiteral() {
+		assertThat(IpAddresses.parse("localhost")).isNull();
+		assertThat(IpAddresses.parse("256.0.0.1")).isNull();
+		assertThat(IpAddresses.parse("1::2::3")).isNull();
+		assertThat(IpAddresses.normalize("unknown")).isEqualTo("unknown");
+	}
+
+	@Test
+	void cidrCoversExactlyTheNetwork() {
+		IpAddresses.Range range = IpAddresses.parseCidr("10.0.0.0/8");
+
+		assertThat(contains(range, "10.0.0.0")).isTrue();
+		assertThat(contains(range, "10.255.255.255")).isTrue();
+		assertThat(contains(range, "11.0.0.0")).isFalse();
+		assertThat(contains(range, "9.255.255.255")).isFalse();
+		assertThat(contains(IpAddresses.parseCidr("2001:db8::/32"), "2001:db8:ffff::1")).isTrue();
+		assertThatThrownBy(() -> IpAddresses.parseCidr("10.0.0.0/33")).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void anonymizeZeroesTheHostBits() {
+		assertThat(IpAddresses.anonymize("192.168.1.77", 24, 128)).isEqualTo("192.168.1.0");
+		assertThat(IpAddresses.anonymize("2001:db8:1:2:3:4:5:6", 32, 48)).isEqualTo("2001:db8:1::");
+	}
+
+	private static boolean contains(IpAddresses.Range range, String ip) {
+		byte[] address = IpAddresses.parse(ip);
+		return Arrays.compareUnsigned(address, range.low()) >= 0 && Arrays.compareUnsigned(address, range.high()) <= 0;
+	}
+}
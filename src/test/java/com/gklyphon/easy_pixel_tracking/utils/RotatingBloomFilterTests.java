@@ -0,0 +1,48 @@
+package com.gklyphon.easy_pixel_tracking.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that values are remembered for one to two windows and that a full generation is rotated early.
+ */
+class RotatingBloomFilterTests {
+
+	private static final long SECOND = 1_000_000_000L;
+
+	@Test
+	void forgetsValuesAfterTwoWindows() {
+		RotatingBloomFilter filter = new RotatingBloomFilter(1_000, 0.001, Duration.ofSeconds(10), 0);
+
+		assertThat(filter.add(Hashing.mix64(1), 0)).isTrue();
+		assertThat(filter.add(Hashing.mix64(1), 9 * SECOND)).isFalse();
+		// Rotated at 10s: the value is still in the previous generation.
+		assertThat(filter.add(Hashing.mix64(2), 10 * SECOND)).isTrue();
+		assertThat(filter.add(Hashing.mix64(1), 15 * SECOND)).isFalse();
+		// Rotated again at 20s: the value is gone, the one added at 10s is not.
+		assertThat(filter.add(Hashing.mix64(1), 20 * SECOND)).isTrue();
+		assertThat(filter.add(Hashing.mix64(2), 20 * SECOND)).isFalse();
+
+		assertThat(filter.add(Hashing.mix64(2), 60 * SECOND)).isTrue();
+		assertThat(filter.getEarlyRotations()).isZero();
+	}
+
+	@Test
+	void rotatesEarlyWhenFull() {
+		RotatingBloomFilter filter = new RotatingBloomFilter(100, 0.01, Duration.ofHours(1), 0);
+
+		int accepted = 0;
+		for (long value = 0; value < 100_000; value++) {
+			if (filter.add(Hashing.mix64(value), 0)) {
+				accepted++;
+			}
+		}
+		// Without early rotation nearly every value past the first few thousand would be taken for a repeat.
+		assertThat(accepted).isGreaterThan(99_000);
+		assertThat(filter.getEarlyRotations()).isGreaterThanOrEqualTo(990);
+		assertThat(filter.add(Hashing.mix64(99_999), 0)).isFalse();
+	}
+}
@@ -0,0 +1,151 @@
+package com.gklyphon.easy_pixel_tracking.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that the segment log returns every acknowledged record exactly once, including after
+ * torn writes and after the writing process is killed.
+ */
+class SegmentLogTests {
+
+	private static final int RECORD_SIZE = 256;
+	private static final int RECORDS_PER_SEGMENT = 64;
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void readsRecordsAcrossSegments() throws IOException {
+		try (SegmentLog log = open()) {
+			for (long sequence = 1; sequence <= 200; sequence++) {
+				assertThat(log.append(payload(sequence))).isEqualTo(sequence);
+			}
+			assertRecords(log, 1, 200);
+		}
+		assertThat(segmentFiles()).hasSize(4);
+	}
+
+	@Test
+	void recoversUpToTornRecord() throws IOException {
+		try (SegmentLog log = open()) {
+			for (long sequence = 1; sequence <= 10; sequence++) {
+				log.append(payload(sequence));
+			}
+		}
+		try (RandomAccessFile file = new RandomAccessFile(segmentFiles().get(0).toFile(), "rw")) {
+			file.seek(7L * RECORD_SIZE + SegmentLog.HEADER_SIZE);
+			file.write(new byte[] {42, 42, 42});
+		}
+
+		try (SegmentLog log = open()) {
+			assertThat(log.getLastSequence()).isEqualTo(7);
+			assertRecords(log, 1, 7);
+			assertThat(log.append(payload(8))).isEqualTo(8);
+		}
+		try (SegmentLog log = open()) {
+			assertThat(log.getLastSequence()).isEqualTo(8);
+			assertRecords(log, 1, 8);
+		}
+	}
+
+	@Test
+	void deletesOnlySegmentsBeforeSequence() throws IOException {
+		try (SegmentLog log = open()) {
+			for (long sequence = 1; sequence <= 150; sequence++) {
+				log.append(payload(sequence));
+			}
+			log.deleteBefore(130);
+
+			assertThat(log.getFirstSequence()).isEqualTo(129);
+			assertRecords(log, 129, 150);
+		}
+		try (SegmentLog log = open()) {
+			assertThat(log.getFirstSequence()).isEqualTo(129);
+			assertThat(log.getLastSequence()).isEqualTo(150);
+		}
+	}
+
+	@Test
+	void keepsAcknowledgedRecordsWhenWriterIsKilled() throws Exception {
+		long acknowledged = 0;
+		for (int round = 0; round < 3; round++) {
+			Process writer = new ProcessBuilder(Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+					"-cp", System.getProperty("java.class.path"), Writer.class.getName(), directory.toString())
+					.redirectError(ProcessBuilder.Redirect.INHERIT)
+					.start();
+			try (BufferedReader acks = new BufferedReader(new InputStreamReader(writer.getInputStream(), StandardCharsets.US_ASCII))) {
+				String line;
+				int read = 0;
+				while (read < 5_000 && (line = acks.readLine()) != null) {
+					acknowledged = Long.parseLong(line);
+					read++;
+				}
+				writer.destroyForcibly().waitFor();
+			}
+
+			try (SegmentLog log = open()) {
+				assertThat(log.getLastSequence()).isGreaterThanOrEqualTo(acknowledged);
+				assertRecords(log, 1, log.getLastSequence());
+			}
+		}
+		assertThat(acknowledged).isGreaterThanOrEqualTo(15_000);
+	}
+
+	private SegmentLog open() throws IOException {
+		return SegmentLog.open(directory, RECORD_SIZE, RECORDS_PER_SEGMENT, 1);
+	}
+
+	private List<Path> segmentFiles() throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.sorted().toList();
+		}
+	}
+
+	private static void assertRecords(SegmentLog log, long from, long to) {
+		List<byte[]> records = log.read(from, (int) (to - from + 1));
+		assertThat(records).hasSize((int) (to - from + 1));
+		for (int i = 0; i < records.size(); i++) {
+			assertThat(records.get(i)).isEqualTo(payload(from + i));
+		}
+	}
+
+	/**
+	 * A payload that names its own sequence, so a misplaced or repeated record is detected.
+	 */
+	private static byte[] payload(long sequence) {
+		byte[] payload = new byte[8 + (int) (sequence % 100)];
+		Arrays.fill(payload, (byte) sequence);
+		ByteBuffer.wrap(payload).putLong(sequence);
+		return payload;
+	}
+
+	/**
+	 * Appends records until killed, printing the sequence of each record once {@code append} has returned.
+	 */
+	static final class Writer {
+
+		public static void main(String[] args) throws IOException {
+			SegmentLog log = SegmentLog.open(Path.of(args[0]), RECORD_SIZE, RECORDS_PER_SEGMENT, 1);
+			while (true) {
+				long sequence = log.append(payload(log.getLastSequence() + 1));
+				System.out.println(sequence);
+				System.out.flush();
+			}
+		}
+	}
+}
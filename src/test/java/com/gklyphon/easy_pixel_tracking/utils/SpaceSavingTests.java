@@ -0,0 +1,75 @@
+package com.gklyphon.easy_pixel_tracking.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that Space-Saving keeps every frequent value, bounds its counts by the true count plus the
+ * error it inherited, and orders its values by count.
+ */
+class SpaceSavingTests {
+
+	@Test
+	void keepsFrequentValuesWithinTheirError() {
+		SpaceSaving summary = new SpaceSaving(10);
+		Map<String, Long> exact = new HashMap<>();
+		Random random = new Random(7);
+		int total = 20_000;
+		for (int i = 0; i < total; i++) {
+			// A few heavy values in a long tail of rare ones.
+			String value = random.nextInt(4) == 0 ? "heavy-" + random.nextInt(3) : "rare-" + random.nextInt(5_000);
+			exact.merge(value, 1L, Long::sum);
+			summary.offer(value);
+		}
+
+		assertThat(summary.values()).hasSize(10).contains("heavy-0", "heavy-1", "heavy-2");
+		for (String value : summary.values()) {
+			long count = summary.count(value);
+			long trueCount = exact.getOrDefault(value, 0L);
+			assertThat(count).isGreaterThanOrEqualTo(trueCount);
+			assertThat(count - summary.error(value)).isLessThanOrEqualTo(trueCount);
+			assertThat(summary.error(value)).isLessThanOrEqualTo(total / 10);
+		}
+		assertThat(summary.count("absent")).isZero();
+		assertThat(summary.error("absent")).isZero();
+	}
+
+	@Test
+	void replacesTheLeastRecentlyCountedOfTheSmallest() {
+		SpaceSaving summary = new SpaceSaving(3);
+		offer(summary, "a", 3);
+		offer(summary, "b", 1);
+		offer(summary, "c", 1);
+
+		summary.offer("d");
+
+		assertThat(summary.values()).containsExactly("a", "d", "c");
+		assertThat(summary.count("d")).isEqualTo(2);
+		assertThat(summary.error("d")).isEqualTo(1);
+		assertThat(summary.count("b")).isZero();
+
+		// Ties are ordered most recently counted first.
+		offer(summary, "c", 2);
+
+		assertThat(summary.values()).containsExactly("c", "a", "d");
+		assertThat(summary.count("c")).isEqualTo(3);
+		assertThat(summary.error("c")).isZero();
+
+		summary.clear();
+
+		assertThat(summary.values()).isEmpty();
+		summary.offer("e");
+		assertThat(summary.values()).containsExactly("e");
+	}
+
+	private static void offer(SpaceSaving summary, String value, int times) {
+		for (int i = 0; i < times; i++) {
+			summary.offer(value);
+		}
+	}
+}
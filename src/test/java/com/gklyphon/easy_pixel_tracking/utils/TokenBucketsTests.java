@@ -0,0 +1,68 @@
+package com.gklyphon.easy_pixel_tracking.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the refill arithmetic of the token buckets and that a full table keeps limiting active keys.
+ */
+class TokenBucketsTests {
+
+	private static final long SECOND = 1_000_000_000L;
+
+	@Test
+	void allowsBurstThenRefillsAtRate() {
+		TokenBuckets buckets = new TokenBuckets(16, 2, 3);
+		long now = 42;
+
+		for (int i = 0; i < 3; i++) {
+			assertThat(buckets.tryAcquire(7, now)).isTrue();
+		}
+		assertThat(buckets.tryAcquire(7, now)).isFalse();
+		assertThat(buckets.tryAcquire(8, now)).isTrue();
+
+		now += SECOND / 2;
+		assertThat(buckets.tryAcquire(7, now)).isTrue();
+		assertThat(buckets.tryAcquire(7, now)).isFalse();
+
+		now += 10 * SECOND;
+		for (int i = 0; i < 3; i++) {
+			assertThat(buckets.tryAcquire(7, now)).isTrue();
+		}
+		assertThat(buckets.tryAcquire(7, now)).isFalse();
+	}
+
+	@Test
+	void replacesIdleBucketsWhenFull() {
+		TokenBuckets buckets = new TokenBuckets(8, 1, 1);
+		long now = 0;
+
+		for (long key = 1; key <= 1_000; key++) {
+			assertThat(buckets.tryAcquire(Hashing.mix64(key), now)).isTrue();
+			assertThat(buckets.tryAcquire(Hashing.mix64(key), now)).isFalse();
+			now += SECOND;
+		}
+		assertThat(buckets.size()).isEqualTo(8);
+	}
+
+	@Test
+	void keepsLimitingAKeyFloodedWithNewKeys() {
+		TokenBuckets buckets = new TokenBuckets(8, 1, 3);
+		long now = 0;
+		for (int i = 0; i < 3; i++) {
+			assertThat(buckets.tryAcquire(7, now)).isTrue();
+		}
+
+		// Every new key probes the slot of the limited one, which has not refilled yet.
+		for (long key = 100; key < 10_000; key++) {
+			buckets.tryAcquire(key, now);
+		}
+		assertThat(buckets.tryAcquire(7, now)).isFalse();
+		assertThat(buckets.tryAcquire(10_000, now)).isFalse();
+
+		now += 3 * SECOND;
+		assertThat(buckets.tryAcquire(12_345, now)).isTrue();
+		assertThat(buckets.size()).isEqualTo(8);
+	}
+}
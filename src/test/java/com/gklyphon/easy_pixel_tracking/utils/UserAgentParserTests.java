@@ -0,0 +1,87 @@
+package com.gklyphon.easy_pixel_tracking.utils;
+
+import com.gklyphon.easy_pixel_tracking.models.BrowserFamily;
+import com.gklyphon.easy_pixel_tracking.models.DeviceClass;
+import com.gklyphon.easy_pixel_tracking.models.OperatingSystem;
+import com.gklyphon.easy_pixel_tracking.models.UserAgentInfo;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the classification of common user agents and the matching of overlapping patterns.
+ */
+class UserAgentParserTests {
+
+	private final UserAgentParser parser = new UserAgentParser();
+
+	@Test
+	void mostSpecificBrowserWins() {
+		assertThat(parser.parse("Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) "
+				+ "Chrome/124.0.0.0 Safari/537.36 Edg/124.0.0.0"))
+				.isEqualTo(new UserAgentInfo(BrowserFamily.EDGE, (short) 124, OperatingSystem.WINDOWS, DeviceClass.DESKTOP, false));
+		assertThat(parser.parse("Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) "
+				+ "Chrome/124.0.0.0 Safari/537.36"))
+				.isEqualTo(new UserAgentInfo(BrowserFamily.CHROME, (short) 124, OperatingSystem.WINDOWS, DeviceClass.DESKTOP, false));
+	}
+
+	@Test
+	void readsSafariAndInternetExplorerVersionsFromTheirOwnTokens() {
+		assertThat(parser.parse("Mozilla/5.0 (iPhone; CPU iPhone OS 17_4 like Mac OS X) AppleWebKit/605.1.15 "
+				+ "(KHTML, like Gecko) Version/17.4 Mobile/15E148 Safari/604.1"))
+				.isEqualTo(new UserAgentInfo(BrowserFamily.SAFARI, (short) 17, OperatingSystem.IOS, DeviceClass.MOBILE, false));
+		assertThat(parser.parse("Mozilla/5.0 (Windows NT 10.0; WOW64; Trident/7.0; rv:11.0) like Gecko").browserVersion())
+				.isEqualTo((short) 11);
+	}
+
+	@Test
+	void classifiesTablets() {
+		assertThat(parser.parse("Mozilla/5.0 (iPad; CPU OS 17_4 like Mac OS X) AppleWebKit/605.1.15 "
+				+ "(KHTML, like Gecko) Version/17.4 Mobile/15E148 Safari/604.1").device()).isEqualTo(DeviceClass.TABLET);
+		assertThat(parser.parse("Mozilla/5.0 (Linux; Android 13; SM-X700) AppleWebKit/537.36 (KHTML, like Gecko) "
+				+ "SamsungBrowser/23.0 Chrome/115.0.0.0 Safari/537.36"))
+				.isEqualTo(new UserAgentInfo(BrowserFamily.SAMSUNG_INTERNET, (short) 23, OperatingSystem.ANDROID,
+						DeviceClass.TABLET, false));
+	}
+
+	@Test
+	void flagsBotsAndMissingUserAgents() {
+		assertThat(parser.parse("Mozilla/5.0 (compatible; Googlebot/2.1; +http://www.google.com/bot.html)").bot()).isTrue();
+		assertThat(parser.parse("curl/8.7.1").device()).isEqualTo(DeviceClass.BOT);
+		assertThat(parser.parse("Mozilla/5.0 (X11; Linux x86_64) HeadlessChrome/124.0.0.0 Safari/537.36").bot()).isTrue();
+		assertThat(parser.parse(null)).isEqualTo(UserAgentParser.MISSING);
+		assertThat(parser.parse(" ").bot()).isTrue();
+	}
+
+	@Test
+	void matchesTheBotTokenOnlyAsAWordOrProductName() {
+		assertThat(parser.parse("Twitterbot/1.0").bot()).isTrue();
+		assertThat(parser.parse("AdsBot-Google").bot()).isTrue();
+		assertThat(parser.parse("Mozilla/5.0 (compatible; bot)").bot()).isTrue();
+		assertThat(parser.parse("Mozilla/5.0 (Linux; Android 10; CUBOT X30) AppleWebKit/537.36 (KHTML, like Gecko) "
+				+ "Chrome/124.0.0.0 Mobile Safari/537.36"))
+				.isEqualTo(new UserAgentInfo(BrowserFamily.CHROME, (short) 124, OperatingSystem.ANDROID, DeviceClass.MOBILE, false));
+	}
+
+	@Test
+	void automatonFindsOverlappingPatternsIgnoringCase() {
+		AhoCorasick matcher = new AhoCorasick(List.of("he", "she", "his", "hers", "she"));
+		List<String> found = new ArrayList<>();
+		String text = "uSHErs";
+		int state = AhoCorasick.ROOT;
+		for (int i = 0; i < text.length(); i++) {
+			state = matcher.next(state, text.charAt(i));
+			int[] matches = matcher.matches(state);
+			if (matches != null) {
+				for (int pattern : matches) {
+					found.add(pattern + "@" + i);
+				}
+			}
+		}
+
+		assertThat(found).containsExactlyInAnyOrder("1@3", "4@3", "0@3", "3@5");
+	}
+}